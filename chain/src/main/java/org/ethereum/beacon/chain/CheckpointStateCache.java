@@ -0,0 +1,200 @@
+package org.ethereum.beacon.chain;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import org.ethereum.beacon.chain.storage.BeaconTupleStorage;
+import org.ethereum.beacon.consensus.BeaconChainSpec;
+import org.ethereum.beacon.core.BeaconState;
+import org.ethereum.beacon.core.MutableBeaconState;
+import org.ethereum.beacon.core.state.Checkpoint;
+import org.ethereum.beacon.core.types.EpochNumber;
+import org.ethereum.beacon.core.types.SlotNumber;
+
+/**
+ * Bounded cache of states upon checkpoints, i.e. states of checkpoint root block processed up to
+ * the start slot of checkpoint epoch.
+ *
+ * <p>A state is computed once even if it's requested by several threads simultaneously, other
+ * threads wait for the result of the first one, such requests are counted as waits rather than
+ * misses. Least recently used entries are evicted once
+ * capacity is exceeded, entries older than finalized epoch are removed with {@link
+ * #prune(EpochNumber)}.
+ *
+ * <p>Shared by fork choice and attestation processing.
+ */
+public class CheckpointStateCache {
+
+  public static final int DEFAULT_CAPACITY = 32;
+
+  private final BeaconChainSpec spec;
+  private final BeaconTupleStorage tupleStorage;
+
+  private final Map<Checkpoint, BeaconState> states;
+  private final Map<Checkpoint, CompletableFuture<Optional<BeaconState>>> inFlight =
+      new HashMap<>();
+
+  private final AtomicLong hits = new AtomicLong(0);
+  private final AtomicLong misses = new AtomicLong(0);
+  private final AtomicLong waits = new AtomicLong(0);
+  private final AtomicLong computeCount = new AtomicLong(0);
+  private final AtomicLong computeTime = new AtomicLong(0);
+  private final AtomicLong evictions = new AtomicLong(0);
+
+  public CheckpointStateCache(BeaconChainSpec spec, BeaconTupleStorage tupleStorage) {
+    this(spec, tupleStorage, DEFAULT_CAPACITY);
+  }
+
+  public CheckpointStateCache(
+      BeaconChainSpec spec, BeaconTupleStorage tupleStorage, int capacity) {
+    this.spec = spec;
+    this.tupleStorage = tupleStorage;
+    this.states =
+        new LinkedHashMap<Checkpoint, BeaconState>(capacity + 1, .75F, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Checkpoint, BeaconState> eldest) {
+            if (size() > capacity) {
+              evictions.incrementAndGet();
+              return true;
+            }
+            return false;
+          }
+        };
+  }
+
+  /**
+   * Returns a state upon checkpoint computing it if it's not in the cache.
+   *
+   * @param checkpoint checkpoint.
+   * @return the state or nothing if checkpoint root block is unknown.
+   */
+  public Optional<BeaconState> get(Checkpoint checkpoint) {
+    CompletableFuture<Optional<BeaconState>> future;
+    boolean owner = false;
+    synchronized (this) {
+      BeaconState state = states.get(checkpoint);
+      if (state != null) {
+        hits.incrementAndGet();
+        return Optional.of(state);
+      }
+      future = inFlight.get(checkpoint);
+      if (future == null) {
+        misses.incrementAndGet();
+        future = new CompletableFuture<>();
+        inFlight.put(checkpoint, future);
+        owner = true;
+      } else {
+        waits.incrementAndGet();
+      }
+    }
+
+    if (owner) {
+      try {
+        Optional<BeaconState> state = compute(checkpoint);
+        synchronized (this) {
+          state.ifPresent(s -> states.put(checkpoint, s));
+          inFlight.remove(checkpoint);
+        }
+        future.complete(state);
+      } catch (RuntimeException e) {
+        synchronized (this) {
+          inFlight.remove(checkpoint);
+        }
+        future.completeExceptionally(e);
+        throw e;
+      }
+    }
+
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  /** Returns a state only if it's already in the cache. */
+  public synchronized Optional<BeaconState> getExisting(Checkpoint checkpoint) {
+    return Optional.ofNullable(states.get(checkpoint));
+  }
+
+  /** Puts a state which has been computed elsewhere. */
+  public synchronized void put(Checkpoint checkpoint, BeaconState state) {
+    states.put(checkpoint, state);
+  }
+
+  /**
+   * Removes states of checkpoints with epoch older than given one.
+   *
+   * @param finalizedEpoch finalized epoch.
+   * @return number of removed entries.
+   */
+  public synchronized int prune(EpochNumber finalizedEpoch) {
+    int size = states.size();
+    states.keySet().removeIf(checkpoint -> checkpoint.getEpoch().less(finalizedEpoch));
+    return size - states.size();
+  }
+
+  private Optional<BeaconState> compute(Checkpoint checkpoint) {
+    long s = System.nanoTime();
+    Optional<BeaconState> state =
+        tupleStorage
+            .get(checkpoint.getRoot())
+            .map(
+                tuple -> {
+                  SlotNumber epochStart = spec.compute_start_slot_at_epoch(checkpoint.getEpoch());
+                  if (tuple.getState().getSlot().equals(epochStart)) {
+                    return tuple.getState();
+                  }
+                  MutableBeaconState mutableState = tuple.getState().createMutableCopy();
+                  spec.process_slots(mutableState, epochStart);
+                  return mutableState.createImmutable();
+                });
+    computeCount.incrementAndGet();
+    computeTime.addAndGet(System.nanoTime() - s);
+    return state;
+  }
+
+  public synchronized int size() {
+    return states.size();
+  }
+
+  public long getHits() {
+    return hits.get();
+  }
+
+  public long getMisses() {
+    return misses.get();
+  }
+
+  /** @return number of requests which have waited for a state computed by another thread. */
+  public long getWaits() {
+    return waits.get();
+  }
+
+  public long getEvictions() {
+    return evictions.get();
+  }
+
+  public long getComputeCount() {
+    return computeCount.get();
+  }
+
+  /** @return total time spent on state computation, in nanoseconds. */
+  public long getComputeTime() {
+    return computeTime.get();
+  }
+
+  /** @return ratio of requests which haven't computed a state, waits are counted as hits. */
+  public double getHitRatio() {
+    long served = hits.get() + waits.get();
+    long queries = served + misses.get();
+    return queries == 0 ? 0 : (double) served / queries;
+  }
+}
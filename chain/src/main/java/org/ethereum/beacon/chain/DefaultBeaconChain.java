@@ -143,10 +143,13 @@ public class DefaultBeaconChain implements MutableBeaconChain {
     }
 
     BeaconTuple newTuple = BeaconTuple.of(block, postBlockState);
-    tupleStorage.put(newTuple);
-    updateFinality(parentState, postBlockState);
+    // storage could be pruned in background, see BeaconChainStorageImpl
+    synchronized (chainStorage) {
+      tupleStorage.put(newTuple);
+      updateFinality(parentState, postBlockState);
 
-    chainStorage.commit();
+      chainStorage.commit();
+    }
 
     long total = System.nanoTime() - s;
 
@@ -1,8 +1,6 @@
 package org.ethereum.beacon.chain;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -30,17 +28,20 @@ public class LMDGhostHeadFunction implements HeadFunction {
 
   private final BeaconChainStorage chainStorage;
   private final BeaconChainSpec spec;
-  private final Map<Checkpoint, BeaconState> checkpointStorage = new HashMap<>();
+  private final CheckpointStateCache checkpointStateCache;
   private final int SEARCH_LIMIT = Integer.MAX_VALUE;
 
   public LMDGhostHeadFunction(BeaconChainStorage chainStorage, BeaconChainSpec spec) {
+    this(chainStorage, spec, new CheckpointStateCache(spec, chainStorage.getTupleStorage()));
+  }
+
+  public LMDGhostHeadFunction(
+      BeaconChainStorage chainStorage,
+      BeaconChainSpec spec,
+      CheckpointStateCache checkpointStateCache) {
     this.chainStorage = chainStorage;
     this.spec = spec;
-
-    Checkpoint justifiedCheckpoint = chainStorage.getJustifiedStorage().get().get();
-    checkpointStorage.put(
-        justifiedCheckpoint,
-        chainStorage.getTupleStorage().get(justifiedCheckpoint.getRoot()).get().getState());
+    this.checkpointStateCache = checkpointStateCache;
   }
 
   @Override
@@ -108,12 +109,12 @@ public class LMDGhostHeadFunction implements HeadFunction {
 
       @Override
       public Optional<BeaconState> getCheckpointState(Checkpoint checkpoint) {
-        return Optional.ofNullable(checkpointStorage.getOrDefault(checkpoint, null));
+        return checkpointStateCache.get(checkpoint);
       }
 
       @Override
       public void setCheckpointState(Checkpoint checkpoint, BeaconState state) {
-        checkpointStorage.put(checkpoint, state);
+        checkpointStateCache.put(checkpoint, state);
       }
 
       @Override
@@ -0,0 +1,147 @@
+package org.ethereum.beacon.chain;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.ethereum.beacon.chain.forkchoice.ProtoArray;
+import org.ethereum.beacon.chain.forkchoice.VoteTracker;
+import org.ethereum.beacon.chain.storage.BeaconChainStorage;
+import org.ethereum.beacon.consensus.BeaconChainSpec;
+import org.ethereum.beacon.consensus.HeadFunction;
+import org.ethereum.beacon.consensus.spec.ForkChoice.LatestMessage;
+import org.ethereum.beacon.core.BeaconBlock;
+import org.ethereum.beacon.core.BeaconState;
+import org.ethereum.beacon.core.state.Checkpoint;
+import org.ethereum.beacon.core.types.SlotNumber;
+import org.ethereum.beacon.core.types.ValidatorIndex;
+import tech.pegasys.artemis.ethereum.core.Hash32;
+
+/**
+ * LMD-GHOST head function backed by {@link ProtoArray}.
+ *
+ * <p>Unlike {@link LMDGhostHeadFunction} which walks the tree from the justified root and
+ * recalculates attesting balances of every child on each call, this implementation keeps the
+ * weights in the tree and applies only the deltas of the votes changed since the previous call.
+ * Hence, latest message storage passed to {@link #getHead(Function)} must be a {@link
+ * VoteTracker}, the same instance is expected on each call.
+ *
+ * <p>Blocks are fed to the tree with {@link #onNewBlock(BeaconBlock, BeaconState)}, the tree is
+ * pruned each time finalized checkpoint is changed.
+ */
+public class ProtoArrayHeadFunction implements HeadFunction {
+  private static final Logger logger = LogManager.getLogger(ProtoArrayHeadFunction.class);
+
+  private final BeaconChainStorage chainStorage;
+  private final BeaconChainSpec spec;
+  private final ProtoArray protoArray;
+  private final CheckpointStateCache checkpointStateCache;
+
+  private Checkpoint justifiedCheckpoint;
+  private long[] justifiedBalances;
+
+  public ProtoArrayHeadFunction(
+      BeaconChainStorage chainStorage,
+      BeaconChainSpec spec,
+      CheckpointStateCache checkpointStateCache) {
+    this.chainStorage = chainStorage;
+    this.spec = spec;
+    this.checkpointStateCache = checkpointStateCache;
+
+    Checkpoint finalized =
+        chainStorage
+            .getFinalizedStorage()
+            .get()
+            .orElseThrow(() -> new IllegalStateException("Finalized checkpoint is not found"));
+    this.protoArray = new ProtoArray(finalized.getRoot());
+    loadBlocks(finalized.getRoot());
+  }
+
+  /** Fills the tree with blocks stored after the anchor. */
+  private void loadBlocks(Hash32 anchorRoot) {
+    BeaconBlock anchor =
+        chainStorage
+            .getBlockStorage()
+            .get(anchorRoot)
+            .orElseThrow(() -> new IllegalStateException("Anchor block is not found"));
+    SlotNumber maxSlot = chainStorage.getBlockStorage().getMaxSlot();
+    for (SlotNumber slot = anchor.getSlot().increment();
+        slot.lessEqual(maxSlot);
+        slot = slot.increment()) {
+      for (Hash32 root : chainStorage.getBlockStorage().getSlotBlocks(slot)) {
+        chainStorage
+            .getBlockStorage()
+            .get(root)
+            .ifPresent(block -> protoArray.onBlock(root, block.getParentRoot()));
+      }
+    }
+  }
+
+  @Override
+  public void onNewBlock(BeaconBlock block, BeaconState postState) {
+    protoArray.onBlock(spec.signing_root(block), block.getParentRoot());
+  }
+
+  @Override
+  public synchronized BeaconBlock getHead(
+      Function<ValidatorIndex, Optional<LatestMessage>> latestMessageStorage) {
+    if (!(latestMessageStorage instanceof VoteTracker)) {
+      throw new IllegalArgumentException(
+          "Proto array head function requires VoteTracker as latest message storage");
+    }
+    VoteTracker voteTracker = (VoteTracker) latestMessageStorage;
+
+    Checkpoint justified =
+        chainStorage
+            .getJustifiedStorage()
+            .get()
+            .orElseThrow(() -> new RuntimeException("Justified root is not found"));
+    Checkpoint finalized =
+        chainStorage
+            .getFinalizedStorage()
+            .get()
+            .orElseThrow(() -> new RuntimeException("Finalized root is not found"));
+
+    if (!finalized.getRoot().equals(protoArray.getAnchorRoot())
+        && protoArray.contains(finalized.getRoot())) {
+      int removed = protoArray.prune(finalized.getRoot());
+      logger.debug("Fork choice tree pruned at {}, {} nodes removed", finalized, removed);
+    }
+
+    long[] balances = getJustifiedBalances(justified);
+    protoArray.applyDeltas(voteTracker.computeDeltas(balances, protoArray::contains));
+
+    Hash32 headRoot = protoArray.findHead(justified.getRoot());
+    return chainStorage
+        .getBlockStorage()
+        .get(headRoot)
+        .orElseThrow(() -> new IllegalStateException("Head block is not found: " + headRoot));
+  }
+
+  /**
+   * Effective balances of validators that are active in justified checkpoint state, zero for
+   * others. Recalculated once justified checkpoint is changed.
+   */
+  private long[] getJustifiedBalances(Checkpoint checkpoint) {
+    if (checkpoint.equals(justifiedCheckpoint)) {
+      return justifiedBalances;
+    }
+
+    BeaconState state =
+        checkpointStateCache
+            .get(checkpoint)
+            .orElseThrow(() -> new IllegalStateException("Justified block is not found"));
+    long[] balances = new long[state.getValidators().size().getIntValue()];
+    List<ValidatorIndex> activeIndices =
+        spec.get_active_validator_indices(state, spec.get_current_epoch(state));
+    for (ValidatorIndex index : activeIndices) {
+      balances[index.getIntValue()] =
+          state.getValidators().get(index).getEffectiveBalance().getValue();
+    }
+
+    this.justifiedCheckpoint = checkpoint;
+    this.justifiedBalances = balances;
+    return balances;
+  }
+}
@@ -0,0 +1,247 @@
+package org.ethereum.beacon.chain.forkchoice;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import tech.pegasys.artemis.ethereum.core.Hash32;
+
+/**
+ * Proto-array block tree used by the fork choice.
+ *
+ * <p>Blocks are kept in a flat array where a parent always precedes its children. Every node
+ * maintains the latest attesting balance of its subtree (its weight), a pointer to its heaviest
+ * child and a pointer to the leaf which LMD-GHOST would reach starting from this node (its best
+ * descendant). Weight changes are propagated from a node up to the anchor, thus a single vote
+ * update costs O(depth) while head lookup is O(1).
+ *
+ * <p>Ties between children of equal weight are broken by the greater root, as in the spec.
+ *
+ * @see <a
+ *     href="https://github.com/protolambda/lmd-ghost#array-based-stateful-dag-proto_array">Proto
+ *     array</a>
+ */
+public class ProtoArray {
+
+  private static final int NONE = -1;
+
+  private final List<Node> nodes = new ArrayList<>();
+  private final Map<Hash32, Integer> indices = new HashMap<>();
+
+  /**
+   * Creates a tree with a single anchor node, normally it's the finalized block.
+   *
+   * @param anchorRoot root of anchor block.
+   */
+  public ProtoArray(Hash32 anchorRoot) {
+    addNode(new Node(anchorRoot, NONE));
+  }
+
+  /**
+   * Adds a block to the tree.
+   *
+   * @param root block root.
+   * @param parentRoot parent block root.
+   * @return {@code true} if block has been added, {@code false} if block is already known or its
+   *     parent is not in the tree.
+   */
+  public synchronized boolean onBlock(Hash32 root, Hash32 parentRoot) {
+    if (indices.containsKey(root)) {
+      return false;
+    }
+    Integer parentIndex = indices.get(parentRoot);
+    if (parentIndex == null) {
+      return false;
+    }
+
+    int index = addNode(new Node(root, parentIndex));
+    nodes.get(parentIndex).addChild(index);
+    propagate(index, 0);
+
+    return true;
+  }
+
+  /**
+   * Adds weight delta to the block and all its ancestors. Unknown roots are ignored, that's the
+   * case for votes pointing to blocks which are not imported yet or have been pruned.
+   *
+   * @param root block root.
+   * @param delta weight delta in Gwei, could be negative.
+   */
+  public synchronized void applyDelta(Hash32 root, long delta) {
+    if (delta == 0) {
+      return;
+    }
+    Integer index = indices.get(root);
+    if (index == null) {
+      return;
+    }
+    propagate(index, delta);
+  }
+
+  /**
+   * Applies a batch of weight deltas, see {@link #applyDelta(Hash32, long)}.
+   *
+   * @param deltas weight delta per block root.
+   */
+  public synchronized void applyDeltas(Map<Hash32, Long> deltas) {
+    for (Map.Entry<Hash32, Long> delta : deltas.entrySet()) {
+      applyDelta(delta.getKey(), delta.getValue());
+    }
+  }
+
+  /**
+   * Looks up the head among descendants of given root.
+   *
+   * @param justifiedRoot justified block root.
+   * @return head block root.
+   * @throws IllegalArgumentException if justified root is not in the tree.
+   */
+  public synchronized Hash32 findHead(Hash32 justifiedRoot) {
+    Integer index = indices.get(justifiedRoot);
+    if (index == null) {
+      throw new IllegalArgumentException("Justified root is not in the tree: " + justifiedRoot);
+    }
+    return nodes.get(nodes.get(index).bestDescendant).root;
+  }
+
+  /**
+   * Removes every block which is not a descendant of given root. Given root becomes the new anchor.
+   *
+   * @param finalizedRoot finalized block root.
+   * @return number of removed nodes.
+   */
+  public synchronized int prune(Hash32 finalizedRoot) {
+    Integer finalizedIndex = indices.get(finalizedRoot);
+    if (finalizedIndex == null) {
+      throw new IllegalArgumentException("Finalized root is not in the tree: " + finalizedRoot);
+    }
+    if (finalizedIndex == 0) {
+      return 0;
+    }
+
+    // parents always precede their children, hence a single forward pass is enough
+    int[] newIndices = new int[nodes.size()];
+    Arrays.fill(newIndices, NONE);
+    List<Node> kept = new ArrayList<>();
+    for (int i = finalizedIndex; i < nodes.size(); i++) {
+      Node node = nodes.get(i);
+      if (i == finalizedIndex || (node.parent != NONE && newIndices[node.parent] != NONE)) {
+        newIndices[i] = kept.size();
+        kept.add(node);
+      }
+    }
+
+    int removed = nodes.size() - kept.size();
+    nodes.clear();
+    indices.clear();
+    for (Node node : kept) {
+      node.parent = node.parent == NONE ? NONE : newIndices[node.parent];
+      node.bestChild = node.bestChild == NONE ? NONE : newIndices[node.bestChild];
+      node.bestDescendant = newIndices[node.bestDescendant];
+      for (int i = 0; i < node.childCount; i++) {
+        node.children[i] = newIndices[node.children[i]];
+      }
+      addNode(node);
+    }
+    nodes.get(0).parent = NONE;
+
+    return removed;
+  }
+
+  public synchronized boolean contains(Hash32 root) {
+    return indices.containsKey(root);
+  }
+
+  public synchronized Optional<Long> getWeight(Hash32 root) {
+    Integer index = indices.get(root);
+    return index == null ? Optional.empty() : Optional.of(nodes.get(index).weight);
+  }
+
+  public synchronized Hash32 getAnchorRoot() {
+    return nodes.get(0).root;
+  }
+
+  public synchronized int size() {
+    return nodes.size();
+  }
+
+  private int addNode(Node node) {
+    int index = nodes.size();
+    nodes.add(node);
+    indices.put(node.root, index);
+    if (node.bestDescendant == NONE) {
+      node.bestDescendant = index;
+    }
+    return index;
+  }
+
+  /**
+   * Adds delta to the weight of the node and its ancestors and updates best child and best
+   * descendant pointers along the path.
+   */
+  private void propagate(int index, long delta) {
+    Node child = nodes.get(index);
+    child.weight += delta;
+    int childIndex = index;
+    while (child.parent != NONE) {
+      Node parent = nodes.get(child.parent);
+      parent.weight += delta;
+      if (parent.bestChild == childIndex) {
+        if (delta < 0) {
+          parent.bestChild = selectBestChild(parent);
+        }
+      } else if (parent.bestChild == NONE || isBetter(childIndex, parent.bestChild)) {
+        parent.bestChild = childIndex;
+      }
+      parent.bestDescendant = nodes.get(parent.bestChild).bestDescendant;
+
+      childIndex = child.parent;
+      child = parent;
+    }
+  }
+
+  private int selectBestChild(Node node) {
+    int best = NONE;
+    for (int i = 0; i < node.childCount; i++) {
+      int candidate = node.children[i];
+      if (best == NONE || isBetter(candidate, best)) {
+        best = candidate;
+      }
+    }
+    return best;
+  }
+
+  private boolean isBetter(int candidate, int current) {
+    Node a = nodes.get(candidate);
+    Node b = nodes.get(current);
+    if (a.weight != b.weight) {
+      return a.weight > b.weight;
+    }
+    return a.root.compareTo(b.root) > 0;
+  }
+
+  private static final class Node {
+    private final Hash32 root;
+    private int parent;
+    private long weight = 0;
+    private int bestChild = NONE;
+    private int bestDescendant = NONE;
+    private int[] children = new int[1];
+    private int childCount = 0;
+
+    Node(Hash32 root, int parent) {
+      this.root = root;
+      this.parent = parent;
+    }
+
+    void addChild(int index) {
+      if (childCount == children.length) {
+        children = Arrays.copyOf(children, childCount * 2);
+      }
+      children[childCount++] = index;
+    }
+  }
+}
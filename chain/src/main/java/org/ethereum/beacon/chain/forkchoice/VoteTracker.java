@@ -0,0 +1,167 @@
+package org.ethereum.beacon.chain.forkchoice;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import org.ethereum.beacon.consensus.spec.ForkChoice.LatestMessage;
+import org.ethereum.beacon.core.types.EpochNumber;
+import org.ethereum.beacon.core.types.ValidatorIndex;
+import tech.pegasys.artemis.ethereum.core.Hash32;
+import tech.pegasys.artemis.util.uint.UInt64;
+
+/**
+ * Latest messages storage backed by arrays indexed by validator index.
+ *
+ * <p>For every validator it keeps the vote which is already accounted in the fork choice weights
+ * (current root and balance) and the latest received vote (next root and its target epoch).
+ * Validators whose latest vote has been changed since last {@link #computeDeltas(long[],
+ * Predicate)} call are marked as dirty, thus a regular delta calculation touches only them.
+ *
+ * <p>Serves as latest message storage passed to {@link
+ * org.ethereum.beacon.consensus.HeadFunction#getHead(Function)}.
+ */
+public class VoteTracker implements Function<ValidatorIndex, Optional<LatestMessage>> {
+
+  private static final int INITIAL_CAPACITY = 1 << 10;
+  private static final long NO_EPOCH = -1;
+
+  private Hash32[] currentRoots = new Hash32[INITIAL_CAPACITY];
+  private long[] currentBalances = new long[INITIAL_CAPACITY];
+  private Hash32[] nextRoots = new Hash32[INITIAL_CAPACITY];
+  private long[] nextEpochs = newEpochs(INITIAL_CAPACITY);
+  private final BitSet dirty = new BitSet();
+  private int size = 0;
+
+  /** Balances used for the latest delta calculation. */
+  private long[] appliedBalances = new long[0];
+
+  private static long[] newEpochs(int capacity) {
+    long[] epochs = new long[capacity];
+    Arrays.fill(epochs, NO_EPOCH);
+    return epochs;
+  }
+
+  /**
+   * Records validator's vote if it's newer than the latest known one.
+   *
+   * @param index validator index.
+   * @param root beacon block root the validator voted for.
+   * @param targetEpoch attestation target epoch.
+   * @return {@code true} if the vote has been updated.
+   */
+  public synchronized boolean processVote(
+      ValidatorIndex index, Hash32 root, EpochNumber targetEpoch) {
+    int i = index.getIntValue();
+    ensureCapacity(i + 1);
+    if (nextRoots[i] != null && targetEpoch.getValue() <= nextEpochs[i]) {
+      return false;
+    }
+    nextRoots[i] = root;
+    nextEpochs[i] = targetEpoch.getValue();
+    dirty.set(i);
+    size = Math.max(size, i + 1);
+    return true;
+  }
+
+  public synchronized Optional<LatestMessage> getLatestMessage(ValidatorIndex index) {
+    int i = index.getIntValue();
+    if (i >= size || nextRoots[i] == null) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        new LatestMessage(EpochNumber.castFrom(UInt64.valueOf(nextEpochs[i])), nextRoots[i]));
+  }
+
+  @Override
+  public Optional<LatestMessage> apply(ValidatorIndex index) {
+    return getLatestMessage(index);
+  }
+
+  /**
+   * Calculates fork choice weight changes caused by votes received since the previous call and by
+   * the change of balances.
+   *
+   * <p>When the same balances array is passed as in the previous call only dirty validators are
+   * visited, otherwise the whole registry is. A vote for a root which is not known yet is kept
+   * pending until the root is known.
+   *
+   * @param balances effective balances of the validators counted by the fork choice, indexed by
+   *     validator index. Must not be modified after it has been passed to this method.
+   * @param isKnownRoot checks whether a root could be accounted by the fork choice.
+   * @return weight delta per block root.
+   */
+  public synchronized Map<Hash32, Long> computeDeltas(
+      long[] balances, Predicate<Hash32> isKnownRoot) {
+    Map<Hash32, Long> deltas = new HashMap<>();
+    if (balances != appliedBalances) {
+      int count = Math.max(size, balances.length);
+      ensureCapacity(count);
+      for (int i = 0; i < count; i++) {
+        updateVote(i, balances, isKnownRoot, deltas);
+      }
+      appliedBalances = balances;
+    } else {
+      for (int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1)) {
+        updateVote(i, balances, isKnownRoot, deltas);
+      }
+    }
+    return deltas;
+  }
+
+  private void updateVote(
+      int i, long[] balances, Predicate<Hash32> isKnownRoot, Map<Hash32, Long> deltas) {
+    long newBalance = i < balances.length ? balances[i] : 0;
+    Hash32 currentRoot = currentRoots[i];
+    Hash32 nextRoot = nextRoots[i];
+
+    if (nextRoot == null ? currentRoot == null : nextRoot.equals(currentRoot)) {
+      if (currentRoot != null && currentBalances[i] != newBalance) {
+        deltas.merge(currentRoot, newBalance - currentBalances[i], Long::sum);
+      }
+      currentBalances[i] = newBalance;
+      dirty.clear(i);
+      return;
+    }
+
+    if (nextRoot != null && !isKnownRoot.test(nextRoot)) {
+      // keep the vote pending, but account balance change of the current one
+      if (currentRoot != null && currentBalances[i] != newBalance) {
+        deltas.merge(currentRoot, newBalance - currentBalances[i], Long::sum);
+      }
+      currentBalances[i] = newBalance;
+      return;
+    }
+
+    if (currentRoot != null) {
+      deltas.merge(currentRoot, -currentBalances[i], Long::sum);
+    }
+    if (nextRoot != null) {
+      deltas.merge(nextRoot, newBalance, Long::sum);
+    }
+    currentRoots[i] = nextRoot;
+    currentBalances[i] = newBalance;
+    dirty.clear(i);
+  }
+
+  /** Number of validators that have ever voted, including the gaps. */
+  public synchronized int size() {
+    return size;
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity <= nextRoots.length) {
+      return;
+    }
+    int newCapacity = Math.max(capacity, nextRoots.length * 2);
+    int oldCapacity = nextRoots.length;
+    currentRoots = Arrays.copyOf(currentRoots, newCapacity);
+    currentBalances = Arrays.copyOf(currentBalances, newCapacity);
+    nextRoots = Arrays.copyOf(nextRoots, newCapacity);
+    nextEpochs = Arrays.copyOf(nextEpochs, newCapacity);
+    Arrays.fill(nextEpochs, oldCapacity, newCapacity, NO_EPOCH);
+  }
+}
@@ -0,0 +1,266 @@
+package org.ethereum.beacon.chain.observer;
+
+import static org.ethereum.beacon.core.spec.SignatureDomains.BEACON_ATTESTER;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.ethereum.beacon.chain.CheckpointStateCache;
+import org.ethereum.beacon.consensus.BeaconChainSpec;
+import org.ethereum.beacon.consensus.verifier.SignatureVerificationService;
+import org.ethereum.beacon.core.BeaconState;
+import org.ethereum.beacon.core.operations.Attestation;
+import org.ethereum.beacon.core.operations.slashing.IndexedAttestation;
+import org.ethereum.beacon.core.state.Checkpoint;
+import org.ethereum.beacon.core.types.ValidatorIndex;
+import org.ethereum.beacon.crypto.BLS381.PublicKey;
+import org.ethereum.beacon.schedulers.Scheduler;
+import org.javatuples.Pair;
+
+/**
+ * Verifies attestations in batches.
+ *
+ * <p>Verification is split into stages:
+ *
+ * <ol>
+ *   <li>attestations are grouped by target checkpoint and a state upon the checkpoint is taken
+ *       from {@link CheckpointStateCache} once per group;
+ *   <li>indexed attestations and participants are calculated on the calling thread, this stage
+ *       reads state caches which are not safe for concurrent use;
+ *   <li>signatures are verified in parallel on the worker scheduler, or, if {@link
+ *       SignatureVerificationService} is given, public keys are aggregated on the worker scheduler
+ *       and signatures are verified by the service in batches. A signature which the service
+ *       rejects, e.g. due to its queue is full, is verified on the worker thread instead.
+ * </ol>
+ *
+ * Results are merged back in the order of incoming attestations.
+ *
+ * <p>This class is not thread-safe and is expected to be used from a single thread.
+ */
+public class AttestationVerificationPipeline {
+  private static final Logger logger = LogManager.getLogger(AttestationVerificationPipeline.class);
+
+  private final BeaconChainSpec spec;
+  private final CheckpointStateCache checkpointStateCache;
+  private final Scheduler workers;
+  @Nullable private final SignatureVerificationService signatureService;
+
+  private final AtomicLong fallbackCount = new AtomicLong();
+  private volatile long latestStateStageTime = 0;
+  private volatile long latestIndexStageTime = 0;
+  private volatile long latestVerifyStageTime = 0;
+  private long processedCount = 0;
+  private long validCount = 0;
+  private long totalTime = 0;
+
+  public AttestationVerificationPipeline(
+      BeaconChainSpec spec, CheckpointStateCache checkpointStateCache, Scheduler workers) {
+    this(spec, checkpointStateCache, workers, null);
+  }
+
+  public AttestationVerificationPipeline(
+      BeaconChainSpec spec,
+      CheckpointStateCache checkpointStateCache,
+      Scheduler workers,
+      @Nullable SignatureVerificationService signatureService) {
+    this.spec = spec;
+    this.checkpointStateCache = checkpointStateCache;
+    this.workers = workers;
+    this.signatureService = signatureService;
+  }
+
+  /**
+   * Verifies attestations.
+   *
+   * @param attestations attestations to verify.
+   * @return valid attestations along with their participants, in the order of incoming list.
+   */
+  public List<Pair<Attestation, List<ValidatorIndex>>> verify(List<Attestation> attestations) {
+    if (attestations.isEmpty()) {
+      return Collections.emptyList();
+    }
+    long start = System.nanoTime();
+
+    Map<Checkpoint, List<Integer>> groups = new LinkedHashMap<>();
+    for (int i = 0; i < attestations.size(); i++) {
+      groups
+          .computeIfAbsent(attestations.get(i).getData().getTarget(), c -> new ArrayList<>())
+          .add(i);
+    }
+
+    Map<Checkpoint, BeaconState> states = new LinkedHashMap<>();
+    for (Checkpoint checkpoint : groups.keySet()) {
+      computeCheckpointState(checkpoint).ifPresent(state -> states.put(checkpoint, state));
+    }
+    long stateStageEnd = System.nanoTime();
+
+    List<Stage> stages = new ArrayList<>(Collections.nCopies(attestations.size(), null));
+    for (Map.Entry<Checkpoint, List<Integer>> group : groups.entrySet()) {
+      BeaconState state = states.get(group.getKey());
+      if (state == null) {
+        continue;
+      }
+      for (Integer i : group.getValue()) {
+        Attestation attestation = attestations.get(i);
+        try {
+          IndexedAttestation indexed = spec.get_indexed_attestation(state, attestation);
+          List<ValidatorIndex> participants =
+              spec.get_attesting_indices(
+                  state, attestation.getData(), attestation.getAggregationBits());
+          stages.set(i, new Stage(state, indexed, participants));
+        } catch (RuntimeException e) {
+          logger.debug("Failed to index attestation " + attestation, e);
+        }
+      }
+    }
+    long indexStageEnd = System.nanoTime();
+
+    List<CompletableFuture<Boolean>> verifications = new ArrayList<>(attestations.size());
+    for (Stage stage : stages) {
+      if (stage == null) {
+        verifications.add(CompletableFuture.completedFuture(false));
+      } else if (signatureService != null) {
+        verifications.add(
+            workers
+                .execute(() -> submitSignature(stage))
+                .thenCompose(Function.identity())
+                .exceptionally(e -> verifyRejected(stage, e)));
+      } else {
+        verifications.add(
+            workers.execute(
+                () -> {
+                  return spec.is_valid_indexed_attestation(stage.state, stage.indexed);
+                }));
+      }
+    }
+
+    List<Pair<Attestation, List<ValidatorIndex>>> result = new ArrayList<>();
+    for (int i = 0; i < attestations.size(); i++) {
+      boolean valid;
+      try {
+        valid = verifications.get(i).join();
+      } catch (RuntimeException e) {
+        valid = false;
+      }
+      if (valid) {
+        result.add(Pair.with(attestations.get(i), stages.get(i).participants));
+      }
+    }
+    long end = System.nanoTime();
+
+    latestStateStageTime = stateStageEnd - start;
+    latestIndexStageTime = indexStageEnd - stateStageEnd;
+    latestVerifyStageTime = end - indexStageEnd;
+    processedCount += attestations.size();
+    validCount += result.size();
+    totalTime += end - start;
+
+    logger.debug(
+        "{} attestations ({} valid, {} checkpoints) verified in {}ms: state {}ms, index {}ms, "
+            + "signatures {}ms",
+        attestations.size(),
+        result.size(),
+        groups.size(),
+        (end - start) / 1_000_000,
+        (stateStageEnd - start) / 1_000_000,
+        (indexStageEnd - stateStageEnd) / 1_000_000,
+        (end - indexStageEnd) / 1_000_000);
+
+    return result;
+  }
+
+  private CompletableFuture<Boolean> submitSignature(Stage stage) {
+    IndexedAttestation indexed = stage.indexed;
+    PublicKey publicKey =
+        spec.bls_aggregate_validator_pubkeys(
+            stage.state.getValidators(), indexed.getAttestingIndices());
+    return signatureService.verify(
+        publicKey,
+        spec.hash_tree_root(indexed.getData()),
+        indexed.getSignature(),
+        spec.get_domain(
+            stage.state, BEACON_ATTESTER, indexed.getData().getTarget().getEpoch()));
+  }
+
+  /**
+   * Verifies a signature that {@link SignatureVerificationService} has not verified due to its
+   * queue is full or it's stopped, any other error is propagated.
+   */
+  private boolean verifyRejected(Stage stage, Throwable error) {
+    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+    if (!(cause instanceof RejectedExecutionException)
+        && !(cause instanceof CancellationException)) {
+      throw error instanceof CompletionException
+          ? (CompletionException) error
+          : new CompletionException(error);
+    }
+    fallbackCount.incrementAndGet();
+    return spec.is_valid_indexed_attestation(stage.state, stage.indexed);
+  }
+
+  private Optional<BeaconState> computeCheckpointState(Checkpoint checkpoint) {
+    try {
+      return checkpointStateCache.get(checkpoint);
+    } catch (RuntimeException e) {
+      logger.debug("Failed to compute state for checkpoint " + checkpoint, e);
+      return Optional.empty();
+    }
+  }
+
+  /** @return average number of attestations verified per second. */
+  public double getThroughput() {
+    return totalTime == 0 ? 0 : processedCount * 1_000_000_000d / totalTime;
+  }
+
+  public long getProcessedCount() {
+    return processedCount;
+  }
+
+  public long getValidCount() {
+    return validCount;
+  }
+
+  /** @return number of signatures verified on the worker scheduler after being rejected. */
+  public long getFallbackCount() {
+    return fallbackCount.get();
+  }
+
+  /** Time spent on checkpoint states calculation in the latest batch, in nanoseconds. */
+  public long getLatestStateStageTime() {
+    return latestStateStageTime;
+  }
+
+  /** Time spent on indexed attestations calculation in the latest batch, in nanoseconds. */
+  public long getLatestIndexStageTime() {
+    return latestIndexStageTime;
+  }
+
+  /** Time spent on signature verification in the latest batch, in nanoseconds. */
+  public long getLatestVerifyStageTime() {
+    return latestVerifyStageTime;
+  }
+
+  private static final class Stage {
+    private final BeaconState state;
+    private final IndexedAttestation indexed;
+    private final List<ValidatorIndex> participants;
+
+    Stage(BeaconState state, IndexedAttestation indexed, List<ValidatorIndex> participants) {
+      this.state = state;
+      this.indexed = indexed;
+      this.participants = participants;
+    }
+  }
+}
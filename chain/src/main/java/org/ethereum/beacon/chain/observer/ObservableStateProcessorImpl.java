@@ -10,28 +10,27 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Optional;
 import java.util.stream.Collectors;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.ethereum.beacon.chain.BeaconChainHead;
 import org.ethereum.beacon.chain.BeaconTuple;
 import org.ethereum.beacon.chain.BeaconTupleDetails;
+import org.ethereum.beacon.chain.CheckpointStateCache;
 import org.ethereum.beacon.chain.LMDGhostHeadFunction;
+import org.ethereum.beacon.chain.forkchoice.VoteTracker;
 import org.ethereum.beacon.chain.storage.BeaconChainStorage;
 import org.ethereum.beacon.chain.storage.BeaconTupleStorage;
 import org.ethereum.beacon.consensus.BeaconChainSpec;
 import org.ethereum.beacon.consensus.BeaconStateEx;
 import org.ethereum.beacon.consensus.HeadFunction;
-import org.ethereum.beacon.consensus.spec.ForkChoice.LatestMessage;
 import org.ethereum.beacon.consensus.transition.EmptySlotTransition;
+import org.ethereum.beacon.consensus.verifier.SignatureVerificationService;
 import org.ethereum.beacon.core.BeaconBlock;
 import org.ethereum.beacon.core.BeaconState;
-import org.ethereum.beacon.core.MutableBeaconState;
 import org.ethereum.beacon.core.operations.Attestation;
 import org.ethereum.beacon.core.state.Checkpoint;
 import org.ethereum.beacon.core.operations.attestation.AttestationData;
-import org.ethereum.beacon.core.operations.slashing.IndexedAttestation;
 import org.ethereum.beacon.core.state.PendingAttestation;
 import org.ethereum.beacon.core.types.EpochNumber;
 import org.ethereum.beacon.core.types.SlotNumber;
@@ -65,14 +64,20 @@ public class ObservableStateProcessorImpl implements ObservableStateProcessor {
   private final Publisher<BeaconTupleDetails> beaconPublisher;
 
   private static final int UPDATE_MILLIS = 500;
+  public static final int DEFAULT_VERIFICATION_THREADS =
+      Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+  private int verificationThreads = DEFAULT_VERIFICATION_THREADS;
   private Scheduler regularJobExecutor;
   private Scheduler continuousJobExecutor;
+  private AttestationVerificationPipeline verificationPipeline;
+  private SignatureVerificationService signatureService;
   private Cache<BeaconBlock, BeaconTupleDetails> tupleDetails = new LRUCache<>(MAX_TUPLE_CACHE_SIZE);
 
   private final List<Attestation> attestationBuffer = new ArrayList<>();
 
   private final Map<Pair<ValidatorIndex, EpochNumber>, Attestation> offChainAttestations = new HashMap<>();
-  private final Map<ValidatorIndex, LatestMessage> latestMessages = new HashMap<>();
+  private final VoteTracker voteTracker;
+  private final CheckpointStateCache checkpointStateCache;
   private final Schedulers schedulers;
 
   private final SimpleProcessor<BeaconChainHead> headStream;
@@ -107,11 +112,61 @@ public class ObservableStateProcessorImpl implements ObservableStateProcessor {
       EmptySlotTransition emptySlotTransition,
       Schedulers schedulers,
       int maxEmptySlotTransitions) {
+    this(
+        chainStorage,
+        slotTicker,
+        attestationPublisher,
+        beaconPublisher,
+        spec,
+        emptySlotTransition,
+        schedulers,
+        maxEmptySlotTransitions,
+        new CheckpointStateCache(spec, chainStorage.getTupleStorage()));
+  }
+
+  private ObservableStateProcessorImpl(
+      BeaconChainStorage chainStorage,
+      Publisher<SlotNumber> slotTicker,
+      Publisher<Attestation> attestationPublisher,
+      Publisher<BeaconTupleDetails> beaconPublisher,
+      BeaconChainSpec spec,
+      EmptySlotTransition emptySlotTransition,
+      Schedulers schedulers,
+      int maxEmptySlotTransitions,
+      CheckpointStateCache checkpointStateCache) {
+    this(
+        chainStorage,
+        slotTicker,
+        attestationPublisher,
+        beaconPublisher,
+        spec,
+        emptySlotTransition,
+        schedulers,
+        maxEmptySlotTransitions,
+        new LMDGhostHeadFunction(chainStorage, spec, checkpointStateCache),
+        new VoteTracker(),
+        checkpointStateCache);
+  }
+
+  public ObservableStateProcessorImpl(
+      BeaconChainStorage chainStorage,
+      Publisher<SlotNumber> slotTicker,
+      Publisher<Attestation> attestationPublisher,
+      Publisher<BeaconTupleDetails> beaconPublisher,
+      BeaconChainSpec spec,
+      EmptySlotTransition emptySlotTransition,
+      Schedulers schedulers,
+      int maxEmptySlotTransitions,
+      HeadFunction headFunction,
+      VoteTracker voteTracker,
+      CheckpointStateCache checkpointStateCache) {
     this.chainStorage = chainStorage;
     this.tupleStorage = chainStorage.getTupleStorage();
     this.spec = spec;
     this.emptySlotTransition = emptySlotTransition;
-    this.headFunction = new LMDGhostHeadFunction(chainStorage, spec);
+    this.headFunction = headFunction;
+    this.voteTracker = voteTracker;
+    this.checkpointStateCache = checkpointStateCache;
     this.slotTicker = slotTicker;
     this.attestationPublisher = attestationPublisher;
     this.beaconPublisher = beaconPublisher;
@@ -129,6 +184,13 @@ public class ObservableStateProcessorImpl implements ObservableStateProcessor {
         schedulers.newSingleThreadDaemon("observable-state-processor-regular");
     continuousJobExecutor =
         schedulers.newSingleThreadDaemon("observable-state-processor-continuous");
+    verificationPipeline =
+        new AttestationVerificationPipeline(
+            spec,
+            checkpointStateCache,
+            schedulers.newParallelDaemon(
+                "observable-state-processor-verifier-%d", verificationThreads),
+            signatureService);
     Flux.from(slotTicker).subscribe(this::onNewSlot);
     Flux.from(attestationPublisher).subscribe(this::onNewAttestation);
     Flux.from(beaconPublisher).subscribe(this::onNewBlockTuple);
@@ -136,6 +198,28 @@ public class ObservableStateProcessorImpl implements ObservableStateProcessor {
         Duration.ZERO, Duration.ofMillis(UPDATE_MILLIS), this::doHardWork);
   }
 
+  /**
+   * Sets the number of threads verifying attestation signatures. Should be called before {@link
+   * #start()}.
+   */
+  public void setVerificationThreads(int verificationThreads) {
+    this.verificationThreads = verificationThreads;
+  }
+
+  /**
+   * Sets a service verifying attestation signatures in batches. Should be called before {@link
+   * #start()}, by default signatures are verified one by one with {@link
+   * BeaconChainSpec#is_valid_indexed_attestation}.
+   */
+  public void setSignatureVerificationService(SignatureVerificationService signatureService) {
+    this.signatureService = signatureService;
+  }
+
+  /** Attestation verification throughput and per-stage latency, available after start. */
+  public AttestationVerificationPipeline getVerificationPipeline() {
+    return verificationPipeline;
+  }
+
   private void runTaskInSeparateThread(Runnable task) {
     continuousJobExecutor.execute(task::run);
   }
@@ -156,29 +240,9 @@ public class ObservableStateProcessorImpl implements ObservableStateProcessor {
       return;
     }
     List<Attestation> attestations = drainAttestations(spec.get_current_epoch(latestState));
-    for (Attestation attestation : attestations) {
-      try {
-        BeaconTuple tuple = tupleStorage.get(attestation.getData().getTarget().getRoot()).get();
-
-        MutableBeaconState mutableState = tuple.getState().createMutableCopy();
-        spec.process_slots(
-            mutableState,
-            spec.compute_start_slot_at_epoch(attestation.getData().getTarget().getEpoch()));
-        BeaconState refState = mutableState.createImmutable();
-        IndexedAttestation indexed_attestation =
-            spec.get_indexed_attestation(refState, attestation);
-        if (!spec.is_valid_indexed_attestation(refState, indexed_attestation)) {
-          continue;
-        }
-
-        List<ValidatorIndex> participants =
-            spec.get_attesting_indices(
-                refState, attestation.getData(), attestation.getAggregationBits());
-
-        participants.forEach(index -> addValidatorAttestation(index, attestation));
-      } catch (RuntimeException e) {
-        continue;
-      }
+    for (Pair<Attestation, List<ValidatorIndex>> verified :
+        verificationPipeline.verify(attestations)) {
+      verified.getValue1().forEach(index -> addValidatorAttestation(index, verified.getValue0()));
     }
     if (attestations.size() > 0) {
       updateHead(latestState);
@@ -192,11 +256,7 @@ public class ObservableStateProcessorImpl implements ObservableStateProcessor {
   }
 
   private void updateLatestMessages(ValidatorIndex index, AttestationData data) {
-    EpochNumber targetEpoch = data.getTarget().getEpoch();
-    if (!latestMessages.containsKey(index)
-        || targetEpoch.greater(latestMessages.get(index).getEpoch())) {
-      latestMessages.put(index, new LatestMessage(targetEpoch, data.getBeaconBlockRoot()));
-    }
+    voteTracker.processVote(index, data.getBeaconBlockRoot(), data.getTarget().getEpoch());
   }
 
   private synchronized void onNewAttestation(Attestation attestation) {
@@ -221,8 +281,13 @@ public class ObservableStateProcessorImpl implements ObservableStateProcessor {
     tupleDetails.get(beaconTuple.getBlock(), (b) -> beaconTuple);
     runTaskInSeparateThread(
         () -> {
+          headFunction.onNewBlock(beaconTuple.getBlock(), beaconTuple.getFinalState());
           addAttestationsFromState(beaconTuple.getState());
           updateHead(beaconTuple.getState());
+          chainStorage
+              .getFinalizedStorage()
+              .get()
+              .ifPresent(finalized -> checkpointStateCache.prune(finalized.getEpoch()));
         });
   }
 
@@ -263,10 +328,6 @@ public class ObservableStateProcessorImpl implements ObservableStateProcessor {
                 Collectors.mapping(Entry::getValue, Collectors.toList())));
   }
 
-  private synchronized Map<ValidatorIndex, LatestMessage> copyLatestMessages() {
-    return new HashMap<>(latestMessages);
-  }
-
   private BeaconTupleDetails head;
   private BeaconStateEx latestState;
 
@@ -370,11 +431,7 @@ public class ObservableStateProcessorImpl implements ObservableStateProcessor {
   }
 
   private void updateHead(BeaconState state) {
-    Map<ValidatorIndex, LatestMessage> latestMessagesCopy = copyLatestMessages();
-    BeaconBlock newHead =
-        headFunction.getHead(
-            validatorIndex ->
-                Optional.ofNullable(latestMessagesCopy.getOrDefault(validatorIndex, null)));
+    BeaconBlock newHead = headFunction.getHead(voteTracker);
     if (this.head != null && this.head.getBlock().equals(newHead)) {
       return; // == old
     }
@@ -1,10 +1,14 @@
 package org.ethereum.beacon.chain.storage;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 import org.ethereum.beacon.core.BeaconBlock;
 import org.ethereum.beacon.core.types.SlotNumber;
 import tech.pegasys.artemis.ethereum.core.Hash32;
-import java.util.List;
 import tech.pegasys.artemis.util.uint.UInt64;
+import tech.pegasys.artemis.util.uint.UInt64s;
 
 public interface BeaconBlockStorage extends HashKeyStorage<Hash32, BeaconBlock> {
   /**
@@ -25,5 +29,24 @@ public interface BeaconBlockStorage extends HashKeyStorage<Hash32, BeaconBlock>
    * @param limit Slot limit for forward children search
    * @return list of children
    */
-  List<BeaconBlock> getChildren(Hash32 parent, int limit);
+  default List<BeaconBlock> getChildren(Hash32 parent, int limit) {
+    Optional<BeaconBlock> block = get(parent);
+    if (!block.isPresent()) {
+      return Collections.emptyList();
+    }
+    BeaconBlock start = block.get();
+    final List<BeaconBlock> children = new ArrayList<>();
+
+    for (SlotNumber curSlot = start.getSlot().increment();
+        curSlot.lessEqual(UInt64s.min(start.getSlot().plus(limit), getMaxSlot()));
+        curSlot = curSlot.increment()) {
+      getSlotBlocks(curSlot).stream()
+          .map(this::get)
+          .filter(Optional::isPresent)
+          .filter(b -> b.get().getParentRoot().equals(parent))
+          .forEach(b -> children.add(b.get()));
+    }
+
+    return children;
+  }
 }
@@ -21,7 +21,6 @@ import org.ethereum.beacon.ssz.annotation.SSZ;
 import org.ethereum.beacon.ssz.annotation.SSZSerializable;
 import tech.pegasys.artemis.ethereum.core.Hash32;
 import tech.pegasys.artemis.util.bytes.BytesValue;
-import tech.pegasys.artemis.util.uint.UInt64s;
 
 public class BeaconBlockStorageImpl implements BeaconBlockStorage {
 
@@ -152,32 +151,12 @@ public class BeaconBlockStorageImpl implements BeaconBlockStorage {
                               + key));
       List<Hash32> newBlocks = new ArrayList<>(slotBlocks.getBlockHashes());
       newBlocks.remove(key);
-      blockIndex.put(
-          block.get().getSlot().getValue(),
-          new SlotBlocks(newBlocks));
-    }
-  }
-
-  @Override
-  public List<BeaconBlock> getChildren(@Nonnull Hash32 parent, int limit) {
-    Optional<BeaconBlock> block = get(parent);
-    if (!block.isPresent()) {
-      return Collections.emptyList();
-    }
-    BeaconBlock start = block.get();
-    final List<BeaconBlock> children = new ArrayList<>();
-
-    for (SlotNumber curSlot = start.getSlot().increment();
-        curSlot.lessEqual(UInt64s.min(start.getSlot().plus(limit), getMaxSlot()));
-        curSlot = curSlot.increment()) {
-      getSlotBlocks(curSlot).stream()
-          .map(this::get)
-          .filter(Optional::isPresent)
-          .filter(b -> b.get().getParentRoot().equals(parent))
-          .forEach(b -> children.add(b.get()));
+      if (newBlocks.isEmpty()) {
+        blockIndex.remove(block.get().getSlot().getValue());
+      } else {
+        blockIndex.put(block.get().getSlot().getValue(), new SlotBlocks(newBlocks));
+      }
     }
-
-    return children;
   }
 
   @Override
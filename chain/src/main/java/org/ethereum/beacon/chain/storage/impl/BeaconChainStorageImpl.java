@@ -1,5 +1,8 @@
 package org.ethereum.beacon.chain.storage.impl;
 
+import javax.annotation.Nullable;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.ethereum.beacon.chain.storage.BeaconBlockStorage;
 import org.ethereum.beacon.chain.storage.BeaconChainStorage;
 import org.ethereum.beacon.chain.storage.BeaconStateStorage;
@@ -9,10 +12,18 @@ import org.ethereum.beacon.core.state.Checkpoint;
 import org.ethereum.beacon.db.Database;
 import org.ethereum.beacon.db.source.DataSource;
 import org.ethereum.beacon.db.source.SingleValueSource;
+import org.ethereum.beacon.schedulers.LatestExecutor;
+import org.ethereum.beacon.schedulers.Scheduler;
 import tech.pegasys.artemis.ethereum.core.Hash32;
 
-/** A default implementation of {@link BeaconChainStorage}. */
+/**
+ * A default implementation of {@link BeaconChainStorage}.
+ *
+ * <p>Pruning runs in background and changes storage while holding the monitor of this instance,
+ * writers are expected to hold the same monitor while they change and commit the storage.
+ */
 public class BeaconChainStorageImpl implements BeaconChainStorage {
+  private static final Logger logger = LogManager.getLogger(BeaconChainStorageImpl.class);
 
   private final Database database;
   private final BeaconBlockStorage blockStorage;
@@ -22,6 +33,10 @@ public class BeaconChainStorageImpl implements BeaconChainStorage {
   private final SingleValueSource<Checkpoint> justifiedStorage;
   private final SingleValueSource<Checkpoint> bestJustifiedStorage;
   private final SingleValueSource<Checkpoint> finalizedStorage;
+  @Nullable private final FinalizedStoragePruner pruner;
+  @Nullable private final Scheduler pruningScheduler;
+  @Nullable private final LatestExecutor<Checkpoint> pruningExecutor;
+  private boolean pruningStopped = false;
 
   public BeaconChainStorageImpl(
       Database database,
@@ -32,6 +47,35 @@ public class BeaconChainStorageImpl implements BeaconChainStorage {
       SingleValueSource<Checkpoint> justifiedStorage,
       SingleValueSource<Checkpoint> bestJustifiedStorage,
       SingleValueSource<Checkpoint> finalizedStorage) {
+    this(
+        database,
+        blockStorage,
+        blockHeaderStorage,
+        stateStorage,
+        tupleStorage,
+        justifiedStorage,
+        bestJustifiedStorage,
+        finalizedStorage,
+        null,
+        null);
+  }
+
+  /**
+   * Creates an instance which prunes storage with given pruner on each commit that follows a change
+   * of finalized checkpoint. Pruning is run on given scheduler, if a few checkpoints are finalized
+   * while it's busy only the latest one is pruned to.
+   */
+  public BeaconChainStorageImpl(
+      Database database,
+      BeaconBlockStorage blockStorage,
+      DataSource<Hash32, BeaconBlockHeader> blockHeaderStorage,
+      BeaconStateStorage stateStorage,
+      BeaconTupleStorage tupleStorage,
+      SingleValueSource<Checkpoint> justifiedStorage,
+      SingleValueSource<Checkpoint> bestJustifiedStorage,
+      SingleValueSource<Checkpoint> finalizedStorage,
+      @Nullable FinalizedStoragePruner pruner,
+      @Nullable Scheduler pruningScheduler) {
     this.database = database;
     this.blockStorage = blockStorage;
     this.blockHeaderStorage = blockHeaderStorage;
@@ -40,6 +84,10 @@ public class BeaconChainStorageImpl implements BeaconChainStorage {
     this.justifiedStorage = justifiedStorage;
     this.bestJustifiedStorage = bestJustifiedStorage;
     this.finalizedStorage = finalizedStorage;
+    this.pruner = pruner;
+    this.pruningScheduler = pruningScheduler;
+    this.pruningExecutor =
+        pruner != null ? new LatestExecutor<>(pruningScheduler, this::prune) : null;
   }
 
   @Override
@@ -77,9 +125,41 @@ public class BeaconChainStorageImpl implements BeaconChainStorage {
     return finalizedStorage;
   }
 
+  @Nullable
+  public FinalizedStoragePruner getPruner() {
+    return pruner;
+  }
+
   @Override
-  public void commit() {
+  public synchronized void commit() {
     tupleStorage.flush();
     database.commit();
+    if (pruningExecutor != null && !pruningStopped) {
+      finalizedStorage.get().ifPresent(pruningExecutor::newEvent);
+    }
+  }
+
+  /**
+   * Stops pruning and waits for pruning in progress to complete, must be called before databases
+   * are closed. Commits that follow don't trigger pruning.
+   */
+  public void stopPruning() {
+    if (pruner == null) {
+      return;
+    }
+    synchronized (this) {
+      pruningStopped = true;
+    }
+    // pruning in progress takes the monitor of this instance, it's not held while waiting
+    pruner.stop();
+    pruningScheduler.stop();
+  }
+
+  private void prune(Checkpoint finalized) {
+    try {
+      pruner.onFinalized(finalized, this);
+    } catch (Throwable t) {
+      logger.error("Failed to prune storage up to " + finalized, t);
+    }
   }
 }
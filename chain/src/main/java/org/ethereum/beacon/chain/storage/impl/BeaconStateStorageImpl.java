@@ -6,7 +6,6 @@ import javax.annotation.Nonnull;
 import org.ethereum.beacon.chain.storage.BeaconStateStorage;
 import org.ethereum.beacon.consensus.hasher.ObjectHasher;
 import org.ethereum.beacon.core.BeaconState;
-import org.ethereum.beacon.core.state.BeaconStateImpl;
 import org.ethereum.beacon.db.Database;
 import org.ethereum.beacon.db.source.CodecSource;
 import org.ethereum.beacon.db.source.DataSource;
@@ -61,7 +60,7 @@ public class BeaconStateStorageImpl implements BeaconStateStorage {
             backingSource,
             key -> key,
             serializerFactory.getSerializer(BeaconState.class),
-            bytes -> serializerFactory.getDeserializer(BeaconStateImpl.class).apply(bytes));
+            serializerFactory.getStateDeserializer());
     return new BeaconStateStorageImpl(stateSource, objectHasher);
   }
 }
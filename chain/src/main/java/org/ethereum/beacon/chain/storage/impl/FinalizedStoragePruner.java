@@ -0,0 +1,269 @@
+package org.ethereum.beacon.chain.storage.impl;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.ethereum.beacon.chain.storage.BeaconBlockStorage;
+import org.ethereum.beacon.chain.storage.BeaconStateStorage;
+import org.ethereum.beacon.consensus.BeaconChainSpec;
+import org.ethereum.beacon.core.BeaconBlock;
+import org.ethereum.beacon.core.BeaconState;
+import org.ethereum.beacon.core.state.Checkpoint;
+import org.ethereum.beacon.core.types.SlotNumber;
+import org.ethereum.beacon.db.Database;
+import tech.pegasys.artemis.ethereum.core.Hash32;
+
+/**
+ * Keeps hot tier of {@link HotColdBlockStorage} and {@link HotColdStateStorage} small by pruning it
+ * each time finalized checkpoint advances.
+ *
+ * <p>Upon finalization:
+ *
+ * <ul>
+ *   <li>canonical blocks below finalized block are moved to the cold tier, states of epoch
+ *       boundary blocks are moved along with them while other states are dropped
+ *   <li>blocks that don't descend from finalized block, along with their states, are removed
+ * </ul>
+ *
+ * <p>Finalized block itself is kept in the hot tier as new blocks are built on top of it. Every
+ * {@code compactionPeriod} finalizations both databases are compacted in background.
+ */
+public class FinalizedStoragePruner {
+  private static final Logger logger = LogManager.getLogger(FinalizedStoragePruner.class);
+
+  public static final int DEFAULT_COMPACTION_PERIOD = 16;
+
+  private final BeaconChainSpec spec;
+  private final HotColdBlockStorage blocks;
+  private final HotColdStateStorage states;
+  private final Database hotDatabase;
+  private final Database coldDatabase;
+  private final int compactionPeriod;
+
+  private final ExecutorService compactor;
+  private final AtomicBoolean compacting = new AtomicBoolean(false);
+  private int prunesSinceCompaction = 0;
+  private boolean stopped = false;
+
+  private Hash32 lastFinalizedRoot;
+
+  private final AtomicLong migratedBlocks = new AtomicLong(0);
+  private final AtomicLong migratedStates = new AtomicLong(0);
+  private final AtomicLong removedBlocks = new AtomicLong(0);
+
+  public FinalizedStoragePruner(
+      BeaconChainSpec spec,
+      HotColdBlockStorage blocks,
+      HotColdStateStorage states,
+      Database hotDatabase,
+      Database coldDatabase,
+      int compactionPeriod) {
+    this.spec = spec;
+    this.blocks = blocks;
+    this.states = states;
+    this.hotDatabase = hotDatabase;
+    this.coldDatabase = coldDatabase;
+    this.compactionPeriod = compactionPeriod;
+    this.compactor =
+        Executors.newSingleThreadExecutor(
+            r -> {
+              Thread t = new Thread(r, "db-compactor");
+              t.setDaemon(true);
+              return t;
+            });
+  }
+
+  /**
+   * Prunes storage if finalized checkpoint has changed since previous call, does nothing otherwise.
+   *
+   * @param finalized finalized checkpoint.
+   */
+  public void onFinalized(Checkpoint finalized) {
+    onFinalized(finalized, this);
+  }
+
+  /**
+   * Prunes storage if finalized checkpoint has changed since previous call, does nothing otherwise.
+   *
+   * <p>Blocks and states are copied to the cold tier without holding the lock: blocks below
+   * finalized one are not changed by block import while the cold tier is written by the pruner
+   * only. Hot tier is changed and committed while holding the lock, thus, it's never committed
+   * with a block removed before the cold tier has the block.
+   *
+   * @param finalized finalized checkpoint.
+   * @param storageLock lock that writers of the hot tier hold.
+   */
+  public synchronized void onFinalized(Checkpoint finalized, Object storageLock) {
+    if (stopped || finalized.getRoot().equals(lastFinalizedRoot)) {
+      return;
+    }
+
+    BeaconBlockStorage hotBlocks = blocks.getHot();
+    Optional<BeaconBlock> finalizedBlock = hotBlocks.get(finalized.getRoot());
+    if (!finalizedBlock.isPresent()) {
+      logger.warn("Finalized block {} is not in the hot storage", finalized.getRoot());
+      return;
+    }
+
+    long s = System.nanoTime();
+    long migrated = migratedBlocks.get();
+    long removed = removedBlocks.get();
+
+    // canonical chain of hot blocks below finalized one, starting from the lowest block
+    Deque<Hash32> canonical = new ArrayDeque<>();
+    BeaconBlock lowest = finalizedBlock.get();
+    Optional<BeaconBlock> parent;
+    while ((parent = hotBlocks.get(lowest.getParentRoot())).isPresent()) {
+      canonical.push(lowest.getParentRoot());
+      lowest = parent.get();
+    }
+
+    SlotNumber parentSlot =
+        blocks.get(lowest.getParentRoot()).map(BeaconBlock::getSlot).orElse(null);
+    for (Hash32 root : canonical) {
+      BeaconBlock block = hotBlocks.get(root).get();
+      copyToCold(root, block, parentSlot);
+      parentSlot = block.getSlot();
+    }
+    coldDatabase.commit();
+
+    synchronized (storageLock) {
+      SlotNumber finalizedSlot = finalizedBlock.get().getSlot();
+      Set<Hash32> canonicalSet = new HashSet<>(canonical);
+      for (SlotNumber slot = lowest.getSlot(); slot.less(finalizedSlot); slot = slot.increment()) {
+        for (Hash32 root : hotBlocks.getSlotBlocks(slot)) {
+          if (!canonicalSet.contains(root)) {
+            remove(root);
+          }
+        }
+      }
+      for (Hash32 root : canonical) {
+        hotBlocks.get(root).ifPresent(block -> states.getHot().remove(block.getStateRoot()));
+        hotBlocks.remove(root);
+        migratedBlocks.incrementAndGet();
+      }
+
+      // forks that don't descend from finalized block
+      Set<Hash32> descendants = new HashSet<>();
+      descendants.add(finalized.getRoot());
+      SlotNumber maxSlot = hotBlocks.getMaxSlot();
+      for (SlotNumber slot = finalizedSlot; slot.lessEqual(maxSlot); slot = slot.increment()) {
+        List<Hash32> roots = hotBlocks.getSlotBlocks(slot);
+        for (Hash32 root : roots) {
+          if (descendants.contains(root)) {
+            continue;
+          }
+          Optional<BeaconBlock> block = hotBlocks.get(root);
+          if (block.isPresent() && descendants.contains(block.get().getParentRoot())) {
+            descendants.add(root);
+          } else {
+            remove(root);
+          }
+        }
+      }
+
+      hotDatabase.commit();
+    }
+    lastFinalizedRoot = finalized.getRoot();
+
+    logger.debug(
+        "Storage pruned up to finalized epoch {} in {}ms: {} blocks moved to cold storage, {} removed",
+        finalized.getEpoch(),
+        (System.nanoTime() - s) / 1_000_000,
+        migratedBlocks.get() - migrated,
+        removedBlocks.get() - removed);
+
+    if (++prunesSinceCompaction >= compactionPeriod) {
+      prunesSinceCompaction = 0;
+      compactInBackground();
+    }
+  }
+
+  /**
+   * Stops pruning, waits for pruning and compaction in progress to complete. Subsequent calls of
+   * {@link #onFinalized(Checkpoint, Object)} do nothing. Supposed to be called before databases
+   * are closed.
+   */
+  public synchronized void stop() {
+    stopped = true;
+    compactor.shutdown();
+    try {
+      while (!compactor.awaitTermination(10, TimeUnit.SECONDS)) {
+        logger.info("Waiting for database compaction to complete");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void copyToCold(Hash32 root, BeaconBlock block, SlotNumber parentSlot) {
+    BeaconBlockStorage coldBlocks = blocks.getCold();
+    BeaconStateStorage coldStates = states.getCold();
+
+    // cold tier could already have it if previous attempt was interrupted
+    if (!coldBlocks.get(root).isPresent()) {
+      coldBlocks.put(root, block);
+    }
+    if (isEpochBoundary(block, parentSlot)) {
+      Optional<BeaconState> state = states.getHot().get(block.getStateRoot());
+      if (state.isPresent() && !coldStates.get(block.getStateRoot()).isPresent()) {
+        coldStates.put(block.getStateRoot(), state.get());
+        migratedStates.incrementAndGet();
+      }
+    }
+  }
+
+  private void remove(Hash32 root) {
+    BeaconBlockStorage hotBlocks = blocks.getHot();
+    hotBlocks.get(root).ifPresent(block -> states.getHot().remove(block.getStateRoot()));
+    hotBlocks.remove(root);
+    removedBlocks.incrementAndGet();
+  }
+
+  private boolean isEpochBoundary(BeaconBlock block, SlotNumber parentSlot) {
+    return parentSlot == null
+        || spec.compute_epoch_at_slot(parentSlot).less(spec.compute_epoch_at_slot(block.getSlot()));
+  }
+
+  private void compactInBackground() {
+    if (!compacting.compareAndSet(false, true)) {
+      return;
+    }
+    compactor.execute(
+        () -> {
+          try {
+            hotDatabase.compact();
+            coldDatabase.compact();
+          } catch (Throwable t) {
+            logger.error("Failed to compact database", t);
+          } finally {
+            compacting.set(false);
+          }
+        });
+  }
+
+  /** @return number of blocks moved to the cold tier. */
+  public long getMigratedBlocks() {
+    return migratedBlocks.get();
+  }
+
+  /** @return number of states moved to the cold tier. */
+  public long getMigratedStates() {
+    return migratedStates.get();
+  }
+
+  /** @return number of non-canonical blocks removed. */
+  public long getRemovedBlocks() {
+    return removedBlocks.get();
+  }
+}
@@ -0,0 +1,81 @@
+package org.ethereum.beacon.chain.storage.impl;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import org.ethereum.beacon.chain.storage.BeaconBlockStorage;
+import org.ethereum.beacon.core.BeaconBlock;
+import org.ethereum.beacon.core.types.SlotNumber;
+import tech.pegasys.artemis.ethereum.core.Hash32;
+
+/**
+ * Block storage split into two tiers.
+ *
+ * <p>Hot tier keeps finalized block and all its descendants including forks, it's where new blocks
+ * go to. Cold tier keeps canonical chain below finalized block and is filled up by {@link
+ * FinalizedStoragePruner}. Reads consult hot tier first and then fall back to the cold one.
+ */
+public class HotColdBlockStorage implements BeaconBlockStorage {
+
+  private final BeaconBlockStorage hot;
+  private final BeaconBlockStorage cold;
+
+  public HotColdBlockStorage(BeaconBlockStorage hot, BeaconBlockStorage cold) {
+    this.hot = hot;
+    this.cold = cold;
+  }
+
+  @Override
+  public SlotNumber getMaxSlot() {
+    return hot.isEmpty() ? cold.getMaxSlot() : hot.getMaxSlot();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return hot.isEmpty() && cold.isEmpty();
+  }
+
+  @Override
+  public List<Hash32> getSlotBlocks(SlotNumber slot) {
+    List<Hash32> blocks = hot.getSlotBlocks(slot);
+    return blocks.isEmpty() ? cold.getSlotBlocks(slot) : blocks;
+  }
+
+  @Override
+  public Optional<BeaconBlock> get(@Nonnull Hash32 key) {
+    Objects.requireNonNull(key);
+    Optional<BeaconBlock> block = hot.get(key);
+    return block.isPresent() ? block : cold.get(key);
+  }
+
+  @Override
+  public void put(@Nonnull Hash32 key, @Nonnull BeaconBlock value) {
+    hot.put(key, value);
+  }
+
+  @Override
+  public void put(BeaconBlock item) {
+    hot.put(item);
+  }
+
+  /** Removes block from the hot tier, cold tier is append-only. */
+  @Override
+  public void remove(@Nonnull Hash32 key) {
+    hot.remove(key);
+  }
+
+  @Override
+  public void flush() {
+    hot.flush();
+    cold.flush();
+  }
+
+  public BeaconBlockStorage getHot() {
+    return hot;
+  }
+
+  public BeaconBlockStorage getCold() {
+    return cold;
+  }
+}
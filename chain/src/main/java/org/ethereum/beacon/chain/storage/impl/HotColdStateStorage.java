@@ -0,0 +1,61 @@
+package org.ethereum.beacon.chain.storage.impl;
+
+import java.util.Objects;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import org.ethereum.beacon.chain.storage.BeaconStateStorage;
+import org.ethereum.beacon.core.BeaconState;
+import tech.pegasys.artemis.ethereum.core.Hash32;
+
+/**
+ * State storage split into two tiers, a counterpart of {@link HotColdBlockStorage}.
+ *
+ * <p>Cold tier keeps only states of epoch boundary blocks below finalized checkpoint.
+ */
+public class HotColdStateStorage implements BeaconStateStorage {
+
+  private final BeaconStateStorage hot;
+  private final BeaconStateStorage cold;
+
+  public HotColdStateStorage(BeaconStateStorage hot, BeaconStateStorage cold) {
+    this.hot = hot;
+    this.cold = cold;
+  }
+
+  @Override
+  public Optional<BeaconState> get(@Nonnull Hash32 key) {
+    Objects.requireNonNull(key);
+    Optional<BeaconState> state = hot.get(key);
+    return state.isPresent() ? state : cold.get(key);
+  }
+
+  @Override
+  public void put(@Nonnull Hash32 key, @Nonnull BeaconState value) {
+    hot.put(key, value);
+  }
+
+  @Override
+  public void put(BeaconState item) {
+    hot.put(item);
+  }
+
+  /** Removes state from the hot tier, cold tier is append-only. */
+  @Override
+  public void remove(@Nonnull Hash32 key) {
+    hot.remove(key);
+  }
+
+  @Override
+  public void flush() {
+    hot.flush();
+    cold.flush();
+  }
+
+  public BeaconStateStorage getHot() {
+    return hot;
+  }
+
+  public BeaconStateStorage getCold() {
+    return cold;
+  }
+}
@@ -1,16 +1,21 @@
 package org.ethereum.beacon.chain.storage.impl;
 
+import javax.annotation.Nullable;
 import org.ethereum.beacon.chain.storage.BeaconBlockStorage;
 import org.ethereum.beacon.chain.storage.BeaconChainStorage;
 import org.ethereum.beacon.chain.storage.BeaconChainStorageFactory;
 import org.ethereum.beacon.chain.storage.BeaconStateStorage;
 import org.ethereum.beacon.chain.storage.BeaconTupleStorage;
+import org.ethereum.beacon.consensus.BeaconChainSpec;
 import org.ethereum.beacon.consensus.hasher.ObjectHasher;
 import org.ethereum.beacon.consensus.hasher.SSZObjectHasher;
 import org.ethereum.beacon.core.state.Checkpoint;
+import org.ethereum.beacon.core.types.EpochNumber;
 import org.ethereum.beacon.db.Database;
 import org.ethereum.beacon.db.source.DataSource;
 import org.ethereum.beacon.db.source.SingleValueSource;
+import org.ethereum.beacon.schedulers.Scheduler;
+import org.ethereum.beacon.schedulers.Schedulers;
 import tech.pegasys.artemis.ethereum.core.Hash32;
 import tech.pegasys.artemis.util.bytes.Bytes32;
 import tech.pegasys.artemis.util.bytes.BytesValue;
@@ -22,12 +27,34 @@ import tech.pegasys.artemis.util.bytes.BytesValue;
 public class SSZBeaconChainStorageFactory implements BeaconChainStorageFactory {
   private final ObjectHasher<Hash32> objectHasher;
   private final SerializerFactory serializerFactory;
+  @Nullable private final BeaconChainSpec spec;
+  @Nullable private final EpochNumber stateSnapshotInterval;
 
   public SSZBeaconChainStorageFactory(
       ObjectHasher<Hash32> objectHasher,
       SerializerFactory serializerFactory) {
     this.objectHasher = objectHasher;
     this.serializerFactory = serializerFactory;
+    this.spec = null;
+    this.stateSnapshotInterval = null;
+  }
+
+  /**
+   * Creates a factory of storages which persist full states once per {@code
+   * stateSnapshotInterval} epochs. Such a factory is also able to create storages pruned upon
+   * finalization, see {@link #create(Database, Database)}.
+   *
+   * @param stateSnapshotInterval snapshot interval, every state is persisted if {@code null}.
+   * @see SnapshotBeaconTupleStorage
+   */
+  public SSZBeaconChainStorageFactory(
+      BeaconChainSpec spec,
+      SerializerFactory serializerFactory,
+      @Nullable EpochNumber stateSnapshotInterval) {
+    this.objectHasher = spec.getObjectHasher();
+    this.serializerFactory = serializerFactory;
+    this.spec = spec;
+    this.stateSnapshotInterval = stateSnapshotInterval;
   }
 
   @Override
@@ -36,7 +63,59 @@ public class SSZBeaconChainStorageFactory implements BeaconChainStorageFactory {
         BeaconBlockStorageImpl.create(database, objectHasher, serializerFactory);
     BeaconStateStorage stateStorage =
         BeaconStateStorageImpl.create(database, objectHasher, serializerFactory);
-    BeaconTupleStorage tupleStorage = new BeaconTupleStorageImpl(blockStorage, stateStorage);
+    return create(database, blockStorage, stateStorage, null, null);
+  }
+
+  /**
+   * Creates a storage split into hot and cold databases.
+   *
+   * <p>Canonical chain below finalized checkpoint is moved to cold database while the rest of
+   * the chain is kept in hot one, see {@link FinalizedStoragePruner}.
+   *
+   * @param database hot database.
+   * @param coldDatabase cold database, expected to flush its changes on each commit.
+   * @param schedulers schedulers to create a thread that pruning runs on.
+   * @return chain storage.
+   */
+  public BeaconChainStorage create(
+      Database database, Database coldDatabase, Schedulers schedulers) {
+    if (spec == null) {
+      throw new IllegalStateException("Spec is required to prune finalized storage");
+    }
+    HotColdBlockStorage blockStorage =
+        new HotColdBlockStorage(
+            BeaconBlockStorageImpl.create(database, objectHasher, serializerFactory),
+            BeaconBlockStorageImpl.create(coldDatabase, objectHasher, serializerFactory));
+    HotColdStateStorage stateStorage =
+        new HotColdStateStorage(
+            BeaconStateStorageImpl.create(database, objectHasher, serializerFactory),
+            BeaconStateStorageImpl.create(coldDatabase, objectHasher, serializerFactory));
+    FinalizedStoragePruner pruner =
+        new FinalizedStoragePruner(
+            spec,
+            blockStorage,
+            stateStorage,
+            database,
+            coldDatabase,
+            FinalizedStoragePruner.DEFAULT_COMPACTION_PERIOD);
+    return create(
+        database,
+        blockStorage,
+        stateStorage,
+        pruner,
+        schedulers.newSingleThreadDaemon("storage-pruner"));
+  }
+
+  private BeaconChainStorage create(
+      Database database,
+      BeaconBlockStorage blockStorage,
+      BeaconStateStorage stateStorage,
+      @Nullable FinalizedStoragePruner pruner,
+      @Nullable Scheduler pruningScheduler) {
+    BeaconTupleStorage tupleStorage =
+        spec != null && stateSnapshotInterval != null
+            ? new SnapshotBeaconTupleStorage(spec, blockStorage, stateStorage, stateSnapshotInterval)
+            : new BeaconTupleStorageImpl(blockStorage, stateStorage);
 
     SingleValueSource<Checkpoint> justifiedStorage =
         createSingleValueStorage(database, "justified-hash", Checkpoint.class);
@@ -53,7 +132,9 @@ public class SSZBeaconChainStorageFactory implements BeaconChainStorageFactory {
         tupleStorage,
         justifiedStorage,
         bestJustifiedStorage,
-        finalizedStorage);
+        finalizedStorage,
+        pruner,
+        pruningScheduler);
   }
 
   private <U> SingleValueSource<U> createSingleValueStorage(
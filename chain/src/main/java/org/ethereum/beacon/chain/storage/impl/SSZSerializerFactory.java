@@ -1,15 +1,33 @@
 package org.ethereum.beacon.chain.storage.impl;
 
 import java.util.function.Function;
+import javax.annotation.Nullable;
+import org.ethereum.beacon.consensus.transition.DelegateBeaconState;
+import org.ethereum.beacon.core.BeaconState;
+import org.ethereum.beacon.core.spec.SpecConstants;
+import org.ethereum.beacon.core.state.BeaconStateImpl;
+import org.ethereum.beacon.core.state.LazyBeaconState;
 import org.ethereum.beacon.ssz.SSZSerializer;
 import tech.pegasys.artemis.util.bytes.BytesValue;
 
 public class SSZSerializerFactory implements SerializerFactory {
 
   private final SSZSerializer serializer;
+  @Nullable private final SpecConstants lazyStateConstants;
 
   public SSZSerializerFactory(SSZSerializer serializer) {
+    this(serializer, null);
+  }
+
+  /**
+   * @param serializer SSZ serializer.
+   * @param lazyStateConstants if set, states are decoded into {@link LazyBeaconState} which uses
+   *     these constants to create a mutable copy, otherwise states are fully decoded.
+   */
+  public SSZSerializerFactory(
+      SSZSerializer serializer, @Nullable SpecConstants lazyStateConstants) {
     this.serializer = serializer;
+    this.lazyStateConstants = lazyStateConstants;
   }
 
   @Override
@@ -19,6 +37,31 @@ public class SSZSerializerFactory implements SerializerFactory {
 
   @Override
   public <T> Function<T, BytesValue> getSerializer(Class<? extends T> objectClass) {
+    if (BeaconState.class.isAssignableFrom(objectClass)) {
+      return value -> encodeState((BeaconState) value);
+    }
     return serializer::encode2;
   }
+
+  /** A lazy state is read-only, thus, its original serialization is reused as is. */
+  private BytesValue encodeState(BeaconState state) {
+    BeaconState origin = state;
+    while (origin instanceof DelegateBeaconState) {
+      origin = ((DelegateBeaconState) origin).getDelegate();
+    }
+    if (origin instanceof LazyBeaconState) {
+      return ((LazyBeaconState) origin).getData();
+    }
+    return serializer.encode2(state);
+  }
+
+  @Override
+  public Function<BytesValue, BeaconState> getStateDeserializer() {
+    if (lazyStateConstants == null) {
+      return getDeserializer(BeaconStateImpl.class);
+    }
+    return bytes ->
+        new LazyBeaconState(
+            serializer.decodeView(bytes, BeaconStateImpl.class), lazyStateConstants);
+  }
 }
@@ -1,8 +1,10 @@
 package org.ethereum.beacon.chain.storage.impl;
 
 import java.util.function.Function;
+import org.ethereum.beacon.core.BeaconState;
 import org.ethereum.beacon.core.spec.SpecConstants;
 import org.ethereum.beacon.core.spec.SpecConstantsResolver;
+import org.ethereum.beacon.core.state.BeaconStateImpl;
 import org.ethereum.beacon.ssz.SSZBuilder;
 import tech.pegasys.artemis.util.bytes.BytesValue;
 
@@ -12,10 +14,26 @@ public interface SerializerFactory {
 
   <T> Function<T, BytesValue> getSerializer(Class<? extends T> objectClass);
 
+  /** Returns deserializer of beacon states, by default states are fully decoded. */
+  default Function<BytesValue, BeaconState> getStateDeserializer() {
+    return getDeserializer(BeaconStateImpl.class);
+  }
+
   static SerializerFactory createSSZ(SpecConstants specConstants) {
+    return createSSZ(specConstants, true);
+  }
+
+  /**
+   * @param specConstants spec constants.
+   * @param lazyStates whether states are decoded lazily, see {@link
+   *     org.ethereum.beacon.core.state.LazyBeaconState}.
+   * @return SSZ serializer factory.
+   */
+  static SerializerFactory createSSZ(SpecConstants specConstants, boolean lazyStates) {
     return new SSZSerializerFactory(new SSZBuilder()
             .withExternalVarResolver(new SpecConstantsResolver(specConstants))
             .withExtraObjectCreator(SpecConstants.class, specConstants)
-            .buildSerializer());
+            .buildSerializer(),
+        lazyStates ? specConstants : null);
   }
 }
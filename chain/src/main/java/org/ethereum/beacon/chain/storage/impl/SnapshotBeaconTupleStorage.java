@@ -0,0 +1,252 @@
+package org.ethereum.beacon.chain.storage.impl;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nonnull;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.ethereum.beacon.chain.BeaconTuple;
+import org.ethereum.beacon.chain.storage.BeaconBlockStorage;
+import org.ethereum.beacon.chain.storage.BeaconStateStorage;
+import org.ethereum.beacon.chain.storage.BeaconTupleStorage;
+import org.ethereum.beacon.consensus.BeaconChainSpec;
+import org.ethereum.beacon.consensus.BeaconStateEx;
+import org.ethereum.beacon.consensus.BlockTransition;
+import org.ethereum.beacon.consensus.StateTransitions;
+import org.ethereum.beacon.consensus.TransitionType;
+import org.ethereum.beacon.consensus.transition.BeaconStateExImpl;
+import org.ethereum.beacon.consensus.transition.EmptySlotTransition;
+import org.ethereum.beacon.core.BeaconBlock;
+import org.ethereum.beacon.core.types.EpochNumber;
+import org.ethereum.beacon.core.types.SlotNumber;
+import tech.pegasys.artemis.ethereum.core.Hash32;
+import tech.pegasys.artemis.util.uint.UInt64;
+
+/**
+ * Tuple storage which persists full states only at epoch boundaries and reconstructs the rest of
+ * them by replaying stored blocks.
+ *
+ * <p>A state is persisted if its block is the first block of a snapshot period, i.e. the block and
+ * its parent belong to different spans of {@code snapshotInterval} epochs. A state which is not
+ * persisted is reconstructed by applying {@link EmptySlotTransition} and block transition to the
+ * nearest ancestor state that is either persisted or kept in memory. Recently put and reconstructed
+ * states are kept in a bounded LRU map.
+ *
+ * <p>Number of persisted states and reconstruction latency are tracked for monitoring.
+ */
+public class SnapshotBeaconTupleStorage implements BeaconTupleStorage {
+  private static final Logger logger = LogManager.getLogger(SnapshotBeaconTupleStorage.class);
+
+  public static final EpochNumber DEFAULT_SNAPSHOT_INTERVAL = EpochNumber.of(4);
+  public static final int DEFAULT_HOT_STATES = 64;
+
+  private final BeaconChainSpec spec;
+  private final BeaconBlockStorage blockStorage;
+  private final BeaconStateStorage stateStorage;
+  private final EmptySlotTransition slotTransition;
+  private final BlockTransition<BeaconStateEx> blockTransition;
+  private final EpochNumber snapshotInterval;
+  /** Recent states keyed by block root. */
+  private final Map<Hash32, BeaconStateEx> hotStates;
+
+  private final AtomicLong storedBlocks = new AtomicLong(0);
+  private final AtomicLong storedStates = new AtomicLong(0);
+  private final AtomicLong replayCount = new AtomicLong(0);
+  private final AtomicLong replayedBlocks = new AtomicLong(0);
+  private final AtomicLong replayTime = new AtomicLong(0);
+
+  public SnapshotBeaconTupleStorage(
+      BeaconChainSpec spec,
+      BeaconBlockStorage blockStorage,
+      BeaconStateStorage stateStorage,
+      EmptySlotTransition slotTransition,
+      BlockTransition<BeaconStateEx> blockTransition,
+      EpochNumber snapshotInterval,
+      int hotStatesCapacity) {
+    if (snapshotInterval.equals(EpochNumber.ZERO)) {
+      throw new IllegalArgumentException("Snapshot interval must be positive");
+    }
+    this.spec = spec;
+    this.blockStorage = blockStorage;
+    this.stateStorage = stateStorage;
+    this.slotTransition = slotTransition;
+    this.blockTransition = blockTransition;
+    this.snapshotInterval = snapshotInterval;
+    this.hotStates =
+        Collections.synchronizedMap(
+            new LinkedHashMap<Hash32, BeaconStateEx>(hotStatesCapacity + 1, .75F, true) {
+              @Override
+              protected boolean removeEldestEntry(Map.Entry<Hash32, BeaconStateEx> eldest) {
+                return size() > hotStatesCapacity;
+              }
+            });
+  }
+
+  public SnapshotBeaconTupleStorage(
+      BeaconChainSpec spec,
+      BeaconBlockStorage blockStorage,
+      BeaconStateStorage stateStorage,
+      EpochNumber snapshotInterval) {
+    this(
+        spec,
+        blockStorage,
+        stateStorage,
+        StateTransitions.preBlockTransition(spec),
+        StateTransitions.blockTransition(spec),
+        snapshotInterval,
+        DEFAULT_HOT_STATES);
+  }
+
+  @Override
+  public Optional<BeaconTuple> get(@Nonnull Hash32 hash) {
+    Objects.requireNonNull(hash);
+    return blockStorage.get(hash).map(block -> BeaconTuple.of(block, getState(hash, block)));
+  }
+
+  @Override
+  public void put(@Nonnull Hash32 hash, @Nonnull BeaconTuple tuple) {
+    put(tuple);
+  }
+
+  @Override
+  public void put(@Nonnull BeaconTuple tuple) {
+    Objects.requireNonNull(tuple);
+
+    BeaconBlock block = tuple.getBlock();
+    boolean snapshot = isSnapshot(block);
+    blockStorage.put(block);
+    if (snapshot) {
+      stateStorage.put(block.getStateRoot(), tuple.getState());
+      storedStates.incrementAndGet();
+    }
+    storedBlocks.incrementAndGet();
+    hotStates.put(spec.signing_root(block), tuple.getState());
+  }
+
+  @Override
+  public void remove(@Nonnull Hash32 hash) {
+    Objects.requireNonNull(hash);
+    blockStorage.get(hash).ifPresent(block -> stateStorage.remove(block.getStateRoot()));
+    blockStorage.remove(hash);
+    hotStates.remove(hash);
+  }
+
+  @Override
+  public void flush() {
+    blockStorage.flush();
+    stateStorage.flush();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return blockStorage.isEmpty();
+  }
+
+  private boolean isSnapshot(BeaconBlock block) {
+    Optional<BeaconBlock> parent = blockStorage.get(block.getParentRoot());
+    return !parent.isPresent() || !getSpan(parent.get().getSlot()).equals(getSpan(block.getSlot()));
+  }
+
+  private UInt64 getSpan(SlotNumber slot) {
+    return spec.compute_epoch_at_slot(slot).dividedBy(snapshotInterval);
+  }
+
+  private BeaconStateEx getState(Hash32 root, BeaconBlock block) {
+    BeaconStateEx state = hotStates.get(root);
+    if (state != null) {
+      return state;
+    }
+    Optional<BeaconStateEx> stored = getStoredState(block);
+    if (stored.isPresent()) {
+      hotStates.put(root, stored.get());
+      return stored.get();
+    }
+
+    state = replay(root, block);
+    hotStates.put(root, state);
+    return state;
+  }
+
+  private Optional<BeaconStateEx> getStoredState(BeaconBlock block) {
+    return stateStorage
+        .get(block.getStateRoot())
+        .map(state -> new BeaconStateExImpl(state, TransitionType.UNKNOWN));
+  }
+
+  /** Reconstructs a state by replaying blocks on top of the nearest available ancestor state. */
+  private BeaconStateEx replay(Hash32 root, BeaconBlock block) {
+    long start = System.nanoTime();
+
+    Deque<BeaconBlock> blocks = new ArrayDeque<>();
+    BeaconBlock current = block;
+    BeaconStateEx state;
+    while (true) {
+      blocks.push(current);
+      Hash32 parentRoot = current.getParentRoot();
+      BeaconBlock parent =
+          blockStorage
+              .get(parentRoot)
+              .orElseThrow(() -> new IllegalStateException("State inconsistency for block " + root));
+      state = hotStates.get(parentRoot);
+      if (state == null) {
+        state = getStoredState(parent).orElse(null);
+      }
+      if (state != null) {
+        break;
+      }
+      current = parent;
+    }
+
+    int replayed = blocks.size();
+    while (!blocks.isEmpty()) {
+      BeaconBlock next = blocks.pop();
+      state = blockTransition.apply(slotTransition.apply(state, next.getSlot()), next);
+    }
+
+    long time = System.nanoTime() - start;
+    replayCount.incrementAndGet();
+    replayedBlocks.addAndGet(replayed);
+    replayTime.addAndGet(time);
+    logger.debug(
+        "State of block {} reconstructed from {} blocks in {}ms",
+        root,
+        replayed,
+        time / 1_000_000);
+
+    return state;
+  }
+
+  /** @return number of blocks put to the storage. */
+  public long getStoredBlocks() {
+    return storedBlocks.get();
+  }
+
+  /** @return number of states persisted along with blocks. */
+  public long getStoredStates() {
+    return storedStates.get();
+  }
+
+  /** @return number of states reconstructed by replaying blocks. */
+  public long getReplayCount() {
+    return replayCount.get();
+  }
+
+  public long getReplayedBlocks() {
+    return replayedBlocks.get();
+  }
+
+  /** @return total time spent on state reconstruction, in nanoseconds. */
+  public long getReplayTime() {
+    return replayTime.get();
+  }
+
+  public EpochNumber getSnapshotInterval() {
+    return snapshotInterval;
+  }
+}
@@ -0,0 +1,129 @@
+package org.ethereum.beacon.chain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.ethereum.beacon.chain.storage.BeaconTupleStorage;
+import org.ethereum.beacon.consensus.BeaconChainSpec;
+import org.ethereum.beacon.consensus.BeaconStateEx;
+import org.ethereum.beacon.core.BeaconBlock;
+import org.ethereum.beacon.core.BeaconState;
+import org.ethereum.beacon.core.state.Checkpoint;
+import org.ethereum.beacon.core.types.EpochNumber;
+import org.ethereum.beacon.core.types.SlotNumber;
+import org.junit.Test;
+import tech.pegasys.artemis.ethereum.core.Hash32;
+import tech.pegasys.artemis.util.bytes.Bytes32;
+import tech.pegasys.artemis.util.bytes.BytesValues;
+
+public class CheckpointStateCacheTest {
+
+  private static Checkpoint checkpoint(int epoch) {
+    return new Checkpoint(
+        EpochNumber.of(epoch), Hash32.wrap(Bytes32.leftPad(BytesValues.toMinimalBytes(epoch))));
+  }
+
+  private CheckpointStateCache createCache(int capacity) {
+    BeaconChainSpec spec = mock(BeaconChainSpec.class);
+    when(spec.compute_start_slot_at_epoch(any())).thenReturn(SlotNumber.ZERO);
+
+    BeaconStateEx state = mock(BeaconStateEx.class);
+    when(state.getSlot()).thenReturn(SlotNumber.ZERO);
+    BeaconTupleStorage tupleStorage = mock(BeaconTupleStorage.class);
+    when(tupleStorage.get(any()))
+        .thenReturn(Optional.of(BeaconTuple.of(mock(BeaconBlock.class), state)));
+
+    return new CheckpointStateCache(spec, tupleStorage, capacity);
+  }
+
+  @Test
+  public void countsHitsAndMisses() {
+    CheckpointStateCache cache = createCache(4);
+    assertThat(cache.get(checkpoint(1))).isPresent();
+    assertThat(cache.get(checkpoint(1))).isPresent();
+    assertThat(cache.getMisses()).isEqualTo(1);
+    assertThat(cache.getHits()).isEqualTo(1);
+    assertThat(cache.getComputeCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void evictsEldest() {
+    CheckpointStateCache cache = createCache(2);
+    cache.get(checkpoint(1));
+    cache.get(checkpoint(2));
+    cache.get(checkpoint(1));
+    cache.get(checkpoint(3));
+
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.getEvictions()).isEqualTo(1);
+    assertThat(cache.getExisting(checkpoint(1))).isPresent();
+    assertThat(cache.getExisting(checkpoint(2))).isEmpty();
+  }
+
+  @Test
+  public void prunesBelowFinalized() {
+    CheckpointStateCache cache = createCache(8);
+    cache.get(checkpoint(1));
+    cache.get(checkpoint(2));
+    cache.get(checkpoint(3));
+
+    assertThat(cache.prune(EpochNumber.of(2))).isEqualTo(1);
+    assertThat(cache.getExisting(checkpoint(1))).isEmpty();
+    assertThat(cache.getExisting(checkpoint(2))).isPresent();
+  }
+
+  @Test(timeout = 10000)
+  public void computesOnceForConcurrentRequests() throws Exception {
+    int threads = 8;
+    BeaconChainSpec spec = mock(BeaconChainSpec.class);
+    when(spec.compute_start_slot_at_epoch(any())).thenReturn(SlotNumber.ZERO);
+    BeaconStateEx state = mock(BeaconStateEx.class);
+    when(state.getSlot()).thenReturn(SlotNumber.ZERO);
+
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger loads = new AtomicInteger();
+    BeaconTupleStorage tupleStorage = mock(BeaconTupleStorage.class);
+    when(tupleStorage.get(any()))
+        .thenAnswer(
+            invocation -> {
+              loads.incrementAndGet();
+              release.await();
+              return Optional.of(BeaconTuple.of(mock(BeaconBlock.class), state));
+            });
+    CheckpointStateCache cache = new CheckpointStateCache(spec, tupleStorage, 4);
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    List<Future<Optional<BeaconState>>> results = new ArrayList<>();
+    for (int i = 0; i < threads; i++) {
+      results.add(executor.submit(() -> cache.get(checkpoint(1))));
+    }
+    // the first request is computing the state while others are waiting for it
+    while (cache.getWaits() < threads - 1) {
+      Thread.sleep(1);
+    }
+    release.countDown();
+
+    for (Future<Optional<BeaconState>> result : results) {
+      assertThat(result.get()).containsSame(state);
+    }
+    executor.shutdown();
+    executor.awaitTermination(1, TimeUnit.SECONDS);
+
+    assertThat(loads.get()).isEqualTo(1);
+    assertThat(cache.getComputeCount()).isEqualTo(1);
+    assertThat(cache.getMisses()).isEqualTo(1);
+    assertThat(cache.getWaits()).isEqualTo(threads - 1);
+    assertThat(cache.getHits()).isEqualTo(0);
+  }
+}
@@ -0,0 +1,93 @@
+package org.ethereum.beacon.chain.forkchoice;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import tech.pegasys.artemis.ethereum.core.Hash32;
+import tech.pegasys.artemis.util.bytes.Bytes32;
+import tech.pegasys.artemis.util.bytes.BytesValues;
+
+public class ProtoArrayTest {
+
+  private static Hash32 root(long i) {
+    return Hash32.wrap(Bytes32.leftPad(BytesValues.toMinimalBytes(i)));
+  }
+
+  /*
+   *        0
+   *       / \
+   *      1   2
+   *     /     \
+   *    3       4
+   */
+  private ProtoArray createTree() {
+    ProtoArray protoArray = new ProtoArray(root(100));
+    assertThat(protoArray.onBlock(root(1), root(100))).isTrue();
+    assertThat(protoArray.onBlock(root(2), root(100))).isTrue();
+    assertThat(protoArray.onBlock(root(3), root(1))).isTrue();
+    assertThat(protoArray.onBlock(root(4), root(2))).isTrue();
+    return protoArray;
+  }
+
+  @Test
+  public void ignoresUnknownParentAndDuplicates() {
+    ProtoArray protoArray = createTree();
+    assertThat(protoArray.onBlock(root(5), root(42))).isFalse();
+    assertThat(protoArray.onBlock(root(3), root(1))).isFalse();
+    assertThat(protoArray.size()).isEqualTo(5);
+  }
+
+  @Test
+  public void tieIsBrokenByRoot() {
+    ProtoArray protoArray = createTree();
+    assertThat(protoArray.findHead(root(100))).isEqualTo(root(4));
+  }
+
+  @Test
+  public void headFollowsVotes() {
+    ProtoArray protoArray = createTree();
+
+    protoArray.applyDelta(root(3), 10);
+    assertThat(protoArray.findHead(root(100))).isEqualTo(root(3));
+    assertThat(protoArray.getWeight(root(100))).hasValue(10L);
+    assertThat(protoArray.getWeight(root(1))).hasValue(10L);
+
+    protoArray.applyDelta(root(2), 20);
+    assertThat(protoArray.findHead(root(100))).isEqualTo(root(4));
+
+    protoArray.applyDelta(root(2), -20);
+    assertThat(protoArray.findHead(root(100))).isEqualTo(root(3));
+    assertThat(protoArray.getWeight(root(2))).hasValue(0L);
+
+    // head is searched among descendants of justified root only
+    assertThat(protoArray.findHead(root(2))).isEqualTo(root(4));
+  }
+
+  @Test
+  public void newBlockExtendsBestChain() {
+    ProtoArray protoArray = createTree();
+    protoArray.applyDelta(root(3), 10);
+    protoArray.onBlock(root(6), root(3));
+    assertThat(protoArray.findHead(root(100))).isEqualTo(root(6));
+  }
+
+  @Test
+  public void pruneRemovesNonDescendants() {
+    ProtoArray protoArray = createTree();
+    protoArray.applyDelta(root(4), 10);
+    protoArray.applyDelta(root(3), 5);
+
+    assertThat(protoArray.prune(root(1))).isEqualTo(3);
+    assertThat(protoArray.size()).isEqualTo(2);
+    assertThat(protoArray.getAnchorRoot()).isEqualTo(root(1));
+    assertThat(protoArray.contains(root(4))).isFalse();
+    assertThat(protoArray.findHead(root(1))).isEqualTo(root(3));
+
+    // votes for pruned blocks are ignored
+    protoArray.applyDelta(root(4), -10);
+    protoArray.onBlock(root(7), root(1));
+    protoArray.applyDelta(root(7), 6);
+    assertThat(protoArray.findHead(root(1))).isEqualTo(root(7));
+    assertThat(protoArray.getWeight(root(1))).hasValue(11L);
+  }
+}
@@ -0,0 +1,69 @@
+package org.ethereum.beacon.chain.forkchoice;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import org.ethereum.beacon.core.types.EpochNumber;
+import org.ethereum.beacon.core.types.ValidatorIndex;
+import org.junit.Test;
+import tech.pegasys.artemis.ethereum.core.Hash32;
+import tech.pegasys.artemis.util.bytes.Bytes32;
+import tech.pegasys.artemis.util.bytes.BytesValues;
+
+public class VoteTrackerTest {
+
+  private static Hash32 root(long i) {
+    return Hash32.wrap(Bytes32.leftPad(BytesValues.toMinimalBytes(i)));
+  }
+
+  @Test
+  public void keepsLatestVote() {
+    VoteTracker tracker = new VoteTracker();
+    assertThat(tracker.processVote(ValidatorIndex.of(3), root(1), EpochNumber.of(2))).isTrue();
+    assertThat(tracker.processVote(ValidatorIndex.of(3), root(2), EpochNumber.of(2))).isFalse();
+    assertThat(tracker.processVote(ValidatorIndex.of(3), root(2), EpochNumber.of(1))).isFalse();
+    assertThat(tracker.getLatestMessage(ValidatorIndex.of(3)).get().getRoot()).isEqualTo(root(1));
+    assertThat(tracker.getLatestMessage(ValidatorIndex.of(2))).isEmpty();
+    assertThat(tracker.getLatestMessage(ValidatorIndex.of(5000))).isEmpty();
+    assertThat(tracker.size()).isEqualTo(4);
+  }
+
+  @Test
+  public void computesDeltas() {
+    VoteTracker tracker = new VoteTracker();
+    long[] balances = {10, 20, 30};
+
+    tracker.processVote(ValidatorIndex.of(0), root(1), EpochNumber.of(1));
+    tracker.processVote(ValidatorIndex.of(1), root(1), EpochNumber.of(1));
+    tracker.processVote(ValidatorIndex.of(2), root(2), EpochNumber.of(1));
+    Map<Hash32, Long> deltas = tracker.computeDeltas(balances, r -> true);
+    assertThat(deltas).containsEntry(root(1), 30L).containsEntry(root(2), 30L).hasSize(2);
+
+    // nothing changed
+    assertThat(tracker.computeDeltas(balances, r -> true)).isEmpty();
+
+    tracker.processVote(ValidatorIndex.of(0), root(2), EpochNumber.of(2));
+    deltas = tracker.computeDeltas(balances, r -> true);
+    assertThat(deltas).containsEntry(root(1), -10L).containsEntry(root(2), 10L).hasSize(2);
+
+    // new balances
+    long[] newBalances = {10, 25, 30};
+    deltas = tracker.computeDeltas(newBalances, r -> true);
+    assertThat(deltas).containsEntry(root(1), 5L).hasSize(1);
+  }
+
+  @Test
+  public void keepsVoteForUnknownRootPending() {
+    VoteTracker tracker = new VoteTracker();
+    long[] balances = {10};
+
+    tracker.processVote(ValidatorIndex.of(0), root(1), EpochNumber.of(1));
+    tracker.computeDeltas(balances, r -> true);
+
+    tracker.processVote(ValidatorIndex.of(0), root(2), EpochNumber.of(2));
+    assertThat(tracker.computeDeltas(balances, r -> !r.equals(root(2)))).isEmpty();
+
+    Map<Hash32, Long> deltas = tracker.computeDeltas(balances, r -> true);
+    assertThat(deltas).containsEntry(root(1), -10L).containsEntry(root(2), 10L).hasSize(2);
+  }
+}
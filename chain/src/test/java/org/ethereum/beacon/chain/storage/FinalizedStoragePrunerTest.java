@@ -0,0 +1,166 @@
+package org.ethereum.beacon.chain.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.ethereum.beacon.chain.storage.impl.BeaconBlockStorageImpl;
+import org.ethereum.beacon.chain.storage.impl.BeaconChainStorageImpl;
+import org.ethereum.beacon.chain.storage.impl.BeaconStateStorageImpl;
+import org.ethereum.beacon.chain.storage.impl.BeaconTupleStorageImpl;
+import org.ethereum.beacon.chain.storage.impl.DelegateBlockHeaderStorageImpl;
+import org.ethereum.beacon.chain.storage.impl.FinalizedStoragePruner;
+import org.ethereum.beacon.chain.storage.impl.HotColdBlockStorage;
+import org.ethereum.beacon.chain.storage.impl.HotColdStateStorage;
+import org.ethereum.beacon.consensus.BeaconChainSpec;
+import org.ethereum.beacon.core.BeaconBlock;
+import org.ethereum.beacon.core.BeaconBlockBody;
+import org.ethereum.beacon.core.BeaconState;
+import org.ethereum.beacon.core.state.Checkpoint;
+import org.ethereum.beacon.core.types.BLSSignature;
+import org.ethereum.beacon.core.types.EpochNumber;
+import org.ethereum.beacon.core.types.SlotNumber;
+import org.ethereum.beacon.db.Database;
+import org.ethereum.beacon.db.source.SingleValueSource;
+import org.ethereum.beacon.db.source.impl.HashMapDataSource;
+import org.ethereum.beacon.db.source.impl.HashMapHoleyList;
+import org.ethereum.beacon.schedulers.ControlledSchedulers;
+import org.ethereum.beacon.schedulers.Schedulers;
+import org.junit.Test;
+import tech.pegasys.artemis.ethereum.core.Hash32;
+import tech.pegasys.artemis.util.bytes.Bytes32;
+import tech.pegasys.artemis.util.bytes.BytesValues;
+
+public class FinalizedStoragePrunerTest {
+
+  private final BeaconChainSpec spec = BeaconChainSpec.createWithDefaults();
+  private final BeaconState state = BeaconState.getEmpty();
+
+  private final HotColdBlockStorage blocks =
+      new HotColdBlockStorage(createBlockStorage(), createBlockStorage());
+  private final HotColdStateStorage states =
+      new HotColdStateStorage(createStateStorage(), createStateStorage());
+  private final FinalizedStoragePruner pruner =
+      new FinalizedStoragePruner(
+          spec, blocks, states, Database.inMemoryDB(), Database.inMemoryDB(), Integer.MAX_VALUE);
+
+  private long counter = 0;
+
+  private BeaconBlockStorage createBlockStorage() {
+    return new BeaconBlockStorageImpl(
+        spec.getObjectHasher(), new HashMapDataSource<>(), new HashMapHoleyList<>());
+  }
+
+  private BeaconStateStorage createStateStorage() {
+    return new BeaconStateStorageImpl(new HashMapDataSource<>(), spec.getObjectHasher());
+  }
+
+  private Hash32 put(long slot, Hash32 parent) {
+    BeaconBlock block =
+        new BeaconBlock(
+            SlotNumber.of(slot),
+            parent,
+            Hash32.wrap(Bytes32.leftPad(BytesValues.toMinimalBytes(counter++))),
+            BeaconBlockBody.getEmpty(spec.getConstants()),
+            BLSSignature.ZERO);
+    Hash32 root = spec.signing_root(block);
+    blocks.put(root, block);
+    states.put(block.getStateRoot(), state);
+    return root;
+  }
+
+  private boolean hasState(BeaconStateStorage storage, Hash32 root) {
+    return storage.get(blocks.get(root).get().getStateRoot()).isPresent();
+  }
+
+  @Test
+  public void pruneUponFinalization() {
+    int slotsPerEpoch = spec.getConstants().getSlotsPerEpoch().intValue();
+
+    List<Hash32> canonical = new ArrayList<>();
+    canonical.add(put(0, Hash32.ZERO));
+    for (int slot = 1; slot <= 3 * slotsPerEpoch; slot++) {
+      canonical.add(put(slot, canonical.get(slot - 1)));
+    }
+    Hash32 orphan = put(2, canonical.get(1));
+    Hash32 orphanChild = put(3, orphan);
+    Hash32 lateFork = put(2 * slotsPerEpoch + 1, canonical.get(2 * slotsPerEpoch - 1));
+
+    Hash32 finalized = canonical.get(2 * slotsPerEpoch);
+    pruner.onFinalized(new Checkpoint(EpochNumber.of(2), finalized));
+
+    assertThat(pruner.getMigratedBlocks()).isEqualTo(2 * slotsPerEpoch);
+    assertThat(pruner.getRemovedBlocks()).isEqualTo(3);
+    // genesis and the first block of epoch 1
+    assertThat(pruner.getMigratedStates()).isEqualTo(2);
+
+    for (int slot = 0; slot < 2 * slotsPerEpoch; slot++) {
+      Hash32 root = canonical.get(slot);
+      assertThat(blocks.getHot().get(root)).isEmpty();
+      assertThat(blocks.getCold().get(root)).isPresent();
+      assertThat(blocks.getSlotBlocks(SlotNumber.of(slot))).containsExactly(root);
+      assertThat(states.getHot().get(blocks.get(root).get().getStateRoot())).isEmpty();
+    }
+    assertThat(hasState(states.getCold(), canonical.get(0))).isTrue();
+    assertThat(hasState(states.getCold(), canonical.get(slotsPerEpoch))).isTrue();
+    assertThat(hasState(states.getCold(), canonical.get(1))).isFalse();
+
+    assertThat(blocks.getHot().get(finalized)).isPresent();
+    assertThat(hasState(states.getHot(), finalized)).isTrue();
+    assertThat(blocks.getHot().get(canonical.get(3 * slotsPerEpoch))).isPresent();
+
+    assertThat(blocks.get(orphan)).isEmpty();
+    assertThat(blocks.get(orphanChild)).isEmpty();
+    assertThat(blocks.get(lateFork)).isEmpty();
+    assertThat(blocks.getSlotBlocks(SlotNumber.of(2 * slotsPerEpoch + 1)))
+        .containsExactly(canonical.get(2 * slotsPerEpoch + 1));
+
+    // same checkpoint doesn't trigger pruning
+    pruner.onFinalized(new Checkpoint(EpochNumber.of(2), finalized));
+    assertThat(pruner.getMigratedBlocks()).isEqualTo(2 * slotsPerEpoch);
+
+    Hash32 nextFinalized = canonical.get(3 * slotsPerEpoch);
+    pruner.onFinalized(new Checkpoint(EpochNumber.of(3), nextFinalized));
+    assertThat(pruner.getMigratedBlocks()).isEqualTo(3 * slotsPerEpoch);
+    assertThat(blocks.getCold().get(finalized)).isPresent();
+    assertThat(hasState(states.getCold(), finalized)).isTrue();
+  }
+
+  @Test
+  public void pruneInBackgroundUponCommit() {
+    ControlledSchedulers schedulers = Schedulers.createControlled();
+    BeaconChainStorage chainStorage =
+        new BeaconChainStorageImpl(
+            Database.inMemoryDB(),
+            blocks,
+            new DelegateBlockHeaderStorageImpl(blocks, spec.getObjectHasher()),
+            states,
+            new BeaconTupleStorageImpl(blocks, states),
+            SingleValueSource.memSource(),
+            SingleValueSource.memSource(),
+            SingleValueSource.memSource(),
+            pruner,
+            schedulers.newSingleThreadDaemon("storage-pruner"));
+
+    Hash32 genesis = put(0, Hash32.ZERO);
+    Hash32 finalized = put(1, genesis);
+    chainStorage.getFinalizedStorage().set(new Checkpoint(EpochNumber.ZERO, finalized));
+    chainStorage.commit();
+    assertThat(blocks.getHot().get(genesis)).isPresent();
+
+    schedulers.addTime(1);
+    assertThat(blocks.getHot().get(genesis)).isEmpty();
+    assertThat(blocks.getCold().get(genesis)).isPresent();
+    assertThat(pruner.getMigratedBlocks()).isEqualTo(1);
+  }
+
+  @Test
+  public void noPruningOnceStopped() {
+    Hash32 genesis = put(0, Hash32.ZERO);
+    Hash32 finalized = put(1, genesis);
+    pruner.stop();
+    pruner.onFinalized(new Checkpoint(EpochNumber.ZERO, finalized));
+    assertThat(blocks.getHot().get(genesis)).isPresent();
+    assertThat(pruner.getMigratedBlocks()).isEqualTo(0);
+  }
+}
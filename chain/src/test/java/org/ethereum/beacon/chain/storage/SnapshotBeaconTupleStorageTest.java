@@ -0,0 +1,125 @@
+package org.ethereum.beacon.chain.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.ethereum.beacon.chain.BeaconTuple;
+import org.ethereum.beacon.chain.storage.impl.BeaconBlockStorageImpl;
+import org.ethereum.beacon.chain.storage.impl.BeaconStateStorageImpl;
+import org.ethereum.beacon.chain.storage.impl.SnapshotBeaconTupleStorage;
+import org.ethereum.beacon.chain.storage.util.StorageUtils;
+import org.ethereum.beacon.consensus.BeaconChainSpec;
+import org.ethereum.beacon.consensus.BeaconStateEx;
+import org.ethereum.beacon.consensus.BlockTransition;
+import org.ethereum.beacon.consensus.ChainStart;
+import org.ethereum.beacon.consensus.transition.EmptySlotTransition;
+import org.ethereum.beacon.consensus.transition.ExtendedSlotTransition;
+import org.ethereum.beacon.consensus.transition.InitialStateTransition;
+import org.ethereum.beacon.consensus.transition.PerEpochTransition;
+import org.ethereum.beacon.consensus.util.StateTransitionTestUtil;
+import org.ethereum.beacon.core.BeaconBlock;
+import org.ethereum.beacon.core.BeaconBlockBody;
+import org.ethereum.beacon.core.state.Eth1Data;
+import org.ethereum.beacon.core.types.BLSSignature;
+import org.ethereum.beacon.core.types.EpochNumber;
+import org.ethereum.beacon.core.types.SlotNumber;
+import org.ethereum.beacon.core.types.Time;
+import org.ethereum.beacon.db.source.impl.HashMapDataSource;
+import org.ethereum.beacon.db.source.impl.HashMapHoleyList;
+import org.junit.Test;
+import tech.pegasys.artemis.ethereum.core.Hash32;
+import tech.pegasys.artemis.util.bytes.Bytes32;
+import tech.pegasys.artemis.util.bytes.BytesValues;
+
+public class SnapshotBeaconTupleStorageTest {
+
+  private final BeaconChainSpec spec =
+      BeaconChainSpec.Builder.createWithDefaultParams()
+          .withComputableGenesisTime(false)
+          .withVerifyDepositProof(false)
+          .build();
+
+  private final EmptySlotTransition slotTransition =
+      new EmptySlotTransition(
+          new ExtendedSlotTransition(
+              new PerEpochTransition(spec) {
+                @Override
+                public BeaconStateEx apply(BeaconStateEx stateEx) {
+                  return stateEx;
+                }
+              },
+              StateTransitionTestUtil.createStateWithNoTransition(),
+              spec));
+  private final BlockTransition<BeaconStateEx> blockTransition =
+      StateTransitionTestUtil.createPerBlockTransition();
+
+  private final BeaconBlockStorage blockStorage =
+      new BeaconBlockStorageImpl(
+          spec.getObjectHasher(), new HashMapDataSource<>(), new HashMapHoleyList<>());
+  private final BeaconStateStorage stateStorage =
+      new BeaconStateStorageImpl(new HashMapDataSource<>(), spec.getObjectHasher());
+
+  private SnapshotBeaconTupleStorage createStorage() {
+    return new SnapshotBeaconTupleStorage(
+        spec,
+        blockStorage,
+        stateStorage,
+        slotTransition,
+        blockTransition,
+        EpochNumber.of(1),
+        SnapshotBeaconTupleStorage.DEFAULT_HOT_STATES);
+  }
+
+  @Test
+  public void persistSnapshotsAndReplayBlocks() {
+    SnapshotBeaconTupleStorage storage = createStorage();
+
+    ChainStart chainStart = new ChainStart(Time.ZERO, Eth1Data.EMPTY, Collections.emptyList());
+    BeaconStateEx initialState =
+        new InitialStateTransition(chainStart, spec).apply(spec.get_empty_block());
+    BeaconTuple genesis = StorageUtils.createInitialBeaconTuple(spec, initialState);
+    storage.put(genesis);
+
+    int slotsPerEpoch = spec.getConstants().getSlotsPerEpoch().intValue();
+    List<BeaconTuple> tuples = new ArrayList<>();
+    BeaconTuple parent = genesis;
+    for (int slot = 1; slot <= 2 * slotsPerEpoch + 1; slot++) {
+      BeaconBlock block =
+          new BeaconBlock(
+              SlotNumber.of(slot),
+              spec.signing_root(parent.getBlock()),
+              Hash32.wrap(Bytes32.leftPad(BytesValues.toMinimalBytes(slot))),
+              BeaconBlockBody.getEmpty(spec.getConstants()),
+              BLSSignature.ZERO);
+      BeaconStateEx state =
+          blockTransition.apply(slotTransition.apply(parent.getState(), block.getSlot()), block);
+      BeaconTuple tuple = BeaconTuple.of(block, state);
+      storage.put(tuple);
+      tuples.add(tuple);
+      parent = tuple;
+    }
+
+    // genesis and first blocks of epochs 1 and 2
+    assertThat(storage.getStoredBlocks()).isEqualTo(2 * slotsPerEpoch + 2);
+    assertThat(storage.getStoredStates()).isEqualTo(3);
+    assertThat(stateStorage.get(tuples.get(slotsPerEpoch - 1).getBlock().getStateRoot()))
+        .isPresent();
+    assertThat(stateStorage.get(tuples.get(slotsPerEpoch).getBlock().getStateRoot())).isEmpty();
+
+    // fresh instance doesn't have hot states
+    SnapshotBeaconTupleStorage restarted = createStorage();
+    BeaconTuple expected = tuples.get(slotsPerEpoch + 2);
+    BeaconTuple reconstructed =
+        restarted.get(spec.signing_root(expected.getBlock())).orElseThrow(AssertionError::new);
+
+    assertThat(reconstructed.getState().getSlot()).isEqualTo(expected.getBlock().getSlot());
+    assertThat(restarted.getReplayCount()).isEqualTo(1);
+    assertThat(restarted.getReplayedBlocks()).isEqualTo(3);
+
+    // served from memory afterwards
+    restarted.get(spec.signing_root(expected.getBlock()));
+    assertThat(restarted.getReplayCount()).isEqualTo(1);
+  }
+}
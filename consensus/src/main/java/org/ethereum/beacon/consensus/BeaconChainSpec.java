@@ -111,11 +111,13 @@ public interface BeaconChainSpec
     private Function<BytesValue, Hash32> hashFunction;
     private ObjectHasher<Hash32> hasher;
     private boolean cache = false;
+    private CachingBeaconChainSpec.CacheSizes cacheSizes = new CachingBeaconChainSpec.CacheSizes();
     private BLSFunctions blsFunctions = null;
     private boolean blsVerify = true;
     private boolean blsVerifyProofOfPossession = true;
     private boolean verifyDepositProof = true;
     private boolean computableGenesisTime = true;
+    private boolean fastEpochProcessing = true;
 
     public static Builder createWithDefaultParams() {
       return new Builder().withConstants(BeaconChainSpec.DEFAULT_CONSTANTS)
@@ -155,6 +157,11 @@ public interface BeaconChainSpec
       return this;
     }
 
+    public Builder withCacheSizes(CachingBeaconChainSpec.CacheSizes cacheSizes) {
+      this.cacheSizes = cacheSizes;
+      return this;
+    }
+
     public Builder withBlsVerifyProofOfPossession(boolean blsVerifyProofOfPossession) {
       this.blsVerifyProofOfPossession = blsVerifyProofOfPossession;
       return this;
@@ -187,33 +194,28 @@ public interface BeaconChainSpec
       return this;
     }
 
+    public Builder withFastEpochProcessing(boolean fastEpochProcessing) {
+      this.fastEpochProcessing = fastEpochProcessing;
+      return this;
+    }
+
     public BeaconChainSpec build() {
       assert constants != null;
       assert hashFunction != null;
       assert hasher != null;
 
-      if (blsFunctions != null) {
-        return new CachingBeaconChainSpec(
-            constants,
-            hashFunction,
-            hasher,
-            blsFunctions,
-            blsVerify,
-            blsVerifyProofOfPossession,
-            verifyDepositProof,
-            computableGenesisTime,
-            cache);
-      } else {
-        return new CachingBeaconChainSpec(
-            constants,
-            hashFunction,
-            hasher,
-            blsVerify,
-            blsVerifyProofOfPossession,
-            verifyDepositProof,
-            computableGenesisTime,
-            cache);
-      }
+      return new CachingBeaconChainSpec(
+          constants,
+          hashFunction,
+          hasher,
+          blsFunctions != null ? blsFunctions : BLSFunctions.getDefaultBLSFunctions(blsVerify),
+          blsVerify,
+          blsVerifyProofOfPossession,
+          verifyDepositProof,
+          computableGenesisTime,
+          cache,
+          cacheSizes,
+          fastEpochProcessing);
     }
   }
 }
@@ -3,11 +3,14 @@ package org.ethereum.beacon.consensus;
 import org.ethereum.beacon.consensus.hasher.ObjectHasher;
 import org.ethereum.beacon.consensus.spec.BLSFunctions;
 import org.ethereum.beacon.core.spec.SpecConstants;
+import org.ethereum.beacon.core.state.ValidatorRecord;
 import org.ethereum.beacon.core.types.BLSPubkey;
 import org.ethereum.beacon.core.types.BLSSignature;
+import org.ethereum.beacon.core.types.ValidatorIndex;
 import org.ethereum.beacon.crypto.BLS381;
 import tech.pegasys.artemis.ethereum.core.Hash32;
 import tech.pegasys.artemis.util.bytes.BytesValue;
+import tech.pegasys.artemis.util.collections.ReadList;
 import tech.pegasys.artemis.util.uint.UInt64;
 
 import java.util.List;
@@ -83,6 +86,11 @@ public class BeaconChainSpecImpl implements BeaconChainSpec {
     return blsFunctions.bls_verify(publicKey, message, signature, domain);
   }
 
+  @Override
+  public boolean bls_verify(BLS381.PublicKey publicKey, Hash32 message, BLSSignature signature, UInt64 domain) {
+    return blsFunctions.bls_verify(publicKey, message, signature, domain);
+  }
+
   @Override
   public boolean bls_verify_multiple(List<BLS381.PublicKey> publicKeys, List<Hash32> messages, BLSSignature signature, UInt64 domain) {
     return blsFunctions.bls_verify_multiple(publicKeys, messages, signature, domain);
@@ -92,4 +100,10 @@ public class BeaconChainSpecImpl implements BeaconChainSpec {
   public BLS381.PublicKey bls_aggregate_pubkeys(List<BLSPubkey> publicKeysBytes) {
     return blsFunctions.bls_aggregate_pubkeys(publicKeysBytes);
   }
+
+  @Override
+  public BLS381.PublicKey bls_aggregate_validator_pubkeys(
+      ReadList<ValidatorIndex, ValidatorRecord> validators, Iterable<ValidatorIndex> indices) {
+    return blsFunctions.bls_aggregate_validator_pubkeys(validators, indices);
+  }
 }
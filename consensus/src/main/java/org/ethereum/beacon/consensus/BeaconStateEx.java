@@ -3,6 +3,7 @@ package org.ethereum.beacon.consensus;
 import java.util.function.Function;
 import javax.annotation.Nullable;
 import org.ethereum.beacon.consensus.transition.BeaconStateExImpl;
+import org.ethereum.beacon.consensus.transition.ParticipationCache;
 import org.ethereum.beacon.core.BeaconState;
 import org.ethereum.beacon.core.spec.SpecConstants;
 import tech.pegasys.artemis.ethereum.core.Hash32;
@@ -24,6 +25,11 @@ public interface BeaconStateEx extends BeaconState {
 
   TransitionType getTransition();
 
+  /** Returns attesters of the current and the previous epochs. */
+  default ParticipationCache getParticipation() {
+    return ParticipationCache.of(this);
+  }
+
   default String toString(
       @Nullable SpecConstants constants,
       @Nullable Function<Object, Hash32> blockHasher) {
@@ -2,6 +2,7 @@ package org.ethereum.beacon.consensus;
 
 import org.ethereum.beacon.consensus.spec.ForkChoice.LatestMessage;
 import org.ethereum.beacon.core.BeaconBlock;
+import org.ethereum.beacon.core.BeaconState;
 import org.ethereum.beacon.core.operations.Attestation;
 import org.ethereum.beacon.core.state.ValidatorRecord;
 import java.util.Optional;
@@ -18,4 +19,13 @@ public interface HeadFunction {
    * @return head block
    */
   BeaconBlock getHead(Function<ValidatorIndex, Optional<LatestMessage>> latestMessageStorage);
+
+  /**
+   * Notifies about a block that has been imported to the chain. Implementations maintaining their
+   * own block tree should override this method, others could rely on chain storage.
+   *
+   * @param block imported block
+   * @param postState state after block processing
+   */
+  default void onNewBlock(BeaconBlock block, BeaconState postState) {}
 }
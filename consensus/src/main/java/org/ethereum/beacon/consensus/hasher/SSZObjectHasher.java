@@ -1,7 +1,9 @@
 package org.ethereum.beacon.consensus.hasher;
 
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
+import javax.annotation.Nullable;
 import org.ethereum.beacon.core.spec.SpecConstants;
 import org.ethereum.beacon.core.spec.SpecConstantsResolver;
 import org.ethereum.beacon.core.types.Hashable;
@@ -20,6 +22,9 @@ import tech.pegasys.artemis.util.bytes.BytesValue;
  */
 public class SSZObjectHasher implements ObjectHasher<Hash32> {
 
+  /** Lists and vectors with less children or chunks are hashed by the calling thread. */
+  public static final int DEFAULT_PARALLEL_HASHING_THRESHOLD = 1024;
+
   private final SSZHasher sszHasher;
 
   public SSZObjectHasher(SSZHasher sszHasher) {
@@ -33,13 +38,28 @@ public class SSZObjectHasher implements ObjectHasher<Hash32> {
 
   public static SSZObjectHasher create(
       SpecConstants constants, Function<BytesValue, Hash32> hashFunction, boolean incremental) {
-    SSZHasher sszHasher =
+    return create(constants, hashFunction, incremental, null);
+  }
+
+  /**
+   * Creates a hasher which hashes large lists and vectors in parallel.
+   *
+   * @param parallelPool pool running hashing tasks, {@code null} turns parallel hashing off.
+   */
+  public static SSZObjectHasher create(
+      SpecConstants constants,
+      Function<BytesValue, Hash32> hashFunction,
+      boolean incremental,
+      @Nullable ForkJoinPool parallelPool) {
+    SSZBuilder builder =
         new SSZBuilder()
             .withExternalVarResolver(new SpecConstantsResolver(constants))
             .withExtraObjectCreator(SpecConstants.class, constants)
-            .withIncrementalHasher(incremental)
-            .buildHasher(hashFunction);
-    return new SSZObjectHasher(sszHasher);
+            .withIncrementalHasher(incremental);
+    if (parallelPool != null) {
+      builder.withParallelHashing(parallelPool, DEFAULT_PARALLEL_HASHING_THRESHOLD);
+    }
+    return new SSZObjectHasher(builder.buildHasher(hashFunction));
   }
 
   @Override
@@ -1,15 +1,21 @@
 package org.ethereum.beacon.consensus.spec;
 
+import org.ethereum.beacon.consensus.util.BatchingBLSFunctions;
+import org.ethereum.beacon.consensus.util.PublicKeyCache;
+import org.ethereum.beacon.core.state.ValidatorRecord;
 import org.ethereum.beacon.core.types.BLSPubkey;
 import org.ethereum.beacon.core.types.BLSSignature;
+import org.ethereum.beacon.core.types.ValidatorIndex;
 import org.ethereum.beacon.crypto.BLS381;
 import org.ethereum.beacon.crypto.BLS381.PublicKey;
 import org.ethereum.beacon.crypto.BLS381.Signature;
 import org.ethereum.beacon.crypto.MessageParameters;
 import org.jetbrains.annotations.NotNull;
 import tech.pegasys.artemis.ethereum.core.Hash32;
+import tech.pegasys.artemis.util.collections.ReadList;
 import tech.pegasys.artemis.util.uint.UInt64;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -24,24 +30,72 @@ import static java.util.stream.Collectors.toList;
 public interface BLSFunctions {
   @NotNull
   static BLSFunctions getDefaultBLSFunctions(boolean blsVerify) {
-    return blsVerify ? new InsecureBLSFunctions() : new DummyBLSFunctions();
+    return getDefaultBLSFunctions(blsVerify, new PublicKeyCache());
+  }
+
+  @NotNull
+  static BLSFunctions getDefaultBLSFunctions(boolean blsVerify, PublicKeyCache publicKeyCache) {
+    return blsVerify ? new BatchingBLSFunctions(publicKeyCache) : new DummyBLSFunctions();
   }
 
   boolean bls_verify(BLSPubkey publicKey, Hash32 message, BLSSignature signature, UInt64 domain);
 
+  /** Same as {@link #bls_verify(BLSPubkey, Hash32, BLSSignature, UInt64)} for a decoded key. */
+  default boolean bls_verify(
+      PublicKey publicKey, Hash32 message, BLSSignature signature, UInt64 domain) {
+    return bls_verify(BLSPubkey.wrap(publicKey.getEncodedBytes()), message, signature, domain);
+  }
+
   boolean bls_verify_multiple(
       List<PublicKey> publicKeys, List<Hash32> messages, BLSSignature signature, UInt64 domain);
 
   PublicKey bls_aggregate_pubkeys(List<BLSPubkey> publicKeysBytes);
 
+  /**
+   * Aggregates public keys of validators addressed by their indices.
+   *
+   * @param validators validator registry.
+   * @param indices validator indices.
+   * @return aggregated public key.
+   */
+  default PublicKey bls_aggregate_validator_pubkeys(
+      ReadList<ValidatorIndex, ValidatorRecord> validators, Iterable<ValidatorIndex> indices) {
+    List<BLSPubkey> publicKeys = new ArrayList<>();
+    indices.forEach(index -> publicKeys.add(validators.get(index).getPubKey()));
+    return bls_aggregate_pubkeys(publicKeys);
+  }
+
   class InsecureBLSFunctions implements BLSFunctions {
+    private final PublicKeyCache publicKeyCache;
+
+    public InsecureBLSFunctions() {
+      this(new PublicKeyCache());
+    }
+
+    public InsecureBLSFunctions(PublicKeyCache publicKeyCache) {
+      this.publicKeyCache = publicKeyCache;
+    }
+
+    public PublicKeyCache getPublicKeyCache() {
+      return publicKeyCache;
+    }
+
     public boolean bls_verify(
         BLSPubkey publicKey, Hash32 message, BLSSignature signature, UInt64 domain) {
       try {
-        PublicKey blsPublicKey = PublicKey.create(publicKey);
+        return bls_verify(publicKeyCache.get(publicKey), message, signature, domain);
+      } catch (Exception e) {
+        return false;
+      }
+    }
+
+    @Override
+    public boolean bls_verify(
+        PublicKey publicKey, Hash32 message, BLSSignature signature, UInt64 domain) {
+      try {
         MessageParameters messageParameters = MessageParameters.create(message, domain);
         Signature blsSignature = Signature.create(signature);
-        return BLS381.verify(messageParameters, blsSignature, blsPublicKey);
+        return BLS381.verify(messageParameters, blsSignature, publicKey);
       } catch (Exception e) {
         return false;
       }
@@ -59,9 +113,15 @@ public interface BLSFunctions {
 
     public PublicKey bls_aggregate_pubkeys(List<BLSPubkey> publicKeysBytes) {
       List<PublicKey> publicKeys =
-          publicKeysBytes.stream().map(PublicKey::create).collect(toList());
+          publicKeysBytes.stream().map(publicKeyCache::get).collect(toList());
       return PublicKey.aggregate(publicKeys);
     }
+
+    @Override
+    public PublicKey bls_aggregate_validator_pubkeys(
+        ReadList<ValidatorIndex, ValidatorRecord> validators, Iterable<ValidatorIndex> indices) {
+      return publicKeyCache.aggregate(validators, indices);
+    }
   }
 
   class DummyBLSFunctions implements BLSFunctions {
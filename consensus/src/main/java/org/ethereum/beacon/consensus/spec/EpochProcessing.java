@@ -434,27 +434,7 @@ public interface EpochProcessing extends HelperFunction {
       state.getEth1DataVotes().clear();
     }
 
-    /* Update effective balances with hysteresis
-      for index, validator in enumerate(state.validator_registry):
-          balance = state.balances[index]
-          HALF_INCREMENT = EFFECTIVE_BALANCE_INCREMENT // 2
-          if balance < validator.effective_balance or validator.effective_balance + 3 * HALF_INCREMENT < balance:
-              validator.effective_balance = min(balance - balance % EFFECTIVE_BALANCE_INCREMENT, MAX_EFFECTIVE_BALANCE) */
-    Gwei half_increment = getConstants().getEffectiveBalanceIncrement().dividedBy(2);
-    for (ValidatorIndex index : state.getValidators().size()) {
-      ValidatorRecord validator = state.getValidators().get(index);
-      Gwei balance = state.getBalances().get(index);
-      if (balance.less(validator.getEffectiveBalance())
-          || validator.getEffectiveBalance().plus(half_increment.times(3)).less(balance)) {
-        state.getValidators().update(index,
-            v -> ValidatorRecord.Builder.fromRecord(v)
-                .withEffectiveBalance(
-                    UInt64s.min(
-                        balance.minus(Gwei.castFrom(balance.modulo(getConstants().getEffectiveBalanceIncrement()))),
-                        getConstants().getMaxEffectiveBalance()))
-                .build());
-      }
-    }
+    process_effective_balance_updates(state);
 
     /* # Reset slashings
       state.slashings[next_epoch % EPOCHS_PER_SLASHINGS_VECTOR] = Gwei(0) */
@@ -483,6 +463,34 @@ public interface EpochProcessing extends HelperFunction {
     state.getCurrentEpochAttestations().clear();
   }
 
+  /*
+    def process_effective_balance_updates(state: BeaconState) -> None:
+      # Effective balance part of process_final_updates
+   */
+  default void process_effective_balance_updates(MutableBeaconState state) {
+    /* Update effective balances with hysteresis
+      for index, validator in enumerate(state.validator_registry):
+          balance = state.balances[index]
+          HALF_INCREMENT = EFFECTIVE_BALANCE_INCREMENT // 2
+          if balance < validator.effective_balance or validator.effective_balance + 3 * HALF_INCREMENT < balance:
+              validator.effective_balance = min(balance - balance % EFFECTIVE_BALANCE_INCREMENT, MAX_EFFECTIVE_BALANCE) */
+    Gwei half_increment = getConstants().getEffectiveBalanceIncrement().dividedBy(2);
+    for (ValidatorIndex index : state.getValidators().size()) {
+      ValidatorRecord validator = state.getValidators().get(index);
+      Gwei balance = state.getBalances().get(index);
+      if (balance.less(validator.getEffectiveBalance())
+          || validator.getEffectiveBalance().plus(half_increment.times(3)).less(balance)) {
+        state.getValidators().update(index,
+            v -> ValidatorRecord.Builder.fromRecord(v)
+                .withEffectiveBalance(
+                    UInt64s.min(
+                        balance.minus(Gwei.castFrom(balance.modulo(getConstants().getEffectiveBalanceIncrement()))),
+                        getConstants().getMaxEffectiveBalance()))
+                .build());
+      }
+    }
+  }
+
   /*
     def process_epoch(state: BeaconState) -> None:
       process_justification_and_finalization(state)
@@ -35,7 +35,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static java.util.Collections.emptyList;
@@ -323,6 +322,51 @@ public interface HelperFunction extends SpecCommons, BLSFunctions {
     return permutations;
   }
 
+  /**
+   * Whole list version of swap-or-not shuffle operating on primitive array.
+   *
+   * <p>Produces the same order as {@link #get_permuted_list(List, Bytes32)}, i.e. an element at
+   * position {@code i} of the result is {@code indices[compute_shuffled_index(i, len(indices),
+   * seed)]}. Round pivot and hashes of 256-position blocks are calculated once per round.
+   *
+   * @param indices a list to shuffle, left untouched.
+   * @param seed shuffling seed.
+   * @return shuffled copy of the list.
+   */
+  default int[] get_permuted_list(int[] indices, Bytes32 seed) {
+    int[] permutation = indices.clone();
+    int listSize = permutation.length;
+    if (listSize < 2) {
+      return permutation;
+    }
+
+    byte[][] sources = new byte[(listSize + 255) >>> 8][];
+    for (int round = getConstants().getShuffleRoundCount() - 1; round >= 0; round--) {
+      BytesValue roundSeed = seed.concat(int_to_bytes1(round));
+      Bytes8 pivotBytes = Bytes8.wrap(hash(roundSeed), 0);
+      int pivot = (int) bytes_to_int(pivotBytes).modulo(listSize).getValue();
+      for (int block = 0; block < sources.length; block++) {
+        sources[block] = hash(roundSeed.concat(int_to_bytes4(block))).extractArray();
+      }
+
+      // positions are paired as (i, flip) where i + flip == pivot (mod listSize),
+      // a pair is swapped if the bit of its greater position is set
+      for (int i = 0; i < listSize; i++) {
+        int flip = pivot >= i ? pivot - i : pivot - i + listSize;
+        if (i < flip) {
+          byte source = sources[flip >>> 8][(flip & 0xff) >>> 3];
+          if (((source >>> (flip & 0x7)) & 0x1) == 1) {
+            int tmp = permutation[i];
+            permutation[i] = permutation[flip];
+            permutation[flip] = tmp;
+          }
+        }
+      }
+    }
+
+    return permutation;
+  }
+
   default UInt64 bytes_to_int(Bytes8 bytes) {
     return UInt64.fromBytesLittleEndian(bytes);
   }
@@ -832,12 +876,7 @@ public interface HelperFunction extends SpecCommons, BLSFunctions {
      )
     */
     return bls_verify(
-        BLSPubkey.wrap(
-            bls_aggregate_pubkeys(
-                    indices.stream()
-                        .map(i -> state.getValidators().get(i).getPubKey())
-                        .collect(Collectors.toList()))
-                .getEncodedBytes()),
+        bls_aggregate_validator_pubkeys(state.getValidators(), indices),
         hash_tree_root(indexed_attestation.getData()),
         indexed_attestation.getSignature(),
         get_domain(state, BEACON_ATTESTER, indexed_attestation.getData().getTarget().getEpoch()));
@@ -0,0 +1,343 @@
+package org.ethereum.beacon.consensus.transition;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.ToLongFunction;
+import javax.annotation.Nullable;
+import org.ethereum.beacon.consensus.spec.HelperFunction;
+import org.ethereum.beacon.core.BeaconState;
+import org.ethereum.beacon.core.operations.attestation.AttestationData;
+import org.ethereum.beacon.core.state.PendingAttestation;
+import org.ethereum.beacon.core.types.EpochNumber;
+import org.ethereum.beacon.core.types.ValidatorIndex;
+import org.ethereum.beacon.ssz.incremental.UpdateListener;
+import tech.pegasys.artemis.ethereum.core.Hash32;
+import tech.pegasys.artemis.util.collections.ReadList;
+
+/**
+ * Keeps track of validators that have attested in the current and in the previous epochs.
+ *
+ * <p>Installed as an {@link UpdateListener} on a state, therefore, it's carried through {@link
+ * BeaconState#createMutableCopy()} and {@link
+ * org.ethereum.beacon.core.MutableBeaconState#createImmutable()}. Copies share participation
+ * data, it's split into small chunks of validators and a chunk is copied only when a copy records
+ * an attester that belongs to it.
+ *
+ * <p>Attesters are recorded by {@link #onAttestation(HelperFunction, BeaconState,
+ * PendingAttestation)} as soon as attestation is included into a state. Participation of an epoch
+ * is valid while the number of recorded attestations matches the size of the corresponding list of
+ * pending attestations, otherwise, it's rebuilt from the list on the next read.
+ */
+public final class ParticipationCache implements UpdateListener {
+
+  static final String OBSERVER_ID = "epoch_participation";
+
+  /** The two most recent epochs. */
+  private final EpochAttesters[] epochs = new EpochAttesters[2];
+
+  private ParticipationCache() {}
+
+  private ParticipationCache(EpochAttesters[] epochs) {
+    System.arraycopy(epochs, 0, this.epochs, 0, epochs.length);
+  }
+
+  /**
+   * Returns participation cache of given state, installs it if it's missing.
+   *
+   * @param state a state.
+   * @return participation cache.
+   */
+  public static ParticipationCache of(BeaconState state) {
+    return (ParticipationCache) state.getUpdateListener(OBSERVER_ID, ParticipationCache::new);
+  }
+
+  /**
+   * Returns attesters of given epoch, rebuilds them if the cache is stale.
+   *
+   * @param spec spec instance.
+   * @param state a state the cache is installed on.
+   * @param epoch either current or previous epoch of the state.
+   * @return attesters of the epoch.
+   */
+  public synchronized EpochAttesters get(
+      HelperFunction spec, BeaconState state, EpochNumber epoch) {
+    ReadList<Integer, PendingAttestation> attestations = getAttestations(spec, state, epoch);
+    EpochAttesters attesters = find(epoch);
+    if (attesters != null && attesters.attestationCount == attestations.size()) {
+      return attesters;
+    }
+
+    attesters = new EpochAttesters(epoch, state.getValidators().size().intValue());
+    Hash32 targetRoot = null;
+    for (PendingAttestation attestation : attestations) {
+      if (targetRoot == null) {
+        targetRoot = spec.get_block_root(state, epoch);
+      }
+      record(spec, state, attesters, attestation, targetRoot);
+    }
+    store(attesters);
+    return attesters;
+  }
+
+  /**
+   * Records attesters of an attestation that has just been added to pending attestations of the
+   * state.
+   *
+   * @param spec spec instance.
+   * @param state a state that the attestation was included to.
+   * @param attestation pending attestation.
+   */
+  public synchronized void onAttestation(
+      HelperFunction spec, BeaconState state, PendingAttestation attestation) {
+    AttestationData data = attestation.getData();
+    EpochNumber epoch = data.getTarget().getEpoch();
+    int count = getAttestations(spec, state, epoch).size();
+    EpochAttesters attesters =
+        count == 1
+            ? new EpochAttesters(epoch, state.getValidators().size().intValue())
+            : find(epoch);
+
+    // roots are known once attestation slot is passed, they don't change afterwards
+    if (attesters == null
+        || attesters.attestationCount != count - 1
+        || !data.getSlot().less(state.getSlot())) {
+      remove(epoch);
+      return;
+    }
+
+    attesters = attesters.copyIfShared();
+    record(spec, state, attesters, attestation, spec.get_block_root(state, epoch));
+    store(attesters);
+  }
+
+  private static ReadList<Integer, PendingAttestation> getAttestations(
+      HelperFunction spec, BeaconState state, EpochNumber epoch) {
+    return epoch.equals(spec.get_current_epoch(state))
+        ? state.getCurrentEpochAttestations()
+        : state.getPreviousEpochAttestations();
+  }
+
+  private static void record(
+      HelperFunction spec,
+      BeaconState state,
+      EpochAttesters attesters,
+      PendingAttestation attestation,
+      Hash32 targetRoot) {
+    AttestationData data = attestation.getData();
+    boolean target = data.getTarget().getRoot().equals(targetRoot);
+    boolean head =
+        data.getBeaconBlockRoot().equals(spec.get_block_root_at_slot(state, data.getSlot()));
+    long delay = attestation.getInclusionDelay().getValue();
+    int proposer = attestation.getProposerIndex().intValue();
+    for (ValidatorIndex index :
+        spec.get_attesting_indices(state, data, attestation.getAggregationBits())) {
+      attesters.add(index.intValue(), target, head, delay, proposer);
+    }
+    attesters.attestationCount += 1;
+  }
+
+  @Nullable
+  private EpochAttesters find(EpochNumber epoch) {
+    for (EpochAttesters attesters : epochs) {
+      if (attesters != null && attesters.epoch.equals(epoch)) {
+        return attesters;
+      }
+    }
+    return null;
+  }
+
+  private void store(EpochAttesters attesters) {
+    int slot = 0;
+    for (int i = 0; i < epochs.length; i++) {
+      if (epochs[i] == null || epochs[i].epoch.equals(attesters.epoch)) {
+        slot = i;
+        break;
+      }
+      if (epochs[i].epoch.less(epochs[slot].epoch)) {
+        slot = i;
+      }
+    }
+    epochs[slot] = attesters;
+  }
+
+  private void remove(EpochNumber epoch) {
+    for (int i = 0; i < epochs.length; i++) {
+      if (epochs[i] != null && epochs[i].epoch.equals(epoch)) {
+        epochs[i] = null;
+      }
+    }
+  }
+
+  @Override
+  public void childUpdated(int childIndex) {
+    // staleness is detected by the number of pending attestations
+  }
+
+  @Override
+  public synchronized UpdateListener fork() {
+    for (EpochAttesters attesters : epochs) {
+      if (attesters != null) {
+        attesters.shared = true;
+      }
+    }
+    return new ParticipationCache(epochs);
+  }
+
+  /**
+   * Validators attested in an epoch, slashed validators are included.
+   *
+   * <p>Target and head flags are set for validators whose attestation voted for the canonical
+   * target and head respectively. Inclusion delay and proposer are given by the earliest included
+   * attestation of a validator, ties are resolved in favour of the attestation included first.
+   *
+   * <p>Attesters are kept in chunks of {@link #CHUNK_SIZE} validators. A copy shares chunks with
+   * the origin and copies a chunk on the first write to it, hence, recording attestations of a
+   * block copies only chunks of their committees rather than data of all validators.
+   */
+  public static final class EpochAttesters {
+    private static final int CHUNK_BITS = 6;
+    /** Number of validators per chunk, attester flags of a chunk fit in a single word. */
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    private final EpochNumber epoch;
+    private int attestationCount = 0;
+    private boolean shared = false;
+
+    private int attesterCount = 0;
+    /** A {@code null} chunk has no attesters. */
+    private Chunk[] chunks;
+    /** Chunks that could be written by this instance, others are shared with a copy. */
+    private boolean[] ownChunks;
+
+    private EpochAttesters(EpochNumber epoch, int validatorCount) {
+      this.epoch = epoch;
+      int chunkCount = (validatorCount + CHUNK_SIZE - 1) >>> CHUNK_BITS;
+      this.chunks = new Chunk[chunkCount];
+      this.ownChunks = new boolean[chunkCount];
+    }
+
+    private EpochAttesters(EpochAttesters other) {
+      this.epoch = other.epoch;
+      this.attestationCount = other.attestationCount;
+      this.attesterCount = other.attesterCount;
+      this.chunks = other.chunks.clone();
+      this.ownChunks = new boolean[chunks.length];
+    }
+
+    private EpochAttesters copyIfShared() {
+      return shared ? new EpochAttesters(this) : this;
+    }
+
+    private void add(int index, boolean target, boolean head, long delay, int proposer) {
+      Chunk chunk = getWritableChunk(index >>> CHUNK_BITS);
+      int offset = index & (CHUNK_SIZE - 1);
+      long bit = 1L << offset;
+
+      boolean attested = (chunk.attesters & bit) != 0;
+      if (!attested) {
+        chunk.attesters |= bit;
+        attesterCount += 1;
+      }
+      if (target) {
+        chunk.targetAttesters |= bit;
+      }
+      if (head) {
+        chunk.headAttesters |= bit;
+      }
+      if (!attested || Long.compareUnsigned(delay, chunk.inclusionDelays[offset]) < 0) {
+        chunk.inclusionDelays[offset] = delay;
+        chunk.inclusionProposers[offset] = proposer;
+      }
+    }
+
+    private Chunk getWritableChunk(int chunkIndex) {
+      if (chunkIndex >= chunks.length) {
+        int length = Math.max(chunkIndex + 1, chunks.length * 3 / 2);
+        chunks = Arrays.copyOf(chunks, length);
+        ownChunks = Arrays.copyOf(ownChunks, length);
+      }
+      if (!ownChunks[chunkIndex]) {
+        Chunk chunk = chunks[chunkIndex];
+        chunks[chunkIndex] = chunk == null ? new Chunk() : new Chunk(chunk);
+        ownChunks[chunkIndex] = true;
+      }
+      return chunks[chunkIndex];
+    }
+
+    @Nullable
+    private Chunk getChunk(int index) {
+      int chunkIndex = index >>> CHUNK_BITS;
+      return chunkIndex < chunks.length ? chunks[chunkIndex] : null;
+    }
+
+    private BitSet toBitSet(ToLongFunction<Chunk> word) {
+      long[] words = new long[chunks.length];
+      for (int i = 0; i < chunks.length; i++) {
+        words[i] = chunks[i] == null ? 0L : word.applyAsLong(chunks[i]);
+      }
+      return BitSet.valueOf(words);
+    }
+
+    public EpochNumber getEpoch() {
+      return epoch;
+    }
+
+    /** @return a copy of the set of validators attested in the epoch. */
+    public BitSet getAttesters() {
+      return toBitSet(chunk -> chunk.attesters);
+    }
+
+    /** @return a copy of the set of validators attested to the canonical target. */
+    public BitSet getTargetAttesters() {
+      return toBitSet(chunk -> chunk.targetAttesters);
+    }
+
+    /** @return a copy of the set of validators attested to the canonical head. */
+    public BitSet getHeadAttesters() {
+      return toBitSet(chunk -> chunk.headAttesters);
+    }
+
+    /** @return number of distinct validators attested in the epoch. */
+    public int getAttesterCount() {
+      return attesterCount;
+    }
+
+    public boolean hasAttested(int index) {
+      Chunk chunk = getChunk(index);
+      return chunk != null && (chunk.attesters & (1L << (index & (CHUNK_SIZE - 1)))) != 0;
+    }
+
+    /** @return delay of the earliest attestation, {@code -1} if validator hasn't attested. */
+    public long getInclusionDelay(int index) {
+      return hasAttested(index) ? getChunk(index).inclusionDelays[index & (CHUNK_SIZE - 1)] : -1L;
+    }
+
+    /** @return proposer included the earliest attestation, is defined for attesters only. */
+    public int getInclusionProposer(int index) {
+      Chunk chunk = getChunk(index);
+      return chunk != null ? chunk.inclusionProposers[index & (CHUNK_SIZE - 1)] : 0;
+    }
+  }
+
+  /** Attesters among {@link EpochAttesters#CHUNK_SIZE} validators. */
+  private static final class Chunk {
+    private long attesters;
+    private long targetAttesters;
+    private long headAttesters;
+    private final long[] inclusionDelays;
+    private final int[] inclusionProposers;
+
+    private Chunk() {
+      this.inclusionDelays = new long[EpochAttesters.CHUNK_SIZE];
+      this.inclusionProposers = new int[EpochAttesters.CHUNK_SIZE];
+    }
+
+    private Chunk(Chunk other) {
+      this.attesters = other.attesters;
+      this.targetAttesters = other.targetAttesters;
+      this.headAttesters = other.headAttesters;
+      this.inclusionDelays = other.inclusionDelays.clone();
+      this.inclusionProposers = other.inclusionProposers.clone();
+    }
+  }
+}
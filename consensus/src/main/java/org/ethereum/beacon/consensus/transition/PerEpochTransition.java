@@ -1,16 +1,18 @@
 package org.ethereum.beacon.consensus.transition;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
-import java.util.stream.Collectors;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.ethereum.beacon.consensus.BeaconChainSpec;
 import org.ethereum.beacon.consensus.BeaconStateEx;
 import org.ethereum.beacon.consensus.StateTransition;
 import org.ethereum.beacon.consensus.TransitionType;
+import org.ethereum.beacon.core.BeaconState;
 import org.ethereum.beacon.core.MutableBeaconState;
-import org.ethereum.beacon.core.state.PendingAttestation;
 import org.ethereum.beacon.core.types.EpochNumber;
+import org.ethereum.beacon.core.types.Gwei;
 import org.ethereum.beacon.core.types.SlotNumber;
 import org.ethereum.beacon.core.types.ValidatorIndex;
 
@@ -73,50 +75,26 @@ public class PerEpochTransition implements StateTransition<BeaconStateEx> {
         spec.get_active_validator_indices(state, spec.get_current_epoch(state));
     summary.currentEpochSummary.validatorBalance =
         spec.get_total_balance(state, summary.currentEpochSummary.activeAttesters);
-    List<PendingAttestation> current_epoch_boundary_attestations =
-        spec.get_matching_source_attestations(state, spec.get_current_epoch(state));
-    summary.currentEpochSummary.boundaryAttesters =
-        current_epoch_boundary_attestations.stream()
-            .flatMap(
-                a ->
-                    spec
-                        .get_attesting_indices(
-                            state, a.getData(), a.getAggregationBits())
-                        .stream())
-            .collect(Collectors.toList());
+    ParticipationCache participation = ParticipationCache.of(state);
+    BitSet currentAttesters =
+        participation.get(spec, state, spec.get_current_epoch(state)).getAttesters();
+    summary.currentEpochSummary.boundaryAttesters = toIndices(currentAttesters);
     summary.currentEpochSummary.boundaryAttestingBalance =
-        spec.get_attesting_balance(state, current_epoch_boundary_attestations);
+        getUnslashedBalance(state, currentAttesters);
 
     summary.previousEpochSummary.activeAttesters =
         spec.get_active_validator_indices(state, spec.get_previous_epoch(state));
     summary.previousEpochSummary.validatorBalance =
         spec.get_total_balance(state, summary.previousEpochSummary.activeAttesters);
-    List<PendingAttestation> previous_epoch_boundary_attestations =
-        spec.get_matching_source_attestations(state, spec.get_previous_epoch(state));
+    ParticipationCache.EpochAttesters previousAttesters =
+        participation.get(spec, state, spec.get_previous_epoch(state));
     summary.previousEpochSummary.boundaryAttesters =
-        previous_epoch_boundary_attestations.stream()
-            .flatMap(
-                a ->
-                    spec
-                        .get_attesting_indices(
-                            state, a.getData(), a.getAggregationBits())
-                        .stream())
-            .collect(Collectors.toList());
+        toIndices(previousAttesters.getAttesters());
     summary.previousEpochSummary.boundaryAttestingBalance =
-        spec.get_attesting_balance(state, previous_epoch_boundary_attestations);
-    List<PendingAttestation> previous_epoch_matching_head_attestations =
-        spec.get_matching_head_attestations(state, spec.get_previous_epoch(state));
-    summary.headAttesters =
-        previous_epoch_matching_head_attestations.stream()
-            .flatMap(
-                a ->
-                    spec
-                        .get_attesting_indices(
-                            state, a.getData(), a.getAggregationBits())
-                        .stream())
-            .collect(Collectors.toList());
+        getUnslashedBalance(state, previousAttesters.getAttesters());
+    summary.headAttesters = toIndices(previousAttesters.getHeadAttesters());
     summary.headAttestingBalance =
-        spec.get_attesting_balance(state, previous_epoch_matching_head_attestations);
+        getUnslashedBalance(state, previousAttesters.getHeadAttesters());
     summary.justifiedAttesters.addAll(summary.previousEpochSummary.activeAttesters);
     summary.justifiedAttestingBalance = summary.previousEpochSummary.validatorBalance;
 
@@ -147,4 +125,22 @@ public class PerEpochTransition implements StateTransition<BeaconStateEx> {
 
     return summary;
   }
+
+  private static List<ValidatorIndex> toIndices(BitSet indices) {
+    List<ValidatorIndex> ret = new ArrayList<>(indices.cardinality());
+    for (int i = indices.nextSetBit(0); i >= 0; i = indices.nextSetBit(i + 1)) {
+      ret.add(ValidatorIndex.of(i));
+    }
+    return ret;
+  }
+
+  private Gwei getUnslashedBalance(BeaconState state, BitSet indices) {
+    List<ValidatorIndex> unslashed = new ArrayList<>(indices.cardinality());
+    for (int i = indices.nextSetBit(0); i >= 0; i = indices.nextSetBit(i + 1)) {
+      if (!state.getValidators().get(ValidatorIndex.of(i)).getSlashed()) {
+        unslashed.add(ValidatorIndex.of(i));
+      }
+    }
+    return spec.get_total_balance(state, unslashed);
+  }
 }
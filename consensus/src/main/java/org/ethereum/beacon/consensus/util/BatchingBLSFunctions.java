@@ -0,0 +1,209 @@
+package org.ethereum.beacon.consensus.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.ethereum.beacon.consensus.spec.BLSFunctions;
+import org.ethereum.beacon.core.types.BLSPubkey;
+import org.ethereum.beacon.core.types.BLSSignature;
+import org.ethereum.beacon.crypto.BLS381;
+import org.ethereum.beacon.crypto.BLS381.PublicKey;
+import org.ethereum.beacon.crypto.BLS381.Signature;
+import org.ethereum.beacon.crypto.MessageParameters;
+import tech.pegasys.artemis.ethereum.core.Hash32;
+import tech.pegasys.artemis.util.uint.UInt64;
+
+/**
+ * {@link BLSFunctions} implementation which is able to defer signature verification and check a
+ * number of signatures at once with {@link BLS381#verifyBatch(List, List, List)}.
+ *
+ * <p>Outside of a batch it works exactly as {@link InsecureBLSFunctions}. When a batch is started
+ * by {@link #startBatch()} every {@link #bls_verify(BLSPubkey, Hash32, BLSSignature, UInt64)}
+ * call made by the same thread decodes its arguments, records a signature set and returns {@code
+ * true}. Recorded sets are verified by {@link Batch#verify()}, if batch verification fails, sets
+ * are verified one by one to find the invalid ones.
+ *
+ * <p><strong>Note:</strong> deferring is correct only if a negative result of {@code bls_verify}
+ * fails the whole computation, like it does in block verification, and must not be used when the
+ * result affects the flow, like in deposit processing.
+ */
+public class BatchingBLSFunctions extends BLSFunctions.InsecureBLSFunctions {
+
+  private static final ThreadLocal<Batch> currentBatch = new ThreadLocal<>();
+
+  public BatchingBLSFunctions() {
+    super();
+  }
+
+  public BatchingBLSFunctions(PublicKeyCache publicKeyCache) {
+    super(publicKeyCache);
+  }
+
+  /**
+   * Starts a batch on the current thread.
+   *
+   * @return started batch.
+   * @throws IllegalStateException if there is another batch started by the current thread.
+   */
+  public static Batch startBatch() {
+    if (currentBatch.get() != null) {
+      throw new IllegalStateException("Batch has already been started by this thread");
+    }
+    Batch batch = new Batch();
+    currentBatch.set(batch);
+    return batch;
+  }
+
+  @Override
+  public boolean bls_verify(
+      BLSPubkey publicKey, Hash32 message, BLSSignature signature, UInt64 domain) {
+    Batch batch = currentBatch.get();
+    if (batch == null) {
+      return super.bls_verify(publicKey, message, signature, domain);
+    }
+
+    try {
+      return bls_verify(getPublicKeyCache().get(publicKey), message, signature, domain);
+    } catch (Exception e) {
+      return false;
+    }
+  }
+
+  @Override
+  public boolean bls_verify(
+      PublicKey publicKey, Hash32 message, BLSSignature signature, UInt64 domain) {
+    Batch batch = currentBatch.get();
+    if (batch == null) {
+      return super.bls_verify(publicKey, message, signature, domain);
+    }
+
+    try {
+      batch.sets.add(SignatureSet.create(publicKey, message, signature, domain));
+      return true;
+    } catch (Exception e) {
+      return false;
+    }
+  }
+
+  /**
+   * Verifies signature sets with a single batch check, falls back to verification of each set if
+   * the batch check fails.
+   *
+   * @param sets signature sets.
+   * @return a list of invalid sets, empty list if all sets are valid.
+   */
+  public static List<SignatureSet> verify(List<SignatureSet> sets) {
+    boolean valid =
+        BLS381.verifyBatch(
+            sets.stream().map(s -> s.messageParameters).collect(Collectors.toList()),
+            sets.stream().map(s -> s.blsSignature).collect(Collectors.toList()),
+            sets.stream().map(s -> s.blsPublicKey).collect(Collectors.toList()));
+    if (valid) {
+      return Collections.emptyList();
+    }
+
+    return sets.stream().filter(s -> !s.verify()).collect(Collectors.toList());
+  }
+
+  /** Decoded public key, message and signature to verify together. */
+  public static class SignatureSet {
+    private final PublicKey blsPublicKey;
+    private final MessageParameters messageParameters;
+    private final Signature blsSignature;
+    private final BLSPubkey publicKey;
+    private final Hash32 message;
+
+    private SignatureSet(
+        PublicKey blsPublicKey,
+        MessageParameters messageParameters,
+        Signature blsSignature,
+        BLSPubkey publicKey,
+        Hash32 message) {
+      this.blsPublicKey = blsPublicKey;
+      this.messageParameters = messageParameters;
+      this.blsSignature = blsSignature;
+      this.publicKey = publicKey;
+      this.message = message;
+    }
+
+    /**
+     * Decodes and validates public key and signature.
+     *
+     * @throws IllegalArgumentException if public key or signature is not a valid point.
+     */
+    public static SignatureSet create(
+        BLSPubkey publicKey, Hash32 message, BLSSignature signature, UInt64 domain) {
+      return new SignatureSet(
+          PublicKey.create(publicKey),
+          MessageParameters.create(message, domain),
+          Signature.create(signature),
+          publicKey,
+          message);
+    }
+
+    /**
+     * Creates a set with already decoded public key, e.g. an aggregate of validated keys, thus,
+     * only signature is validated.
+     *
+     * @throws IllegalArgumentException if signature is not a valid point.
+     */
+    public static SignatureSet create(
+        PublicKey publicKey, Hash32 message, BLSSignature signature, UInt64 domain) {
+      return new SignatureSet(
+          publicKey,
+          MessageParameters.create(message, domain),
+          Signature.create(signature),
+          BLSPubkey.wrap(publicKey.getEncodedBytes()),
+          message);
+    }
+
+    public BLSPubkey getPublicKey() {
+      return publicKey;
+    }
+
+    public Hash32 getMessage() {
+      return message;
+    }
+
+    boolean verify() {
+      return BLS381.verify(messageParameters, blsSignature, blsPublicKey);
+    }
+
+    @Override
+    public String toString() {
+      return "SignatureSet{pubkey=" + publicKey + ", message=" + message + "}";
+    }
+  }
+
+  /**
+   * Signature sets recorded by the thread that has started the batch.
+   *
+   * <p>Closing the batch discards recorded sets and lets the thread start a new one.
+   */
+  public static class Batch implements AutoCloseable {
+    private final List<SignatureSet> sets = new ArrayList<>();
+
+    private Batch() {}
+
+    public int size() {
+      return sets.size();
+    }
+
+    /**
+     * Verifies recorded signature sets.
+     *
+     * @return a list of invalid sets, empty list if all sets are valid.
+     */
+    public List<SignatureSet> verify() {
+      return BatchingBLSFunctions.verify(sets);
+    }
+
+    @Override
+    public void close() {
+      if (currentBatch.get() == this) {
+        currentBatch.remove();
+      }
+    }
+  }
+}
@@ -3,35 +3,53 @@ package org.ethereum.beacon.consensus.util;
 import org.ethereum.beacon.consensus.BeaconChainSpecImpl;
 import org.ethereum.beacon.consensus.hasher.ObjectHasher;
 import org.ethereum.beacon.consensus.spec.BLSFunctions;
+import org.ethereum.beacon.consensus.spec.BLSFunctions.InsecureBLSFunctions;
+import org.ethereum.beacon.consensus.transition.ParticipationCache;
 import org.ethereum.beacon.core.BeaconState;
-import org.ethereum.beacon.core.operations.attestation.AttestationData;
-import org.ethereum.beacon.core.spec.SignatureDomains;
+import org.ethereum.beacon.core.MutableBeaconState;
+import org.ethereum.beacon.core.operations.Attestation;
 import org.ethereum.beacon.core.spec.SpecConstants;
+import org.ethereum.beacon.core.state.PendingAttestation;
 import org.ethereum.beacon.core.types.BLSPubkey;
 import org.ethereum.beacon.core.types.CommitteeIndex;
 import org.ethereum.beacon.core.types.EpochNumber;
 import org.ethereum.beacon.core.types.Gwei;
 import org.ethereum.beacon.core.types.SlotNumber;
 import org.ethereum.beacon.core.types.ValidatorIndex;
-import org.ethereum.beacon.crypto.Hashes;
 import org.ethereum.beacon.util.cache.Cache;
 import org.ethereum.beacon.util.cache.CacheFactory;
 import org.javatuples.Pair;
+import org.javatuples.Triplet;
 import tech.pegasys.artemis.ethereum.core.Hash32;
-import tech.pegasys.artemis.util.bytes.Bytes32;
 import tech.pegasys.artemis.util.bytes.BytesValue;
-import tech.pegasys.artemis.util.bytes.BytesValues;
-import tech.pegasys.artemis.util.collections.Bitlist;
+import tech.pegasys.artemis.util.collections.ReadList;
 import tech.pegasys.artemis.util.uint.UInt64;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
+import static java.util.stream.Collectors.toList;
+import static org.ethereum.beacon.core.spec.SignatureDomains.BEACON_ATTESTER;
+
+/**
+ * Beacon chain spec which caches results of heavy helper functions.
+ *
+ * <p>Epoch related caches are keyed by {@link RegistryGeneration} which is a cheap identity of
+ * validator registry contents, hence, cache hits don't involve any hashing. Committees are served
+ * from a shuffling which is calculated once per epoch, registry and seed.
+ *
+ * <p>Validator indices and decoded public keys are kept by {@link PublicKeyCache}. Attesters of
+ * included attestations are recorded to {@link ParticipationCache} of the state.
+ *
+ * <p>Unless disabled, heavy epoch processing steps are done by {@link FastEpochProcessing}.
+ */
 public class CachingBeaconChainSpec extends BeaconChainSpecImpl {
 
   private final boolean cacheEnabled;
+  private final PublicKeyCache publicKeyCache;
+  private final FastEpochProcessing fastEpochProcessing;
   protected Caches caches;
 
   public CachingBeaconChainSpec(
@@ -43,7 +61,9 @@ public class CachingBeaconChainSpec extends BeaconChainSpecImpl {
       boolean blsVerifyProofOfPossession,
       boolean verifyDepositProof,
       boolean computableGenesisTime,
-      boolean cacheEnabled) {
+      boolean cacheEnabled,
+      CacheSizes cacheSizes,
+      boolean fastEpochProcessing) {
     super(
         constants,
         hashFunction,
@@ -54,9 +74,62 @@ public class CachingBeaconChainSpec extends BeaconChainSpecImpl {
         verifyDepositProof,
         computableGenesisTime);
     this.cacheEnabled = cacheEnabled;
+    this.publicKeyCache =
+        blsFunctions instanceof InsecureBLSFunctions
+            ? ((InsecureBLSFunctions) blsFunctions).getPublicKeyCache()
+            : new PublicKeyCache();
 
     CacheFactory factory = CacheFactory.create(cacheEnabled);
-    this.caches = new Caches(factory);
+    this.caches = new Caches(factory, cacheSizes);
+    this.fastEpochProcessing = fastEpochProcessing ? new FastEpochProcessing(this) : null;
+  }
+
+  public CachingBeaconChainSpec(
+      SpecConstants constants,
+      Function<BytesValue, Hash32> hashFunction,
+      ObjectHasher<Hash32> objectHasher,
+      BLSFunctions blsFunctions,
+      boolean blsVerify,
+      boolean blsVerifyProofOfPossession,
+      boolean verifyDepositProof,
+      boolean computableGenesisTime,
+      boolean cacheEnabled,
+      CacheSizes cacheSizes) {
+    this(
+        constants,
+        hashFunction,
+        objectHasher,
+        blsFunctions,
+        blsVerify,
+        blsVerifyProofOfPossession,
+        verifyDepositProof,
+        computableGenesisTime,
+        cacheEnabled,
+        cacheSizes,
+        true);
+  }
+
+  public CachingBeaconChainSpec(
+      SpecConstants constants,
+      Function<BytesValue, Hash32> hashFunction,
+      ObjectHasher<Hash32> objectHasher,
+      BLSFunctions blsFunctions,
+      boolean blsVerify,
+      boolean blsVerifyProofOfPossession,
+      boolean verifyDepositProof,
+      boolean computableGenesisTime,
+      boolean cacheEnabled) {
+    this(
+        constants,
+        hashFunction,
+        objectHasher,
+        blsFunctions,
+        blsVerify,
+        blsVerifyProofOfPossession,
+        verifyDepositProof,
+        computableGenesisTime,
+        cacheEnabled,
+        new CacheSizes());
   }
 
   public CachingBeaconChainSpec(
@@ -99,12 +172,6 @@ public class CachingBeaconChainSpec extends BeaconChainSpecImpl {
         true);
   }
 
-  @Override
-  public List<UInt64> get_permuted_list(List<? extends UInt64> indices, Bytes32 seed) {
-    return caches.shufflerCache.get(
-        Pair.with(indices, seed), k -> super.get_permuted_list(k.getValue0(), k.getValue1()));
-  }
-
   @Override
   public Hash32 hash_tree_root(Object object) {
     return caches.hashTreeRootCache.get(object, super::hash_tree_root);
@@ -116,97 +183,258 @@ public class CachingBeaconChainSpec extends BeaconChainSpecImpl {
       return super.get_validator_index_by_pubkey(state, pubkey);
     }
 
-    // relying on the fact that at index -> validator is invariant
-    if (state.getValidators().size().greater(caches.maxCachedIndex)) {
-      for (ValidatorIndex index : caches.maxCachedIndex.iterateTo(state.getValidators().size())) {
-        caches.pubkeyToIndexCache.put(state.getValidators().get(index).getPubKey(), index);
-      }
-      caches.maxCachedIndex = state.getValidators().size();
-    }
-    return caches.pubkeyToIndexCache.getOrDefault(pubkey, ValidatorIndex.MAX);
+    return publicKeyCache.getIndex(state.getValidators(), pubkey);
   }
 
   @Override
   public List<ValidatorIndex> get_beacon_committee(
       BeaconState state, SlotNumber slot, CommitteeIndex index) {
-    Hash32 digest =
-        getDigest(
-            objectHash(state.getValidators()),
-            get_seed(state, compute_epoch_at_slot(slot), SignatureDomains.BEACON_ATTESTER),
-            slot.toBytes8(),
-            index.toBytes8());
-    return caches.crosslinkCommitteesCache.get(
-        digest, s -> super.get_beacon_committee(state, slot, index));
+    long generation = getGeneration(state);
+    if (generation == RegistryGeneration.UNTRACKED) {
+      return super.get_beacon_committee(state, slot, index);
+    }
+
+    EpochNumber epoch = compute_epoch_at_slot(slot);
+    Shuffling shuffling =
+        caches.shufflingCache.get(
+            Triplet.with(epoch, get_seed_mix(state, epoch), generation),
+            k -> computeShuffling(state, epoch));
+    return shuffling.getCommittee(
+        slot.modulo(getConstants().getSlotsPerEpoch()).getValue(), index.getValue());
   }
 
   @Override
   public List<ValidatorIndex> get_active_validator_indices(BeaconState state, EpochNumber epoch) {
-    Hash32 digest = getDigest(objectHash(state.getValidators()), epoch.toBytes8());
+    long generation = getGeneration(state);
+    if (generation == RegistryGeneration.UNTRACKED) {
+      return super.get_active_validator_indices(state, epoch);
+    }
+
     return caches.activeValidatorsCache.get(
-        digest, e -> super.get_active_validator_indices(state, epoch));
+        Pair.with(epoch, generation),
+        k -> Collections.unmodifiableList(super.get_active_validator_indices(state, epoch)));
   }
 
   @Override
   public Gwei get_total_active_balance(BeaconState state) {
-    Hash32 digest =
-        getDigest(objectHash(state.getValidators()), get_current_epoch(state).toBytes8());
-    return caches.totalActiveBalanceCache.get(digest, e -> super.get_total_active_balance(state));
+    long generation = getGeneration(state);
+    if (generation == RegistryGeneration.UNTRACKED) {
+      return super.get_total_active_balance(state);
+    }
+
+    return caches.totalActiveBalanceCache.get(
+        Pair.with(get_current_epoch(state), generation),
+        k -> super.get_total_active_balance(state));
   }
 
   @Override
-  public List<ValidatorIndex> get_attesting_indices(
-      BeaconState state, AttestationData attestation_data, Bitlist bitlist) {
-    Hash32 digest =
-        getDigest(
-            objectHash(state.getValidators()),
-            objectHash(state.getRandaoMixes()),
-            attestation_data.getSlot().toBytes8(),
-            attestation_data.getIndex().toBytes8(),
-            bitlist);
-    return caches.attestingIndicesCache.get(
-        digest, e -> super.get_attesting_indices(state, attestation_data, bitlist));
+  public void process_attestation(MutableBeaconState state, Attestation attestation) {
+    super.process_attestation(state, attestation);
+    if (!cacheEnabled) {
+      return;
+    }
+
+    ReadList<Integer, PendingAttestation> pending =
+        attestation.getData().getTarget().getEpoch().equals(get_current_epoch(state))
+            ? state.getCurrentEpochAttestations()
+            : state.getPreviousEpochAttestations();
+    ParticipationCache.of(state).onAttestation(this, state, pending.get(pending.size() - 1));
+  }
+
+  @Override
+  public void process_justification_and_finalization(MutableBeaconState state) {
+    if (fastEpochProcessing == null) {
+      super.process_justification_and_finalization(state);
+      return;
+    }
+
+    fastEpochProcessing.processJustificationAndFinalization(state);
+  }
+
+  @Override
+  public Gwei[][] get_attestation_deltas(BeaconState state) {
+    if (fastEpochProcessing == null) {
+      return super.get_attestation_deltas(state);
+    }
+
+    return fastEpochProcessing.getAttestationDeltas(state);
+  }
+
+  @Override
+  public void process_rewards_and_penalties(MutableBeaconState state) {
+    if (fastEpochProcessing == null) {
+      super.process_rewards_and_penalties(state);
+      return;
+    }
+
+    fastEpochProcessing.processRewardsAndPenalties(state);
+  }
+
+  @Override
+  public void process_slashings(MutableBeaconState state) {
+    if (fastEpochProcessing == null) {
+      super.process_slashings(state);
+      return;
+    }
+
+    fastEpochProcessing.processSlashings(state);
+  }
+
+  @Override
+  public void process_effective_balance_updates(MutableBeaconState state) {
+    if (fastEpochProcessing == null) {
+      super.process_effective_balance_updates(state);
+      return;
+    }
+
+    fastEpochProcessing.processEffectiveBalanceUpdates(state);
   }
 
   /**
-   * This function introduced in order to avoid {@link #hash_tree_root(Object)} calls not related to
-   * state processing to keep benchmarks counting clean.
+   * Calculates a shuffling of the whole epoch, committees are sub lists of the shuffling.
    *
-   * @param object an object.
-   * @return calculated hash.
+   * @see #get_beacon_committee(BeaconState, SlotNumber, CommitteeIndex)
    */
-  private Hash32 objectHash(Object object) {
-    return getObjectHasher().getHash(object);
+  private Shuffling computeShuffling(BeaconState state, EpochNumber epoch) {
+    List<ValidatorIndex> indices = get_active_validator_indices(state, epoch);
+    Hash32 seed = get_seed(state, epoch, BEACON_ATTESTER);
+    int[] permutation =
+        get_permuted_list(indices.stream().mapToInt(ValidatorIndex::intValue).toArray(), seed);
+    List<ValidatorIndex> shuffled =
+        Arrays.stream(permutation).mapToObj(ValidatorIndex::of).collect(toList());
+    UInt64 committeesPerSlot =
+        get_committee_count_at_slot(state, compute_start_slot_at_epoch(epoch));
+
+    return new Shuffling(
+        Collections.unmodifiableList(shuffled),
+        committeesPerSlot.getValue(),
+        getConstants().getSlotsPerEpoch().getValue());
   }
 
-  private Hash32 getDigest(BytesValue... identity) {
-    return Hashes.sha256(BytesValues.concatenate(identity));
+  /**
+   * Returns randao mix which {@link #get_seed(BeaconState, EpochNumber, UInt64)} is calculated
+   * from. Given the epoch and the domain the mix identifies the seed, but unlike the seed it doesn't
+   * require hashing.
+   */
+  private Hash32 get_seed_mix(BeaconState state, EpochNumber epoch) {
+    return get_randao_mix(
+        state,
+        epoch.plus(
+            getConstants()
+                .getEpochsPerHistoricalVector()
+                .minus(getConstants().getMinSeedLookahead())
+                .decrement()));
+  }
+
+  private long getGeneration(BeaconState state) {
+    if (!cacheEnabled) {
+      return RegistryGeneration.UNTRACKED;
+    }
+    return RegistryGeneration.of(state.getValidators());
   }
 
   public boolean isCacheEnabled() {
     return cacheEnabled;
   }
 
+  public boolean isFastEpochProcessing() {
+    return fastEpochProcessing != null;
+  }
+
+  /**
+   * Returns public key cache, it's shared with {@link InsecureBLSFunctions} if they are used by
+   * this spec.
+   */
+  public PublicKeyCache getPublicKeyCache() {
+    return publicKeyCache;
+  }
+
   public Caches getCaches() {
     return caches;
   }
 
+  /** Capacities of the caches. */
+  public static class CacheSizes {
+    public static final int DEFAULT_SHUFFLINGS = 16;
+    public static final int DEFAULT_ACTIVE_VALIDATORS = 32;
+    public static final int DEFAULT_TOTAL_ACTIVE_BALANCES = 32;
+    public static final int DEFAULT_HASH_TREE_ROOTS = 32;
+
+    private int shufflings = DEFAULT_SHUFFLINGS;
+    private int activeValidators = DEFAULT_ACTIVE_VALIDATORS;
+    private int totalActiveBalances = DEFAULT_TOTAL_ACTIVE_BALANCES;
+    private int hashTreeRoots = DEFAULT_HASH_TREE_ROOTS;
+
+    public int getShufflings() {
+      return shufflings;
+    }
+
+    public CacheSizes withShufflings(int shufflings) {
+      this.shufflings = shufflings;
+      return this;
+    }
+
+    public int getActiveValidators() {
+      return activeValidators;
+    }
+
+    public CacheSizes withActiveValidators(int activeValidators) {
+      this.activeValidators = activeValidators;
+      return this;
+    }
+
+    public int getTotalActiveBalances() {
+      return totalActiveBalances;
+    }
+
+    public CacheSizes withTotalActiveBalances(int totalActiveBalances) {
+      this.totalActiveBalances = totalActiveBalances;
+      return this;
+    }
+
+    public int getHashTreeRoots() {
+      return hashTreeRoots;
+    }
+
+    public CacheSizes withHashTreeRoots(int hashTreeRoots) {
+      this.hashTreeRoots = hashTreeRoots;
+      return this;
+    }
+  }
+
+  /** Committees layout of an epoch. */
+  private static final class Shuffling {
+    private final List<ValidatorIndex> shuffled;
+    private final long committeesPerSlot;
+    private final long slotsPerEpoch;
+
+    Shuffling(List<ValidatorIndex> shuffled, long committeesPerSlot, long slotsPerEpoch) {
+      this.shuffled = shuffled;
+      this.committeesPerSlot = committeesPerSlot;
+      this.slotsPerEpoch = slotsPerEpoch;
+    }
+
+    /** Same boundaries as in {@code compute_committee}. */
+    List<ValidatorIndex> getCommittee(long slotInEpoch, long committeeIndex) {
+      long count = committeesPerSlot * slotsPerEpoch;
+      long index = slotInEpoch * committeesPerSlot + committeeIndex;
+      long start = shuffled.size() * index / count;
+      long end = shuffled.size() * (index + 1) / count;
+      return shuffled.subList((int) start, (int) end);
+    }
+  }
+
   private static class Caches {
-    private final Map<BLSPubkey, ValidatorIndex> pubkeyToIndexCache = new ConcurrentHashMap<>();
-    private Cache<Pair<List<? extends UInt64>, Bytes32>, List<UInt64>> shufflerCache;
     private Cache<Object, Hash32> hashTreeRootCache;
-    private Cache<Hash32, List<ValidatorIndex>> activeValidatorsCache;
-    private Cache<Hash32, List<ValidatorIndex>> crosslinkCommitteesCache;
-    private Cache<Hash32, Gwei> totalActiveBalanceCache;
-    private Cache<Hash32, List<ValidatorIndex>> attestingIndicesCache;
-    private ValidatorIndex maxCachedIndex = ValidatorIndex.ZERO;
-
-    private Caches(CacheFactory factory) {
-      this.shufflerCache = factory.createLRUCache(128);
-      this.hashTreeRootCache = factory.createLRUCache(32);
-      this.crosslinkCommitteesCache = factory.createLRUCache(128);
-      this.activeValidatorsCache = factory.createLRUCache(32);
-      this.totalActiveBalanceCache = factory.createLRUCache(32);
-      this.attestingIndicesCache = factory.createLRUCache(1024);
+    private Cache<Pair<EpochNumber, Long>, List<ValidatorIndex>> activeValidatorsCache;
+    private Cache<Triplet<EpochNumber, Hash32, Long>, Shuffling> shufflingCache;
+    private Cache<Pair<EpochNumber, Long>, Gwei> totalActiveBalanceCache;
+
+    private Caches(CacheFactory factory, CacheSizes sizes) {
+      this.hashTreeRootCache = factory.createLRUCache(sizes.getHashTreeRoots());
+      this.shufflingCache = factory.createLRUCache(sizes.getShufflings());
+      this.activeValidatorsCache = factory.createLRUCache(sizes.getActiveValidators());
+      this.totalActiveBalanceCache = factory.createLRUCache(sizes.getTotalActiveBalances());
     }
   }
 }
@@ -0,0 +1,192 @@
+package org.ethereum.beacon.consensus.util;
+
+import java.util.BitSet;
+import org.ethereum.beacon.consensus.spec.EpochProcessing;
+import org.ethereum.beacon.consensus.transition.ParticipationCache;
+import org.ethereum.beacon.consensus.transition.ParticipationCache.EpochAttesters;
+import org.ethereum.beacon.core.BeaconState;
+import org.ethereum.beacon.core.state.ValidatorRecord;
+import org.ethereum.beacon.core.types.EpochNumber;
+import org.ethereum.beacon.core.types.ValidatorIndex;
+import tech.pegasys.artemis.util.collections.ReadList;
+
+/**
+ * Per-validator view of the registry and of pending attestations which epoch processing is based
+ * on.
+ *
+ * <p>Validator registry is read once into primitive arrays and bit sets. Source, target and head
+ * participation along with the earliest inclusion of every attester are taken from {@link
+ * ParticipationCache} which is filled up while attestations are included. Participation of the
+ * current epoch is only needed for justification and is read on demand.
+ *
+ * <p>Balances are {@code long}s holding unsigned values, arithmetic over them mirrors {@link
+ * tech.pegasys.artemis.util.uint.UInt64}.
+ */
+public final class EpochParticipation {
+
+  private final EpochProcessing spec;
+  private final BeaconState state;
+
+  private final int validatorCount;
+  private final EpochNumber previousEpoch;
+  private final EpochNumber currentEpoch;
+
+  private final long[] effectiveBalances;
+  private final BitSet slashed;
+  private final BitSet eligible;
+
+  private final BitSet sourceAttesters;
+  private final BitSet targetAttesters;
+  private final BitSet headAttesters;
+  private final EpochAttesters attesters;
+
+  private final long totalActiveBalance;
+  private final long sourceAttestingBalance;
+  private final long targetAttestingBalance;
+  private final long headAttestingBalance;
+
+  private boolean currentTargetComputed = false;
+  private long currentTargetAttestingBalance;
+
+  private EpochParticipation(EpochProcessing spec, BeaconState state) {
+    this.spec = spec;
+    this.state = state;
+    this.previousEpoch = spec.get_previous_epoch(state);
+    this.currentEpoch = spec.get_current_epoch(state);
+
+    ReadList<ValidatorIndex, ValidatorRecord> validators = state.getValidators();
+    this.validatorCount = validators.size().intValue();
+    this.effectiveBalances = new long[validatorCount];
+    this.slashed = new BitSet(validatorCount);
+    this.eligible = new BitSet(validatorCount);
+
+    long activeBalance = 0;
+    for (int i = 0; i < validatorCount; i++) {
+      ValidatorRecord validator = validators.get(ValidatorIndex.of(i));
+      effectiveBalances[i] = validator.getEffectiveBalance().getValue();
+      if (validator.getSlashed()) {
+        slashed.set(i);
+      }
+      if (spec.is_active_validator(validator, currentEpoch)) {
+        activeBalance += effectiveBalances[i];
+      }
+      if (spec.is_active_validator(validator, previousEpoch)
+          || (validator.getSlashed()
+              && previousEpoch.increment().less(validator.getWithdrawableEpoch()))) {
+        eligible.set(i);
+      }
+    }
+    this.totalActiveBalance = atLeastOne(activeBalance);
+
+    this.attesters = ParticipationCache.of(state).get(spec, state, previousEpoch);
+    this.sourceAttesters = attesters.getAttesters();
+    this.targetAttesters = attesters.getTargetAttesters();
+    this.headAttesters = attesters.getHeadAttesters();
+    sourceAttesters.andNot(slashed);
+    targetAttesters.andNot(slashed);
+    headAttesters.andNot(slashed);
+
+    this.sourceAttestingBalance = getTotalBalance(sourceAttesters);
+    this.targetAttestingBalance = getTotalBalance(targetAttesters);
+    this.headAttestingBalance = getTotalBalance(headAttesters);
+  }
+
+  /**
+   * Reads participation of the previous epoch.
+   *
+   * @param spec spec instance.
+   * @param state a state at the last slot of an epoch.
+   * @return participation.
+   */
+  public static EpochParticipation compute(EpochProcessing spec, BeaconState state) {
+    return new EpochParticipation(spec, state);
+  }
+
+  private long getTotalBalance(BitSet indices) {
+    long balance = 0;
+    for (int i = indices.nextSetBit(0); i >= 0; i = indices.nextSetBit(i + 1)) {
+      balance += effectiveBalances[i];
+    }
+    return atLeastOne(balance);
+  }
+
+  private static long atLeastOne(long balance) {
+    return balance == 0 ? 1 : balance;
+  }
+
+  public int getValidatorCount() {
+    return validatorCount;
+  }
+
+  public EpochNumber getPreviousEpoch() {
+    return previousEpoch;
+  }
+
+  public EpochNumber getCurrentEpoch() {
+    return currentEpoch;
+  }
+
+  public long getEffectiveBalance(int index) {
+    return effectiveBalances[index];
+  }
+
+  public boolean isSlashed(int index) {
+    return slashed.get(index);
+  }
+
+  /** Whether validator is eligible for attestation rewards and penalties. */
+  public boolean isEligible(int index) {
+    return eligible.get(index);
+  }
+
+  public BitSet getSourceAttesters() {
+    return sourceAttesters;
+  }
+
+  public BitSet getTargetAttesters() {
+    return targetAttesters;
+  }
+
+  public BitSet getHeadAttesters() {
+    return headAttesters;
+  }
+
+  /** Inclusion delay of the earliest included attestation, is defined for source attesters only. */
+  public long getInclusionDelay(int index) {
+    return attesters.getInclusionDelay(index);
+  }
+
+  /** Proposer which included the earliest attestation, is defined for source attesters only. */
+  public int getInclusionProposer(int index) {
+    return attesters.getInclusionProposer(index);
+  }
+
+  /** Effective balance of validators which are active in the current epoch, at least 1 Gwei. */
+  public long getTotalActiveBalance() {
+    return totalActiveBalance;
+  }
+
+  public long getSourceAttestingBalance() {
+    return sourceAttestingBalance;
+  }
+
+  public long getTargetAttestingBalance() {
+    return targetAttestingBalance;
+  }
+
+  public long getHeadAttestingBalance() {
+    return headAttestingBalance;
+  }
+
+  /** Balance of unslashed validators attested to the target of the current epoch. */
+  public long getCurrentTargetAttestingBalance() {
+    if (!currentTargetComputed) {
+      BitSet currentTargetAttesters =
+          ParticipationCache.of(state).get(spec, state, currentEpoch).getTargetAttesters();
+      currentTargetAttesters.andNot(slashed);
+      currentTargetAttestingBalance = getTotalBalance(currentTargetAttesters);
+      currentTargetComputed = true;
+    }
+    return currentTargetAttestingBalance;
+  }
+}
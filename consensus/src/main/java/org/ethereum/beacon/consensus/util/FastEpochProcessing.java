@@ -0,0 +1,259 @@
+package org.ethereum.beacon.consensus.util;
+
+import java.util.BitSet;
+import org.ethereum.beacon.consensus.spec.EpochProcessing;
+import org.ethereum.beacon.core.BeaconState;
+import org.ethereum.beacon.core.MutableBeaconState;
+import org.ethereum.beacon.core.spec.SpecConstants;
+import org.ethereum.beacon.core.state.Checkpoint;
+import org.ethereum.beacon.core.state.ValidatorRecord;
+import org.ethereum.beacon.core.types.EpochNumber;
+import org.ethereum.beacon.core.types.Gwei;
+import org.ethereum.beacon.core.types.ValidatorIndex;
+import tech.pegasys.artemis.util.collections.ReadList;
+import tech.pegasys.artemis.util.collections.WriteList;
+import tech.pegasys.artemis.util.uint.UInt64;
+
+/**
+ * Epoch processing over {@link EpochParticipation}, produces the same results as its counterparts
+ * in {@link EpochProcessing}.
+ *
+ * <p>Spec functions are quadratic in the number of validators as they look validators up in lists
+ * of attesting indices and search for the earliest attestation of every attester. Here each
+ * validator is visited once per step: attestation rewards and penalties of all components are
+ * summed up in a single sweep over {@code long[]}, slashings and effective balances are updated in
+ * a sweep each. Only values that have actually changed are written back to the state.
+ */
+public class FastEpochProcessing {
+
+  private final EpochProcessing spec;
+
+  public FastEpochProcessing(EpochProcessing spec) {
+    this.spec = spec;
+  }
+
+  /** @see EpochProcessing#process_justification_and_finalization(MutableBeaconState) */
+  public void processJustificationAndFinalization(MutableBeaconState state) {
+    SpecConstants constants = spec.getConstants();
+    if (spec.get_current_epoch(state).lessEqual(constants.getGenesisEpoch().increment())) {
+      return;
+    }
+
+    EpochParticipation participation = EpochParticipation.compute(spec, state);
+    EpochNumber previousEpoch = participation.getPreviousEpoch();
+    EpochNumber currentEpoch = participation.getCurrentEpoch();
+    Checkpoint oldPreviousJustified = state.getPreviousJustifiedCheckpoint();
+    Checkpoint oldCurrentJustified = state.getCurrentJustifiedCheckpoint();
+
+    state.setPreviousJustifiedCheckpoint(state.getCurrentJustifiedCheckpoint());
+    state.setJustificationBits(state.getJustificationBits().shl(1));
+
+    long totalBalance = participation.getTotalActiveBalance();
+    if (isSupermajority(participation.getTargetAttestingBalance(), totalBalance)) {
+      state.setCurrentJustifiedCheckpoint(
+          new Checkpoint(previousEpoch, spec.get_block_root(state, previousEpoch)));
+      state.setJustificationBits(state.getJustificationBits().setBit(1, 0b1));
+    }
+    if (isSupermajority(participation.getCurrentTargetAttestingBalance(), totalBalance)) {
+      state.setCurrentJustifiedCheckpoint(
+          new Checkpoint(currentEpoch, spec.get_block_root(state, currentEpoch)));
+      state.setJustificationBits(state.getJustificationBits().setBit(0, 0b1));
+    }
+
+    long bits = state.getJustificationBits().getValue();
+    if ((bits >>> 1) % 8 == 0b111 && oldPreviousJustified.getEpoch().plus(3).equals(currentEpoch)) {
+      state.setFinalizedCheckpoint(oldPreviousJustified);
+    }
+    if ((bits >>> 1) % 4 == 0b11 && oldPreviousJustified.getEpoch().plus(2).equals(currentEpoch)) {
+      state.setFinalizedCheckpoint(oldPreviousJustified);
+    }
+    if (bits % 8 == 0b111 && oldCurrentJustified.getEpoch().plus(2).equals(currentEpoch)) {
+      state.setFinalizedCheckpoint(oldCurrentJustified);
+    }
+    if (bits % 4 == 0b11 && oldCurrentJustified.getEpoch().plus(1).equals(currentEpoch)) {
+      state.setFinalizedCheckpoint(oldCurrentJustified);
+    }
+  }
+
+  private static boolean isSupermajority(long attestingBalance, long totalBalance) {
+    return Long.compareUnsigned(attestingBalance * 3, totalBalance * 2) >= 0;
+  }
+
+  /**
+   * Computes attestation rewards and penalties.
+   *
+   * @return rewards and penalties indexed by validator.
+   * @see EpochProcessing#get_attestation_deltas(BeaconState)
+   */
+  public long[][] getAttestationDeltas(
+      EpochParticipation participation, EpochNumber finalizedEpoch) {
+    SpecConstants constants = spec.getConstants();
+    int count = participation.getValidatorCount();
+    long[] rewards = new long[count];
+    long[] penalties = new long[count];
+
+    long totalBalance = participation.getTotalActiveBalance();
+    long sqrtTotalBalance = spec.integer_squareroot(UInt64.valueOf(totalBalance)).getValue();
+    long baseRewardFactor = constants.getBaseRewardFactor().getValue();
+    long baseRewardsPerEpoch = constants.getBaseRewardsPerEpoch().getValue();
+    long proposerRewardQuotient = constants.getProposerRewardQuotient().getValue();
+    long inactivityPenaltyQuotient = constants.getInactivityPenaltyQuotient().getValue();
+
+    BitSet source = participation.getSourceAttesters();
+    BitSet target = participation.getTargetAttesters();
+    BitSet head = participation.getHeadAttesters();
+    long sourceBalance = participation.getSourceAttestingBalance();
+    long targetBalance = participation.getTargetAttestingBalance();
+    long headBalance = participation.getHeadAttestingBalance();
+
+    EpochNumber finalityDelay = participation.getPreviousEpoch().minus(finalizedEpoch);
+    boolean inactivityLeak = finalityDelay.greater(constants.getMinEpochsToInactivityPenalty());
+
+    for (int i = 0; i < count; i++) {
+      long effectiveBalance = participation.getEffectiveBalance(i);
+      long baseReward =
+          Long.divideUnsigned(
+              Long.divideUnsigned(effectiveBalance * baseRewardFactor, sqrtTotalBalance),
+              baseRewardsPerEpoch);
+
+      if (participation.isEligible(i)) {
+        // FFG source, FFG target and head
+        if (source.get(i)) {
+          rewards[i] += Long.divideUnsigned(baseReward * sourceBalance, totalBalance);
+        } else {
+          penalties[i] += baseReward;
+        }
+        if (target.get(i)) {
+          rewards[i] += Long.divideUnsigned(baseReward * targetBalance, totalBalance);
+        } else {
+          penalties[i] += baseReward;
+        }
+        if (head.get(i)) {
+          rewards[i] += Long.divideUnsigned(baseReward * headBalance, totalBalance);
+        } else {
+          penalties[i] += baseReward;
+        }
+
+        if (inactivityLeak) {
+          penalties[i] += baseReward * baseRewardsPerEpoch;
+          if (!target.get(i)) {
+            penalties[i] +=
+                Long.divideUnsigned(
+                    effectiveBalance * finalityDelay.getValue(), inactivityPenaltyQuotient);
+          }
+        }
+      }
+
+      // proposer and inclusion delay micro-rewards
+      if (source.get(i)) {
+        long proposerReward = Long.divideUnsigned(baseReward, proposerRewardQuotient);
+        rewards[participation.getInclusionProposer(i)] += proposerReward;
+        rewards[i] +=
+            Long.divideUnsigned(baseReward - proposerReward, participation.getInclusionDelay(i));
+      }
+    }
+
+    return new long[][] {rewards, penalties};
+  }
+
+  /** @see EpochProcessing#get_attestation_deltas(BeaconState) */
+  public Gwei[][] getAttestationDeltas(BeaconState state) {
+    long[][] deltas =
+        getAttestationDeltas(
+            EpochParticipation.compute(spec, state), state.getFinalizedCheckpoint().getEpoch());
+    Gwei[][] ret = new Gwei[2][deltas[0].length];
+    for (int i = 0; i < deltas[0].length; i++) {
+      ret[0][i] = Gwei.of(deltas[0][i]);
+      ret[1][i] = Gwei.of(deltas[1][i]);
+    }
+    return ret;
+  }
+
+  /** @see EpochProcessing#process_rewards_and_penalties(MutableBeaconState) */
+  public void processRewardsAndPenalties(MutableBeaconState state) {
+    if (spec.get_current_epoch(state).equals(spec.getConstants().getGenesisEpoch())) {
+      return;
+    }
+
+    long[][] deltas =
+        getAttestationDeltas(
+            EpochParticipation.compute(spec, state), state.getFinalizedCheckpoint().getEpoch());
+    long[] rewards = deltas[0], penalties = deltas[1];
+
+    WriteList<ValidatorIndex, Gwei> balances = state.getBalances();
+    for (int i = 0; i < rewards.length; i++) {
+      if (rewards[i] == 0 && penalties[i] == 0) {
+        continue;
+      }
+      ValidatorIndex index = ValidatorIndex.of(i);
+      long balance = balances.get(index).getValue() + rewards[i];
+      balance = Long.compareUnsigned(penalties[i], balance) > 0 ? 0 : balance - penalties[i];
+      balances.set(index, Gwei.of(balance));
+    }
+  }
+
+  /** @see EpochProcessing#process_slashings(MutableBeaconState) */
+  public void processSlashings(MutableBeaconState state) {
+    SpecConstants constants = spec.getConstants();
+    EpochNumber withdrawableEpoch =
+        spec.get_current_epoch(state).plus(constants.getEpochsPerSlashingsVector().half());
+    long totalBalance = spec.get_total_active_balance(state).getValue();
+    long increment = constants.getEffectiveBalanceIncrement().getValue();
+
+    long slashings = 0;
+    for (Gwei slashing : state.getSlashings()) {
+      slashings += slashing.getValue();
+    }
+    long slashingsBalance =
+        Long.compareUnsigned(slashings * 3, totalBalance) < 0 ? slashings * 3 : totalBalance;
+
+    ReadList<ValidatorIndex, ValidatorRecord> validators = state.getValidators();
+    WriteList<ValidatorIndex, Gwei> balances = state.getBalances();
+    int count = validators.size().intValue();
+    for (int i = 0; i < count; i++) {
+      ValidatorIndex index = ValidatorIndex.of(i);
+      ValidatorRecord validator = validators.get(index);
+      if (validator.getSlashed() && withdrawableEpoch.equals(validator.getWithdrawableEpoch())) {
+        long penaltyNumerator =
+            Long.divideUnsigned(validator.getEffectiveBalance().getValue(), increment)
+                * slashingsBalance;
+        long penalty = Long.divideUnsigned(penaltyNumerator, totalBalance) * increment;
+        long balance = balances.get(index).getValue();
+        balances.set(
+            index, Gwei.of(Long.compareUnsigned(penalty, balance) > 0 ? 0 : balance - penalty));
+      }
+    }
+  }
+
+  /** @see EpochProcessing#process_effective_balance_updates(MutableBeaconState) */
+  public void processEffectiveBalanceUpdates(MutableBeaconState state) {
+    SpecConstants constants = spec.getConstants();
+    long increment = constants.getEffectiveBalanceIncrement().getValue();
+    long hysteresis = Long.divideUnsigned(increment, 2) * 3;
+    long maxEffectiveBalance = constants.getMaxEffectiveBalance().getValue();
+
+    WriteList<ValidatorIndex, ValidatorRecord> validators = state.getValidators();
+    ReadList<ValidatorIndex, Gwei> balances = state.getBalances();
+    int count = validators.size().intValue();
+    for (int i = 0; i < count; i++) {
+      ValidatorIndex index = ValidatorIndex.of(i);
+      long balance = balances.get(index).getValue();
+      ValidatorRecord validator = validators.get(index);
+      long effectiveBalance = validator.getEffectiveBalance().getValue();
+      if (Long.compareUnsigned(balance, effectiveBalance) < 0
+          || Long.compareUnsigned(effectiveBalance + hysteresis, balance) < 0) {
+        long updated = balance - Long.remainderUnsigned(balance, increment);
+        if (Long.compareUnsigned(updated, maxEffectiveBalance) > 0) {
+          updated = maxEffectiveBalance;
+        }
+        if (updated != effectiveBalance) {
+          validators.set(
+              index,
+              ValidatorRecord.Builder.fromRecord(validator)
+                  .withEffectiveBalance(Gwei.of(updated))
+                  .build());
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,181 @@
+package org.ethereum.beacon.consensus.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.ethereum.beacon.core.state.ValidatorRecord;
+import org.ethereum.beacon.core.types.BLSPubkey;
+import org.ethereum.beacon.core.types.ValidatorIndex;
+import org.ethereum.beacon.crypto.BLS381.PublicKey;
+import tech.pegasys.artemis.util.collections.ReadList;
+
+/**
+ * Mirrors public keys of validator registry, keeps validator indices and decoded public keys.
+ *
+ * <p>Decoding a public key involves point decompression and subgroup check which dominate
+ * attestation processing if done on every signature verification. Keys of registered validators are
+ * decoded once on the first use and then are served from the cache by a validator index or by an
+ * encoded key.
+ *
+ * <p>The mirror is built from the registry of the first state passed to it and is extended each
+ * time a bigger registry is passed. States of different forks may disagree at an index, thus a
+ * cached entry is checked against registry contents, and it is overwritten with the key found in
+ * the registry when they differ.
+ *
+ * <p>This class is thread-safe.
+ */
+public class PublicKeyCache {
+
+  private final Map<BLSPubkey, ValidatorIndex> indices = new ConcurrentHashMap<>();
+  private volatile Entry[] entries = new Entry[0];
+
+  /**
+   * Extends the mirror up to the size of given registry.
+   *
+   * @param validators validator registry.
+   */
+  public void update(ReadList<ValidatorIndex, ValidatorRecord> validators) {
+    if (validators.size().intValue() <= entries.length) {
+      return;
+    }
+
+    synchronized (this) {
+      int size = validators.size().intValue();
+      int cached = entries.length;
+      if (size <= cached) {
+        return;
+      }
+      Entry[] newEntries = Arrays.copyOf(entries, size);
+      for (int i = cached; i < size; i++) {
+        newEntries[i] = new Entry(validators.get(ValidatorIndex.of(i)).getPubKey());
+        indices.putIfAbsent(newEntries[i].pubkey, ValidatorIndex.of(i));
+      }
+      entries = newEntries;
+    }
+  }
+
+  /**
+   * Returns index of validator with given public key.
+   *
+   * @param validators validator registry.
+   * @param pubkey encoded public key.
+   * @return validator index or {@link ValidatorIndex#MAX} if there is no such validator.
+   */
+  public ValidatorIndex getIndex(
+      ReadList<ValidatorIndex, ValidatorRecord> validators, BLSPubkey pubkey) {
+    update(validators);
+    ValidatorIndex index = indices.get(pubkey);
+    if (index != null
+        && index.less(validators.size())
+        && validators.get(index).getPubKey().equals(pubkey)) {
+      return index;
+    }
+    // registry differs from the mirror or there is no such validator
+    for (ValidatorIndex i : validators.size()) {
+      if (validators.get(i).getPubKey().equals(pubkey)) {
+        getEntry(i.intValue(), pubkey);
+        return i;
+      }
+    }
+    return ValidatorIndex.MAX;
+  }
+
+  /**
+   * Returns decoded public key of a validator.
+   *
+   * @param validators validator registry.
+   * @param index validator index.
+   * @return decoded public key.
+   * @throws IllegalArgumentException if public key is not a valid point.
+   */
+  public PublicKey get(ReadList<ValidatorIndex, ValidatorRecord> validators, ValidatorIndex index) {
+    update(validators);
+    BLSPubkey pubkey = validators.get(index).getPubKey();
+    Entry entry = getEntry(index.intValue(), pubkey);
+    return entry != null ? entry.getKey() : PublicKey.create(pubkey);
+  }
+
+  /**
+   * Returns decoded public key, keys of registered validators are served from the cache.
+   *
+   * @param pubkey encoded public key.
+   * @return decoded public key.
+   * @throws IllegalArgumentException if public key is not a valid point.
+   */
+  public PublicKey get(BLSPubkey pubkey) {
+    ValidatorIndex index = indices.get(pubkey);
+    Entry[] cachedEntries = entries;
+    if (index == null || index.intValue() >= cachedEntries.length) {
+      return PublicKey.create(pubkey);
+    }
+    Entry entry = cachedEntries[index.intValue()];
+    return entry.pubkey.equals(pubkey) ? entry.getKey() : PublicKey.create(pubkey);
+  }
+
+  /**
+   * Aggregates public keys of validators.
+   *
+   * @param validators validator registry.
+   * @param indices validator indices.
+   * @return aggregated public key.
+   */
+  public PublicKey aggregate(
+      ReadList<ValidatorIndex, ValidatorRecord> validators, Iterable<ValidatorIndex> indices) {
+    List<PublicKey> publicKeys = new ArrayList<>();
+    for (ValidatorIndex index : indices) {
+      publicKeys.add(get(validators, index));
+    }
+    return PublicKey.aggregate(publicKeys);
+  }
+
+  /**
+   * Returns an entry of the mirror at given index, overwrites it if it holds a key other than the
+   * one found in the registry.
+   *
+   * @return the entry or {@code null} if the index is beyond the mirror.
+   */
+  private Entry getEntry(int index, BLSPubkey pubkey) {
+    Entry[] cachedEntries = entries;
+    if (index >= cachedEntries.length) {
+      return null;
+    }
+    Entry entry = cachedEntries[index];
+    if (entry.pubkey.equals(pubkey)) {
+      return entry;
+    }
+
+    synchronized (this) {
+      // the mirror is only extended, an array is replaced with a longer copy
+      cachedEntries = entries;
+      entry = cachedEntries[index];
+      if (!entry.pubkey.equals(pubkey)) {
+        indices.remove(entry.pubkey, ValidatorIndex.of(index));
+        entry = new Entry(pubkey);
+        cachedEntries[index] = entry;
+        indices.put(pubkey, ValidatorIndex.of(index));
+      }
+      return entry;
+    }
+  }
+
+  private static final class Entry {
+    private final BLSPubkey pubkey;
+    private volatile PublicKey key;
+
+    Entry(BLSPubkey pubkey) {
+      this.pubkey = pubkey;
+    }
+
+    PublicKey getKey() {
+      PublicKey decoded = key;
+      if (decoded == null) {
+        // racing threads may decode the same key, that's harmless
+        decoded = PublicKey.create(pubkey);
+        key = decoded;
+      }
+      return decoded;
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package org.ethereum.beacon.consensus.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.ethereum.beacon.ssz.incremental.ObservableComposite;
+import org.ethereum.beacon.ssz.incremental.UpdateListener;
+import tech.pegasys.artemis.util.collections.ReadList;
+
+/**
+ * Cheap identity of validator registry contents.
+ *
+ * <p>Installed as an {@link UpdateListener} on a registry list. Copies of the registry share the
+ * generation of their origin, once a copy is modified it is assigned with a new unique generation.
+ * Thus, two registries with the same generation have the same contents and generation could be
+ * used in cache keys instead of registry hash.
+ */
+final class RegistryGeneration implements UpdateListener {
+
+  static final String OBSERVER_ID = "registry_generation";
+
+  /** Returned for registries which modifications can't be tracked. */
+  static final long UNTRACKED = -1;
+
+  private static final AtomicLong counter = new AtomicLong(0);
+
+  private long generation;
+  /** Whether current generation has been exposed and must be changed on the next update. */
+  private boolean published;
+
+  private RegistryGeneration(long generation, boolean published) {
+    this.generation = generation;
+    this.published = published;
+  }
+
+  private RegistryGeneration() {
+    this(counter.incrementAndGet(), false);
+  }
+
+  /**
+   * Returns generation of given registry, installs generation listener if it's missing.
+   *
+   * @param registry validator registry.
+   * @return generation or {@link #UNTRACKED} if registry is not observable.
+   */
+  static long of(ReadList<?, ?> registry) {
+    if (!(registry instanceof ObservableComposite)) {
+      return UNTRACKED;
+    }
+    UpdateListener listener =
+        ((ObservableComposite) registry).getUpdateListener(OBSERVER_ID, RegistryGeneration::new);
+    return ((RegistryGeneration) listener).publish();
+  }
+
+  private synchronized long publish() {
+    published = true;
+    return generation;
+  }
+
+  @Override
+  public synchronized void childUpdated(int childIndex) {
+    if (published) {
+      generation = counter.incrementAndGet();
+      published = false;
+    }
+  }
+
+  @Override
+  public synchronized UpdateListener fork() {
+    // both copies share the generation, hence, either of them must get a new one on update
+    published = true;
+    return new RegistryGeneration(generation, true);
+  }
+}
@@ -0,0 +1,44 @@
+package org.ethereum.beacon.consensus.verifier;
+
+import java.util.List;
+import org.ethereum.beacon.consensus.util.BatchingBLSFunctions;
+import org.ethereum.beacon.consensus.util.BatchingBLSFunctions.Batch;
+import org.ethereum.beacon.consensus.util.BatchingBLSFunctions.SignatureSet;
+import org.ethereum.beacon.core.BeaconBlock;
+import org.ethereum.beacon.core.BeaconState;
+
+/**
+ * Runs block verifications with signature checks deferred to a single batch verification.
+ *
+ * <p>Signatures of block header, RANDAO reveal, slashings, attestations and exits are collected
+ * by {@link BatchingBLSFunctions} while delegate verifier is running and then verified at once.
+ * Spec built with other {@link org.ethereum.beacon.consensus.spec.BLSFunctions} implementations
+ * verifies signatures immediately, thus, the batch stays empty.
+ *
+ * @see BatchingBLSFunctions
+ */
+public class BatchSignatureBlockVerifier implements BeaconBlockVerifier {
+
+  private final BeaconBlockVerifier delegate;
+
+  public BatchSignatureBlockVerifier(BeaconBlockVerifier delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public VerificationResult verify(BeaconBlock block, BeaconState state) {
+    try (Batch batch = BatchingBLSFunctions.startBatch()) {
+      VerificationResult result = delegate.verify(block, state);
+      if (!result.isPassed()) {
+        return result;
+      }
+
+      List<SignatureSet> invalid = batch.verify();
+      return invalid.isEmpty()
+          ? VerificationResult.PASSED
+          : VerificationResult.failedResult(
+              "Signature verification failed for %d of %d signatures: %s",
+              invalid.size(), batch.size(), invalid);
+    }
+  }
+}
@@ -20,6 +20,16 @@ import org.ethereum.beacon.core.BeaconState;
 public interface BeaconBlockVerifier {
 
   static BeaconBlockVerifier createDefault(BeaconChainSpec spec) {
+    return new BatchSignatureBlockVerifier(createSequential(spec));
+  }
+
+  /**
+   * Creates default set of verifiers, each of them verifies signatures immediately.
+   *
+   * @param spec beacon chain spec.
+   * @return block verifier.
+   */
+  static BeaconBlockVerifier createSequential(BeaconChainSpec spec) {
     return CompositeBlockVerifier.Builder.createNew()
         .with(new RandaoVerifier(spec))
         .with(new BlockHeaderVerifier(spec))
@@ -0,0 +1,298 @@
+package org.ethereum.beacon.consensus.verifier;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.ethereum.beacon.consensus.util.BatchingBLSFunctions;
+import org.ethereum.beacon.consensus.util.BatchingBLSFunctions.SignatureSet;
+import org.ethereum.beacon.core.types.BLSSignature;
+import org.ethereum.beacon.crypto.BLS381.PublicKey;
+import tech.pegasys.artemis.ethereum.core.Hash32;
+import tech.pegasys.artemis.util.bytes.Bytes48;
+import tech.pegasys.artemis.util.uint.UInt64;
+
+/**
+ * Verifies signatures submitted from different threads in batches.
+ *
+ * <p>Requests are put to a bounded queue, a request is rejected if the queue is full. Each worker
+ * takes a request from the queue and waits up to {@code batchWindowMillis} for more requests to
+ * come, then the batch is verified with {@link BatchingBLSFunctions#verify(List)}. Identical
+ * requests that are in flight at the same time share a single verification and its result.
+ *
+ * <p>Requests submitted before {@link #start()} are queued and verified once the service is
+ * started, requests submitted after {@link #stop()} are cancelled.
+ *
+ * <p>Queue depth, size of the latest batch and its verification latency, measured from submission
+ * to completion, are exposed for monitoring.
+ */
+public class SignatureVerificationService {
+  private static final Logger logger = LogManager.getLogger(SignatureVerificationService.class);
+
+  public static final int DEFAULT_QUEUE_CAPACITY = 16384;
+  public static final long DEFAULT_BATCH_WINDOW_MILLIS = 10;
+  public static final int DEFAULT_MAX_BATCH_SIZE = 128;
+
+  private final int workers;
+  private final long batchWindowNanos;
+  private final int maxBatchSize;
+  private final BlockingQueue<Request> queue;
+  private final Map<Key, Request> inFlight = new ConcurrentHashMap<>();
+
+  private final AtomicLong batchCount = new AtomicLong();
+  private final AtomicLong verifiedCount = new AtomicLong();
+  private final AtomicLong deduplicatedCount = new AtomicLong();
+  private final AtomicLong rejectedCount = new AtomicLong();
+  private volatile int latestBatchSize = 0;
+  private volatile long latestLatency = 0;
+
+  private ExecutorService executor;
+  private boolean stopped = false;
+
+  public SignatureVerificationService(int workers) {
+    this(workers, DEFAULT_QUEUE_CAPACITY, DEFAULT_BATCH_WINDOW_MILLIS, DEFAULT_MAX_BATCH_SIZE);
+  }
+
+  public SignatureVerificationService(
+      int workers, int queueCapacity, long batchWindowMillis, int maxBatchSize) {
+    if (workers < 1 || queueCapacity < 1 || batchWindowMillis < 0 || maxBatchSize < 1) {
+      throw new IllegalArgumentException("Invalid signature verification service parameters");
+    }
+    this.workers = workers;
+    this.batchWindowNanos = TimeUnit.MILLISECONDS.toNanos(batchWindowMillis);
+    this.maxBatchSize = maxBatchSize;
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+  }
+
+  public synchronized void start() {
+    if (executor != null) {
+      return;
+    }
+    stopped = false;
+    executor =
+        Executors.newFixedThreadPool(
+            workers,
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("signature-verifier-%d")
+                .build());
+    for (int i = 0; i < workers; i++) {
+      executor.execute(this::work);
+    }
+  }
+
+  /** Stops workers, requests that are not verified yet are completed with cancellation. */
+  public synchronized void stop() {
+    stopped = true;
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+    // verify() doesn't queue anything once stopped flag is set under this monitor
+    List<Request> pending = new ArrayList<>();
+    queue.drainTo(pending);
+    pending.forEach(r -> complete(r, new CancellationException("Service is stopped")));
+  }
+
+  /**
+   * Submits a signature for verification.
+   *
+   * @param publicKey a decoded public key, e.g. an aggregate of attesters keys.
+   * @param message a message hash.
+   * @param signature a signature.
+   * @param domain a signature domain.
+   * @return a future verification result, completes exceptionally with {@link
+   *     RejectedExecutionException} if the queue is full and with {@link CancellationException} if
+   *     the service is stopped.
+   */
+  public CompletableFuture<Boolean> verify(
+      PublicKey publicKey, Hash32 message, BLSSignature signature, UInt64 domain) {
+    Key key = new Key(publicKey.getEncodedBytes(), message, signature, domain);
+    Request request = new Request(key, publicKey);
+    Request existing = inFlight.putIfAbsent(key, request);
+    if (existing != null) {
+      deduplicatedCount.incrementAndGet();
+      return existing.result;
+    }
+
+    boolean queued;
+    synchronized (this) {
+      if (stopped) {
+        complete(request, new CancellationException("Service is stopped"));
+        return request.result;
+      }
+      queued = queue.offer(request);
+    }
+    if (!queued) {
+      rejectedCount.incrementAndGet();
+      complete(request, new RejectedExecutionException("Signature verification queue is full"));
+    }
+    return request.result;
+  }
+
+  private void work() {
+    List<Request> batch = new ArrayList<>(maxBatchSize);
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        batch.add(queue.take());
+        long deadline = System.nanoTime() + batchWindowNanos;
+        while (batch.size() < maxBatchSize) {
+          long timeLeft = deadline - System.nanoTime();
+          Request next = timeLeft > 0 ? queue.poll(timeLeft, TimeUnit.NANOSECONDS) : queue.poll();
+          if (next == null) {
+            break;
+          }
+          batch.add(next);
+        }
+        process(batch);
+        batch.clear();
+      }
+    } catch (InterruptedException e) {
+      batch.forEach(r -> complete(r, new CancellationException("Service is stopped")));
+    }
+  }
+
+  private void process(List<Request> batch) {
+    Map<SignatureSet, Request> requests = new IdentityHashMap<>();
+    List<SignatureSet> sets = new ArrayList<>(batch.size());
+    for (Request request : batch) {
+      try {
+        SignatureSet set =
+            SignatureSet.create(
+                request.publicKey, request.key.message, request.key.signature, request.key.domain);
+        sets.add(set);
+        requests.put(set, request);
+      } catch (RuntimeException e) {
+        complete(request, false);
+      }
+    }
+
+    List<SignatureSet> invalid;
+    try {
+      invalid = sets.isEmpty() ? Collections.emptyList() : BatchingBLSFunctions.verify(sets);
+    } catch (RuntimeException e) {
+      logger.warn("Failed to verify a batch of signatures", e);
+      sets.forEach(set -> complete(requests.get(set), e));
+      return;
+    }
+    long now = System.nanoTime();
+    long latency = 0;
+    for (Request request : batch) {
+      latency += now - request.submitted;
+    }
+    latestBatchSize = batch.size();
+    latestLatency = latency / batch.size();
+    batchCount.incrementAndGet();
+    verifiedCount.addAndGet(batch.size());
+    invalid.forEach(set -> complete(requests.remove(set), false));
+    requests.values().forEach(request -> complete(request, true));
+  }
+
+  private void complete(Request request, boolean valid) {
+    inFlight.remove(request.key, request);
+    request.result.complete(valid);
+  }
+
+  private void complete(Request request, Throwable error) {
+    inFlight.remove(request.key, request);
+    request.result.completeExceptionally(error);
+  }
+
+  /** @return number of requests waiting for verification. */
+  public int getQueueDepth() {
+    return queue.size();
+  }
+
+  /** @return average number of signatures per verified batch. */
+  public double getAverageBatchSize() {
+    long batches = batchCount.get();
+    return batches == 0 ? 0 : verifiedCount.get() / (double) batches;
+  }
+
+  /** @return number of signatures in the latest verified batch. */
+  public int getLatestBatchSize() {
+    return latestBatchSize;
+  }
+
+  /** @return average time from submission to result in the latest batch, in nanoseconds. */
+  public long getLatestLatency() {
+    return latestLatency;
+  }
+
+  public long getBatchCount() {
+    return batchCount.get();
+  }
+
+  public long getVerifiedCount() {
+    return verifiedCount.get();
+  }
+
+  public long getDeduplicatedCount() {
+    return deduplicatedCount.get();
+  }
+
+  public long getRejectedCount() {
+    return rejectedCount.get();
+  }
+
+  private static final class Request {
+    private final Key key;
+    private final PublicKey publicKey;
+    private final long submitted = System.nanoTime();
+    private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+    Request(Key key, PublicKey publicKey) {
+      this.key = key;
+      this.publicKey = publicKey;
+    }
+  }
+
+  private static final class Key {
+    private final Bytes48 publicKey;
+    private final Hash32 message;
+    private final BLSSignature signature;
+    private final UInt64 domain;
+
+    Key(Bytes48 publicKey, Hash32 message, BLSSignature signature, UInt64 domain) {
+      this.publicKey = publicKey;
+      this.message = message;
+      this.signature = signature;
+      this.domain = domain;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return message.equals(key.message)
+          && signature.equals(key.signature)
+          && publicKey.equals(key.publicKey)
+          && domain.equals(key.domain);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(message, signature);
+    }
+  }
+}
@@ -0,0 +1,201 @@
+package org.ethereum.beacon.consensus.transition;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import org.ethereum.beacon.consensus.BeaconChainSpec;
+import org.ethereum.beacon.consensus.transition.ParticipationCache.EpochAttesters;
+import org.ethereum.beacon.core.BeaconState;
+import org.ethereum.beacon.core.MutableBeaconState;
+import org.ethereum.beacon.core.operations.Attestation;
+import org.ethereum.beacon.core.operations.attestation.AttestationData;
+import org.ethereum.beacon.core.spec.SpecConstants;
+import org.ethereum.beacon.core.state.Checkpoint;
+import org.ethereum.beacon.core.state.PendingAttestation;
+import org.ethereum.beacon.core.state.ValidatorRecord;
+import org.ethereum.beacon.core.types.BLSPubkey;
+import org.ethereum.beacon.core.types.BLSSignature;
+import org.ethereum.beacon.core.types.CommitteeIndex;
+import org.ethereum.beacon.core.types.EpochNumber;
+import org.ethereum.beacon.core.types.SlotNumber;
+import org.ethereum.beacon.core.types.ValidatorIndex;
+import org.junit.Test;
+import tech.pegasys.artemis.ethereum.core.Hash32;
+import tech.pegasys.artemis.util.bytes.Bytes48;
+import tech.pegasys.artemis.util.collections.Bitlist;
+import tech.pegasys.artemis.util.uint.UInt64;
+
+public class ParticipationCacheTest {
+
+  private static final int VALIDATOR_COUNT = 64;
+
+  private final SpecConstants constants =
+      new SpecConstants() {
+        @Override
+        public SlotNumber.EpochLength getSlotsPerEpoch() {
+          return new SlotNumber.EpochLength(UInt64.valueOf(4));
+        }
+
+        @Override
+        public ValidatorIndex getTargetCommitteeSize() {
+          return ValidatorIndex.of(4);
+        }
+
+        @Override
+        public EpochNumber getEpochsPerHistoricalVector() {
+          return EpochNumber.of(16);
+        }
+      };
+
+  private final BeaconChainSpec spec =
+      new BeaconChainSpec.Builder()
+          .withConstants(constants)
+          .withDefaultHashFunction()
+          .withDefaultHasher()
+          .withBlsVerify(false)
+          .enableCache()
+          .build();
+
+  private final Random rnd = new Random(1);
+
+  private MutableBeaconState createState() {
+    MutableBeaconState state = BeaconState.getEmpty(constants).createMutableCopy();
+    state.setSlot(SlotNumber.of(14));
+    for (SlotNumber slot : SlotNumber.ZERO.iterateTo(state.getSlot())) {
+      state.getBlockRoots().set(slot, Hash32.random(rnd));
+    }
+    for (EpochNumber epoch : EpochNumber.ZERO.iterateTo(constants.getEpochsPerHistoricalVector())) {
+      state.getRandaoMixes().set(epoch, Hash32.random(rnd));
+    }
+    for (int i = 0; i < VALIDATOR_COUNT; i++) {
+      state
+          .getValidators()
+          .add(
+              new ValidatorRecord(
+                  BLSPubkey.wrap(Bytes48.random(rnd)),
+                  Hash32.ZERO,
+                  constants.getMaxEffectiveBalance(),
+                  false,
+                  EpochNumber.ZERO,
+                  EpochNumber.ZERO,
+                  constants.getFarFutureEpoch(),
+                  constants.getFarFutureEpoch()));
+      state.getBalances().add(constants.getMaxEffectiveBalance());
+    }
+    return state;
+  }
+
+  private Attestation createAttestation(BeaconState state, SlotNumber slot) {
+    EpochNumber epoch = spec.compute_epoch_at_slot(slot);
+    CommitteeIndex index = CommitteeIndex.ZERO;
+    int size = spec.get_beacon_committee(state, slot, index).size();
+    List<Integer> bits = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      if (i == 0 || rnd.nextBoolean()) {
+        bits.add(i);
+      }
+    }
+    AttestationData data =
+        new AttestationData(
+            slot,
+            index,
+            rnd.nextBoolean() ? spec.get_block_root_at_slot(state, slot) : Hash32.random(rnd),
+            Checkpoint.EMPTY,
+            new Checkpoint(epoch, spec.get_block_root(state, epoch)));
+    return new Attestation(
+        Bitlist.of(size, bits, constants.getMaxValidatorsPerCommittee().longValue()),
+        data,
+        BLSSignature.ZERO,
+        constants);
+  }
+
+  private static BitSet getAttesters(
+      BeaconChainSpec spec, BeaconState state, List<PendingAttestation> attestations) {
+    BitSet attesters = new BitSet();
+    for (PendingAttestation attestation : attestations) {
+      for (ValidatorIndex index :
+          spec.get_attesting_indices(
+              state, attestation.getData(), attestation.getAggregationBits())) {
+        attesters.set(index.intValue());
+      }
+    }
+    return attesters;
+  }
+
+  @Test
+  public void recordsIncludedAttestations() {
+    MutableBeaconState state = createState();
+    EpochNumber previousEpoch = spec.get_previous_epoch(state);
+    EpochNumber currentEpoch = spec.get_current_epoch(state);
+
+    for (SlotNumber slot : SlotNumber.of(8).iterateTo(state.getSlot())) {
+      spec.process_attestation(state, createAttestation(state, slot));
+    }
+    // previous epoch attestation included late
+    spec.process_attestation(state, createAttestation(state, SlotNumber.of(7)));
+
+    ParticipationCache cache = ParticipationCache.of(state);
+    EpochAttesters current = cache.get(spec, state, currentEpoch);
+    EpochAttesters previous = cache.get(spec, state, previousEpoch);
+    assertSame(current, cache.get(spec, state, currentEpoch));
+
+    BitSet expected =
+        getAttesters(spec, state, state.getCurrentEpochAttestations().listCopy());
+    assertEquals(expected, current.getAttesters());
+    assertEquals(expected.cardinality(), current.getAttesterCount());
+    assertEquals(expected, current.getTargetAttesters());
+    assertEquals(
+        getAttesters(spec, state, state.getPreviousEpochAttestations().listCopy()),
+        previous.getAttesters());
+
+    for (int i = expected.nextSetBit(0); i >= 0; i = expected.nextSetBit(i + 1)) {
+      long delay = current.getInclusionDelay(i);
+      assertTrue(delay >= 1 && delay <= 6);
+    }
+    assertEquals(-1L, current.getInclusionDelay(VALIDATOR_COUNT + 1));
+  }
+
+  @Test
+  public void copiesAreIndependent() {
+    MutableBeaconState state = createState();
+    EpochNumber epoch = spec.get_current_epoch(state);
+    spec.process_attestation(state, createAttestation(state, SlotNumber.of(12)));
+
+    BeaconState origin = state.createImmutable();
+    EpochAttesters originAttesters = ParticipationCache.of(origin).get(spec, origin, epoch);
+
+    MutableBeaconState copy = origin.createMutableCopy();
+    spec.process_attestation(copy, createAttestation(copy, SlotNumber.of(13)));
+    EpochAttesters copyAttesters = ParticipationCache.of(copy).get(spec, copy, epoch);
+
+    assertNotSame(originAttesters, copyAttesters);
+    assertSame(originAttesters, ParticipationCache.of(origin).get(spec, origin, epoch));
+    assertEquals(
+        getAttesters(spec, origin, origin.getCurrentEpochAttestations().listCopy()),
+        originAttesters.getAttesters());
+    assertEquals(
+        getAttesters(spec, copy, copy.getCurrentEpochAttestations().listCopy()),
+        copyAttesters.getAttesters());
+  }
+
+  @Test
+  public void rebuildsWhenAttestationsAreModified() {
+    MutableBeaconState state = createState();
+    EpochNumber epoch = spec.get_current_epoch(state);
+    spec.process_attestation(state, createAttestation(state, SlotNumber.of(12)));
+    EpochAttesters attesters = ParticipationCache.of(state).get(spec, state, epoch);
+
+    state.getCurrentEpochAttestations().clear();
+    EpochAttesters rebuilt = ParticipationCache.of(state).get(spec, state, epoch);
+    assertNotSame(attesters, rebuilt);
+    assertEquals(0, rebuilt.getAttesterCount());
+    assertFalse(rebuilt.hasAttested(attesters.getAttesters().nextSetBit(0)));
+  }
+}
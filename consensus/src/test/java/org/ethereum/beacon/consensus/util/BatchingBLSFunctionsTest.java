@@ -0,0 +1,70 @@
+package org.ethereum.beacon.consensus.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Random;
+import org.ethereum.beacon.consensus.util.BatchingBLSFunctions.Batch;
+import org.ethereum.beacon.consensus.util.BatchingBLSFunctions.SignatureSet;
+import org.ethereum.beacon.core.types.BLSPubkey;
+import org.ethereum.beacon.core.types.BLSSignature;
+import org.ethereum.beacon.crypto.BLS381;
+import org.ethereum.beacon.crypto.BLS381.KeyPair;
+import org.ethereum.beacon.crypto.Hashes;
+import org.ethereum.beacon.crypto.MessageParameters;
+import org.junit.Test;
+import tech.pegasys.artemis.ethereum.core.Hash32;
+import tech.pegasys.artemis.util.uint.UInt64;
+
+public class BatchingBLSFunctionsTest {
+
+  private final Random rnd = new Random(1);
+  private final UInt64 domain = UInt64.valueOf(123);
+
+  @Test
+  public void verifyBatch() {
+    BatchingBLSFunctions blsFunctions = new BatchingBLSFunctions();
+
+    KeyPair[] keyPairs = new KeyPair[4];
+    Hash32[] messages = new Hash32[4];
+    BLSSignature[] signatures = new BLSSignature[4];
+    for (int i = 0; i < keyPairs.length; i++) {
+      keyPairs[i] = BLS381.KeyPair.generate();
+      messages[i] = Hashes.sha256(UInt64.random(rnd).toBytes8());
+      signatures[i] = sign(keyPairs[i], messages[i]);
+    }
+    BLSSignature wrongSignature = sign(keyPairs[0], messages[1]);
+
+    try (Batch batch = BatchingBLSFunctions.startBatch()) {
+      for (int i = 0; i < keyPairs.length; i++) {
+        assertThat(blsFunctions.bls_verify(pubkey(keyPairs[i]), messages[i], signatures[i], domain))
+            .isTrue();
+      }
+      assertThat(batch.size()).isEqualTo(4);
+      assertThat(batch.verify()).isEmpty();
+
+      // deferred, the result is known after batch verification only
+      assertThat(blsFunctions.bls_verify(pubkey(keyPairs[1]), messages[1], wrongSignature, domain))
+          .isTrue();
+      List<SignatureSet> invalid = batch.verify();
+      assertThat(invalid).hasSize(1);
+      assertThat(invalid.get(0).getPublicKey()).isEqualTo(pubkey(keyPairs[1]));
+      assertThat(invalid.get(0).getMessage()).isEqualTo(messages[1]);
+    }
+
+    // batch is closed, signatures are verified immediately
+    assertThat(blsFunctions.bls_verify(pubkey(keyPairs[1]), messages[1], wrongSignature, domain))
+        .isFalse();
+    assertThat(blsFunctions.bls_verify(pubkey(keyPairs[1]), messages[1], signatures[1], domain))
+        .isTrue();
+  }
+
+  private BLSPubkey pubkey(KeyPair keyPair) {
+    return BLSPubkey.wrap(keyPair.getPublic().getEncodedBytes());
+  }
+
+  private BLSSignature sign(KeyPair keyPair, Hash32 message) {
+    return BLSSignature.wrap(
+        BLS381.sign(MessageParameters.create(message, domain), keyPair).getEncoded());
+  }
+}
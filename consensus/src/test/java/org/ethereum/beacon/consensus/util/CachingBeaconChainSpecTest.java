@@ -0,0 +1,126 @@
+package org.ethereum.beacon.consensus.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+import java.util.Random;
+import org.ethereum.beacon.consensus.BeaconChainSpec;
+import org.ethereum.beacon.consensus.hasher.ObjectHasher;
+import org.ethereum.beacon.core.BeaconState;
+import org.ethereum.beacon.core.MutableBeaconState;
+import org.ethereum.beacon.core.spec.SpecConstants;
+import org.ethereum.beacon.core.state.ValidatorRecord;
+import org.ethereum.beacon.core.types.BLSPubkey;
+import org.ethereum.beacon.core.types.CommitteeIndex;
+import org.ethereum.beacon.core.types.EpochNumber;
+import org.ethereum.beacon.core.types.Gwei;
+import org.ethereum.beacon.core.types.SlotNumber;
+import org.ethereum.beacon.core.types.ValidatorIndex;
+import org.ethereum.beacon.crypto.Hashes;
+import org.junit.Test;
+import tech.pegasys.artemis.ethereum.core.Hash32;
+import tech.pegasys.artemis.util.bytes.Bytes48;
+import tech.pegasys.artemis.util.uint.UInt64;
+
+public class CachingBeaconChainSpecTest {
+
+  private static final int VALIDATOR_COUNT = 200;
+
+  private final SpecConstants constants =
+      new SpecConstants() {
+        @Override
+        public SlotNumber.EpochLength getSlotsPerEpoch() {
+          return new SlotNumber.EpochLength(UInt64.valueOf(4));
+        }
+
+        @Override
+        public ValidatorIndex getTargetCommitteeSize() {
+          return ValidatorIndex.of(8);
+        }
+
+        @Override
+        public EpochNumber getEpochsPerHistoricalVector() {
+          return EpochNumber.of(16);
+        }
+      };
+
+  private CachingBeaconChainSpec createSpec(boolean cacheEnabled) {
+    return new CachingBeaconChainSpec(
+        constants,
+        Hashes::sha256,
+        ObjectHasher.createSSZOverSHA256(constants),
+        false,
+        false,
+        false,
+        false,
+        cacheEnabled);
+  }
+
+  private MutableBeaconState createState(Random rnd) {
+    MutableBeaconState state = BeaconState.getEmpty(constants).createMutableCopy();
+    for (int i = 0; i < VALIDATOR_COUNT; i++) {
+      state
+          .getValidators()
+          .add(
+              new ValidatorRecord(
+                  BLSPubkey.wrap(Bytes48.random(rnd)),
+                  Hash32.ZERO,
+                  constants.getMaxEffectiveBalance(),
+                  false,
+                  EpochNumber.ZERO,
+                  EpochNumber.ZERO,
+                  constants.getFarFutureEpoch(),
+                  constants.getFarFutureEpoch()));
+    }
+    for (EpochNumber epoch : EpochNumber.ZERO.iterateTo(constants.getEpochsPerHistoricalVector())) {
+      state.getRandaoMixes().set(epoch, Hash32.random(rnd));
+    }
+    return state;
+  }
+
+  @Test
+  public void committeesMatchUncachedOnes() {
+    BeaconChainSpec cached = createSpec(true);
+    BeaconChainSpec uncached = createSpec(false);
+    BeaconState state = createState(new Random(1)).createImmutable();
+
+    for (SlotNumber slot : SlotNumber.ZERO.iterateTo(SlotNumber.of(12))) {
+      UInt64 count = uncached.get_committee_count_at_slot(state, slot);
+      assertEquals(count, cached.get_committee_count_at_slot(state, slot));
+      for (long i = 0; i < count.getValue(); i++) {
+        CommitteeIndex index = new CommitteeIndex(UInt64.valueOf(i));
+        assertEquals(
+            uncached.get_beacon_committee(state, slot, index),
+            cached.get_beacon_committee(state, slot, index));
+      }
+    }
+  }
+
+  @Test
+  public void registryUpdateInvalidatesCachedValues() {
+    CachingBeaconChainSpec spec = createSpec(true);
+    MutableBeaconState state = createState(new Random(2));
+    EpochNumber epoch = EpochNumber.of(1);
+
+    List<ValidatorIndex> active = spec.get_active_validator_indices(state, epoch);
+    Gwei balance = spec.get_total_active_balance(state);
+    assertEquals(VALIDATOR_COUNT, active.size());
+
+    // untouched copy shares cached values
+    MutableBeaconState copy = state.createImmutable().createMutableCopy();
+    assertSame(active, spec.get_active_validator_indices(copy, epoch));
+
+    copy.getValidators()
+        .update(
+            ValidatorIndex.of(7),
+            v -> v.builder().withExitEpoch(EpochNumber.ZERO).build());
+    assertEquals(VALIDATOR_COUNT - 1, spec.get_active_validator_indices(copy, epoch).size());
+    assertNotEquals(balance, spec.get_total_active_balance(copy));
+
+    // origin is not affected by modification of its copy
+    assertSame(active, spec.get_active_validator_indices(state, epoch));
+    assertEquals(balance, spec.get_total_active_balance(state));
+  }
+}
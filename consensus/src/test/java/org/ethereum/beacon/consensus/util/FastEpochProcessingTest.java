@@ -0,0 +1,203 @@
+package org.ethereum.beacon.consensus.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.ethereum.beacon.consensus.hasher.ObjectHasher;
+import org.ethereum.beacon.consensus.spec.BLSFunctions;
+import org.ethereum.beacon.core.BeaconState;
+import org.ethereum.beacon.core.MutableBeaconState;
+import org.ethereum.beacon.core.operations.attestation.AttestationData;
+import org.ethereum.beacon.core.spec.SpecConstants;
+import org.ethereum.beacon.core.state.Checkpoint;
+import org.ethereum.beacon.core.state.PendingAttestation;
+import org.ethereum.beacon.core.state.ValidatorRecord;
+import org.ethereum.beacon.core.types.BLSPubkey;
+import org.ethereum.beacon.core.types.CommitteeIndex;
+import org.ethereum.beacon.core.types.EpochNumber;
+import org.ethereum.beacon.core.types.Gwei;
+import org.ethereum.beacon.core.types.SlotNumber;
+import org.ethereum.beacon.core.types.ValidatorIndex;
+import org.ethereum.beacon.crypto.Hashes;
+import org.junit.Test;
+import tech.pegasys.artemis.ethereum.core.Hash32;
+import tech.pegasys.artemis.util.bytes.Bytes48;
+import tech.pegasys.artemis.util.collections.Bitlist;
+import tech.pegasys.artemis.util.uint.UInt64;
+
+public class FastEpochProcessingTest {
+
+  private static final int VALIDATOR_COUNT = 200;
+  private static final EpochNumber CURRENT_EPOCH = EpochNumber.of(10);
+
+  private final SpecConstants constants =
+      new SpecConstants() {
+        @Override
+        public SlotNumber.EpochLength getSlotsPerEpoch() {
+          return new SlotNumber.EpochLength(UInt64.valueOf(4));
+        }
+
+        @Override
+        public ValidatorIndex getTargetCommitteeSize() {
+          return ValidatorIndex.of(8);
+        }
+
+        @Override
+        public EpochNumber getEpochsPerHistoricalVector() {
+          return EpochNumber.of(16);
+        }
+
+        @Override
+        public EpochNumber getEpochsPerSlashingsVector() {
+          return EpochNumber.of(16);
+        }
+      };
+
+  private CachingBeaconChainSpec createSpec(boolean fastEpochProcessing) {
+    return new CachingBeaconChainSpec(
+        constants,
+        Hashes::sha256,
+        ObjectHasher.createSSZOverSHA256(constants),
+        BLSFunctions.getDefaultBLSFunctions(false),
+        false,
+        false,
+        false,
+        false,
+        true,
+        new CachingBeaconChainSpec.CacheSizes(),
+        fastEpochProcessing);
+  }
+
+  private MutableBeaconState createState(
+      CachingBeaconChainSpec spec, Random rnd, EpochNumber finalizedEpoch) {
+    MutableBeaconState state = BeaconState.getEmpty(constants).createMutableCopy();
+    SlotNumber slot = spec.compute_start_slot_at_epoch(CURRENT_EPOCH.increment()).decrement();
+    state.setSlot(slot);
+    state.setFinalizedCheckpoint(new Checkpoint(finalizedEpoch, Hash32.random(rnd)));
+    for (SlotNumber s : SlotNumber.ZERO.iterateTo(slot)) {
+      state
+          .getBlockRoots()
+          .set(s.modulo(constants.getSlotsPerHistoricalRoot()), Hash32.random(rnd));
+    }
+    for (EpochNumber epoch : EpochNumber.ZERO.iterateTo(constants.getEpochsPerHistoricalVector())) {
+      state.getRandaoMixes().set(epoch, Hash32.random(rnd));
+    }
+    for (EpochNumber epoch : EpochNumber.ZERO.iterateTo(constants.getEpochsPerSlashingsVector())) {
+      state.getSlashings().set(epoch, Gwei.ofEthers(rnd.nextInt(64)));
+    }
+
+    EpochNumber slashedWithdrawableEpoch =
+        CURRENT_EPOCH.plus(constants.getEpochsPerSlashingsVector().half());
+    for (int i = 0; i < VALIDATOR_COUNT; i++) {
+      boolean slashed = rnd.nextInt(10) == 0;
+      state
+          .getValidators()
+          .add(
+              new ValidatorRecord(
+                  BLSPubkey.wrap(Bytes48.random(rnd)),
+                  Hash32.ZERO,
+                  Gwei.ofEthers(24 + rnd.nextInt(9)),
+                  slashed,
+                  EpochNumber.ZERO,
+                  EpochNumber.ZERO,
+                  slashed ? CURRENT_EPOCH.plus(1) : constants.getFarFutureEpoch(),
+                  slashed && rnd.nextBoolean()
+                      ? slashedWithdrawableEpoch
+                      : constants.getFarFutureEpoch()));
+      state.getBalances().add(Gwei.of(rnd.nextInt(34_000_000) * 1_000L));
+    }
+
+    EpochNumber previousEpoch = spec.get_previous_epoch(state);
+    state
+        .getPreviousEpochAttestations()
+        .addAll(createAttestations(spec, state, rnd, previousEpoch));
+    state
+        .getCurrentEpochAttestations()
+        .addAll(createAttestations(spec, state, rnd, CURRENT_EPOCH));
+    return state;
+  }
+
+  private List<PendingAttestation> createAttestations(
+      CachingBeaconChainSpec spec, BeaconState state, Random rnd, EpochNumber epoch) {
+    List<PendingAttestation> attestations = new ArrayList<>();
+    Hash32 targetRoot = spec.get_block_root(state, epoch);
+    for (SlotNumber slot :
+        spec.compute_start_slot_at_epoch(epoch)
+            .iterateTo(spec.compute_start_slot_at_epoch(epoch.increment()))) {
+      if (!slot.less(state.getSlot())) {
+        break;
+      }
+      Hash32 headRoot = spec.get_block_root_at_slot(state, slot);
+      UInt64 committees = spec.get_committee_count_at_slot(state, slot);
+      for (long c = 0; c < committees.getValue(); c++) {
+        CommitteeIndex index = new CommitteeIndex(UInt64.valueOf(c));
+        int size = spec.get_beacon_committee(state, slot, index).size();
+        // a couple of overlapping attestations per committee
+        for (int n = 0; n < 2; n++) {
+          List<Integer> bits = new ArrayList<>();
+          for (int i = 0; i < size; i++) {
+            if (rnd.nextInt(3) > 0) {
+              bits.add(i);
+            }
+          }
+          AttestationData data =
+              new AttestationData(
+                  slot,
+                  index,
+                  rnd.nextInt(4) > 0 ? headRoot : Hash32.random(rnd),
+                  Checkpoint.EMPTY,
+                  new Checkpoint(epoch, rnd.nextInt(4) > 0 ? targetRoot : Hash32.random(rnd)));
+          attestations.add(
+              new PendingAttestation(
+                  Bitlist.of(size, bits, constants.getMaxValidatorsPerCommittee().longValue()),
+                  data,
+                  SlotNumber.of(1 + rnd.nextInt(4)),
+                  ValidatorIndex.of(rnd.nextInt(VALIDATOR_COUNT)),
+                  constants));
+        }
+      }
+    }
+    return attestations;
+  }
+
+  private void assertSameEpochProcessing(EpochNumber finalizedEpoch, long seed) {
+    CachingBeaconChainSpec fast = createSpec(true);
+    CachingBeaconChainSpec reference = createSpec(false);
+    assertTrue(fast.isFastEpochProcessing());
+    assertFalse(reference.isFastEpochProcessing());
+
+    BeaconState state = createState(reference, new Random(seed), finalizedEpoch).createImmutable();
+
+    Gwei[][] expectedDeltas = reference.get_attestation_deltas(state);
+    Gwei[][] deltas = fast.get_attestation_deltas(state);
+    assertArrayEquals(expectedDeltas[0], deltas[0]);
+    assertArrayEquals(expectedDeltas[1], deltas[1]);
+
+    MutableBeaconState expected = state.createMutableCopy();
+    reference.process_epoch(expected);
+    MutableBeaconState actual = state.createMutableCopy();
+    fast.process_epoch(actual);
+
+    assertEquals(expected.getFinalizedCheckpoint(), actual.getFinalizedCheckpoint());
+    assertEquals(expected.getCurrentJustifiedCheckpoint(), actual.getCurrentJustifiedCheckpoint());
+    assertEquals(expected.getJustificationBits(), actual.getJustificationBits());
+    assertEquals(expected.getBalances(), actual.getBalances());
+    assertEquals(expected.getValidators(), actual.getValidators());
+    assertEquals(expected.createImmutable(), actual.createImmutable());
+  }
+
+  @Test
+  public void matchesSpecDuringFinality() {
+    assertSameEpochProcessing(CURRENT_EPOCH.minus(EpochNumber.of(2)), 1);
+  }
+
+  @Test
+  public void matchesSpecDuringInactivityLeak() {
+    assertSameEpochProcessing(EpochNumber.ZERO, 2);
+  }
+}
@@ -0,0 +1,145 @@
+package org.ethereum.beacon.consensus.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.ethereum.beacon.core.BeaconState;
+import org.ethereum.beacon.core.MutableBeaconState;
+import org.ethereum.beacon.core.spec.SpecConstants;
+import org.ethereum.beacon.core.state.ValidatorRecord;
+import org.ethereum.beacon.core.types.BLSPubkey;
+import org.ethereum.beacon.core.types.EpochNumber;
+import org.ethereum.beacon.core.types.ValidatorIndex;
+import org.ethereum.beacon.crypto.BLS381;
+import org.ethereum.beacon.crypto.BLS381.KeyPair;
+import org.ethereum.beacon.crypto.BLS381.PublicKey;
+import org.junit.Test;
+import tech.pegasys.artemis.ethereum.core.Hash32;
+
+public class PublicKeyCacheTest {
+
+  private final SpecConstants constants = new SpecConstants() {};
+
+  @Test
+  public void serveKeysByIndexAndPubkey() {
+    List<KeyPair> keyPairs = new ArrayList<>();
+    MutableBeaconState state = BeaconState.getEmpty(constants).createMutableCopy();
+    for (int i = 0; i < 4; i++) {
+      keyPairs.add(KeyPair.generate());
+      state.getValidators().add(createValidator(keyPairs.get(i).getPublic()));
+    }
+
+    PublicKeyCache cache = new PublicKeyCache();
+    PublicKey key = cache.get(state.getValidators(), ValidatorIndex.of(2));
+    assertThat(key.getEncodedBytes()).isEqualTo(keyPairs.get(2).getPublic().getEncodedBytes());
+    assertThat(cache.get(state.getValidators(), ValidatorIndex.of(2))).isSameAs(key);
+    assertThat(cache.get(BLSPubkey.wrap(key.getEncodedBytes()))).isSameAs(key);
+
+    assertThat(cache.getIndex(state.getValidators(), BLSPubkey.wrap(key.getEncodedBytes())))
+        .isEqualTo(ValidatorIndex.of(2));
+    assertThat(
+            cache.getIndex(
+                state.getValidators(),
+                BLSPubkey.wrap(KeyPair.generate().getPublic().getEncodedBytes())))
+        .isEqualTo(ValidatorIndex.MAX);
+
+    // registry growth is picked up
+    KeyPair newcomer = KeyPair.generate();
+    state.getValidators().add(createValidator(newcomer.getPublic()));
+    assertThat(
+            cache.getIndex(
+                state.getValidators(), BLSPubkey.wrap(newcomer.getPublic().getEncodedBytes())))
+        .isEqualTo(ValidatorIndex.of(4));
+  }
+
+  @Test
+  public void aggregateByIndices() {
+    List<PublicKey> keys = new ArrayList<>();
+    MutableBeaconState state = BeaconState.getEmpty(constants).createMutableCopy();
+    for (int i = 0; i < 5; i++) {
+      keys.add(KeyPair.generate().getPublic());
+      state.getValidators().add(createValidator(keys.get(i)));
+    }
+
+    PublicKeyCache cache = new PublicKeyCache();
+    PublicKey aggregate =
+        cache.aggregate(
+            state.getValidators(),
+            Arrays.asList(ValidatorIndex.of(0), ValidatorIndex.of(3), ValidatorIndex.of(4)));
+    PublicKey expected =
+        BLS381.PublicKey.aggregate(Arrays.asList(keys.get(0), keys.get(3), keys.get(4)));
+    assertThat(aggregate.getEncodedBytes()).isEqualTo(expected.getEncodedBytes());
+  }
+
+  @Test
+  public void indexIsCheckedAgainstRegistry() {
+    List<PublicKey> keys = new ArrayList<>();
+    MutableBeaconState state = BeaconState.getEmpty(constants).createMutableCopy();
+    for (int i = 0; i < 4; i++) {
+      keys.add(KeyPair.generate().getPublic());
+      state.getValidators().add(createValidator(keys.get(i)));
+    }
+    PublicKeyCache cache = new PublicKeyCache();
+    cache.update(state.getValidators());
+
+    // a registry which the mirror hasn't been built from
+    MutableBeaconState other = BeaconState.getEmpty(constants).createMutableCopy();
+    other.getValidators().add(createValidator(keys.get(0)));
+    other.getValidators().add(createValidator(KeyPair.generate().getPublic()));
+    other.getValidators().add(createValidator(keys.get(2)));
+    other.getValidators().add(createValidator(keys.get(1)));
+
+    assertThat(cache.getIndex(other.getValidators(), BLSPubkey.wrap(keys.get(1).getEncodedBytes())))
+        .isEqualTo(ValidatorIndex.of(3));
+    assertThat(cache.getIndex(other.getValidators(), BLSPubkey.wrap(keys.get(3).getEncodedBytes())))
+        .isEqualTo(ValidatorIndex.MAX);
+    assertThat(cache.getIndex(other.getValidators(), BLSPubkey.wrap(keys.get(2).getEncodedBytes())))
+        .isEqualTo(ValidatorIndex.of(2));
+  }
+
+  @Test
+  public void mirrorIsRepairedByOtherFork() {
+    List<PublicKey> keys = new ArrayList<>();
+    MutableBeaconState state = BeaconState.getEmpty(constants).createMutableCopy();
+    for (int i = 0; i < 3; i++) {
+      keys.add(KeyPair.generate().getPublic());
+      state.getValidators().add(createValidator(keys.get(i)));
+    }
+    PublicKeyCache cache = new PublicKeyCache();
+    PublicKey original = cache.get(state.getValidators(), ValidatorIndex.of(2));
+
+    // other fork has got a different validator at the same index
+    PublicKey forked = KeyPair.generate().getPublic();
+    MutableBeaconState other = BeaconState.getEmpty(constants).createMutableCopy();
+    other.getValidators().add(createValidator(keys.get(0)));
+    other.getValidators().add(createValidator(keys.get(1)));
+    other.getValidators().add(createValidator(forked));
+
+    assertThat(cache.getIndex(other.getValidators(), BLSPubkey.wrap(forked.getEncodedBytes())))
+        .isEqualTo(ValidatorIndex.of(2));
+    PublicKey key = cache.get(other.getValidators(), ValidatorIndex.of(2));
+    assertThat(key.getEncodedBytes()).isEqualTo(forked.getEncodedBytes());
+    assertThat(cache.get(other.getValidators(), ValidatorIndex.of(2))).isSameAs(key);
+    assertThat(cache.get(BLSPubkey.wrap(forked.getEncodedBytes()))).isSameAs(key);
+
+    // an overwritten key is still served correctly
+    PublicKey decoded = cache.get(BLSPubkey.wrap(original.getEncodedBytes()));
+    assertThat(decoded.getEncodedBytes()).isEqualTo(original.getEncodedBytes());
+    assertThat(cache.get(state.getValidators(), ValidatorIndex.of(2)).getEncodedBytes())
+        .isEqualTo(original.getEncodedBytes());
+  }
+
+  private ValidatorRecord createValidator(PublicKey publicKey) {
+    return new ValidatorRecord(
+        BLSPubkey.wrap(publicKey.getEncodedBytes()),
+        Hash32.ZERO,
+        constants.getMaxEffectiveBalance(),
+        false,
+        EpochNumber.ZERO,
+        EpochNumber.ZERO,
+        constants.getFarFutureEpoch(),
+        constants.getFarFutureEpoch());
+  }
+}
@@ -0,0 +1,121 @@
+package org.ethereum.beacon.consensus.verifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import org.ethereum.beacon.core.types.BLSSignature;
+import org.ethereum.beacon.crypto.BLS381;
+import org.ethereum.beacon.crypto.BLS381.KeyPair;
+import org.ethereum.beacon.crypto.Hashes;
+import org.ethereum.beacon.crypto.MessageParameters;
+import org.junit.Test;
+import tech.pegasys.artemis.ethereum.core.Hash32;
+import tech.pegasys.artemis.util.uint.UInt64;
+
+public class SignatureVerificationServiceTest {
+
+  private final Random rnd = new Random(1);
+  private final UInt64 domain = UInt64.valueOf(1);
+
+  @Test
+  public void verifyInBatches() {
+    SignatureVerificationService service = new SignatureVerificationService(2, 64, 20, 8);
+
+    List<KeyPair> keyPairs = new ArrayList<>();
+    List<Hash32> messages = new ArrayList<>();
+    for (int i = 0; i < 6; i++) {
+      keyPairs.add(BLS381.KeyPair.generate());
+      messages.add(Hashes.sha256(UInt64.random(rnd).toBytes8()));
+    }
+
+    // submitted before start to get them all queued at once
+    List<CompletableFuture<Boolean>> results = new ArrayList<>();
+    for (int i = 0; i < keyPairs.size(); i++) {
+      results.add(
+          service.verify(
+              keyPairs.get(i).getPublic(),
+              messages.get(i),
+              sign(keyPairs.get(i), messages.get(i)),
+              domain));
+    }
+    CompletableFuture<Boolean> invalid =
+        service.verify(
+            keyPairs.get(0).getPublic(), messages.get(1), sign(keyPairs.get(0), messages.get(0)),
+            domain);
+    CompletableFuture<Boolean> duplicate =
+        service.verify(
+            keyPairs.get(0).getPublic(), messages.get(0), sign(keyPairs.get(0), messages.get(0)),
+            domain);
+
+    assertThat(duplicate).isSameAs(results.get(0));
+    assertThat(service.getDeduplicatedCount()).isEqualTo(1);
+    assertThat(service.getQueueDepth()).isEqualTo(7);
+
+    service.start();
+    try {
+      results.forEach(result -> assertThat(result.join()).isTrue());
+      assertThat(invalid.join()).isFalse();
+      assertThat(service.getVerifiedCount()).isEqualTo(7);
+      assertThat(service.getAverageBatchSize()).isGreaterThan(1);
+      assertThat(service.getLatestBatchSize()).isGreaterThan(0);
+      assertThat(service.getQueueDepth()).isEqualTo(0);
+    } finally {
+      service.stop();
+    }
+  }
+
+  @Test
+  public void rejectIfQueueIsFull() {
+    SignatureVerificationService service = new SignatureVerificationService(1, 1, 0, 8);
+
+    KeyPair keyPair = BLS381.KeyPair.generate();
+    Hash32 message1 = Hashes.sha256(UInt64.random(rnd).toBytes8());
+    Hash32 message2 = Hashes.sha256(UInt64.random(rnd).toBytes8());
+
+    CompletableFuture<Boolean> accepted =
+        service.verify(keyPair.getPublic(), message1, sign(keyPair, message1), domain);
+    CompletableFuture<Boolean> rejected =
+        service.verify(keyPair.getPublic(), message2, sign(keyPair, message2), domain);
+
+    assertThatThrownBy(rejected::join)
+        .isInstanceOf(CompletionException.class)
+        .hasCauseInstanceOf(RejectedExecutionException.class);
+    assertThat(service.getRejectedCount()).isEqualTo(1);
+
+    service.start();
+    try {
+      assertThat(accepted.join()).isTrue();
+    } finally {
+      service.stop();
+    }
+  }
+
+  @Test
+  public void cancelIfStopped() {
+    SignatureVerificationService service = new SignatureVerificationService(1);
+    KeyPair keyPair = BLS381.KeyPair.generate();
+    Hash32 message = Hashes.sha256(UInt64.random(rnd).toBytes8());
+
+    service.start();
+    service.stop();
+    CompletableFuture<Boolean> result =
+        service.verify(keyPair.getPublic(), message, sign(keyPair, message), domain);
+    assertThatThrownBy(result::join).isInstanceOf(CancellationException.class);
+    // isn't kept in flight, a duplicate gets a new future
+    assertThat(service.verify(keyPair.getPublic(), message, sign(keyPair, message), domain))
+        .isNotSameAs(result);
+    assertThat(service.getQueueDepth()).isEqualTo(0);
+  }
+
+  private BLSSignature sign(KeyPair keyPair, Hash32 message) {
+    return BLSSignature.wrap(
+        BLS381.sign(MessageParameters.create(message, domain), keyPair).getEncoded());
+  }
+}
@@ -0,0 +1,156 @@
+package org.ethereum.beacon.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.ethereum.beacon.core.operations.Attestation;
+import org.ethereum.beacon.core.operations.attestation.AttestationData;
+import org.ethereum.beacon.core.spec.SpecConstants;
+import org.ethereum.beacon.core.spec.SpecConstantsResolver;
+import org.ethereum.beacon.core.state.BeaconStateImpl;
+import org.ethereum.beacon.core.state.Checkpoint;
+import org.ethereum.beacon.core.state.Eth1Data;
+import org.ethereum.beacon.core.state.ValidatorRecord;
+import org.ethereum.beacon.core.types.BLSPubkey;
+import org.ethereum.beacon.core.types.BLSSignature;
+import org.ethereum.beacon.core.types.CommitteeIndex;
+import org.ethereum.beacon.core.types.EpochNumber;
+import org.ethereum.beacon.core.types.Gwei;
+import org.ethereum.beacon.core.types.SlotNumber;
+import org.ethereum.beacon.ssz.SSZBuilder;
+import org.ethereum.beacon.ssz.SSZSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tech.pegasys.artemis.ethereum.core.Hash32;
+import tech.pegasys.artemis.util.bytes.Bytes32;
+import tech.pegasys.artemis.util.bytes.Bytes48;
+import tech.pegasys.artemis.util.bytes.BytesValue;
+import tech.pegasys.artemis.util.collections.Bitlist;
+
+/**
+ * Measures SSZ encoding and decoding of a block full of attestations and of a state with a number
+ * of validators, with container fields read by compiled getters and by reflection.
+ *
+ * <p>Run with {@code ./gradlew :core:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SSZCodecBenchmark {
+
+  @Param({"true", "false"})
+  private boolean compiledAccessors;
+
+  @Param({"16384"})
+  private int validatorCount;
+
+  private SSZSerializer serializer;
+  private BeaconBlock block;
+  private BeaconState state;
+  private BytesValue blockBytes;
+  private BytesValue stateBytes;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    SpecConstants constants = new SpecConstants() {};
+    serializer =
+        new SSZBuilder()
+            .withExternalVarResolver(new SpecConstantsResolver(constants))
+            .withExtraObjectCreator(SpecConstants.class, constants)
+            .withCompiledAccessors(compiledAccessors)
+            .buildSerializer();
+
+    Random rnd = new Random(1);
+    List<Attestation> attestations = new ArrayList<>();
+    for (int i = 0; i < constants.getMaxAttestations(); i++) {
+      AttestationData data =
+          new AttestationData(
+              SlotNumber.of(i),
+              CommitteeIndex.of(i),
+              Hash32.random(rnd),
+              Checkpoint.EMPTY,
+              new Checkpoint(EpochNumber.of(1), Hash32.random(rnd)));
+      attestations.add(
+          new Attestation(
+              Bitlist.of(
+                  128,
+                  BytesValue.wrap(new byte[16]),
+                  constants.getMaxValidatorsPerCommittee().getValue()),
+              data,
+              BLSSignature.ZERO,
+              constants));
+    }
+    BeaconBlockBody body =
+        new BeaconBlockBody(
+            BLSSignature.ZERO,
+            Eth1Data.EMPTY,
+            Bytes32.ZERO,
+            Collections.emptyList(),
+            Collections.emptyList(),
+            attestations,
+            Collections.emptyList(),
+            Collections.emptyList(),
+            constants);
+    block = new BeaconBlock(SlotNumber.of(1), Hash32.ZERO, Hash32.ZERO, body, BLSSignature.ZERO);
+
+    MutableBeaconState mutableState = BeaconState.getEmpty(constants).createMutableCopy();
+    for (int i = 0; i < validatorCount; i++) {
+      byte[] pubkey = new byte[Bytes48.SIZE];
+      pubkey[0] = (byte) i;
+      pubkey[1] = (byte) (i >> 8);
+      pubkey[2] = (byte) (i >> 16);
+      mutableState
+          .getValidators()
+          .add(
+              new ValidatorRecord(
+                  BLSPubkey.wrap(Bytes48.wrap(pubkey)),
+                  Hash32.ZERO,
+                  Gwei.ofEthers(32),
+                  false,
+                  EpochNumber.ZERO,
+                  EpochNumber.ZERO,
+                  constants.getFarFutureEpoch(),
+                  constants.getFarFutureEpoch()));
+      mutableState.getBalances().add(Gwei.ofEthers(32));
+    }
+    state = mutableState.createImmutable();
+
+    blockBytes = serializer.encode2(block);
+    stateBytes = serializer.encode2(state);
+  }
+
+  @Benchmark
+  public BytesValue encodeBlock() {
+    return serializer.encode2(block);
+  }
+
+  @Benchmark
+  public BeaconBlock decodeBlock() {
+    return serializer.decode(blockBytes, BeaconBlock.class);
+  }
+
+  @Benchmark
+  public BytesValue encodeState() {
+    return serializer.encode2(state);
+  }
+
+  @Benchmark
+  public BeaconState decodeState() {
+    return serializer.decode(stateBytes, BeaconStateImpl.class);
+  }
+}
@@ -121,7 +121,7 @@ public class BeaconStateImpl implements MutableBeaconState {
     this.finalizedCheckpoint = obsHelper.newValue(Checkpoint.EMPTY);
   }
 
-  private BeaconStateImpl(BeaconState state, SpecConstants specConstants) {
+  BeaconStateImpl(BeaconState state, SpecConstants specConstants) {
     this(specConstants);
     genesisTime.set(state.getGenesisTime());
     slot.set(state.getSlot());
@@ -0,0 +1,246 @@
+package org.ethereum.beacon.core.state;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+import org.ethereum.beacon.core.BeaconBlockHeader;
+import org.ethereum.beacon.core.BeaconState;
+import org.ethereum.beacon.core.MutableBeaconState;
+import org.ethereum.beacon.core.spec.SpecConstants;
+import org.ethereum.beacon.core.types.EpochNumber;
+import org.ethereum.beacon.core.types.Gwei;
+import org.ethereum.beacon.core.types.SlotNumber;
+import org.ethereum.beacon.core.types.Time;
+import org.ethereum.beacon.core.types.ValidatorIndex;
+import org.ethereum.beacon.ssz.SSZContainerView;
+import org.ethereum.beacon.ssz.annotation.SSZSerializable;
+import org.ethereum.beacon.ssz.incremental.ObservableCompositeHelper;
+import org.ethereum.beacon.ssz.incremental.UpdateListener;
+import tech.pegasys.artemis.ethereum.core.Hash32;
+import tech.pegasys.artemis.util.bytes.BytesValue;
+import tech.pegasys.artemis.util.collections.Bitvector;
+import tech.pegasys.artemis.util.collections.ReadList;
+import tech.pegasys.artemis.util.collections.ReadVector;
+import tech.pegasys.artemis.util.uint.UInt64;
+
+/**
+ * Read-only {@link BeaconState} backed by its SSZ serialization. Each field is decoded upon first
+ * access and is kept afterwards.
+ *
+ * <p>Suits consumers which need only a few fields of a state loaded from storage, like slot or
+ * checkpoints, as validator registry and attestations are not decoded unless asked for. {@link
+ * #createMutableCopy()} decodes the rest of fields and returns a regular {@link BeaconStateImpl}.
+ */
+@SSZSerializable
+public class LazyBeaconState implements BeaconState {
+
+  private static final String[] FIELDS = {
+    "genesisTime",
+    "slot",
+    "fork",
+    "latestBlockHeader",
+    "blockRoots",
+    "stateRoots",
+    "historicalRoots",
+    "eth1Data",
+    "eth1DataVotes",
+    "eth1DepositIndex",
+    "validators",
+    "balances",
+    "randaoMixes",
+    "slashings",
+    "previousEpochAttestations",
+    "currentEpochAttestations",
+    "justificationBits",
+    "previousJustifiedCheckpoint",
+    "currentJustifiedCheckpoint",
+    "finalizedCheckpoint"
+  };
+
+  private static final int GENESIS_TIME = 0;
+  private static final int SLOT = 1;
+  private static final int FORK = 2;
+  private static final int LATEST_BLOCK_HEADER = 3;
+  private static final int BLOCK_ROOTS = 4;
+  private static final int STATE_ROOTS = 5;
+  private static final int HISTORICAL_ROOTS = 6;
+  private static final int ETH1_DATA = 7;
+  private static final int ETH1_DATA_VOTES = 8;
+  private static final int ETH1_DEPOSIT_INDEX = 9;
+  private static final int VALIDATORS = 10;
+  private static final int BALANCES = 11;
+  private static final int RANDAO_MIXES = 12;
+  private static final int SLASHINGS = 13;
+  private static final int PREVIOUS_EPOCH_ATTESTATIONS = 14;
+  private static final int CURRENT_EPOCH_ATTESTATIONS = 15;
+  private static final int JUSTIFICATION_BITS = 16;
+  private static final int PREVIOUS_JUSTIFIED_CHECKPOINT = 17;
+  private static final int CURRENT_JUSTIFIED_CHECKPOINT = 18;
+  private static final int FINALIZED_CHECKPOINT = 19;
+
+  private final ObservableCompositeHelper obsHelper = new ObservableCompositeHelper();
+  private final SSZContainerView view;
+  private final SpecConstants specConstants;
+  private final int[] viewIndices = new int[FIELDS.length];
+  private final AtomicReferenceArray<Object> values = new AtomicReferenceArray<>(FIELDS.length);
+
+  /**
+   * @param view view over serialization of {@link BeaconStateImpl}.
+   * @param specConstants constants used when state is turned into a mutable one.
+   */
+  public LazyBeaconState(SSZContainerView view, SpecConstants specConstants) {
+    this.view = view;
+    this.specConstants = specConstants;
+    for (int i = 0; i < FIELDS.length; i++) {
+      viewIndices[i] = view.getFieldIndex(FIELDS[i]);
+      if (viewIndices[i] < 0) {
+        throw new IllegalArgumentException("Field " + FIELDS[i] + " is missing in the view");
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> T get(int field) {
+    Object value = values.get(field);
+    if (value == null) {
+      // concurrent decoding yields an equal value, thus it doesn't matter which one is kept
+      value = view.decodeField(viewIndices[field]);
+      values.set(field, value);
+    }
+    return (T) value;
+  }
+
+  /** @return serialization the state is backed by. */
+  public BytesValue getData() {
+    return view.getData();
+  }
+
+  @Override
+  public UpdateListener getUpdateListener(
+      String observerId, Supplier<UpdateListener> listenerFactory) {
+    return obsHelper.getUpdateListener(observerId, listenerFactory);
+  }
+
+  @Override
+  public Map<String, UpdateListener> getAllUpdateListeners() {
+    return obsHelper.getAllUpdateListeners();
+  }
+
+  @Override
+  public Time getGenesisTime() {
+    return get(GENESIS_TIME);
+  }
+
+  @Override
+  public SlotNumber getSlot() {
+    return get(SLOT);
+  }
+
+  @Override
+  public Fork getFork() {
+    return get(FORK);
+  }
+
+  @Override
+  public BeaconBlockHeader getLatestBlockHeader() {
+    return get(LATEST_BLOCK_HEADER);
+  }
+
+  @Override
+  public ReadVector<SlotNumber, Hash32> getBlockRoots() {
+    return get(BLOCK_ROOTS);
+  }
+
+  @Override
+  public ReadVector<SlotNumber, Hash32> getStateRoots() {
+    return get(STATE_ROOTS);
+  }
+
+  @Override
+  public ReadList<Integer, Hash32> getHistoricalRoots() {
+    return get(HISTORICAL_ROOTS);
+  }
+
+  @Override
+  public Eth1Data getEth1Data() {
+    return get(ETH1_DATA);
+  }
+
+  @Override
+  public ReadList<Integer, Eth1Data> getEth1DataVotes() {
+    return get(ETH1_DATA_VOTES);
+  }
+
+  @Override
+  public UInt64 getEth1DepositIndex() {
+    return get(ETH1_DEPOSIT_INDEX);
+  }
+
+  @Override
+  public ReadList<ValidatorIndex, ValidatorRecord> getValidators() {
+    return get(VALIDATORS);
+  }
+
+  @Override
+  public ReadList<ValidatorIndex, Gwei> getBalances() {
+    return get(BALANCES);
+  }
+
+  @Override
+  public ReadVector<EpochNumber, Hash32> getRandaoMixes() {
+    return get(RANDAO_MIXES);
+  }
+
+  @Override
+  public ReadVector<EpochNumber, Gwei> getSlashings() {
+    return get(SLASHINGS);
+  }
+
+  @Override
+  public ReadList<Integer, PendingAttestation> getPreviousEpochAttestations() {
+    return get(PREVIOUS_EPOCH_ATTESTATIONS);
+  }
+
+  @Override
+  public ReadList<Integer, PendingAttestation> getCurrentEpochAttestations() {
+    return get(CURRENT_EPOCH_ATTESTATIONS);
+  }
+
+  @Override
+  public Bitvector getJustificationBits() {
+    return get(JUSTIFICATION_BITS);
+  }
+
+  @Override
+  public Checkpoint getPreviousJustifiedCheckpoint() {
+    return get(PREVIOUS_JUSTIFIED_CHECKPOINT);
+  }
+
+  @Override
+  public Checkpoint getCurrentJustifiedCheckpoint() {
+    return get(CURRENT_JUSTIFIED_CHECKPOINT);
+  }
+
+  @Override
+  public Checkpoint getFinalizedCheckpoint() {
+    return get(FINALIZED_CHECKPOINT);
+  }
+
+  @Override
+  public MutableBeaconState createMutableCopy() {
+    return new BeaconStateImpl(this, specConstants);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj instanceof LazyBeaconState) {
+      return getData().equals(((LazyBeaconState) obj).getData());
+    }
+    return equalsHelper((BeaconState) obj);
+  }
+
+  @Override
+  public String toString() {
+    return toStringShort(null);
+  }
+}
@@ -18,6 +18,7 @@ import org.ethereum.beacon.core.spec.SpecConstants;
 import org.ethereum.beacon.core.spec.SpecConstantsResolver;
 import org.ethereum.beacon.core.state.BeaconStateImpl;
 import org.ethereum.beacon.core.state.Fork;
+import org.ethereum.beacon.core.state.LazyBeaconState;
 import org.ethereum.beacon.core.state.PendingAttestation;
 import org.ethereum.beacon.core.state.ValidatorRecord;
 import org.ethereum.beacon.core.util.BeaconBlockTestUtil;
@@ -151,6 +152,25 @@ public class ModelsSerializeTest {
     assertEquals(expected, reconstructed);
   }
 
+  @Test
+  public void lazyBeaconStateTest() {
+    BeaconState expected = dataFactory.createBeaconState();
+    BytesValue encoded = sszSerializer.encode2(expected);
+    LazyBeaconState lazy =
+        new LazyBeaconState(
+            sszSerializer.decodeView(encoded, BeaconStateImpl.class), specConstants);
+
+    assertEquals(expected.getSlot(), lazy.getSlot());
+    assertEquals(expected.getFinalizedCheckpoint(), lazy.getFinalizedCheckpoint());
+    assertEquals(expected, lazy);
+    assertEquals(encoded, sszSerializer.encode2(lazy));
+
+    MutableBeaconState mutable = lazy.createMutableCopy();
+    assertEquals(expected, mutable);
+    mutable.setSlot(mutable.getSlot().increment());
+    assertEquals(expected.getSlot(), lazy.getSlot());
+  }
+
   @Test
   public void beaconStateExTest() {
     BeaconState expected = dataFactory.createBeaconState();
@@ -26,6 +26,7 @@ import org.ethereum.beacon.crypto.bls.bc.BCParameters;
 import org.ethereum.beacon.crypto.bls.codec.Codec;
 import org.ethereum.beacon.crypto.bls.codec.Validator;
 import org.ethereum.beacon.crypto.bls.milagro.BIGs;
+import org.ethereum.beacon.crypto.bls.milagro.CachingMessageMapper;
 import org.ethereum.beacon.crypto.bls.milagro.MilagroMessageMapper;
 import tech.pegasys.artemis.util.bytes.Bytes32;
 import tech.pegasys.artemis.util.bytes.Bytes48;
@@ -43,10 +44,13 @@ import tech.pegasys.artemis.util.bytes.Bytes96;
  * href="https://github.com/ethereum/eth2.0-specs/blob/master/specs/bls_signature.md">https://github.com/ethereum/eth2.0-specs/blob/master/specs/bls_signature.md</a>
  *
  * <p>In this implementation public key is <code>G<sub>1</sub></code> subgroup member while
- * signature is <code>G<sub>2</sub></code> member. Verification is done via calculating two pairing
- * products and comparing the result of these calculations, to get verified successfully the result
- * should be equal: {@code e(PubKey, MessagePoint) == e(G1, Signature)}. Where {@code G1} is a
- * generator point of <code>G<sub>1</sub></code> subgroup.
+ * signature is <code>G<sub>2</sub></code> member. To get verified successfully the following should
+ * hold: {@code e(PubKey, MessagePoint) == e(G1, Signature)}. Where {@code G1} is a generator point
+ * of <code>G<sub>1</sub></code> subgroup. It's checked as {@code e(PubKey, MessagePoint) * e(-G1,
+ * Signature) == 1} which takes two Miller loops and a single final exponentiation.
+ *
+ * <p>Message points are served from {@link CachingMessageMapper}, messages signed by a number of
+ * validators, like attestation data, are mapped to the curve once.
  *
  * @see MessageParameters
  * @see Signature
@@ -62,7 +66,10 @@ public class BLS381 {
   private static final String KEY_GENERATOR_PROVIDER = "BC";
 
   private static final KeyPairGenerator KEY_PAIR_GENERATOR;
-  private static final MessageParametersMapper<ECP2> MESSAGE_MAPPER;
+  private static final CachingMessageMapper MESSAGE_MAPPER;
+  /** Negated generator of <code>G<sub>1</sub></code>, kept in affine form. */
+  private static final ECP NEG_GENERATOR;
+  private static final SecureRandom BATCH_RANDOM = new SecureRandom();
 
   static {
     Security.addProvider(new BouncyCastleProvider());
@@ -86,7 +93,13 @@ public class BLS381 {
       throw new RuntimeException(e);
     }
 
-    MESSAGE_MAPPER = new MilagroMessageMapper();
+    MESSAGE_MAPPER =
+        new CachingMessageMapper(
+            new MilagroMessageMapper(), CachingMessageMapper.DEFAULT_CAPACITY);
+
+    NEG_GENERATOR = ECP.generator();
+    NEG_GENERATOR.neg();
+    NEG_GENERATOR.affine();
   }
 
   /**
@@ -114,10 +127,10 @@ public class BLS381 {
   public static boolean verify(
       MessageParameters message, Signature signature, PublicKey publicKey) {
     ECP2 messagePoint = MESSAGE_MAPPER.map(message);
-    FP12 lhs = pairingProduct(publicKey.asEcPoint(), messagePoint);
-    FP12 rhs = pairingProduct(ECP.generator(), signature.asEcPoint());
+    FP12 product = PAIR.ate(messagePoint, publicKey.asEcPoint());
+    product.mul(PAIR.ate(signature.asEcPoint(), negGenerator()));
 
-    return lhs.equals(rhs);
+    return PAIR.fexp(product).isunity();
   }
 
   /**
@@ -138,29 +151,83 @@ public class BLS381 {
       List<MessageParameters> messages, Signature signature, List<PublicKey> publicKeys) {
     assert messages.size() == publicKeys.size();
 
-    FP12 lhs = new FP12(1);
+    FP12 product = new FP12(1);
+    for (int i = 0; i < messages.size(); i++) {
+      ECP2 messagePoint = MESSAGE_MAPPER.map(messages.get(i));
+      product.mul(PAIR.ate(messagePoint, publicKeys.get(i).asEcPoint()));
+    }
+    product.mul(PAIR.ate(signature.asEcPoint(), negGenerator()));
+
+    return PAIR.fexp(product).isunity();
+  }
+
+  /**
+   * Verifies a number of independent signatures at once.
+   *
+   * <p>Each signature is weighted with a random {@code 64-bit} scalar {@code r_i}, then a single
+   * check {@code prod(e(r_i * PubKey_i, MessagePoint_i)) * e(-G1, sum(r_i * Signature_i)) == 1} is
+   * done. It takes one Miller loop per signature plus one for the aggregated signature and a single
+   * final exponentiation instead of two full pairings per signature. Random scalars prevent a
+   * forged signature from being compensated by another one in the same batch.
+   *
+   * <p>A negative result means that at least one of the signatures is invalid, it's up to the
+   * caller to find which one.
+   *
+   * @param messages a list of messages.
+   * @param signatures a list of signatures.
+   * @param publicKeys a list of public keys.
+   * @return {@code true} if each message has been signed with a related public key, otherwise,
+   *     {@code false}.
+   * @throws AssertionError if lists are of different sizes.
+   */
+  public static boolean verifyBatch(
+      List<MessageParameters> messages, List<Signature> signatures, List<PublicKey> publicKeys) {
+    assert messages.size() == signatures.size();
+    assert messages.size() == publicKeys.size();
+
+    if (messages.isEmpty()) {
+      return true;
+    }
+    if (messages.size() == 1) {
+      return verify(messages.get(0), signatures.get(0), publicKeys.get(0));
+    }
+
+    FP12 product = new FP12(1);
+    ECP2 signatureSum = new ECP2();
     for (int i = 0; i < messages.size(); i++) {
+      BIG r = randomBatchScalar();
       ECP2 messagePoint = MESSAGE_MAPPER.map(messages.get(i));
-      FP12 product = PAIR.ate(messagePoint, publicKeys.get(i).asEcPoint());
-      lhs.mul(product);
+      product.mul(PAIR.ate(messagePoint, publicKeys.get(i).asEcPoint().mul(r)));
+      signatureSum.add(signatures.get(i).asEcPoint().mul(r));
     }
-    lhs = PAIR.fexp(lhs);
-    FP12 rhs = pairingProduct(ECP.generator(), signature.asEcPoint());
+    product.mul(PAIR.ate(signatureSum, negGenerator()));
 
-    return lhs.equals(rhs);
+    return PAIR.fexp(product).isunity();
   }
 
   /**
-   * Calculates ate pairing product for given elliptic curve points.
+   * Returns a cache of message points that is used by signing and verification.
    *
-   * @param g1 elliptic curve point belonging to <code>G<sub>1</sub></code> subgroup.
-   * @param g2 elliptic curve point belonging to <code>G<sub>2</sub></code> subgroup.
-   * @return a member of cyclic subgroup of roots of unity in a finite field <code>
-   *     F<sub>p<sup>12</sup></sub></code>.
+   * @return message point cache.
    */
-  private static FP12 pairingProduct(ECP g1, ECP2 g2) {
-    FP12 ateProduct = PAIR.ate(g2, g1);
-    return PAIR.fexp(ateProduct);
+  public static CachingMessageMapper getMessageCache() {
+    return MESSAGE_MAPPER;
+  }
+
+  private static ECP negGenerator() {
+    ECP copy = new ECP();
+    copy.copy(NEG_GENERATOR);
+    return copy;
+  }
+
+  private static BIG randomBatchScalar() {
+    byte[] bytes = new byte[Long.BYTES];
+    BigInteger value;
+    do {
+      BATCH_RANDOM.nextBytes(bytes);
+      value = new BigInteger(1, bytes);
+    } while (value.signum() == 0);
+    return BIGs.fromBigInteger(value);
   }
 
   /** {@code BLS12-381} signature. */
@@ -301,15 +368,27 @@ public class BLS381 {
     }
   }
 
-  /** {@code BLS12-381} public key. */
+  /**
+   * {@code BLS12-381} public key.
+   *
+   * <p>Keeps decoded point along with its encoding, hence, an instance could be cached to avoid
+   * point decompression on each use.
+   */
   public static class PublicKey implements java.security.PublicKey {
 
     private final Bytes48 encoded;
+    /** Decoded point, never exposed as is since {@link ECP} is mutable. */
+    private volatile ECP point;
 
     private PublicKey(Bytes48 encoded) {
       this.encoded = encoded;
     }
 
+    private PublicKey(Bytes48 encoded, ECP point) {
+      this.encoded = encoded;
+      this.point = point;
+    }
+
     /**
      * Instantiates public key from a private key.
      *
@@ -329,7 +408,9 @@ public class BLS381 {
      * @see ECP
      */
     public static PublicKey create(ECP ecPoint) {
-      return new PublicKey(G1.encode(ecPoint));
+      ECP point = new ECP();
+      point.copy(ecPoint);
+      return new PublicKey(G1.encode(ecPoint), point);
     }
 
     /**
@@ -372,6 +453,8 @@ public class BLS381 {
         checkArgument(
             orderCheck.is_infinity(),
             "Failed to instantiate public key, given point is not a G1 member");
+
+        return new PublicKey(encoded, point);
       }
 
       return new PublicKey(encoded);
@@ -425,12 +508,19 @@ public class BLS381 {
     }
 
     /**
-     * Decodes public key to {@link ECP} point.
+     * Decodes public key to {@link ECP} point, decoded point is kept for subsequent calls.
      *
-     * @return public key point.
+     * @return a copy of public key point.
      */
     ECP asEcPoint() {
-      return G1.decode(encoded);
+      ECP decoded = point;
+      if (decoded == null) {
+        decoded = G1.decode(encoded);
+        point = decoded;
+      }
+      ECP copy = new ECP();
+      copy.copy(decoded);
+      return copy;
     }
   }
 
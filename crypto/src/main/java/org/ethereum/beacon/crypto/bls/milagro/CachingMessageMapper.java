@@ -0,0 +1,99 @@
+package org.ethereum.beacon.crypto.bls.milagro;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.milagro.amcl.BLS381.ECP2;
+import org.ethereum.beacon.crypto.MessageParameters;
+import org.ethereum.beacon.crypto.MessageParametersMapper;
+import tech.pegasys.artemis.util.bytes.BytesValue;
+
+/**
+ * Message mapper that keeps recently mapped points in a bounded cache keyed by message hash and
+ * domain.
+ *
+ * <p>Mapping a message to <code>G<sub>2</sub></code> involves hashing, square root extraction and
+ * cofactor multiplication. Attestations of the same committee share message hash and domain, hence,
+ * the cache lets the mapping be done once per attestation data rather than once per signature.
+ *
+ * <p>Since {@link ECP2} is mutable, a copy of the cached point is returned on each call.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @see MilagroMessageMapper
+ */
+public class CachingMessageMapper implements MessageParametersMapper<ECP2> {
+
+  public static final int DEFAULT_CAPACITY = 1 << 12;
+
+  private final MessageParametersMapper<ECP2> delegate;
+  private volatile Cache<BytesValue, ECP2> points;
+  private int capacity;
+
+  private final AtomicLong hits = new AtomicLong(0);
+  private final AtomicLong misses = new AtomicLong(0);
+
+  public CachingMessageMapper(MessageParametersMapper<ECP2> delegate, int capacity) {
+    this.delegate = delegate;
+    this.capacity = capacity;
+    this.points = CacheBuilder.newBuilder().maximumSize(capacity).build();
+  }
+
+  /**
+   * Grows the cache if its capacity is less than requested, cached points are preserved. Points
+   * mapped by other threads during the call may be lost, that's harmless.
+   *
+   * @param capacity required capacity.
+   */
+  public synchronized void ensureCapacity(int capacity) {
+    if (capacity <= this.capacity) {
+      return;
+    }
+    Cache<BytesValue, ECP2> grown = CacheBuilder.newBuilder().maximumSize(capacity).build();
+    grown.putAll(points.asMap());
+    this.points = grown;
+    this.capacity = capacity;
+  }
+
+  public synchronized int getCapacity() {
+    return capacity;
+  }
+
+  @Override
+  public ECP2 map(MessageParameters parameters) {
+    BytesValue key = parameters.getHash().concat(parameters.getDomain());
+    ECP2 point = points.getIfPresent(key);
+    if (point != null) {
+      hits.incrementAndGet();
+    } else {
+      // racing threads may map the same message, that's harmless
+      misses.incrementAndGet();
+      point = delegate.map(parameters);
+      point.affine();
+      points.put(key, point);
+    }
+
+    ECP2 copy = new ECP2();
+    copy.copy(point);
+    return copy;
+  }
+
+  public long getHits() {
+    return hits.get();
+  }
+
+  public long getMisses() {
+    return misses.get();
+  }
+
+  /** @return ratio of hits to the total number of requests, {@code 0} if there were none. */
+  public double getHitRate() {
+    long hits = this.hits.get();
+    long total = hits + misses.get();
+    return total == 0 ? 0 : hits / (double) total;
+  }
+
+  public long size() {
+    return points.size();
+  }
+}
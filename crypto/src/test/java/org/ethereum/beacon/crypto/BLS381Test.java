@@ -3,7 +3,10 @@ package org.ethereum.beacon.crypto;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Random;
 import org.ethereum.beacon.crypto.BLS381.KeyPair;
 import org.ethereum.beacon.crypto.BLS381.PublicKey;
@@ -297,6 +300,49 @@ public class BLS381Test {
         .isInstanceOf(AssertionError.class);
   }
 
+  @Test
+  public void checkVerifyBatch() {
+    List<MessageParameters> messages = new ArrayList<>();
+    List<Signature> signatures = new ArrayList<>();
+    List<PublicKey> publicKeys = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      KeyPair keyPair = BLS381.KeyPair.generate();
+      MessageParameters params = new Impl(Hashes.sha256(randomMessage()), randomDomain());
+      messages.add(params);
+      signatures.add(BLS381.sign(params, keyPair));
+      publicKeys.add(keyPair.getPublic());
+    }
+
+    assertThat(BLS381.verifyBatch(messages, signatures, publicKeys)).isTrue();
+    assertThat(BLS381.verifyBatch(messages.subList(0, 1), signatures.subList(0, 1),
+        publicKeys.subList(0, 1))).isTrue();
+    assertThat(BLS381.verifyBatch(Collections.emptyList(), Collections.emptyList(),
+        Collections.emptyList())).isTrue();
+
+    // signatures swapped, their sum is still the same
+    Collections.swap(signatures, 1, 2);
+    assertThat(BLS381.verifyBatch(messages, signatures, publicKeys)).isFalse();
+  }
+
+  @Test
+  public void failVerifyBatchIfOneSignatureIsWrong() {
+    List<MessageParameters> messages = new ArrayList<>();
+    List<Signature> signatures = new ArrayList<>();
+    List<PublicKey> publicKeys = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      KeyPair keyPair = BLS381.KeyPair.generate();
+      MessageParameters params = new Impl(Hashes.sha256(randomMessage()), randomDomain());
+      messages.add(params);
+      signatures.add(BLS381.sign(params, keyPair));
+      publicKeys.add(keyPair.getPublic());
+    }
+
+    MessageParameters wrongMessage = new Impl(Hashes.sha256(randomMessage()), randomDomain());
+    signatures.set(3, BLS381.sign(wrongMessage, BLS381.KeyPair.generate()));
+
+    assertThat(BLS381.verifyBatch(messages, signatures, publicKeys)).isFalse();
+  }
+
   BytesValue randomMessage() {
     Random random = new Random();
     byte[] message = new byte[Math.abs(random.nextInt()) % 32 + 32];
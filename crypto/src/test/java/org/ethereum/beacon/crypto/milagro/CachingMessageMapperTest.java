@@ -0,0 +1,62 @@
+package org.ethereum.beacon.crypto.milagro;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+import org.apache.milagro.amcl.BLS381.ECP2;
+import org.ethereum.beacon.crypto.MessageParameters;
+import org.ethereum.beacon.crypto.bls.milagro.CachingMessageMapper;
+import org.ethereum.beacon.crypto.bls.milagro.MilagroMessageMapper;
+import org.junit.Test;
+import tech.pegasys.artemis.ethereum.core.Hash32;
+import tech.pegasys.artemis.util.bytes.Bytes8;
+
+public class CachingMessageMapperTest {
+
+  @Test
+  public void servesCopiesOfCachedPoints() {
+    Random random = new Random(1);
+    MilagroMessageMapper mapper = new MilagroMessageMapper();
+    CachingMessageMapper cache = new CachingMessageMapper(mapper, 16);
+
+    MessageParameters message = MessageParameters.create(Hash32.random(random), Bytes8.ZERO);
+    ECP2 first = cache.map(message);
+    ECP2 second = cache.map(message);
+
+    assertThat(first.equals(mapper.map(message))).isTrue();
+    assertThat(second.equals(first)).isTrue();
+    assertThat(second).isNotSameAs(first);
+    assertThat(cache.getMisses()).isEqualTo(1);
+    assertThat(cache.getHits()).isEqualTo(1);
+    assertThat(cache.getHitRate()).isEqualTo(0.5);
+
+    // mutating a returned point doesn't affect the cache
+    first.add(second);
+    assertThat(cache.map(message).equals(second)).isTrue();
+
+    MessageParameters otherDomain =
+        MessageParameters.create(message.getHash(), Bytes8.longToBytes8LittleEndian(1));
+    assertThat(cache.map(otherDomain).equals(second)).isFalse();
+    assertThat(cache.getMisses()).isEqualTo(2);
+  }
+
+  @Test
+  public void growsPreservingCachedPoints() {
+    Random random = new Random(1);
+    CachingMessageMapper cache = new CachingMessageMapper(new MilagroMessageMapper(), 2);
+    MessageParameters message = MessageParameters.create(Hash32.random(random), Bytes8.ZERO);
+    cache.map(message);
+
+    cache.ensureCapacity(1);
+    assertThat(cache.getCapacity()).isEqualTo(2);
+    cache.ensureCapacity(64);
+    assertThat(cache.getCapacity()).isEqualTo(64);
+
+    for (int i = 0; i < 7; i++) {
+      cache.map(MessageParameters.create(Hash32.random(random), Bytes8.ZERO));
+    }
+    cache.map(message);
+    assertThat(cache.getMisses()).isEqualTo(8);
+    assertThat(cache.getHits()).isEqualTo(1);
+  }
+}
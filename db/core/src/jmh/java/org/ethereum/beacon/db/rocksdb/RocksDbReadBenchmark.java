@@ -0,0 +1,90 @@
+package org.ethereum.beacon.db.rocksdb;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import tech.pegasys.artemis.util.bytes.BytesValue;
+
+/**
+ * Compares size hinted reads of a column family with reads to a fresh native copy of value.
+ *
+ * <p>Run with {@code ./gradlew :db:core:jmh}, add {@code -prof gc} to JMH arguments to see
+ * allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RocksDbReadBenchmark {
+
+  private static final int ENTRIES = 64;
+
+  @Param({"1024", "65536", "2097152"})
+  private int valueSize;
+
+  @Param({"true", "false"})
+  private boolean sizeHintedReads;
+
+  private Path dbPath;
+  private ColumnFamilyRocksDbSource source;
+  private BytesValue[] keys;
+  private int next = 0;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    dbPath = Files.createTempDirectory("rocksdb-read-bench");
+    source =
+        new ColumnFamilyRocksDbSource(
+            dbPath,
+            new RocksDbConfig().withColumnFamilies(true).withSizeHintedReads(sizeHintedReads));
+    source.open();
+    BytesValue keySpace = source.getKeySpace("bench");
+
+    Random random = new Random(1);
+    keys = new BytesValue[ENTRIES];
+    Map<BytesValue, BytesValue> entries = new HashMap<>();
+    for (int i = 0; i < ENTRIES; i++) {
+      byte[] key = new byte[32];
+      byte[] value = new byte[valueSize];
+      random.nextBytes(key);
+      random.nextBytes(value);
+      keys[i] = keySpace.concat(BytesValue.wrap(key));
+      entries.put(keys[i], BytesValue.wrap(value));
+    }
+    source.batchUpdate(entries);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    source.close();
+    Files.walk(dbPath)
+        .sorted(Comparator.reverseOrder())
+        .forEach(path -> path.toFile().delete());
+  }
+
+  @Benchmark
+  public BytesValue get() {
+    next = (next + 1) % ENTRIES;
+    return source.get(keys[next]).get();
+  }
+}
@@ -1,6 +1,9 @@
 package org.ethereum.beacon.db;
 
 import java.nio.file.Paths;
+import org.ethereum.beacon.db.flush.WriteBehindFlusher;
+import org.ethereum.beacon.db.rocksdb.ColumnFamilyRocksDbSource;
+import org.ethereum.beacon.db.rocksdb.RocksDbConfig;
 import org.ethereum.beacon.db.rocksdb.RocksDbSource;
 import org.ethereum.beacon.db.source.DataSource;
 import org.ethereum.beacon.db.source.StorageEngineSource;
@@ -24,6 +27,13 @@ public interface Database {
    */
   void close();
 
+  /**
+   * Compacts underlying database storage. Does nothing if storage is not compactable.
+   *
+   * @see StorageEngineSource#compact()
+   */
+  default void compact() {}
+
   /**
    * Creates in-memory database instance.
    *
@@ -42,7 +52,28 @@ public interface Database {
    * @return an instance of database driven by RocksDB.
    */
   static Database rocksDB(String dbPath, long bufferLimitInBytes) {
-    StorageEngineSource<BytesValue> source = new RocksDbSource(Paths.get(dbPath));
-    return EngineDrivenDatabase.create(source, bufferLimitInBytes);
+    return rocksDB(dbPath, bufferLimitInBytes, new RocksDbConfig());
+  }
+
+  /**
+   * Creates database instance driven by <a href="https://github.com/facebook/rocksdb">RocksDB</a>
+   * storage engine with given engine options.
+   *
+   * <p>A full write buffer is written to the engine in background, see {@link WriteBehindFlusher}.
+   *
+   * @param dbPath path to database folder.
+   * @param bufferLimitInBytes limit of write buffer in bytes.
+   * @param config engine options.
+   * @return an instance of database driven by RocksDB.
+   */
+  static Database rocksDB(String dbPath, long bufferLimitInBytes, RocksDbConfig config) {
+    StorageEngineSource<BytesValue> source =
+        config.isColumnFamilies()
+            ? new ColumnFamilyRocksDbSource(Paths.get(dbPath), config)
+            : new RocksDbSource(Paths.get(dbPath), config);
+    return bufferLimitInBytes > 0
+        ? EngineDrivenDatabase.createWriteBehind(
+            source, bufferLimitInBytes, WriteBehindFlusher.DEFAULT_MAX_SNAPSHOTS_IN_FLIGHT)
+        : EngineDrivenDatabase.create(source, bufferLimitInBytes);
   }
 }
@@ -7,9 +7,13 @@ import org.ethereum.beacon.crypto.Hashes;
 import org.ethereum.beacon.db.flush.BufferSizeObserver;
 import org.ethereum.beacon.db.flush.DatabaseFlusher;
 import org.ethereum.beacon.db.flush.InstantFlusher;
+import org.ethereum.beacon.db.flush.WriteBehindFlusher;
 import org.ethereum.beacon.db.source.CacheSizeEvaluator;
+import org.ethereum.beacon.db.source.CodecSource;
 import org.ethereum.beacon.db.source.DataSource;
+import org.ethereum.beacon.db.source.KeySpacedEngineSource;
 import org.ethereum.beacon.db.source.StorageEngineSource;
+import org.ethereum.beacon.db.source.WriteBehindSource;
 import org.ethereum.beacon.db.source.WriteBuffer;
 import org.ethereum.beacon.db.source.impl.MemSizeEvaluators;
 import org.ethereum.beacon.db.source.impl.XorDataSource;
@@ -71,6 +75,35 @@ public class EngineDrivenDatabase implements Database {
     return new EngineDrivenDatabase(storageEngineSource, buffer, flusher);
   }
 
+  /**
+   * Given storage engine and buffer size creates a new instance of {@link EngineDrivenDatabase}
+   * with {@link WriteBehindFlusher} flushing strategy.
+   *
+   * <p>Write buffer is backed by {@link WriteBehindSource} which keeps snapshots of the buffer
+   * until they are written to the storage engine in background.
+   *
+   * @param storageEngineSource an engine-based source.
+   * @param bufferLimitInBytes a buffer limit in bytes.
+   * @param maxSnapshotsInFlight a number of snapshots being written after which commit is blocked.
+   * @return a new instance.
+   */
+  public static EngineDrivenDatabase createWriteBehind(
+      StorageEngineSource<BytesValue> storageEngineSource,
+      long bufferLimitInBytes,
+      int maxSnapshotsInFlight) {
+    WriteBehindSource<BytesValue, BytesValue> snapshots =
+        new WriteBehindSource<>(storageEngineSource);
+    WriteBuffer<BytesValue, BytesValue> buffer =
+        new WriteBuffer<>(
+            snapshots,
+            CacheSizeEvaluator.getInstance(MemSizeEvaluators.BytesValueEvaluator),
+            true);
+    DatabaseFlusher flusher =
+        new WriteBehindFlusher<>(buffer, snapshots, bufferLimitInBytes, maxSnapshotsInFlight);
+
+    return new EngineDrivenDatabase(storageEngineSource, buffer, flusher);
+  }
+
   /**
    * A shortcut that spawns an instance with {@link InstantFlusher} flushing strategy.
    *
@@ -82,9 +115,19 @@ public class EngineDrivenDatabase implements Database {
     return create(storageEngineSource, -1);
   }
 
+  /**
+   * Creates a storage on top of the write buffer.
+   *
+   * <p>If underlying source is a {@link KeySpacedEngineSource} then storage keys are prefixed with
+   * its key space identifier, otherwise, keys are xor-ed with a hash of storage name.
+   */
   @Override
   public DataSource<BytesValue, BytesValue> createStorage(String name) {
     source.open();
+    if (source instanceof KeySpacedEngineSource) {
+      BytesValue keySpace = ((KeySpacedEngineSource<BytesValue>) source).getKeySpace(name);
+      return new CodecSource.KeyOnly<>(writeBuffer, keySpace::concat);
+    }
     return new XorDataSource<>(writeBuffer, Hashes.sha256(BytesValue.wrap(name.getBytes())));
   }
 
@@ -93,10 +136,15 @@ public class EngineDrivenDatabase implements Database {
     flusher.commit();
   }
 
+  @Override
+  public void compact() {
+    source.compact();
+  }
+
   @Override
   public void close() {
     logger.info("Closing underlying database storage...");
-    flusher.flush();
+    flusher.close();
     source.close();
   }
 
@@ -9,6 +9,7 @@ import org.ethereum.beacon.db.source.WriteBuffer;
  *
  * @see InstantFlusher
  * @see BufferSizeObserver
+ * @see WriteBehindFlusher
  */
 public interface DatabaseFlusher {
 
@@ -28,4 +29,13 @@ public interface DatabaseFlusher {
    * safe.
    */
   void commit();
+
+  /**
+   * Flushes all the data and releases resources held by the strategy.
+   *
+   * <p>Called once when database is being closed.
+   */
+  default void close() {
+    flush();
+  }
 }
@@ -0,0 +1,151 @@
+package org.ethereum.beacon.db.flush;
+
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.ethereum.beacon.db.source.WriteBehindSource;
+import org.ethereum.beacon.db.source.WriteBuffer;
+
+/**
+ * Flushing strategy that observes a size of given buffer and, once size limit is exceeded, hands a
+ * frozen snapshot of the buffer over to a background writer.
+ *
+ * <p>The buffer is cleared and accepts new writes right away, while the snapshot is kept by {@link
+ * WriteBehindSource} which serves reads until the snapshot gets written to the storage. A committing
+ * thread is blocked if there are too many snapshots in flight.
+ *
+ * <p>A snapshot holds its permit until it's written, failed write is retried after {@link
+ * #RETRY_DELAY_MILLIS}, hence, commits get blocked rather than snapshots pile up if the storage
+ * keeps failing.
+ *
+ * <p>{@link #flush()} and {@link #close()} write everything synchronously.
+ */
+public class WriteBehindFlusher<K, V> implements DatabaseFlusher {
+
+  private static final Logger logger = LogManager.getLogger(WriteBehindFlusher.class);
+
+  public static final int DEFAULT_MAX_SNAPSHOTS_IN_FLIGHT = 2;
+  public static final long RETRY_DELAY_MILLIS = 1000;
+
+  /** A buffer. */
+  private final WriteBuffer<K, V> buffer;
+  /** A layer of snapshots, must be an upstream of the buffer. */
+  private final WriteBehindSource<K, V> snapshots;
+  /** A limit of buffer size in bytes. */
+  private final long bufferSizeLimit;
+  /** Bounds a number of snapshots in flight. */
+  private final Semaphore permits;
+  /** A writer thread. */
+  private final ScheduledExecutorService writer;
+
+  public WriteBehindFlusher(
+      WriteBuffer<K, V> buffer,
+      WriteBehindSource<K, V> snapshots,
+      long bufferSizeLimit,
+      int maxSnapshotsInFlight) {
+    if (buffer.getUpstream() != snapshots) {
+      throw new IllegalArgumentException("Snapshot layer must be an upstream of the buffer");
+    }
+    if (maxSnapshotsInFlight < 1) {
+      throw new IllegalArgumentException("At least one snapshot in flight must be allowed");
+    }
+    this.buffer = buffer;
+    this.snapshots = snapshots;
+    this.bufferSizeLimit = bufferSizeLimit;
+    this.permits = new Semaphore(maxSnapshotsInFlight);
+    this.writer =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread t = new Thread(r, "db-flusher");
+              t.setDaemon(true);
+              return t;
+            });
+  }
+
+  @Override
+  public synchronized void commit() {
+    if (buffer.evaluateSize() < bufferSizeLimit) {
+      return;
+    }
+
+    try {
+      permits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for a flush to complete", e);
+    }
+    logger.debug(
+        "Flush db buffer in background due to size limit: {} >= {}",
+        buffer.evaluateSize(),
+        bufferSizeLimit);
+    buffer.drainTo(this::addSnapshot);
+    try {
+      writer.execute(this::writeSnapshot);
+    } catch (RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  /** Writes the buffer and all snapshots in flight, blocks until they are written. */
+  @Override
+  public synchronized void flush() {
+    buffer.drainTo(this::addSnapshot);
+    try {
+      writer.submit(snapshots::writeAll).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while flushing db buffer", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Failed to flush db buffer", e.getCause());
+    }
+  }
+
+  /** Flushes everything and stops the writer. */
+  @Override
+  public synchronized void close() {
+    try {
+      flush();
+    } finally {
+      writer.shutdown();
+      try {
+        if (!writer.awaitTermination(1, TimeUnit.MINUTES)) {
+          logger.warn("DB flusher hasn't terminated in time");
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /** @return number of snapshots that are not written yet. */
+  public int getPendingCount() {
+    return snapshots.getPendingCount();
+  }
+
+  private void addSnapshot(Map<K, V> snapshot) {
+    if (!snapshot.isEmpty()) {
+      snapshots.add(snapshot);
+    }
+  }
+
+  private void writeSnapshot() {
+    try {
+      // the snapshot could have been written by a flush or by a direct update
+      snapshots.writeOldest();
+    } catch (Throwable t) {
+      // snapshot is kept and served to reads, the permit is held until it's written
+      logger.error("Failed to write db snapshot, retry in " + RETRY_DELAY_MILLIS + "ms", t);
+      if (!writer.isShutdown()) {
+        writer.schedule(this::writeSnapshot, RETRY_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        return;
+      }
+    }
+    permits.release();
+  }
+}
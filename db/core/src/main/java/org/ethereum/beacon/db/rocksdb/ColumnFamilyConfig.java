@@ -0,0 +1,116 @@
+package org.ethereum.beacon.db.rocksdb;
+
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
+import org.rocksdb.Cache;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.CompressionType;
+
+/**
+ * Options of RocksDB key space, either the only one or a column family.
+ *
+ * <p>Compression types are given by their library names, e.g. {@code lz4}, {@code zstd}, {@code
+ * snappy}; unknown name stands for no compression.
+ */
+public class ColumnFamilyConfig {
+
+  private int blockSize = 16 * 1024;
+  private int bloomFilterBitsPerKey = 10;
+  private String compression = "lz4";
+  private String bottommostCompression = "zstd";
+  private long writeBufferSize = 64L << 20;
+
+  /**
+   * Options suitable for large values that are rarely updated, like states and blocks. Bigger
+   * blocks improve compression ratio.
+   */
+  public static ColumnFamilyConfig blobs() {
+    return new ColumnFamilyConfig().withBlockSize(64 * 1024);
+  }
+
+  /**
+   * Options suitable for small frequently accessed entries, like indices. Smaller blocks reduce
+   * read amplification of point lookups.
+   */
+  public static ColumnFamilyConfig index() {
+    return new ColumnFamilyConfig()
+        .withBlockSize(4 * 1024)
+        .withBottommostCompression("lz4")
+        .withWriteBufferSize(16L << 20);
+  }
+
+  public ColumnFamilyConfig copy() {
+    return new ColumnFamilyConfig()
+        .withBlockSize(blockSize)
+        .withBloomFilterBitsPerKey(bloomFilterBitsPerKey)
+        .withCompression(compression)
+        .withBottommostCompression(bottommostCompression)
+        .withWriteBufferSize(writeBufferSize);
+  }
+
+  ColumnFamilyOptions createOptions(Cache blockCache) {
+    BlockBasedTableConfig tableCfg = new BlockBasedTableConfig();
+    tableCfg.setBlockSize(blockSize);
+    tableCfg.setBlockCache(blockCache);
+    tableCfg.setCacheIndexAndFilterBlocks(true);
+    tableCfg.setPinL0FilterAndIndexBlocksInCache(true);
+    if (bloomFilterBitsPerKey > 0) {
+      tableCfg.setFilter(new BloomFilter(bloomFilterBitsPerKey, false));
+    }
+
+    ColumnFamilyOptions options = new ColumnFamilyOptions();
+    options.setCompressionType(CompressionType.getCompressionType(compression));
+    options.setBottommostCompressionType(
+        CompressionType.getCompressionType(bottommostCompression));
+    options.setLevelCompactionDynamicLevelBytes(true);
+    options.setWriteBufferSize(writeBufferSize);
+    options.setTableFormatConfig(tableCfg);
+    return options;
+  }
+
+  public int getBlockSize() {
+    return blockSize;
+  }
+
+  public ColumnFamilyConfig withBlockSize(int blockSize) {
+    this.blockSize = blockSize;
+    return this;
+  }
+
+  public int getBloomFilterBitsPerKey() {
+    return bloomFilterBitsPerKey;
+  }
+
+  /** @param bloomFilterBitsPerKey bloom filter bits per key, {@code 0} disables the filter. */
+  public ColumnFamilyConfig withBloomFilterBitsPerKey(int bloomFilterBitsPerKey) {
+    this.bloomFilterBitsPerKey = bloomFilterBitsPerKey;
+    return this;
+  }
+
+  public String getCompression() {
+    return compression;
+  }
+
+  public ColumnFamilyConfig withCompression(String compression) {
+    this.compression = compression;
+    return this;
+  }
+
+  public String getBottommostCompression() {
+    return bottommostCompression;
+  }
+
+  public ColumnFamilyConfig withBottommostCompression(String bottommostCompression) {
+    this.bottommostCompression = bottommostCompression;
+    return this;
+  }
+
+  public long getWriteBufferSize() {
+    return writeBufferSize;
+  }
+
+  public ColumnFamilyConfig withWriteBufferSize(long writeBufferSize) {
+    this.writeBufferSize = writeBufferSize;
+    return this;
+  }
+}
@@ -0,0 +1,303 @@
+package org.ethereum.beacon.db.rocksdb;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import javax.annotation.Nonnull;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.ethereum.beacon.db.source.KeySpacedEngineSource;
+import org.ethereum.beacon.db.util.AutoCloseableLock;
+import org.rocksdb.Cache;
+import org.rocksdb.ColumnFamilyDescriptor;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.DBOptions;
+import org.rocksdb.LRUCache;
+import org.rocksdb.Options;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
+import tech.pegasys.artemis.util.bytes.BytesValue;
+
+/**
+ * Data source supplied by <a href="https://github.com/facebook/rocksdb">RocksDB</a> storage engine
+ * which keeps each storage in a separate column family.
+ *
+ * <p>A key passed to this source starts with two bytes of key space identifier which is mapped to
+ * a column family. Column families are created on demand with options given by {@link
+ * RocksDbConfig#getFamily(String)}.
+ */
+public class ColumnFamilyRocksDbSource implements KeySpacedEngineSource<BytesValue> {
+
+  private static final Logger logger = LogManager.getLogger(ColumnFamilyRocksDbSource.class);
+
+  private static final int KEY_SPACE_SIZE = 2;
+  private static final int MAX_KEY_SPACES = 1 << (KEY_SPACE_SIZE * Byte.SIZE);
+
+  private final Path dbPath;
+  private final RocksDbConfig config;
+
+  private final ReadWriteLock dbLock = new ReentrantReadWriteLock();
+  private final AutoCloseableLock crudLock = AutoCloseableLock.wrap(dbLock.readLock());
+  private final AutoCloseableLock openCloseLock = AutoCloseableLock.wrap(dbLock.writeLock());
+
+  /** Names of key spaces, index in the list is a key space identifier. */
+  private final List<String> keySpaces = new ArrayList<>();
+  private ColumnFamilyHandle[] keySpaceHandles = new ColumnFamilyHandle[0];
+
+  private RocksDB db;
+  private Cache blockCache;
+  private ReadOptions readOptions;
+  private WriteOptions writeOptions;
+  private WriteBatch writeBatch;
+  /** Values of a family tend to be of similar size, each family has its own size hint. */
+  private final Map<ColumnFamilyHandle, ValueReader> valueReaders = new ConcurrentHashMap<>();
+  private final Map<String, ColumnFamilyHandle> handles = new HashMap<>();
+  private final List<ColumnFamilyOptions> familyOptions = new ArrayList<>();
+  private boolean opened = false;
+
+  public ColumnFamilyRocksDbSource(Path dbPath, RocksDbConfig config) {
+    this.dbPath = dbPath;
+    this.config = config;
+  }
+
+  @Override
+  public void open() {
+    if (opened) {
+      return;
+    }
+
+    RocksDB.loadLibrary();
+    try (AutoCloseableLock l = openCloseLock.lock();
+        DBOptions dbOptions = config.createDbOptions()) {
+      blockCache = new LRUCache(config.getBlockCacheSize());
+      readOptions = new ReadOptions();
+      writeOptions = new WriteOptions().setSync(config.isSyncWrites());
+      writeBatch = new WriteBatch();
+
+      List<String> names = new ArrayList<>();
+      List<ColumnFamilyDescriptor> descriptors = new ArrayList<>();
+      names.add(defaultFamilyName());
+      descriptors.add(
+          new ColumnFamilyDescriptor(
+              RocksDB.DEFAULT_COLUMN_FAMILY, createFamilyOptions(config.getDefaultFamily())));
+      for (byte[] name : listFamilies()) {
+        if (!Arrays.equals(name, RocksDB.DEFAULT_COLUMN_FAMILY)) {
+          String familyName = new String(name, StandardCharsets.UTF_8);
+          names.add(familyName);
+          descriptors.add(
+              new ColumnFamilyDescriptor(
+                  name, createFamilyOptions(config.getFamily(familyName))));
+        }
+      }
+
+      List<ColumnFamilyHandle> openedHandles = new ArrayList<>();
+      db = RocksDB.open(dbOptions, dbPath.toString(), descriptors, openedHandles);
+      for (int i = 0; i < names.size(); i++) {
+        handles.put(names.get(i), openedHandles.get(i));
+      }
+
+      // restore handles of key spaces requested before reopening
+      for (int i = 0; i < keySpaces.size(); i++) {
+        keySpaceHandles[i] = getOrCreateFamily(keySpaces.get(i));
+      }
+      opened = true;
+    } catch (RocksDBException e) {
+      logger.error("Failed to open database {}: {}", dbPath.toString(), e.getMessage());
+      throw new RuntimeException(e);
+    }
+  }
+
+  private List<byte[]> listFamilies() throws RocksDBException {
+    if (!Files.exists(dbPath)) {
+      return Collections.emptyList();
+    }
+    try (Options options = new Options()) {
+      return RocksDB.listColumnFamilies(options, dbPath.toString());
+    }
+  }
+
+  private ColumnFamilyOptions createFamilyOptions(ColumnFamilyConfig familyConfig) {
+    ColumnFamilyOptions options = familyConfig.createOptions(blockCache);
+    familyOptions.add(options);
+    return options;
+  }
+
+  private ColumnFamilyHandle getOrCreateFamily(String name) throws RocksDBException {
+    ColumnFamilyHandle handle = handles.get(name);
+    if (handle == null) {
+      handle =
+          db.createColumnFamily(
+              new ColumnFamilyDescriptor(
+                  name.getBytes(StandardCharsets.UTF_8),
+                  createFamilyOptions(config.getFamily(name))));
+      handles.put(name, handle);
+      logger.debug("Column family {} created in database {}", name, dbPath);
+    }
+    return handle;
+  }
+
+  private static String defaultFamilyName() {
+    return new String(RocksDB.DEFAULT_COLUMN_FAMILY, StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public BytesValue getKeySpace(String name) {
+    assert opened;
+    try (AutoCloseableLock l = openCloseLock.lock()) {
+      int id = keySpaces.indexOf(name);
+      if (id < 0) {
+        if (keySpaces.size() >= MAX_KEY_SPACES) {
+          throw new IllegalStateException("Too many storages in database " + dbPath);
+        }
+        ColumnFamilyHandle handle = getOrCreateFamily(name);
+        id = keySpaces.size();
+        keySpaces.add(name);
+        keySpaceHandles = Arrays.copyOf(keySpaceHandles, id + 1);
+        keySpaceHandles[id] = handle;
+      }
+      return BytesValue.wrap(new byte[] {(byte) (id >>> 8), (byte) id});
+    } catch (RocksDBException e) {
+      logger.error("Failed to create column family {}: {}", name, e.getMessage());
+      throw new RuntimeException(e);
+    }
+  }
+
+  private ColumnFamilyHandle getHandle(BytesValue key) {
+    int id = ((key.get(0) & 0xFF) << 8) | (key.get(1) & 0xFF);
+    return keySpaceHandles[id];
+  }
+
+  private byte[] getFamilyKey(BytesValue key) {
+    return key.slice(KEY_SPACE_SIZE).getArrayUnsafe();
+  }
+
+  @Override
+  public void close() {
+    try (AutoCloseableLock l = openCloseLock.lock()) {
+      handles.values().forEach(ColumnFamilyHandle::close);
+      handles.clear();
+      valueReaders.clear();
+      db.close();
+      familyOptions.forEach(ColumnFamilyOptions::close);
+      familyOptions.clear();
+      readOptions.close();
+      writeOptions.close();
+      writeBatch.close();
+      blockCache.close();
+      opened = false;
+    }
+  }
+
+  @Override
+  public void batchUpdate(Map<BytesValue, BytesValue> updates) {
+    assert opened;
+    try (AutoCloseableLock l = crudLock.lock()) {
+      synchronized (writeBatch) {
+        writeUpdates(updates);
+      }
+    } catch (RocksDBException e) {
+      logger.error("Failed to do batchUpdate: {}", e.getMessage());
+      throw new RuntimeException(e);
+    }
+  }
+
+  private void writeUpdates(Map<BytesValue, BytesValue> updates) throws RocksDBException {
+    WriteBatch batch = writeBatch;
+    try {
+      for (Map.Entry<BytesValue, BytesValue> entry : updates.entrySet()) {
+        ColumnFamilyHandle handle = getHandle(entry.getKey());
+        if (entry.getValue() == null) {
+          batch.delete(handle, getFamilyKey(entry.getKey()));
+        } else {
+          batch.put(handle, getFamilyKey(entry.getKey()), entry.getValue().getArrayUnsafe());
+        }
+      }
+      db.write(writeOptions, batch);
+    } finally {
+      batch.clear();
+    }
+  }
+
+  @Override
+  public Optional<BytesValue> get(@Nonnull BytesValue key) {
+    assert opened;
+    Objects.requireNonNull(key);
+
+    try (AutoCloseableLock l = crudLock.lock()) {
+      ColumnFamilyHandle handle = getHandle(key);
+      byte[] value =
+          config.isSizeHintedReads()
+              ? valueReaders
+                  .computeIfAbsent(handle, h -> new ValueReader())
+                  .read(getFamilyKey(key), (k, v) -> db.get(handle, readOptions, k, v))
+              : db.get(handle, readOptions, getFamilyKey(key));
+      return Optional.ofNullable(value).map(BytesValue::wrap);
+    } catch (RocksDBException e) {
+      logger.error("Failed to get({}): {}", key, e.getMessage());
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Override
+  public void put(@Nonnull BytesValue key, @Nonnull BytesValue value) {
+    assert opened;
+    Objects.requireNonNull(key);
+    Objects.requireNonNull(value);
+
+    try (AutoCloseableLock l = crudLock.lock()) {
+      db.put(getHandle(key), writeOptions, getFamilyKey(key), value.getArrayUnsafe());
+    } catch (RocksDBException e) {
+      logger.error("Failed to put({}, {}): {}", key, value, e.getMessage());
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Override
+  public void remove(@Nonnull BytesValue key) {
+    assert opened;
+    Objects.requireNonNull(key);
+
+    try (AutoCloseableLock l = crudLock.lock()) {
+      db.delete(getHandle(key), writeOptions, getFamilyKey(key));
+    } catch (RocksDBException e) {
+      logger.error("Failed to remove({}): {}", key, e.getMessage());
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Override
+  public void compact() {
+    assert opened;
+    try (AutoCloseableLock l = crudLock.lock()) {
+      long s = System.nanoTime();
+      for (ColumnFamilyHandle handle : keySpaceHandles) {
+        db.compactRange(handle);
+      }
+      logger.debug(
+          "Database {} compacted in {}ms", dbPath, (System.nanoTime() - s) / 1_000_000);
+    } catch (RocksDBException e) {
+      logger.error("Failed to compact database {}: {}", dbPath, e.getMessage());
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Override
+  public void flush() {
+    // flushes are managed by RocksDB
+  }
+}
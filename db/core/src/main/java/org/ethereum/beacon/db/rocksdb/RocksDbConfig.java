@@ -0,0 +1,130 @@
+package org.ethereum.beacon.db.rocksdb;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.rocksdb.DBOptions;
+
+/**
+ * RocksDB engine options.
+ *
+ * <p>In column families mode each storage created by {@link
+ * org.ethereum.beacon.db.Database#createStorage(String)} is kept in its own column family with
+ * options given by {@link #getFamily(String)}, otherwise, all storages share the default column
+ * family configured by {@link #getDefaultFamily()}.
+ */
+public class RocksDbConfig {
+
+  private boolean columnFamilies = false;
+  private long blockCacheSize = 128L << 20;
+  private int maxOpenFiles = 512;
+  private int parallelism = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+  private boolean syncWrites = false;
+  private boolean sizeHintedReads = true;
+  private ColumnFamilyConfig defaultFamily = new ColumnFamilyConfig();
+  private final Map<String, ColumnFamilyConfig> families = new HashMap<>();
+
+  public RocksDbConfig() {
+    families.put("beacon-state", ColumnFamilyConfig.blobs());
+    families.put("beacon-block", ColumnFamilyConfig.blobs());
+    families.put("beacon-block-index", ColumnFamilyConfig.index());
+  }
+
+  DBOptions createDbOptions() {
+    DBOptions options = new DBOptions();
+    options.setCreateIfMissing(true);
+    options.setCreateMissingColumnFamilies(true);
+    options.setMaxOpenFiles(maxOpenFiles);
+    options.setIncreaseParallelism(parallelism);
+    return options;
+  }
+
+  public boolean isColumnFamilies() {
+    return columnFamilies;
+  }
+
+  public RocksDbConfig withColumnFamilies(boolean columnFamilies) {
+    this.columnFamilies = columnFamilies;
+    return this;
+  }
+
+  public long getBlockCacheSize() {
+    return blockCacheSize;
+  }
+
+  /** @param blockCacheSize size of block cache shared by all column families, in bytes. */
+  public RocksDbConfig withBlockCacheSize(long blockCacheSize) {
+    this.blockCacheSize = blockCacheSize;
+    return this;
+  }
+
+  public int getMaxOpenFiles() {
+    return maxOpenFiles;
+  }
+
+  public RocksDbConfig withMaxOpenFiles(int maxOpenFiles) {
+    this.maxOpenFiles = maxOpenFiles;
+    return this;
+  }
+
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /** @param parallelism number of background flush and compaction threads. */
+  public RocksDbConfig withParallelism(int parallelism) {
+    this.parallelism = parallelism;
+    return this;
+  }
+
+  public boolean isSyncWrites() {
+    return syncWrites;
+  }
+
+  /** @param syncWrites whether each write is synced to disk before it's considered complete. */
+  public RocksDbConfig withSyncWrites(boolean syncWrites) {
+    this.syncWrites = syncWrites;
+    return this;
+  }
+
+  public boolean isSizeHintedReads() {
+    return sizeHintedReads;
+  }
+
+  /**
+   * Applies to column families mode only. In the default layout values of all storages share a
+   * single key space, values of different kinds are read one after another and the size of the
+   * previous value is a poor hint, they are always read with a native copy.
+   *
+   * @param sizeHintedReads whether values of a column family are read to arrays sized by the value
+   *     read last from the same family, otherwise, each read allocates an intermediate native copy
+   *     of the value.
+   */
+  public RocksDbConfig withSizeHintedReads(boolean sizeHintedReads) {
+    this.sizeHintedReads = sizeHintedReads;
+    return this;
+  }
+
+  public ColumnFamilyConfig getDefaultFamily() {
+    return defaultFamily;
+  }
+
+  public RocksDbConfig withDefaultFamily(ColumnFamilyConfig defaultFamily) {
+    this.defaultFamily = defaultFamily;
+    return this;
+  }
+
+  /**
+   * Returns options of a column family.
+   *
+   * @param name storage name.
+   * @return options set for the storage or default family options.
+   */
+  public ColumnFamilyConfig getFamily(String name) {
+    return families.getOrDefault(name, defaultFamily);
+  }
+
+  public RocksDbConfig withFamily(String name, ColumnFamilyConfig family) {
+    families.put(name, family);
+    return this;
+  }
+}
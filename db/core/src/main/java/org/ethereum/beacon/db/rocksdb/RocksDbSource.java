@@ -11,9 +11,10 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.ethereum.beacon.db.source.StorageEngineSource;
 import org.ethereum.beacon.db.util.AutoCloseableLock;
-import org.rocksdb.BlockBasedTableConfig;
-import org.rocksdb.BloomFilter;
-import org.rocksdb.CompressionType;
+import org.rocksdb.Cache;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.DBOptions;
+import org.rocksdb.LRUCache;
 import org.rocksdb.Options;
 import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDB;
@@ -29,18 +30,29 @@ public class RocksDbSource implements StorageEngineSource<BytesValue> {
 
   private static final Logger logger = LogManager.getLogger(RocksDbSource.class);
 
-  private ReadOptions readOptions;
   private final Path dbPath;
+  private final RocksDbConfig config;
 
   private final ReadWriteLock dbLock = new ReentrantReadWriteLock();
   private final AutoCloseableLock crudLock = AutoCloseableLock.wrap(dbLock.readLock());
   private final AutoCloseableLock openCloseLock = AutoCloseableLock.wrap(dbLock.writeLock());
 
   private RocksDB db;
+  private Cache blockCache;
+  private ColumnFamilyOptions columnFamilyOptions;
+  private Options options;
+  private ReadOptions readOptions;
+  private WriteOptions writeOptions;
+  private WriteBatch writeBatch;
   private boolean opened = false;
 
   public RocksDbSource(Path dbPath) {
+    this(dbPath, new RocksDbConfig());
+  }
+
+  public RocksDbSource(Path dbPath, RocksDbConfig config) {
     this.dbPath = dbPath;
+    this.config = config;
   }
 
   @Override
@@ -51,24 +63,15 @@ public class RocksDbSource implements StorageEngineSource<BytesValue> {
 
     RocksDB.loadLibrary();
     try (AutoCloseableLock l = openCloseLock.lock();
-        Options options = new Options()) {
-      options.setCreateIfMissing(true);
-      options.setCompressionType(CompressionType.LZ4_COMPRESSION);
-      options.setBottommostCompressionType(CompressionType.ZSTD_COMPRESSION);
-      options.setLevelCompactionDynamicLevelBytes(true);
-      options.setMaxOpenFiles(512);
-      options.setIncreaseParallelism(Math.min(1, Runtime.getRuntime().availableProcessors() / 2));
-
-      final BlockBasedTableConfig tableCfg = new BlockBasedTableConfig();
-      tableCfg.setBlockSize(16 * 1024);
-      tableCfg.setBlockCacheSize(32 * 1024 * 1024);
-      tableCfg.setCacheIndexAndFilterBlocks(true);
-      tableCfg.setPinL0FilterAndIndexBlocksInCache(true);
-      tableCfg.setFilter(new BloomFilter(10, false));
-      options.setTableFormatConfig(tableCfg);
+        DBOptions dbOptions = config.createDbOptions()) {
+      blockCache = new LRUCache(config.getBlockCacheSize());
+      columnFamilyOptions = config.getDefaultFamily().createOptions(blockCache);
+      options = new Options(dbOptions, columnFamilyOptions);
 
       readOptions = new ReadOptions();
       readOptions = readOptions.setPrefixSameAsStart(true);
+      writeOptions = new WriteOptions().setSync(config.isSyncWrites());
+      writeBatch = new WriteBatch();
 
       db = RocksDB.open(options, dbPath.toString());
       opened = true;
@@ -82,6 +85,12 @@ public class RocksDbSource implements StorageEngineSource<BytesValue> {
   public void close() {
     try (AutoCloseableLock l = openCloseLock.lock()) {
       db.close();
+      readOptions.close();
+      writeOptions.close();
+      writeBatch.close();
+      options.close();
+      columnFamilyOptions.close();
+      blockCache.close();
       opened = false;
     }
   }
@@ -89,20 +98,29 @@ public class RocksDbSource implements StorageEngineSource<BytesValue> {
   @Override
   public void batchUpdate(Map<BytesValue, BytesValue> updates) {
     assert opened;
-    try (AutoCloseableLock l = crudLock.lock();
-        WriteBatch batch = new WriteBatch();
-        WriteOptions writeOptions = new WriteOptions()) {
+    try (AutoCloseableLock l = crudLock.lock()) {
+      synchronized (writeBatch) {
+        writeUpdates(updates);
+      }
+    } catch (RocksDBException e) {
+      logger.error("Failed to do batchUpdate: {}", e.getMessage());
+      throw new RuntimeException(e);
+    }
+  }
+
+  private void writeUpdates(Map<BytesValue, BytesValue> updates) throws RocksDBException {
+    WriteBatch batch = writeBatch;
+    try {
       for (Map.Entry<BytesValue, BytesValue> entry : updates.entrySet()) {
         if (entry.getValue() == null) {
-          batch.remove(entry.getKey().getArrayUnsafe());
+          batch.delete(entry.getKey().getArrayUnsafe());
         } else {
           batch.put(entry.getKey().getArrayUnsafe(), entry.getValue().getArrayUnsafe());
         }
       }
       db.write(writeOptions, batch);
-    } catch (RocksDBException e) {
-      logger.error("Failed to do batchUpdate: {}", e.getMessage());
-      throw new RuntimeException(e);
+    } finally {
+      batch.clear();
     }
   }
 
@@ -112,8 +130,8 @@ public class RocksDbSource implements StorageEngineSource<BytesValue> {
     Objects.requireNonNull(key);
 
     try (AutoCloseableLock l = crudLock.lock()) {
-      return Optional.ofNullable(db.get(readOptions, key.getArrayUnsafe()))
-          .flatMap(bytes -> Optional.of(BytesValue.wrap(bytes)));
+      // storages share the key space, there is no size hint, see RocksDbConfig
+      return Optional.ofNullable(db.get(readOptions, key.getArrayUnsafe())).map(BytesValue::wrap);
     } catch (RocksDBException e) {
       logger.error("Failed to get({}): {}", key, e.getMessage());
       throw new RuntimeException(e);
@@ -127,7 +145,7 @@ public class RocksDbSource implements StorageEngineSource<BytesValue> {
     Objects.requireNonNull(value);
 
     try (AutoCloseableLock l = crudLock.lock()) {
-      db.put(key.getArrayUnsafe(), value.getArrayUnsafe());
+      db.put(writeOptions, key.getArrayUnsafe(), value.getArrayUnsafe());
     } catch (RocksDBException e) {
       logger.error("Failed to put({}, {}): {}", key, value, e.getMessage());
       throw new RuntimeException(e);
@@ -140,13 +158,27 @@ public class RocksDbSource implements StorageEngineSource<BytesValue> {
     Objects.requireNonNull(key);
 
     try (AutoCloseableLock l = crudLock.lock()) {
-      db.delete(key.getArrayUnsafe());
+      db.delete(writeOptions, key.getArrayUnsafe());
     } catch (RocksDBException e) {
       logger.error("Failed to remove({}): {}", key, e.getMessage());
       throw new RuntimeException(e);
     }
   }
 
+  @Override
+  public void compact() {
+    assert opened;
+    try (AutoCloseableLock l = crudLock.lock()) {
+      long s = System.nanoTime();
+      db.compactRange();
+      logger.debug(
+          "Database {} compacted in {}ms", dbPath, (System.nanoTime() - s) / 1_000_000);
+    } catch (RocksDBException e) {
+      logger.error("Failed to compact database {}: {}", dbPath, e.getMessage());
+      throw new RuntimeException(e);
+    }
+  }
+
   @Override
   public void flush() {
     // flushes are managed by RocksDB
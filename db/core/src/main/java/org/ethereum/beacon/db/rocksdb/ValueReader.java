@@ -0,0 +1,57 @@
+package org.ethereum.beacon.db.rocksdb;
+
+import java.util.Arrays;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+
+/**
+ * Reads values straight to the arrays which are returned to the caller.
+ *
+ * <p>RocksDB copies a value from a pinned block to a given heap array, thus, neither an
+ * intermediate native copy nor an intermediate buffer is involved. Value size is not known before
+ * the read, the array is allocated with the size of the value read last. If the value is bigger
+ * it's read once again to an array of exact size, if it's smaller the array is trimmed. Values
+ * read one after another tend to be of the same kind, so, most reads take a single lookup and a
+ * single copy.
+ *
+ * <p>The reader keeps no buffers, hence, nothing is retained between reads except for the size
+ * hint. The reader is thread-safe, concurrent reads could only spoil the hint.
+ */
+final class ValueReader {
+
+  static final int INITIAL_SIZE_HINT = 256;
+
+  /** A read backed by one of RocksDB {@code get} methods accepting a value array. */
+  interface Reader {
+    int read(byte[] key, byte[] value) throws RocksDBException;
+  }
+
+  private int sizeHint = INITIAL_SIZE_HINT;
+
+  /**
+   * Reads a value.
+   *
+   * @param key a key.
+   * @param reader a read call.
+   * @return value or {@code null} if value is not found.
+   * @throws RocksDBException if read failed.
+   */
+  byte[] read(byte[] key, Reader reader) throws RocksDBException {
+    byte[] value = new byte[sizeHint];
+    while (true) {
+      int size = reader.read(key, value);
+      if (size == RocksDB.NOT_FOUND) {
+        return null;
+      }
+      sizeHint = size;
+      if (size == value.length) {
+        return value;
+      }
+      if (size < value.length) {
+        return Arrays.copyOf(value, size);
+      }
+      // the value could be replaced between reads, hence, the size is checked once again
+      value = new byte[size];
+    }
+  }
+}
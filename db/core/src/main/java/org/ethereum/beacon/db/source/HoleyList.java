@@ -28,6 +28,12 @@ public interface HoleyList<V> {
    */
   Optional<V> get(long idx);
 
+  /**
+   * Removes element at index <code>idx</code>
+   * Size is not affected
+   */
+  void remove(long idx);
+
   /**
    * Puts element with index <code>size()</code>
    */
@@ -0,0 +1,27 @@
+package org.ethereum.beacon.db.source;
+
+import tech.pegasys.artemis.util.bytes.BytesValue;
+
+/**
+ * Storage engine source which keeps each storage in its own key space, e.g. RocksDB column
+ * family.
+ *
+ * <p>Keys passed to this source MUST be prefixed with a key space identifier obtained from {@link
+ * #getKeySpace(String)}. Thus, keys of different storages could be mixed in one write buffer and
+ * one batch update.
+ *
+ * @param <ValueType> a value type.
+ */
+public interface KeySpacedEngineSource<ValueType> extends StorageEngineSource<ValueType> {
+
+  /**
+   * Returns identifier of storage key space, creates the key space if it doesn't exist yet.
+   *
+   * <p><strong>Note:</strong> identifiers are not persisted and are valid only while the source is
+   * open.
+   *
+   * @param name storage name.
+   * @return key prefix identifying the key space.
+   */
+  BytesValue getKeySpace(String name);
+}
@@ -22,4 +22,12 @@ public interface StorageEngineSource<ValueType>
 
   /** Closes key-value storage. */
   void close();
+
+  /**
+   * Compacts key-value storage, reclaims space taken by removed and overwritten entries.
+   *
+   * <p>Might take a while, thus, is expected to be called off the critical path. Does nothing by
+   * default.
+   */
+  default void compact() {}
 }
@@ -0,0 +1,101 @@
+package org.ethereum.beacon.db.source;
+
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import javax.annotation.Nonnull;
+
+/**
+ * Keeps frozen snapshots of changes which are being written to the upstream source in the
+ * background.
+ *
+ * <p>Reads consult snapshots from the newest to the oldest one and fall back to the upstream. A
+ * snapshot is dropped only after it has been written, thus, a change is always visible either in a
+ * snapshot or in the upstream.
+ *
+ * <p>Snapshots are written in the order they were added. Direct updates, e.g. a cascading flush of
+ * a buffer, write pending snapshots first and then pass the update to the upstream, so, an older
+ * snapshot never overrides a newer value.
+ *
+ * @see org.ethereum.beacon.db.flush.WriteBehindFlusher
+ */
+public class WriteBehindSource<K, V> extends AbstractLinkedDataSource<K, V, K, V>
+    implements BatchUpdateDataSource<K, V> {
+
+  private final BatchUpdateDataSource<K, V> upstream;
+  private final Deque<Map<K, V>> snapshots = new ConcurrentLinkedDeque<>();
+
+  public WriteBehindSource(@Nonnull final BatchUpdateDataSource<K, V> upstream) {
+    super(upstream);
+    this.upstream = upstream;
+  }
+
+  /**
+   * Adds a snapshot of changes, it becomes visible to reads immediately.
+   *
+   * @param snapshot changes, a {@code null} value stands for removal. Must not be modified
+   *     afterwards.
+   */
+  public void add(@Nonnull final Map<K, V> snapshot) {
+    snapshots.addLast(Objects.requireNonNull(snapshot));
+  }
+
+  /**
+   * Writes the oldest snapshot to the upstream and then drops it.
+   *
+   * @return {@code true} if there was a snapshot to write, {@code false} otherwise.
+   */
+  public synchronized boolean writeOldest() {
+    Map<K, V> snapshot = snapshots.peekFirst();
+    if (snapshot == null) {
+      return false;
+    }
+    upstream.batchUpdate(snapshot);
+    snapshots.pollFirst();
+    return true;
+  }
+
+  /** @return number of snapshots that are not written yet. */
+  public int getPendingCount() {
+    return snapshots.size();
+  }
+
+  @Override
+  public Optional<V> get(@Nonnull final K key) {
+    Objects.requireNonNull(key);
+    Iterator<Map<K, V>> it = snapshots.descendingIterator();
+    while (it.hasNext()) {
+      Map<K, V> snapshot = it.next();
+      if (snapshot.containsKey(key)) {
+        return Optional.ofNullable(snapshot.get(key));
+      }
+    }
+    return upstream.get(key);
+  }
+
+  /** Writes all pending snapshots, blocks until they are written. */
+  public synchronized void writeAll() {
+    while (writeOldest()) {}
+  }
+
+  @Override
+  public synchronized void put(@Nonnull final K key, @Nonnull final V value) {
+    writeAll();
+    upstream.put(key, value);
+  }
+
+  @Override
+  public synchronized void remove(@Nonnull final K key) {
+    writeAll();
+    upstream.remove(key);
+  }
+
+  @Override
+  public synchronized void batchUpdate(Map<K, V> updates) {
+    writeAll();
+    upstream.batchUpdate(updates);
+  }
+}
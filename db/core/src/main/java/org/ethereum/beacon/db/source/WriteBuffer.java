@@ -6,6 +6,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.ethereum.beacon.db.util.AutoCloseableLock;
@@ -100,6 +101,25 @@ public class WriteBuffer<K, V> extends AbstractLinkedDataSource<K, V, K, V>
     }
   }
 
+  /**
+   * Atomically hands accumulated changes over to the consumer and clears the buffer.
+   *
+   * <p>Consumer is called under the write lock, hence, readers never observe a state in which the
+   * changes are neither in the buffer nor in the consumer.
+   *
+   * @param consumer accepts changes, a {@code null} value stands for removal, see {@link
+   *     BatchUpdateDataSource#batchUpdate(Map)}.
+   */
+  public void drainTo(@Nonnull final Consumer<Map<K, V>> consumer) {
+    try (AutoCloseableLock l = writeLock.lock()) {
+      final Map<K, V> updates = new HashMap<>();
+      buffer.forEach((key, value) -> updates.put(key, value.value));
+      consumer.accept(updates);
+      buffer.clear();
+      sizeEvaluator.reset();
+    }
+  }
+
   /** Discards all changes accumulated */
   public void reset() {
     try (AutoCloseableLock l = writeLock.lock()) {
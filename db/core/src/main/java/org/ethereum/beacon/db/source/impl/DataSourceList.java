@@ -60,6 +60,12 @@ public class DataSourceList<V> implements HoleyList<V> {
     return valSsrc.get(BytesValues.toMinimalBytes(idx));
   }
 
+  @Override
+  public void remove(long idx) {
+    if (idx < 0 || idx >= size()) return;
+    valSsrc.remove(BytesValues.toMinimalBytes(idx));
+  }
+
   @Override
   public long size() {
     if (size < 0) {
@@ -26,4 +26,9 @@ public class HashMapHoleyList<V> implements HoleyList<V> {
   public Optional<V> get(long idx) {
     return Optional.ofNullable(store.get(idx));
   }
+
+  @Override
+  public void remove(long idx) {
+    store.remove(idx);
+  }
 }
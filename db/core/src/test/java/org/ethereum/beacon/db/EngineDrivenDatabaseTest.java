@@ -10,12 +10,15 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 import javax.annotation.Nonnull;
 import org.ethereum.beacon.db.source.DataSource;
 import org.ethereum.beacon.db.source.StorageEngineSource;
+import org.ethereum.beacon.db.source.WriteBehindSource;
 import org.ethereum.beacon.db.source.impl.MemSizeEvaluators;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -162,6 +165,70 @@ public class EngineDrivenDatabaseTest {
         db.getWriteBuffer().evaluateSize());
   }
 
+  @Test
+  public void checkWriteBehindFlusher() throws InterruptedException {
+    CountDownLatch writeAllowed = new CountDownLatch(1);
+    TestStorageSource engineSource =
+        new TestStorageSource() {
+          @Override
+          public void batchUpdate(Map<BytesValue, BytesValue> updates) {
+            try {
+              writeAllowed.await();
+            } catch (InterruptedException e) {
+              throw new RuntimeException(e);
+            }
+            super.batchUpdate(updates);
+          }
+        };
+    EngineDrivenDatabase db = EngineDrivenDatabase.createWriteBehind(engineSource, 64, 1);
+
+    Random rnd = new Random();
+    BytesValue first = Bytes32.random(rnd);
+    BytesValue second = Bytes32.random(rnd);
+
+    DataSource<BytesValue, BytesValue> storage = db.createStorage("test");
+    storage.put(wrap("ONE"), first);
+    storage.put(wrap("TWO"), second);
+
+    // buffer is handed over to the writer, write is not completed yet
+    db.commit();
+    assertEquals(0L, db.getWriteBuffer().evaluateSize());
+    assertFalse(db.getWriteBuffer().getCacheEntry(wrap("ONE")).isPresent());
+    assertTrue(engineSource.source.isEmpty());
+
+    // reads are served by the snapshot, new writes go to the buffer
+    assertEquals(first, storage.get(wrap("ONE")).get());
+    assertEquals(second, storage.get(wrap("TWO")).get());
+    storage.remove(wrap("ONE"));
+    assertFalse(storage.get(wrap("ONE")).isPresent());
+
+    writeAllowed.countDown();
+    db.close();
+
+    assertFalse(storage.get(wrap("ONE")).isPresent());
+    assertEquals(second, storage.get(wrap("TWO")).get());
+    assertEquals(2, engineSource.source.size());
+    assertEquals(1, engineSource.source.values().stream().filter(Objects::nonNull).count());
+  }
+
+  @Test
+  public void checkWriteBehindDirectUpdate() {
+    TestStorageSource engineSource = new TestStorageSource();
+    WriteBehindSource<BytesValue, BytesValue> source = new WriteBehindSource<>(engineSource);
+
+    Random rnd = new Random();
+    BytesValue older = Bytes32.random(rnd);
+    BytesValue newer = Bytes32.random(rnd);
+
+    // a pending snapshot is written before a direct update, not after it
+    source.add(Collections.singletonMap(wrap("ONE"), older));
+    source.batchUpdate(Collections.singletonMap(wrap("ONE"), newer));
+    assertEquals(0, source.getPendingCount());
+    assertEquals(newer, source.get(wrap("ONE")).get());
+    assertFalse(source.writeOldest());
+    assertEquals(newer, engineSource.source.get(wrap("ONE")));
+  }
+
   @Test
   @Ignore
   public void checkWithConcurrentAccessTake1() throws InterruptedException {
@@ -4,6 +4,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 
 import java.io.IOException;
+import org.ethereum.beacon.db.rocksdb.RocksDbConfig;
 import org.ethereum.beacon.db.source.DataSource;
 import org.ethereum.beacon.db.util.FileUtil;
 import org.junit.After;
@@ -88,6 +89,43 @@ public class RocksDbDrivenDatabaseTest {
     db.close();
   }
 
+  @Test
+  public void columnFamilies() {
+    RocksDbConfig config = new RocksDbConfig().withColumnFamilies(true);
+    Database db = Database.rocksDB("test-db", -1, config);
+
+    DataSource<BytesValue, BytesValue> uno = db.createStorage("uno");
+    DataSource<BytesValue, BytesValue> dos = db.createStorage("dos");
+
+    uno.put(wrap("ONE"), wrap("FIRST"));
+    dos.put(wrap("ONE"), wrap("DOS_FIRST"));
+    dos.put(wrap("TWO"), wrap("DOS_SECOND"));
+    db.commit();
+
+    assertEquals(wrap("FIRST"), uno.get(wrap("ONE")).get());
+    assertEquals(wrap("DOS_FIRST"), dos.get(wrap("ONE")).get());
+    assertFalse(uno.get(wrap("TWO")).isPresent());
+
+    db.close();
+
+    // families are opened in a different order, content must stay in place
+    db = Database.rocksDB("test-db", -1, config);
+    dos = db.createStorage("dos");
+    uno = db.createStorage("uno");
+
+    assertEquals(wrap("FIRST"), uno.get(wrap("ONE")).get());
+    assertEquals(wrap("DOS_FIRST"), dos.get(wrap("ONE")).get());
+    assertEquals(wrap("DOS_SECOND"), dos.get(wrap("TWO")).get());
+    assertFalse(uno.get(wrap("TWO")).isPresent());
+
+    uno.remove(wrap("ONE"));
+    db.commit();
+    assertFalse(uno.get(wrap("ONE")).isPresent());
+    assertEquals(wrap("DOS_FIRST"), dos.get(wrap("ONE")).get());
+
+    db.close();
+  }
+
   private BytesValue wrap(String value) {
     return BytesValue.wrap(value.getBytes());
   }
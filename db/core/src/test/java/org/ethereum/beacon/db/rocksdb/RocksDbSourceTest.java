@@ -7,6 +7,7 @@ import java.io.IOException;
 import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Random;
 import org.ethereum.beacon.db.util.FileUtil;
 import org.junit.After;
 import org.junit.Before;
@@ -59,6 +60,38 @@ public class RocksDbSourceTest {
     rocksDb.close();
   }
 
+  @Test
+  public void sizeHintedReads() {
+    ColumnFamilyRocksDbSource rocksDb =
+        new ColumnFamilyRocksDbSource(
+            Paths.get("test-db"),
+            new RocksDbConfig().withColumnFamilies(true).withSizeHintedReads(true));
+    rocksDb.open();
+    BytesValue keySpace = rocksDb.getKeySpace("test");
+
+    Random random = new Random(1);
+    byte[] small = new byte[100];
+    byte[] large = new byte[ValueReader.INITIAL_SIZE_HINT * 3];
+    byte[] huge = new byte[16 << 20];
+    random.nextBytes(small);
+    random.nextBytes(large);
+    random.nextBytes(huge);
+
+    rocksDb.put(keySpace.concat(wrap("SMALL")), BytesValue.wrap(small));
+    rocksDb.put(keySpace.concat(wrap("LARGE")), BytesValue.wrap(large));
+    rocksDb.put(keySpace.concat(wrap("HUGE")), BytesValue.wrap(huge));
+    rocksDb.put(keySpace.concat(wrap("EMPTY")), BytesValue.EMPTY);
+
+    assertEquals(BytesValue.wrap(small), rocksDb.get(keySpace.concat(wrap("SMALL"))).get());
+    assertEquals(BytesValue.wrap(large), rocksDb.get(keySpace.concat(wrap("LARGE"))).get());
+    assertEquals(BytesValue.wrap(huge), rocksDb.get(keySpace.concat(wrap("HUGE"))).get());
+    assertEquals(BytesValue.wrap(small), rocksDb.get(keySpace.concat(wrap("SMALL"))).get());
+    assertEquals(BytesValue.EMPTY, rocksDb.get(keySpace.concat(wrap("EMPTY"))).get());
+    assertFalse(rocksDb.get(keySpace.concat(wrap("NONE"))).isPresent());
+
+    rocksDb.close();
+  }
+
   private BytesValue wrap(String value) {
     return BytesValue.wrap(value.getBytes());
   }
@@ -7,6 +7,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.ethereum.beacon.consensus.BeaconChainSpec;
@@ -44,7 +45,9 @@ public abstract class AbstractDepositContract implements DepositContract {
   private final MonoProcessor<ChainStart> chainStartSink = MonoProcessor.create();
   private final Publisher<ChainStart> chainStartStream;
   private final SimpleProcessor<Deposit> depositStream;
-  private final MerkleTree<DepositData> tree;
+  private final DepositIncrementalMerkle tree;
+  @Nullable private final DepositTreeStorage treeStorage;
+  @Nullable private final Long restoredBlockNumber;
   private final BeaconChainSpec spec;
   private long distanceFromHead;
   private List<DepositData> initialDeposits = new ArrayList<>();
@@ -52,6 +55,21 @@ public abstract class AbstractDepositContract implements DepositContract {
 
   public AbstractDepositContract(
       Schedulers schedulers, Function<BytesValue, Hash32> hashFunction, int treeDepth, BeaconChainSpec spec) {
+    this(schedulers, hashFunction, treeDepth, spec, null);
+  }
+
+  /**
+   * Creates a contract which deposit tree is persisted to the given storage once chain start has
+   * happened. If the storage has a snapshot the tree is restored from it, chain start is emitted
+   * from the storage and deposit logs are expected to be processed starting from the block next to
+   * {@link #getRestoredBlockNumber()}.
+   */
+  public AbstractDepositContract(
+      Schedulers schedulers,
+      Function<BytesValue, Hash32> hashFunction,
+      int treeDepth,
+      BeaconChainSpec spec,
+      @Nullable DepositTreeStorage treeStorage) {
     this.schedulers = schedulers;
 
     chainStartStream =
@@ -60,8 +78,54 @@ public abstract class AbstractDepositContract implements DepositContract {
             .doOnSubscribe(s -> chainStartSubscribedPriv())
             .name("PowClient.chainStart");
     depositStream = new SimpleProcessor<>(this.schedulers.events(), "PowClient.deposit");
-    this.tree = new DepositBufferedMerkle(hashFunction, treeDepth, MAX_REORG_HEIGHT);
+    this.treeStorage = treeStorage;
+    int proofLength = spec.getConstants().getDepositContractTreeDepthPlusOne().getIntValue();
+    Optional<ChainStart> storedChainStart =
+        treeStorage != null ? treeStorage.getChainStart(proofLength) : Optional.empty();
+    Optional<DepositTreeSnapshot> snapshot =
+        treeStorage != null ? treeStorage.getSnapshot() : Optional.empty();
+    if (snapshot.isPresent() && !storedChainStart.isPresent()) {
+      // genesis deposits are required to emit chain start, they are collected from scratch
+      logger.warn("Deposit tree snapshot without chain start is ignored");
+      snapshot = Optional.empty();
+    }
+    if (snapshot.isPresent()) {
+      this.tree =
+          DepositIncrementalMerkle.restore(
+              hashFunction, treeDepth, MAX_REORG_HEIGHT, snapshot.get());
+      this.restoredBlockNumber = treeStorage.getBlockNumber().orElse(null);
+      logger.info(
+          "Deposit tree restored with {} deposits at eth1 block #{}",
+          snapshot.get().getDepositCount(),
+          restoredBlockNumber);
+    } else {
+      this.tree = new DepositIncrementalMerkle(hashFunction, treeDepth, MAX_REORG_HEIGHT);
+      this.restoredBlockNumber = null;
+    }
     this.spec = spec;
+
+    if (snapshot.isPresent()) {
+      // deposits preceding genesis aren't collected again
+      chainStartSink.onNext(storedChainStart.get());
+      chainStartSink.onComplete();
+    }
+  }
+
+  /** @return number of the eth1 block which deposit tree has been restored at if any. */
+  protected Optional<Long> getRestoredBlockNumber() {
+    return Optional.ofNullable(restoredBlockNumber);
+  }
+
+  /**
+   * Persists a snapshot of deposit tree if the contract was created with a storage. Snapshots
+   * aren't taken until chain start, deposits preceding genesis are required to build it.
+   *
+   * @param blockNumber number of the last eth1 block which deposits have been added.
+   */
+  protected synchronized void saveTreeSnapshot(long blockNumber) {
+    if (treeStorage != null && chainStartSink.isTerminated()) {
+      treeStorage.save(tree.getSnapshot(), blockNumber);
+    }
   }
 
   /**
@@ -165,6 +229,9 @@ public abstract class AbstractDepositContract implements DepositContract {
 
   protected synchronized void chainStart(Eth1Data genesisEth1Data, List<Deposit> genesisDeposits, Time genesisTime) {
     ChainStart chainStart = new ChainStart(genesisTime, genesisEth1Data, genesisDeposits);
+    if (treeStorage != null) {
+      treeStorage.saveChainStart(chainStart);
+    }
     chainStartSink.onNext(chainStart);
     chainStartSink.onComplete();
     chainStartDone();
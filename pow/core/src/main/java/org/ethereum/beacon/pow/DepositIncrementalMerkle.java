@@ -0,0 +1,234 @@
+package org.ethereum.beacon.pow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import org.ethereum.beacon.core.operations.deposit.DepositData;
+import tech.pegasys.artemis.ethereum.core.Hash32;
+import tech.pegasys.artemis.util.bytes.BytesValue;
+
+/**
+ * Incremental deposit tree, a replacement of {@link DepositBufferedMerkle}.
+ *
+ * <p>Keeps tree layers for a window of the most recent deposits only. Each layer holds nodes
+ * starting from the leftmost sibling of the window start, therefore, older part of the tree is
+ * represented by the branch frontier embedded into layers. Nodes are stored as of the latest
+ * deposit, a node that isn't complete yet is recomputed for smaller tree sizes along the right edge
+ * of the tree.
+ *
+ * <p>Insertion, proof and root queries cost {@code O(depth)} hashes each. Proofs and roots could
+ * be queried for any index within the window, window is kept between {@code windowSize} and {@code
+ * 2 * windowSize} deposits long.
+ *
+ * @see DepositTreeSnapshot
+ */
+public class DepositIncrementalMerkle extends DepositDataMerkle {
+
+  private final int treeDepth;
+  private final int windowSize;
+  /** Layers from leaves ({@code 0}) up to the root ({@code treeDepth}). */
+  private final List<List<Hash32>> layers = new ArrayList<>();
+
+  private long depositCount = 0;
+  private long windowStart = 0;
+
+  /**
+   * Creates an empty tree.
+   *
+   * @param hashFunction hash function
+   * @param treeDepth tree with depth of
+   * @param windowSize number of the most recent deposits that proofs are available for
+   */
+  public DepositIncrementalMerkle(
+      Function<BytesValue, Hash32> hashFunction, int treeDepth, int windowSize) {
+    super(hashFunction, treeDepth);
+    this.treeDepth = treeDepth;
+    this.windowSize = windowSize;
+    for (int h = 0; h <= treeDepth; h++) {
+      layers.add(new ArrayList<>());
+    }
+  }
+
+  /**
+   * Restores tree from its snapshot.
+   *
+   * @param hashFunction hash function
+   * @param treeDepth tree with depth of, must match depth of snapshotted tree
+   * @param windowSize number of the most recent deposits that proofs are available for
+   * @param snapshot a snapshot
+   * @return restored tree
+   */
+  public static DepositIncrementalMerkle restore(
+      Function<BytesValue, Hash32> hashFunction,
+      int treeDepth,
+      int windowSize,
+      DepositTreeSnapshot snapshot) {
+    if (snapshot.getBranch().size() != treeDepth) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Snapshot of tree with depth %s can't be restored to depth %s",
+              snapshot.getBranch().size(), treeDepth));
+    }
+
+    DepositIncrementalMerkle tree =
+        new DepositIncrementalMerkle(hashFunction, treeDepth, windowSize);
+    long start = snapshot.getWindowStart();
+    tree.depositCount = start;
+    tree.windowStart = start;
+    for (int h = 0; h < treeDepth; h++) {
+      // left sibling of the window start is a complete node, it's kept by the branch
+      if (((start >>> h) & 1) == 1) {
+        tree.layers.get(h).add(snapshot.getBranch().get(h));
+      }
+    }
+    snapshot.getLeaves().forEach(tree::addLeaf);
+    return tree;
+  }
+
+  /**
+   * Creates a snapshot that the tree could be restored from with {@link #restore(Function, int,
+   * int, DepositTreeSnapshot)}.
+   *
+   * @return snapshot of the branch frontier at the window start along with leaves of the window.
+   */
+  public DepositTreeSnapshot getSnapshot() {
+    List<Hash32> branch = new ArrayList<>();
+    for (int h = 0; h < treeDepth; h++) {
+      long index = windowStart >>> h;
+      branch.add((index & 1) == 1 ? getNode(h, index - 1) : Hash32.ZERO);
+    }
+    List<Hash32> layer = layers.get(0);
+    List<Hash32> leaves =
+        new ArrayList<>(layer.subList((int) (windowStart - getLayerStart(0)), layer.size()));
+    return new DepositTreeSnapshot(windowStart, branch, leaves);
+  }
+
+  /** Layer starts from an even node, so, the left sibling of any window node is there. */
+  private long getLayerStart(int height) {
+    return (windowStart >>> height) & ~1L;
+  }
+
+  private Hash32 getNode(int height, long index) {
+    return layers.get(height).get((int) (index - getLayerStart(height)));
+  }
+
+  private void setNode(int height, long index, Hash32 node) {
+    List<Hash32> layer = layers.get(height);
+    int position = (int) (index - getLayerStart(height));
+    if (position == layer.size()) {
+      layer.add(node);
+    } else {
+      layer.set(position, node);
+    }
+  }
+
+  private Hash32 hash(Hash32 left, Hash32 right) {
+    return getHashFunction().apply(BytesValue.concat(left, right));
+  }
+
+  private void addLeaf(Hash32 leaf) {
+    long index = depositCount;
+    setNode(0, index, leaf);
+    for (int h = 1; h <= treeDepth; h++) {
+      long child = index >>> (h - 1);
+      Hash32 left = getNode(h - 1, child & ~1L);
+      Hash32 right = (child & 1) == 1 ? getNode(h - 1, child) : getZeroHash(h - 1);
+      setNode(h, index >>> h, hash(left, right));
+    }
+    depositCount += 1;
+
+    if (depositCount - windowStart > 2L * windowSize) {
+      shiftWindow(depositCount - windowSize);
+    }
+  }
+
+  private void shiftWindow(long newStart) {
+    long[] oldLayerStarts = new long[treeDepth + 1];
+    for (int h = 0; h <= treeDepth; h++) {
+      oldLayerStarts[h] = getLayerStart(h);
+    }
+    windowStart = newStart;
+    for (int h = 0; h <= treeDepth; h++) {
+      layers.get(h).subList(0, (int) (getLayerStart(h) - oldLayerStarts[h])).clear();
+    }
+  }
+
+  /**
+   * Computes nodes along the right edge of the tree with given number of leaves.
+   *
+   * @return node on the path of the last leaf for each layer.
+   */
+  private Hash32[] getRightEdge(long size) {
+    Hash32[] edge = new Hash32[treeDepth + 1];
+    long last = size - 1;
+    if (size == depositCount) {
+      for (int h = 0; h <= treeDepth; h++) {
+        edge[h] = getNode(h, last >>> h);
+      }
+      return edge;
+    }
+
+    edge[0] = getNode(0, last);
+    for (int h = 1; h <= treeDepth; h++) {
+      long child = last >>> (h - 1);
+      edge[h] =
+          (child & 1) == 1
+              ? hash(getNode(h - 1, child - 1), edge[h - 1])
+              : hash(edge[h - 1], getZeroHash(h - 1));
+    }
+    return edge;
+  }
+
+  @Override
+  public List<Hash32> getProof(int index, int size) {
+    verifyIndexNotTooBig(index);
+    verifyIndexNotTooOld(index);
+    if (size <= index || size > depositCount) {
+      throw new RuntimeException(
+          String.format("Size should be in (%s, %s], asked for %s!", index, depositCount, size));
+    }
+
+    Hash32[] edge = getRightEdge(size);
+    long last = size - 1;
+    List<Hash32> proof = new ArrayList<>(treeDepth + 1);
+    for (int h = 0; h < treeDepth; h++) {
+      long sibling = (((long) index) >>> h) ^ 1;
+      long edgeIndex = last >>> h;
+      if (sibling < edgeIndex) {
+        proof.add(getNode(h, sibling));
+      } else if (sibling == edgeIndex) {
+        proof.add(edge[h]);
+      } else {
+        proof.add(getZeroHash(h));
+      }
+    }
+
+    proof.add(Hash32.wrap(encodeLength(size)));
+
+    return proof;
+  }
+
+  @Override
+  public Hash32 getRoot(int index) {
+    verifyIndexNotTooBig(index);
+    verifyIndexNotTooOld(index);
+    return mixinLength(getRightEdge(index + 1L)[treeDepth], index + 1);
+  }
+
+  private void verifyIndexNotTooOld(int index) {
+    if (index < windowStart) {
+      throw new RuntimeException(
+          String.format("Too old element index queried, %s, minimum: %s!", index, windowStart));
+    }
+  }
+
+  @Override
+  public void addValue(DepositData value) {
+    addLeaf(createDepositDataValue(value, getHashFunction()));
+  }
+
+  @Override
+  public int getLastIndex() {
+    return (int) (depositCount - 1);
+  }
+}
@@ -0,0 +1,98 @@
+package org.ethereum.beacon.pow;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import tech.pegasys.artemis.ethereum.core.Hash32;
+import tech.pegasys.artemis.util.bytes.Bytes32;
+import tech.pegasys.artemis.util.bytes.Bytes8;
+import tech.pegasys.artemis.util.bytes.BytesValue;
+import tech.pegasys.artemis.util.uint.UInt64;
+
+/**
+ * State of {@link DepositIncrementalMerkle} that is sufficient to restore the tree.
+ *
+ * <p>Consists of the branch frontier of the tree with {@link #getWindowStart()} leaves and of
+ * leaves added after that. Encoded as {@code window_start ++ depth ++ branch ++ leaves}, numbers
+ * are little-endian {@code uint64}.
+ */
+public class DepositTreeSnapshot {
+
+  private final long windowStart;
+  private final List<Hash32> branch;
+  private final List<Hash32> leaves;
+
+  public DepositTreeSnapshot(long windowStart, List<Hash32> branch, List<Hash32> leaves) {
+    this.windowStart = windowStart;
+    this.branch = Collections.unmodifiableList(branch);
+    this.leaves = Collections.unmodifiableList(leaves);
+  }
+
+  public static DepositTreeSnapshot decode(BytesValue bytes) {
+    long windowStart = UInt64.fromBytesLittleEndian(Bytes8.wrap(bytes, 0)).getValue();
+    int depth = UInt64.fromBytesLittleEndian(Bytes8.wrap(bytes, Bytes8.SIZE)).intValue();
+    int offset = Bytes8.SIZE * 2;
+    List<Hash32> branch = new ArrayList<>(depth);
+    for (int i = 0; i < depth; i++, offset += Bytes32.SIZE) {
+      branch.add(Hash32.wrap(Bytes32.wrap(bytes, offset)));
+    }
+    List<Hash32> leaves = new ArrayList<>((bytes.size() - offset) / Bytes32.SIZE);
+    for (; offset < bytes.size(); offset += Bytes32.SIZE) {
+      leaves.add(Hash32.wrap(Bytes32.wrap(bytes, offset)));
+    }
+    return new DepositTreeSnapshot(windowStart, branch, leaves);
+  }
+
+  public BytesValue encode() {
+    List<BytesValue> parts = new ArrayList<>(branch.size() + leaves.size() + 2);
+    parts.add(UInt64.valueOf(windowStart).toBytes8LittleEndian());
+    parts.add(UInt64.valueOf(branch.size()).toBytes8LittleEndian());
+    parts.addAll(branch);
+    parts.addAll(leaves);
+    return BytesValue.concat(parts);
+  }
+
+  /** @return number of deposits preceding the first leaf of the snapshot. */
+  public long getWindowStart() {
+    return windowStart;
+  }
+
+  /** @return frontier of the tree with {@link #getWindowStart()} leaves, one node per layer. */
+  public List<Hash32> getBranch() {
+    return branch;
+  }
+
+  public List<Hash32> getLeaves() {
+    return leaves;
+  }
+
+  /** @return total number of deposits in the tree. */
+  public long getDepositCount() {
+    return windowStart + leaves.size();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    DepositTreeSnapshot that = (DepositTreeSnapshot) o;
+    return windowStart == that.windowStart
+        && branch.equals(that.branch)
+        && leaves.equals(that.leaves);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(windowStart, branch, leaves);
+  }
+
+  @Override
+  public String toString() {
+    return "DepositTreeSnapshot{windowStart=" + windowStart + ", leaves=" + leaves.size() + "}";
+  }
+}
@@ -0,0 +1,146 @@
+package org.ethereum.beacon.pow;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.ethereum.beacon.consensus.ChainStart;
+import org.ethereum.beacon.core.operations.Deposit;
+import org.ethereum.beacon.core.operations.deposit.DepositData;
+import org.ethereum.beacon.core.state.Eth1Data;
+import org.ethereum.beacon.core.types.BLSPubkey;
+import org.ethereum.beacon.core.types.BLSSignature;
+import org.ethereum.beacon.core.types.Gwei;
+import org.ethereum.beacon.core.types.Time;
+import org.ethereum.beacon.db.Database;
+import org.ethereum.beacon.db.source.DataSource;
+import org.ethereum.beacon.db.source.SingleValueSource;
+import tech.pegasys.artemis.ethereum.core.Hash32;
+import tech.pegasys.artemis.util.bytes.Bytes32;
+import tech.pegasys.artemis.util.bytes.Bytes48;
+import tech.pegasys.artemis.util.bytes.Bytes8;
+import tech.pegasys.artemis.util.bytes.Bytes96;
+import tech.pegasys.artemis.util.bytes.BytesValue;
+import tech.pegasys.artemis.util.uint.UInt64;
+
+/**
+ * Persists {@link DepositTreeSnapshot} along with the number of the last eth1 block which deposits
+ * are included into the snapshot, a deposit contract resumes log processing from the next block.
+ *
+ * <p>Also persists {@link ChainStart}, a restored contract emits it without collecting genesis
+ * deposits again. Genesis deposits are stored without proofs, they are restored with zero proofs
+ * like the ones the contract creates upon chain start.
+ */
+public class DepositTreeStorage {
+
+  private static final String STORAGE_NAME = "deposit-tree";
+
+  private final SingleValueSource<DepositTreeSnapshot> snapshotSource;
+  private final SingleValueSource<Long> blockNumberSource;
+  private final SingleValueSource<BytesValue> chainStartSource;
+  private final Database database;
+
+  public DepositTreeStorage(Database database) {
+    this.database = database;
+    DataSource<BytesValue, BytesValue> source = database.createStorage(STORAGE_NAME);
+    this.snapshotSource =
+        SingleValueSource.fromDataSource(
+            source,
+            BytesValue.wrap("snapshot".getBytes()),
+            DepositTreeSnapshot::encode,
+            DepositTreeSnapshot::decode);
+    this.blockNumberSource =
+        SingleValueSource.fromDataSource(
+            source,
+            BytesValue.wrap("block-number".getBytes()),
+            number -> UInt64.valueOf(number).toBytes8LittleEndian(),
+            bytes -> UInt64.fromBytesLittleEndian(Bytes8.wrap(bytes, 0)).getValue());
+    this.chainStartSource =
+        SingleValueSource.fromDataSource(
+            source, BytesValue.wrap("chain-start".getBytes()), bytes -> bytes, bytes -> bytes);
+  }
+
+  public Optional<DepositTreeSnapshot> getSnapshot() {
+    return blockNumberSource.get().flatMap(number -> snapshotSource.get());
+  }
+
+  /** @return number of the eth1 block the snapshot has been taken at. */
+  public Optional<Long> getBlockNumber() {
+    return snapshotSource.get().flatMap(snapshot -> blockNumberSource.get());
+  }
+
+  /**
+   * Stores a snapshot and commits the database.
+   *
+   * @param snapshot tree snapshot.
+   * @param blockNumber number of the last eth1 block which deposits have been added to the tree.
+   */
+  public synchronized void save(DepositTreeSnapshot snapshot, long blockNumber) {
+    snapshotSource.set(snapshot);
+    blockNumberSource.set(blockNumber);
+    database.commit();
+  }
+
+  /**
+   * @param proofLength length of deposit proofs.
+   * @return chain start if it has happened.
+   */
+  public Optional<ChainStart> getChainStart(int proofLength) {
+    return chainStartSource.get().map(bytes -> decodeChainStart(bytes, proofLength));
+  }
+
+  /** Stores chain start, it's written along with the first tree snapshot. */
+  public synchronized void saveChainStart(ChainStart chainStart) {
+    chainStartSource.set(encodeChainStart(chainStart));
+  }
+
+  /**
+   * Encodes chain start as {@code genesis_time ++ deposit_root ++ deposit_count ++ block_hash ++
+   * (pubkey ++ withdrawal_credentials ++ amount ++ signature)*}, numbers are little-endian {@code
+   * uint64}.
+   */
+  static BytesValue encodeChainStart(ChainStart chainStart) {
+    Eth1Data eth1Data = chainStart.getEth1Data();
+    List<BytesValue> parts = new ArrayList<>(chainStart.getInitialDeposits().size() * 4 + 4);
+    parts.add(chainStart.getTime().toBytes8LittleEndian());
+    parts.add(eth1Data.getDepositRoot());
+    parts.add(eth1Data.getDepositCount().toBytes8LittleEndian());
+    parts.add(eth1Data.getBlockHash());
+    for (Deposit deposit : chainStart.getInitialDeposits()) {
+      DepositData data = deposit.getData();
+      parts.add(data.getPubKey());
+      parts.add(data.getWithdrawalCredentials());
+      parts.add(data.getAmount().toBytes8LittleEndian());
+      parts.add(data.getSignature());
+    }
+    return BytesValue.concat(parts);
+  }
+
+  static ChainStart decodeChainStart(BytesValue bytes, int proofLength) {
+    Time time = Time.castFrom(UInt64.fromBytesLittleEndian(Bytes8.wrap(bytes, 0)));
+    int offset = Bytes8.SIZE;
+    Hash32 depositRoot = Hash32.wrap(Bytes32.wrap(bytes, offset));
+    offset += Bytes32.SIZE;
+    UInt64 depositCount = UInt64.fromBytesLittleEndian(Bytes8.wrap(bytes, offset));
+    offset += Bytes8.SIZE;
+    Hash32 blockHash = Hash32.wrap(Bytes32.wrap(bytes, offset));
+    offset += Bytes32.SIZE;
+
+    List<Hash32> proof = Collections.nCopies(proofLength, Hash32.ZERO);
+    List<Deposit> deposits = new ArrayList<>();
+    while (offset < bytes.size()) {
+      BLSPubkey pubkey = BLSPubkey.wrap(Bytes48.wrap(bytes, offset));
+      offset += Bytes48.SIZE;
+      Hash32 withdrawalCredentials = Hash32.wrap(Bytes32.wrap(bytes, offset));
+      offset += Bytes32.SIZE;
+      Gwei amount = Gwei.castFrom(UInt64.fromBytesLittleEndian(Bytes8.wrap(bytes, offset)));
+      offset += Bytes8.SIZE;
+      BLSSignature signature = BLSSignature.wrap(Bytes96.wrap(bytes, offset));
+      offset += Bytes96.SIZE;
+      deposits.add(
+          Deposit.create(
+              proof, new DepositData(pubkey, withdrawalCredentials, amount, signature)));
+    }
+    return new ChainStart(time, new Eth1Data(depositRoot, depositCount, blockHash), deposits);
+  }
+}
@@ -0,0 +1,148 @@
+package org.ethereum.beacon.pow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.ethereum.beacon.consensus.BeaconChainSpec;
+import org.ethereum.beacon.consensus.ChainStart;
+import org.ethereum.beacon.core.spec.SpecConstants;
+import org.ethereum.beacon.core.types.Time;
+import org.ethereum.beacon.crypto.Hashes;
+import org.ethereum.beacon.db.Database;
+import org.ethereum.beacon.schedulers.Schedulers;
+import org.javatuples.Pair;
+import org.javatuples.Triplet;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import tech.pegasys.artemis.util.bytes.Bytes32;
+import tech.pegasys.artemis.util.bytes.Bytes96;
+import tech.pegasys.artemis.util.bytes.MutableBytes48;
+import tech.pegasys.artemis.util.uint.UInt64;
+
+public class DepositContractRestoreTest {
+
+  private static final int GENESIS_VALIDATOR_COUNT = 4;
+  // greater than the window of the tree, genesis deposits are out of it after restore
+  private static final int DEPOSIT_COUNT = 1100;
+
+  private final BeaconChainSpec spec =
+      new BeaconChainSpec.Builder()
+          .withDefaultHashFunction()
+          .withDefaultHasher()
+          .withBlsVerifyProofOfPossession(false)
+          .withVerifyDepositProof(false)
+          .withConstants(
+              new SpecConstants() {
+                @Override
+                public UInt64 getMinGenesisActiveValidatorCount() {
+                  return UInt64.valueOf(GENESIS_VALIDATOR_COUNT);
+                }
+
+                @Override
+                public Time getMinGenesisTime() {
+                  return Time.of(0);
+                }
+              })
+          .build();
+
+  class TestDepositContract extends AbstractDepositContract {
+
+    TestDepositContract(DepositTreeStorage storage) {
+      super(
+          Schedulers.createDefault(),
+          Hashes::sha256,
+          spec.getConstants().getDepositContractTreeDepth().getIntValue(),
+          spec,
+          storage);
+    }
+
+    void addDeposits(int from, int to, long blockNumber) {
+      List<DepositEventData> events = new ArrayList<>();
+      for (int i = from; i < to; i++) {
+        MutableBytes48 pubkey = MutableBytes48.create();
+        pubkey.setInt(0, i);
+        events.add(
+            new DepositEventData(
+                pubkey.extractArray(),
+                Bytes32.ZERO.extractArray(),
+                spec.getConstants().getMaxEffectiveBalance().toBytes8LittleEndian().extractArray(),
+                Bytes96.ZERO.extractArray(),
+                UInt64.valueOf(i).toBytes8LittleEndian().extractArray()));
+      }
+      newDeposits(events, Bytes32.ZERO.extractArray(), blockNumber);
+      saveTreeSnapshot(blockNumber);
+    }
+
+    @Override
+    protected void chainStartSubscribed() {}
+
+    @Override
+    protected void chainStartDone() {}
+
+    @Override
+    protected boolean hasDepositRootImpl(byte[] blockHash, byte[] depositRoot) {
+      return false;
+    }
+
+    @Override
+    protected Optional<Triplet<byte[], Integer, byte[]>> getLatestBlockHashDepositRoot() {
+      return Optional.empty();
+    }
+
+    @Override
+    protected List<Pair<byte[], List<DepositEventData>>> peekDepositsImpl(
+        int count, byte[] startBlockHash, byte[] endBlockHash) {
+      return Collections.emptyList();
+    }
+  }
+
+  private byte[] index(int index) {
+    return UInt64.valueOf(index).toBytes8LittleEndian().extractArray();
+  }
+
+  @Test
+  public void chainStartIsRestored() {
+    Database database = Database.inMemoryDB();
+    DepositTreeStorage storage = new DepositTreeStorage(database);
+
+    TestDepositContract contract = new TestDepositContract(storage);
+    Mono<ChainStart> chainStart = Mono.from(contract.getChainStartMono()).cache();
+    chainStart.subscribe();
+    contract.addDeposits(0, DEPOSIT_COUNT, 1);
+    ChainStart expected = chainStart.block(Duration.ofSeconds(10));
+    assertEquals(GENESIS_VALIDATOR_COUNT, expected.getInitialDeposits().size());
+    assertEquals(Optional.of(1L), storage.getBlockNumber());
+
+    TestDepositContract restored = new TestDepositContract(new DepositTreeStorage(database));
+    assertEquals(Optional.of(1L), restored.getRestoredBlockNumber());
+    ChainStart actual = Mono.from(restored.getChainStartMono()).block(Duration.ofSeconds(10));
+    assertEquals(expected.getTime(), actual.getTime());
+    assertEquals(expected.getEth1Data(), actual.getEth1Data());
+    assertEquals(expected.getInitialDeposits(), actual.getInitialDeposits());
+
+    // genesis deposits are not collected again, the tree doesn't keep them anymore
+    contract.addDeposits(DEPOSIT_COUNT, DEPOSIT_COUNT + 10, 2);
+    restored.addDeposits(DEPOSIT_COUNT, DEPOSIT_COUNT + 10, 2);
+    assertEquals(Optional.of(2L), storage.getBlockNumber());
+    assertEquals(
+        contract.getDepositRoot(index(DEPOSIT_COUNT + 9)),
+        restored.getDepositRoot(index(DEPOSIT_COUNT + 9)));
+  }
+
+  @Test
+  public void snapshotWithoutChainStartIsIgnored() {
+    Database database = Database.inMemoryDB();
+    DepositTreeStorage storage = new DepositTreeStorage(database);
+    storage.save(new DepositIncrementalMerkle(Hashes::sha256, 32, 1000).getSnapshot(), 1);
+
+    TestDepositContract contract = new TestDepositContract(storage);
+    assertFalse(contract.getRestoredBlockNumber().isPresent());
+    assertTrue(storage.getSnapshot().isPresent());
+  }
+}
@@ -2,6 +2,7 @@ package org.ethereum.beacon.pow;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
@@ -18,6 +19,7 @@ import org.ethereum.beacon.core.types.BLSPubkey;
 import org.ethereum.beacon.core.types.BLSSignature;
 import org.ethereum.beacon.core.types.Gwei;
 import org.ethereum.beacon.crypto.Hashes;
+import org.ethereum.beacon.db.Database;
 import org.junit.Test;
 import tech.pegasys.artemis.ethereum.core.Hash32;
 import tech.pegasys.artemis.util.bytes.Bytes48;
@@ -149,6 +151,60 @@ public class DepositDataMerkleTest {
     }
   }
 
+  @Test
+  public void incrementalTreeMatchesSimpleTree() {
+    int windowSize = 4;
+    MerkleTree<DepositData> simple = new DepositSimpleMerkle(Hashes::sha256, 32);
+    MerkleTree<DepositData> incremental =
+        new DepositIncrementalMerkle(Hashes::sha256, 32, windowSize);
+    for (int count = 1; count < 40; count++) {
+      simple.addValue(createDepositData(count));
+      incremental.addValue(createDepositData(count));
+      assertEquals(simple.getLastIndex(), incremental.getLastIndex());
+      assertIdenticalWithinWindow(simple, incremental, count, windowSize);
+    }
+  }
+
+  @Test
+  public void incrementalTreeIsRestoredFromSnapshot() {
+    int windowSize = 5;
+    MerkleTree<DepositData> simple = new DepositSimpleMerkle(Hashes::sha256, 32);
+    DepositIncrementalMerkle incremental =
+        new DepositIncrementalMerkle(Hashes::sha256, 32, windowSize);
+    for (int count = 1; count <= 23; count++) {
+      simple.addValue(createDepositData(count));
+      incremental.addValue(createDepositData(count));
+    }
+
+    DepositTreeStorage storage = new DepositTreeStorage(Database.inMemoryDB());
+    assertFalse(storage.getSnapshot().isPresent());
+    storage.save(incremental.getSnapshot(), 100);
+    DepositTreeSnapshot snapshot = storage.getSnapshot().get();
+    assertEquals(incremental.getSnapshot(), snapshot);
+    assertEquals(Long.valueOf(100), storage.getBlockNumber().get());
+    assertEquals(23, snapshot.getDepositCount());
+
+    MerkleTree<DepositData> restored =
+        DepositIncrementalMerkle.restore(Hashes::sha256, 32, windowSize, snapshot);
+    assertEquals(simple.getLastIndex(), restored.getLastIndex());
+    assertIdenticalWithinWindow(simple, restored, 23, windowSize);
+    for (int count = 24; count < 40; count++) {
+      simple.addValue(createDepositData(count));
+      restored.addValue(createDepositData(count));
+      assertIdenticalWithinWindow(simple, restored, count, windowSize);
+    }
+  }
+
+  private void assertIdenticalWithinWindow(
+      MerkleTree<DepositData> expected, MerkleTree<DepositData> actual, int count, int window) {
+    for (int index = Math.max(0, count - window); index < count; index++) {
+      assertEquals(expected.getRoot(index), actual.getRoot(index));
+      for (int size = index + 1; size <= count; size++) {
+        assertEquals(expected.getProof(index, size), actual.getProof(index, size));
+      }
+    }
+  }
+
   private DepositData createDepositData(int num) {
     return new DepositData(
         BLSPubkey.wrap(
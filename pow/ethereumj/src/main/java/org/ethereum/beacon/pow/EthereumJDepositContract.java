@@ -33,6 +33,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 
 public class EthereumJDepositContract extends AbstractDepositContract {
   private static final Logger logger = LoggerFactory.getLogger(EthereumJDepositContract.class);
@@ -59,7 +60,27 @@ public class EthereumJDepositContract extends AbstractDepositContract {
       Function<BytesValue, Hash32> hashFunction,
       int merkleTreeDepth,
       BeaconChainSpec spec) {
-    super(schedulers, hashFunction, merkleTreeDepth, spec);
+    this(
+        ethereum,
+        contractDeployBlock,
+        contractDeployAddress,
+        schedulers,
+        hashFunction,
+        merkleTreeDepth,
+        spec,
+        null);
+  }
+
+  public EthereumJDepositContract(
+      Ethereum ethereum,
+      long contractDeployBlock,
+      String contractDeployAddress,
+      Schedulers schedulers,
+      Function<BytesValue, Hash32> hashFunction,
+      int merkleTreeDepth,
+      BeaconChainSpec spec,
+      @Nullable DepositTreeStorage treeStorage) {
+    super(schedulers, hashFunction, merkleTreeDepth, spec, treeStorage);
     this.ethereum = ethereum;
     this.contractDeployAddress = Address.fromHexString(contractDeployAddress);
     contractDeployAddressHash =
@@ -67,7 +88,7 @@ public class EthereumJDepositContract extends AbstractDepositContract {
     this.contractAddressBloom = Bloom.create(contractDeployAddressHash.extractArray());
     this.contract = new Contract(ContractAbi.getContractAbi());
     this.contractDeployBlock = contractDeployBlock;
-    processedUpToBlock = contractDeployBlock;
+    processedUpToBlock = getRestoredBlockNumber().map(n -> n + 1).orElse(contractDeployBlock);
     blockExecutor = new LatestExecutor<>(this.schedulers.blocking(), this::processBlocksUpTo);
   }
 
@@ -139,6 +160,7 @@ public class EthereumJDepositContract extends AbstractDepositContract {
     }
     if (!depositEventDataList.isEmpty()) {
       newDeposits(depositEventDataList, block.getHash(), block.getTimestamp());
+      saveTreeSnapshot(block.getNumber());
     }
   }
 
@@ -0,0 +1,175 @@
+package org.ethereum.beacon.ssz;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.ethereum.beacon.crypto.Hashes;
+import org.ethereum.beacon.ssz.access.list.ReadListAccessor;
+import org.ethereum.beacon.ssz.annotation.SSZ;
+import org.ethereum.beacon.ssz.annotation.SSZSerializable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import tech.pegasys.artemis.util.bytes.Bytes32;
+import tech.pegasys.artemis.util.bytes.Bytes48;
+import tech.pegasys.artemis.util.collections.WriteList;
+
+/**
+ * Measures full (non-incremental) hash tree root of a registry-like container with a number of
+ * validator-like records and their balances, sequentially and with 2, 4 and 8 hashing threads.
+ *
+ * <p>Run with {@code ./gradlew :ssz:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParallelHashingBenchmark {
+
+  @SSZSerializable
+  public static class Record {
+    @SSZ private final Bytes48 pubkey;
+    @SSZ private final Bytes32 withdrawalCredentials;
+    @SSZ private final long effectiveBalance;
+    @SSZ private final boolean slashed;
+    @SSZ private final long activationEligibilityEpoch;
+    @SSZ private final long activationEpoch;
+    @SSZ private final long exitEpoch;
+    @SSZ private final long withdrawableEpoch;
+
+    public Record(
+        Bytes48 pubkey,
+        Bytes32 withdrawalCredentials,
+        long effectiveBalance,
+        boolean slashed,
+        long activationEligibilityEpoch,
+        long activationEpoch,
+        long exitEpoch,
+        long withdrawableEpoch) {
+      this.pubkey = pubkey;
+      this.withdrawalCredentials = withdrawalCredentials;
+      this.effectiveBalance = effectiveBalance;
+      this.slashed = slashed;
+      this.activationEligibilityEpoch = activationEligibilityEpoch;
+      this.activationEpoch = activationEpoch;
+      this.exitEpoch = exitEpoch;
+      this.withdrawableEpoch = withdrawableEpoch;
+    }
+
+    public Bytes48 getPubkey() {
+      return pubkey;
+    }
+
+    public Bytes32 getWithdrawalCredentials() {
+      return withdrawalCredentials;
+    }
+
+    public long getEffectiveBalance() {
+      return effectiveBalance;
+    }
+
+    public boolean isSlashed() {
+      return slashed;
+    }
+
+    public long getActivationEligibilityEpoch() {
+      return activationEligibilityEpoch;
+    }
+
+    public long getActivationEpoch() {
+      return activationEpoch;
+    }
+
+    public long getExitEpoch() {
+      return exitEpoch;
+    }
+
+    public long getWithdrawableEpoch() {
+      return withdrawableEpoch;
+    }
+  }
+
+  @SSZSerializable
+  public static class Registry {
+    @SSZ(maxSize = 1L << 40)
+    private final WriteList<Integer, Record> validators;
+
+    @SSZ(maxSize = 1L << 40)
+    private final WriteList<Integer, Long> balances;
+
+    public Registry(WriteList<Integer, Record> validators, WriteList<Integer, Long> balances) {
+      this.validators = validators;
+      this.balances = balances;
+    }
+
+    public WriteList<Integer, Record> getValidators() {
+      return validators;
+    }
+
+    public WriteList<Integer, Long> getBalances() {
+      return balances;
+    }
+  }
+
+  @Param({"16384", "65536", "262144"})
+  private int validatorCount;
+
+  @Param({"1", "2", "4", "8"})
+  private int threads;
+
+  @Param({"1024"})
+  private int threshold;
+
+  private ForkJoinPool pool;
+  private SSZHasher hasher;
+  private Registry registry;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    SSZBuilder builder =
+        new SSZBuilder().addDefaultListAccessors().addListAccessors(new ReadListAccessor());
+    builder.withIncrementalHasher(false);
+    if (threads > 1) {
+      pool = new ForkJoinPool(threads);
+      builder.withParallelHashing(pool, threshold);
+    }
+    hasher = builder.buildHasher(Hashes::sha256);
+
+    WriteList<Integer, Record> validators = WriteList.create(Integer::valueOf);
+    WriteList<Integer, Long> balances = WriteList.create(Integer::valueOf);
+    for (int i = 0; i < validatorCount; i++) {
+      byte[] pubkey = new byte[Bytes48.SIZE];
+      pubkey[0] = (byte) i;
+      pubkey[1] = (byte) (i >> 8);
+      pubkey[2] = (byte) (i >> 16);
+      validators.add(
+          new Record(
+              Bytes48.wrap(pubkey), Bytes32.ZERO, 32_000_000_000L, false, 0, 0, -1L, -1L));
+      balances.add(32_000_000_000L + i);
+    }
+    registry = new Registry(validators, balances);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    if (pool != null) {
+      pool.shutdown();
+    }
+  }
+
+  @Benchmark
+  public byte[] hashTreeRoot() {
+    return hasher.hash(registry, Registry.class);
+  }
+}
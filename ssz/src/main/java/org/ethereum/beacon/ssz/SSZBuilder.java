@@ -46,6 +46,7 @@ import tech.pegasys.artemis.util.bytes.BytesValue;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -105,6 +106,10 @@ public class SSZBuilder {
 
   private int sszHashBytesPerChunk = SSZ_HASH_BYTES_PER_CHUNK;
   private boolean incrementalHasher = true;
+  private boolean compiledAccessors = true;
+  private boolean presizedSerializer = true;
+  private ForkJoinPool hashingPool = null;
+  private int parallelHashingThreshold = Integer.MAX_VALUE;
 
   private boolean inited = false;
 
@@ -208,12 +213,54 @@ public class SSZBuilder {
     return this;
   }
 
+  /**
+   * Default container accessor reads container fields with getters compiled once per container
+   * class, set to <code>false</code> to read them with plain reflection instead.
+   *
+   * @param compiledAccessors whether compiled getters are used, <code>true</code> by default.
+   * @return semi-built {@link SSZBuilder}
+   */
+  public SSZBuilder withCompiledAccessors(boolean compiledAccessors) {
+    checkAlreadyInitialized();
+    this.compiledAccessors = compiledAccessors;
+    return this;
+  }
+
+  /**
+   * Serializer built by {@link #buildSerializer()} computes serialization size first and then
+   * writes it into a single array in one pass. Set to <code>false</code> to concatenate
+   * serializations of children instead.
+   *
+   * @param presizedSerializer whether serialization is pre-sized, <code>true</code> by default.
+   * @return semi-built {@link SSZBuilder}
+   */
+  public SSZBuilder withPresizedSerializer(boolean presizedSerializer) {
+    checkAlreadyInitialized();
+    this.presizedSerializer = presizedSerializer;
+    return this;
+  }
+
   public SSZBuilder withIncrementalHasher(boolean incrementalHasher) {
     checkAlreadyInitialized();
     this.incrementalHasher = incrementalHasher;
     return this;
   }
 
+  /**
+   * Hasher built by {@link #buildHasher(Function)} will compute child roots and Merkle trie levels
+   * of large lists and vectors in parallel.
+   *
+   * @param pool a pool running hashing tasks.
+   * @param threshold minimal number of children or chunks to hash in parallel.
+   * @return semi-built {@link SSZBuilder}
+   */
+  public SSZBuilder withParallelHashing(ForkJoinPool pool, int threshold) {
+    checkAlreadyInitialized();
+    this.hashingPool = pool;
+    this.parallelHashingThreshold = threshold;
+    return this;
+  }
+
   public SSZBuilder withSszHashBytesPerChunk(int sszHashBytesPerChunk) {
     checkAlreadyInitialized();
     this.sszHashBytesPerChunk = sszHashBytesPerChunk;
@@ -267,7 +314,7 @@ public class SSZBuilder {
 
   public SSZBuilder addDefaultContainerAccessors() {
     checkAlreadyInitialized();
-    containerAccessors.add(() -> new SimpleContainerAccessor(sszSchemeBuilder, objCreator));
+    containerAccessors.add(() -> new SimpleContainerAccessor(sszSchemeBuilder, objCreator, compiledAccessors));
     return this;
   }
 
@@ -285,16 +332,28 @@ public class SSZBuilder {
    */
   public SSZSerializer buildSerializer() {
     buildCommon();
-    return new SSZSerializer(visitorHost, typeResolver);
+    return new SSZSerializer(visitorHost, typeResolver, presizedSerializer);
   }
 
   public SSZHasher buildHasher(Function<BytesValue, Hash32> hashFunction) {
     buildCommon();
     SSZVisitor<MerkleTrie, Object> hasherVisitor;
     if (incrementalHasher) {
-      hasherVisitor = new SSZIncrementalHasher(buildSerializer(), hashFunction, sszHashBytesPerChunk);
+      hasherVisitor =
+          new SSZIncrementalHasher(
+              buildSerializer(),
+              hashFunction,
+              sszHashBytesPerChunk,
+              hashingPool,
+              parallelHashingThreshold);
     } else {
-      hasherVisitor = new SSZSimpleHasher(buildSerializer(), hashFunction, sszHashBytesPerChunk);
+      hasherVisitor =
+          new SSZSimpleHasher(
+              buildSerializer(),
+              hashFunction,
+              sszHashBytesPerChunk,
+              hashingPool,
+              parallelHashingThreshold);
     }
     return new SSZHasher(typeResolver, visitorHost, hasherVisitor);
   }
@@ -0,0 +1,129 @@
+package org.ethereum.beacon.ssz;
+
+import java.nio.ByteOrder;
+import java.util.List;
+import net.consensys.cava.bytes.Bytes;
+import org.ethereum.beacon.ssz.access.SSZField;
+import org.ethereum.beacon.ssz.type.SSZContainerType;
+import org.ethereum.beacon.ssz.type.SSZType;
+import org.ethereum.beacon.ssz.visitor.SSZVisitorHost;
+import org.ethereum.beacon.ssz.visitor.SosDeserializer;
+import tech.pegasys.artemis.util.bytes.BytesValue;
+
+/**
+ * A view over SSZ serialization of a container which decodes its fields on demand.
+ *
+ * <p>Boundaries of all fields are computed upfront from the fixed part of serialization, so a
+ * field is decoded without touching the rest of data. Decoded values are not cached by the view.
+ *
+ * @see SSZSerializer#decodeView(BytesValue, Class)
+ */
+public class SSZContainerView {
+  private static final int BYTES_PER_LENGTH_OFFSET = 4;
+
+  private final SSZVisitorHost sszVisitorHost;
+  private final SSZContainerType type;
+  private final BytesValue data;
+  private final Bytes bytes;
+  private final int[] starts;
+  private final int[] ends;
+
+  SSZContainerView(SSZVisitorHost sszVisitorHost, SSZContainerType type, BytesValue data) {
+    this.sszVisitorHost = sszVisitorHost;
+    this.type = type;
+    this.data = data;
+    this.bytes = Bytes.wrap(data.getArrayUnsafe());
+
+    List<SSZType> childTypes = type.getChildTypes();
+    starts = new int[childTypes.size()];
+    ends = new int[childTypes.size()];
+    int pos = 0;
+    int lastVariable = -1;
+    for (int i = 0; i < childTypes.size(); i++) {
+      SSZType childType = childTypes.get(i);
+      if (childType.isFixedSize()) {
+        starts[i] = pos;
+        ends[i] = pos + childType.getSize();
+        pos += childType.getSize();
+      } else {
+        checkBounds(pos + BYTES_PER_LENGTH_OFFSET);
+        starts[i] = bytes.slice(pos, BYTES_PER_LENGTH_OFFSET).toInt(ByteOrder.LITTLE_ENDIAN);
+        if (lastVariable >= 0) {
+          ends[lastVariable] = starts[i];
+        }
+        lastVariable = i;
+        pos += BYTES_PER_LENGTH_OFFSET;
+      }
+    }
+    if (lastVariable >= 0) {
+      ends[lastVariable] = bytes.size();
+    }
+    checkBounds(pos);
+
+    // variable part starts right after the fixed one and offsets go in ascending order
+    int expectedStart = pos;
+    boolean first = true;
+    for (int i = 0; i < starts.length; i++) {
+      if (childTypes.get(i).isVariableSize()) {
+        if ((first ? starts[i] != expectedStart : starts[i] < expectedStart)
+            || starts[i] > ends[i]) {
+          throw new SSZSerializeException(
+              String.format("Malformed offset %d of field #%d in %s", starts[i], i, type));
+        }
+        expectedStart = starts[i];
+        first = false;
+      }
+    }
+  }
+
+  private void checkBounds(int size) {
+    if (size > bytes.size()) {
+      throw new SSZSerializeException(
+          String.format(
+              "Serialization of %s is too short: %d bytes while at least %d expected",
+              type, bytes.size(), size));
+    }
+  }
+
+  /** @return original serialization. */
+  public BytesValue getData() {
+    return data;
+  }
+
+  public int getFieldCount() {
+    return starts.length;
+  }
+
+  public SSZField getField(int idx) {
+    return type.getChildTypes().get(idx).getTypeDescriptor();
+  }
+
+  /** @return index of a field with given name or <code>-1</code> if there is no such field. */
+  public int getFieldIndex(String name) {
+    List<SSZType> childTypes = type.getChildTypes();
+    for (int i = 0; i < childTypes.size(); i++) {
+      if (name.equals(childTypes.get(i).getTypeDescriptor().getName())) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /** @return serialization of a field. */
+  public BytesValue getFieldData(int idx) {
+    return data.slice(starts[idx], ends[idx] - starts[idx]);
+  }
+
+  /**
+   * Decodes a field, each call decodes it anew.
+   *
+   * @param idx field index.
+   * @return decoded field value.
+   */
+  public Object decodeField(int idx) {
+    return sszVisitorHost.handleAny(
+        type.getChildTypes().get(idx),
+        bytes.slice(starts[idx], ends[idx] - starts[idx]),
+        new SosDeserializer());
+  }
+}
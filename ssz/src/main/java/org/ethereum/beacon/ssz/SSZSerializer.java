@@ -1,10 +1,13 @@
 package org.ethereum.beacon.ssz;
 
+import java.nio.ByteBuffer;
 import javax.annotation.Nullable;
 import net.consensys.cava.bytes.Bytes;
 import org.ethereum.beacon.ssz.access.SSZField;
+import org.ethereum.beacon.ssz.annotation.SSZSerializable;
 import org.ethereum.beacon.ssz.creator.CompositeObjCreator;
 import org.ethereum.beacon.ssz.type.list.SSZListType;
+import org.ethereum.beacon.ssz.type.SSZContainerType;
 import org.ethereum.beacon.ssz.type.SSZType;
 import org.ethereum.beacon.ssz.type.TypeResolver;
 import org.ethereum.beacon.ssz.visitor.SSZVisitorHandler;
@@ -12,17 +15,34 @@ import org.ethereum.beacon.ssz.visitor.SSZVisitorHost;
 import org.ethereum.beacon.ssz.visitor.SosDeserializer;
 import org.ethereum.beacon.ssz.visitor.SosSerializer;
 import org.ethereum.beacon.ssz.visitor.SosSerializer.SerializerResult;
+import org.ethereum.beacon.ssz.visitor.SosSizer;
+import org.ethereum.beacon.ssz.visitor.SosWriter;
+import tech.pegasys.artemis.util.bytes.BytesValue;
 
 /** SSZ serializer/deserializer */
 public class SSZSerializer implements BytesSerializer, SSZVisitorHandler<SerializerResult> {
 
   private final SSZVisitorHost sszVisitorHost;
   private final TypeResolver typeResolver;
+  private final boolean presized;
 
   public SSZSerializer(SSZVisitorHost sszVisitorHost,
       TypeResolver typeResolver) {
+    this(sszVisitorHost, typeResolver, true);
+  }
+
+  /**
+   * @param sszVisitorHost visitor host
+   * @param typeResolver type resolver
+   * @param presized if <code>true</code> {@link #encode(Object, Class)} computes serialization
+   *     size first and then writes serialization into a single array with {@link SosWriter},
+   *     otherwise {@link SosSerializer} is used which concatenates serializations of children.
+   */
+  public SSZSerializer(SSZVisitorHost sszVisitorHost,
+      TypeResolver typeResolver, boolean presized) {
     this.sszVisitorHost = sszVisitorHost;
     this.typeResolver = typeResolver;
+    this.presized = presized;
   }
 
   /**
@@ -34,7 +54,89 @@ public class SSZSerializer implements BytesSerializer, SSZVisitorHandler<Seriali
    */
   @Override
   public <C> byte[] encode(@Nullable C inputObject, Class<? extends C> inputClazz) {
-    return visit(inputObject, inputClazz).getSerializedBody().getArrayUnsafe();
+    if (!presized) {
+      return visit(inputObject, inputClazz).getSerializedBody().getArrayUnsafe();
+    }
+    SSZType type = typeResolver.resolveSSZType(new SSZField(inputClazz));
+    byte[] result = new byte[getEncodedSize(type, inputObject)];
+    write(type, inputObject, ByteBuffer.wrap(result), result.length);
+    return result;
+  }
+
+  /**
+   * Computes size of input serialization without serializing it.
+   *
+   * @param inputObject input value
+   * @param inputClazz Class of value
+   * @return size of SSZ serialization in bytes
+   */
+  public <C> int getEncodedSize(@Nullable C inputObject, Class<? extends C> inputClazz) {
+    return getEncodedSize(typeResolver.resolveSSZType(new SSZField(inputClazz)), inputObject);
+  }
+
+  /**
+   * Serializes input into a buffer starting at its current position, which is advanced by the
+   * number of bytes written. Buffer could be either heap or direct one, e.g. taken from a pool.
+   *
+   * @param inputObject input value
+   * @param inputClazz Class of value
+   * @param target buffer with enough space remaining, see {@link #getEncodedSize(Object, Class)}
+   * @return number of bytes written
+   * @throws SSZSerializeException if buffer doesn't have enough space remaining
+   */
+  public <C> int encode(
+      @Nullable C inputObject, Class<? extends C> inputClazz, ByteBuffer target) {
+    SSZType type = typeResolver.resolveSSZType(new SSZField(inputClazz));
+    return encode(type, inputObject, inputClazz, target, getEncodedSize(type, inputObject));
+  }
+
+  /**
+   * Same as {@link #encode(Object, Class, ByteBuffer)} but takes the size computed by the caller
+   * with {@link #getEncodedSize(Object, Class)}, so, it's not computed twice.
+   *
+   * @param inputObject input value
+   * @param inputClazz Class of value
+   * @param target buffer with enough space remaining
+   * @param encodedSize size of input serialization
+   * @return number of bytes written
+   * @throws SSZSerializeException if buffer doesn't have enough space remaining or if the size
+   *     doesn't match serialization
+   */
+  public <C> int encode(
+      @Nullable C inputObject, Class<? extends C> inputClazz, ByteBuffer target, int encodedSize) {
+    SSZType type = typeResolver.resolveSSZType(new SSZField(inputClazz));
+    return encode(type, inputObject, inputClazz, target, encodedSize);
+  }
+
+  private int encode(
+      SSZType type, Object inputObject, Class<?> inputClazz, ByteBuffer target, int size) {
+    if (target.remaining() < size) {
+      throw new SSZSerializeException(
+          String.format(
+              "Buffer has %d bytes remaining while %d bytes required to serialize %s",
+              target.remaining(), size, inputClazz.getName()));
+    }
+    write(type, inputObject, target, size);
+    return size;
+  }
+
+  private int getEncodedSize(SSZType type, Object value) {
+    long size = sszVisitorHost.handleAny(type, value, new SosSizer());
+    if (size > Integer.MAX_VALUE) {
+      throw new SSZSerializeException(
+          String.format("Serialization is too large: %d bytes, type %s", size, type));
+    }
+    return (int) size;
+  }
+
+  private void write(SSZType type, Object value, ByteBuffer target, int expectedSize) {
+    int written = sszVisitorHost.handleAny(type, value, new SosWriter(target));
+    if (written != expectedSize) {
+      throw new SSZSerializeException(
+          String.format(
+              "Serialization size %d differs from computed one %d, type %s",
+              written, expectedSize, type));
+    }
   }
 
   private <C> SerializerResult visit(C input, Class<? extends C> clazz) {
@@ -65,4 +167,26 @@ public class SSZSerializer implements BytesSerializer, SSZVisitorHandler<Seriali
         new SosDeserializer());
     return (C) decodeResult;
   }
+
+  /**
+   * Creates a view over serialization of a container which decodes container fields on demand
+   * rather than all at once.
+   *
+   * @param data SSZ serialization of a container
+   * @param clazz container class
+   * @return view over serialization
+   * @throws SSZSchemeException if class is not a container or is a skipped container
+   * @throws SSZSerializeException if serialization is malformed
+   */
+  public SSZContainerView decodeView(BytesValue data, Class<?> clazz) {
+    SSZType type = typeResolver.resolveSSZType(new SSZField(clazz));
+    if (type.getType() != SSZType.Type.CONTAINER) {
+      throw new SSZSchemeException("Only container could be decoded to a view: " + type);
+    }
+    SSZSerializable annotation = clazz.getAnnotation(SSZSerializable.class);
+    if (annotation != null && annotation.skipContainer()) {
+      throw new SSZSchemeException("Skipped container couldn't be decoded to a view: " + type);
+    }
+    return new SSZContainerView(sszVisitorHost, (SSZContainerType) type, data);
+  }
 }
@@ -3,6 +3,8 @@ package org.ethereum.beacon.ssz.access;
 import org.ethereum.beacon.ssz.visitor.SSZReader;
 import org.ethereum.beacon.ssz.SSZSchemeException;
 import org.ethereum.beacon.ssz.SSZSerializer;
+import tech.pegasys.artemis.util.bytes.BytesValue;
+import java.io.ByteArrayOutputStream;
 import java.io.OutputStream;
 import java.util.List;
 import java.util.Set;
@@ -43,6 +45,22 @@ public interface SSZBasicAccessor {
    */
   void encode(Object value, SSZField field, OutputStream result);
 
+  /**
+   * Encodes field as SSZ type and returns encoded bytes.
+   *
+   * <p>Default implementation goes through {@link #encode(Object, SSZField, OutputStream)},
+   * codecs are encouraged to override it and write value directly to avoid intermediate stream.
+   *
+   * @param value Field value
+   * @param field Field type
+   * @return encoded value
+   */
+  default BytesValue encode(Object value, SSZField field) {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    encode(value, field, baos);
+    return BytesValue.wrap(baos.toByteArray());
+  }
+
   /**
    * Decodes SSZ encoded data and returns result
    *
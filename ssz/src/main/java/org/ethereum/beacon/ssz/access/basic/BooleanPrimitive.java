@@ -10,10 +10,14 @@ import java.util.HashSet;
 import java.util.Set;
 import org.ethereum.beacon.ssz.access.SSZField;
 import org.ethereum.beacon.ssz.access.SSZBasicAccessor;
+import tech.pegasys.artemis.util.bytes.BytesValue;
 
 /** {@link SSZBasicAccessor} for {@link Boolean} and {@link boolean} */
 public class BooleanPrimitive implements SSZBasicAccessor {
 
+  private static final BytesValue TRUE = BytesValue.of(1);
+  private static final BytesValue FALSE = BytesValue.of(0);
+
   private static Set<String> supportedTypes = new HashSet<>();
   private static Set<Class> supportedClassTypes = new HashSet<>();
 
@@ -55,6 +59,11 @@ public class BooleanPrimitive implements SSZBasicAccessor {
     }
   }
 
+  @Override
+  public BytesValue encode(Object value, SSZField field) {
+    return (boolean) value ? TRUE : FALSE;
+  }
+
   @Override
   public Object decode(SSZField field, SSZReader reader) {
     return reader.readBoolean();
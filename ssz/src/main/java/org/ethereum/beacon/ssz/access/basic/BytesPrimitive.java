@@ -5,6 +5,7 @@ import org.ethereum.beacon.ssz.visitor.SSZReader;
 import org.ethereum.beacon.ssz.visitor.SSZWriter;
 import net.consensys.cava.ssz.SSZException;
 import org.ethereum.beacon.ssz.access.SSZBasicAccessor;
+import tech.pegasys.artemis.util.bytes.BytesValue;
 import org.ethereum.beacon.ssz.access.SSZField;
 
 import java.io.IOException;
@@ -80,6 +81,16 @@ public class BytesPrimitive implements SSZBasicAccessor {
     }
   }
 
+  @Override
+  public BytesValue encode(Object value, SSZField field) {
+    BytesType byteType = parseFieldType(field);
+    byte[] data = (byte[]) value;
+    if (byteType.size != null) {
+      SSZWriter.encodeBytes(Bytes.wrap(data), byteType.size);
+    }
+    return BytesValue.wrap(data);
+  }
+
   @Override
   public Object decode(SSZField field, SSZReader reader) {
     BytesType bytesType = parseFieldType(field);
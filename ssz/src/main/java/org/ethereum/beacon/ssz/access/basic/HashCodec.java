@@ -70,6 +70,13 @@ public class HashCodec implements SSZBasicAccessor {
     }
   }
 
+  @Override
+  public BytesValue encode(Object value, SSZField field) {
+    BytesValue data = (BytesValue) value;
+    SSZWriter.encodeBytes(Bytes.wrap(data.getArrayUnsafe()), getSize(field));
+    return data;
+  }
+
   @Override
   public Object decode(SSZField field, SSZReader reader) {
     HashType hashType = parseFieldType(field);
@@ -8,6 +8,7 @@ import org.ethereum.beacon.ssz.access.SSZBasicAccessor;
 import org.ethereum.beacon.ssz.creator.ConstructorObjCreator;
 import org.ethereum.beacon.ssz.access.SSZField;
 import org.ethereum.beacon.ssz.annotation.SSZSerializable;
+import tech.pegasys.artemis.util.bytes.BytesValue;
 
 /**
  * The SSZBasicAccessor which implements logic of {@link SSZSerializable#serializeAs()} attribute
@@ -44,6 +45,11 @@ public class SubclassCodec implements SSZBasicAccessor {
     superclassCodec.encode(value, getSerializableField(field), result);
   }
 
+  @Override
+  public BytesValue encode(Object value, SSZField field) {
+    return superclassCodec.encode(value, getSerializableField(field));
+  }
+
   @Override
   public Object decode(SSZField field, SSZReader reader) {
     SSZField serializableField = getSerializableField(field);
@@ -140,6 +140,28 @@ public class UIntCodec implements SSZBasicAccessor {
     }
   }
 
+  @Override
+  public BytesValue encode(Object value, SSZField field) {
+    NumericType numericType = parseFieldType(field);
+
+    switch (numericType.size) {
+      case 8:
+        return SSZWriter.encodeULongValue(((UInt8) value).getValue(), numericType.size);
+      case 16:
+        return SSZWriter.encodeULongValue(((UInt16) value).getValue(), numericType.size);
+      case 24:
+        return SSZWriter.encodeULongValue(((UInt24) value).getValue(), numericType.size);
+      case 32:
+        return SSZWriter.encodeULongValue(((UInt32) value).getValue(), numericType.size);
+      case 64:
+        return SSZWriter.encodeULongValue(((UInt64) value).getValue(), numericType.size);
+      case 256:
+        return ((UInt256) value).bytes();
+      default:
+        throw new SSZException(String.format("Failed to write value \"%s\" to stream", value));
+    }
+  }
+
   @Override
   public Object decode(SSZField field, SSZReader reader) {
     NumericType numericType = parseFieldType(field);
@@ -7,6 +7,7 @@ import net.consensys.cava.ssz.SSZException;
 import org.ethereum.beacon.ssz.access.SSZBasicAccessor;
 import org.ethereum.beacon.ssz.access.SSZField;
 import org.ethereum.beacon.ssz.SSZSchemeException;
+import tech.pegasys.artemis.util.bytes.BytesValue;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.math.BigInteger;
@@ -134,6 +135,25 @@ public class UIntPrimitive implements SSZBasicAccessor {
     }
   }
 
+  @Override
+  public BytesValue encode(Object value, SSZField field) {
+    NumericType numericType = parseFieldType(field);
+
+    switch (numericType.type) {
+      case INT:
+        return SSZWriter.encodeULongValue(
+            ((Number) value).intValue() & numericType.mask, numericType.size);
+      case LONG:
+        return SSZWriter.encodeULongValue((long) value, numericType.size);
+      case BIGINT:
+        return BytesValue.wrap(
+            SSZWriter.encodeBigInteger((BigInteger) value, numericType.size).toArray());
+      default:
+        throwUnsupportedType(field);
+        return null;
+    }
+  }
+
   @Override
   public Object decode(SSZField field, SSZReader reader) {
     NumericType numericType = parseFieldType(field);
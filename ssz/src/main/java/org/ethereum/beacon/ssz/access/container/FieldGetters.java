@@ -0,0 +1,111 @@
+package org.ethereum.beacon.ssz.access.container;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import org.ethereum.beacon.ssz.SSZSchemeException;
+import org.ethereum.beacon.ssz.access.SSZField;
+
+/**
+ * Creates functions reading a value of container field either with a getter or directly from a
+ * public field.
+ *
+ * <p>Compiled getters are bound to a {@link Function} via {@link LambdaMetafactory} and are as cheap
+ * to call as a lambda. A getter which can't be bound this way, e.g. a getter of a class invisible
+ * to this class loader, and a public field are read via {@link MethodHandle}.
+ *
+ * <p>Reflective getters use {@link Method#invoke(Object, Object...)} and {@link Field#get(Object)}.
+ */
+final class FieldGetters {
+
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+  private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+  private FieldGetters() {}
+
+  static Function<Object, Object> compiled(
+      Class<?> containerClass, SSZField field, @Nullable Method getter) {
+    try {
+      MethodHandle handle;
+      if (getter != null) {
+        handle = LOOKUP.unreflect(getter);
+        if (isVisible(getter.getDeclaringClass()) && isVisible(getter.getReturnType())) {
+          return bind(handle);
+        }
+      } else {
+        handle = LOOKUP.unreflectGetter(containerClass.getField(field.getName()));
+      }
+      return invoker(handle.asType(GETTER_TYPE), field);
+    } catch (Throwable e) {
+      return reflective(containerClass, field, getter);
+    }
+  }
+
+  static Function<Object, Object> reflective(
+      Class<?> containerClass, SSZField field, @Nullable Method getter) {
+    return instance -> {
+      try {
+        if (getter != null) { // We have getter
+          return getter.invoke(instance);
+        } else { // Trying to access field directly
+          return containerClass.getField(field.getName()).get(instance);
+        }
+      } catch (Exception e) {
+        throw accessError(field, e);
+      }
+    };
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Function<Object, Object> bind(MethodHandle handle) throws Throwable {
+    CallSite site =
+        LambdaMetafactory.metafactory(
+            LOOKUP,
+            "apply",
+            MethodType.methodType(Function.class),
+            GETTER_TYPE,
+            handle,
+            handle.type().wrap());
+    return (Function<Object, Object>) site.getTarget().invoke();
+  }
+
+  private static Function<Object, Object> invoker(MethodHandle handle, SSZField field) {
+    return instance -> {
+      try {
+        return (Object) handle.invokeExact(instance);
+      } catch (Exception e) {
+        throw accessError(field, e);
+      } catch (Throwable e) {
+        // getters are not expected to throw checked exceptions
+        throw (Error) e;
+      }
+    };
+  }
+
+  /** Lambda class is defined by this class loader, it must be able to link given class. */
+  private static boolean isVisible(Class<?> clazz) {
+    if (clazz.isPrimitive()) {
+      return true;
+    }
+    try {
+      return Class.forName(clazz.getName(), false, FieldGetters.class.getClassLoader()) == clazz;
+    } catch (ClassNotFoundException e) {
+      return false;
+    }
+  }
+
+  static SSZSchemeException accessError(SSZField field, Exception cause) {
+    return new SSZSchemeException(
+        String.format(
+            "Failed to get value from field %s, "
+                + "you should either have public field or public getter for it",
+            field.getName()),
+        cause);
+  }
+}
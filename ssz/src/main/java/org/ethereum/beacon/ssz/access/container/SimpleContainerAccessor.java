@@ -10,6 +10,8 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import org.ethereum.beacon.ssz.SSZSchemeException;
 import org.ethereum.beacon.ssz.SSZSerializeException;
 import org.ethereum.beacon.ssz.access.SSZContainerAccessor;
@@ -25,23 +27,31 @@ public class SimpleContainerAccessor implements SSZContainerAccessor {
   protected class BasicInstanceAccessor implements ContainerInstanceAccessor {
     private final SSZField containerDescriptor;
     private final SSZScheme scheme;
-    private final Map<String, Method> getters;
+    private final List<Function<Object, Object>> getters;
 
     public BasicInstanceAccessor(SSZField containerDescriptor) {
       this.containerDescriptor = containerDescriptor;
       scheme = sszSchemeBuilder.build(containerDescriptor.getRawClass());
-      getters = new HashMap<>();
+      Map<String, Method> methods = new HashMap<>();
       try {
         for (PropertyDescriptor pd :
             Introspector.getBeanInfo(containerDescriptor.getRawClass()).getPropertyDescriptors()) {
           if (pd.getReadMethod() != null) {
-            getters.put(pd.getReadMethod().getName(), pd.getReadMethod());
+            methods.put(pd.getReadMethod().getName(), pd.getReadMethod());
           }
         }
       } catch (IntrospectionException e) {
         throw new RuntimeException(String.format("Couldn't enumerate all getters in class %s", containerDescriptor
             .getRawClass().getName()), e);
       }
+      getters = new ArrayList<>();
+      for (SSZField field : scheme.getFields()) {
+        Method getter = methods.get(field.getGetter());
+        getters.add(
+            compiledGetters
+                ? FieldGetters.compiled(containerDescriptor.getRawClass(), field, getter)
+                : FieldGetters.reflective(containerDescriptor.getRawClass(), field, getter));
+      }
     }
 
     @Override
@@ -55,18 +65,12 @@ public class SimpleContainerAccessor implements SSZContainerAccessor {
 
     @Override
     public Object getChildValue(Object containerInstance, int childIndex) {
-      SSZField field = getChildDescriptors().get(childIndex);
-      Method getter = getters.get(field.getGetter());
       try {
-        if (getter != null) { // We have getter
-          return getter.invoke(getContainerInstance(containerInstance));
-        } else { // Trying to access field directly
-          return containerDescriptor.getRawClass().getField(field.getName())
-              .get(getContainerInstance(containerInstance));
-        }
-      } catch (Exception e) {
-        throw new SSZSchemeException(String.format("Failed to get value from field %s, "
-            + "you should either have public field or public getter for it", field.getName()), e);
+        return getters.get(childIndex).apply(getContainerInstance(containerInstance));
+      } catch (SSZSchemeException e) {
+        throw e;
+      } catch (RuntimeException e) {
+        throw FieldGetters.accessError(getChildDescriptors().get(childIndex), e);
       }
     }
   }
@@ -102,11 +106,27 @@ public class SimpleContainerAccessor implements SSZContainerAccessor {
 
   private final SSZSchemeBuilder sszSchemeBuilder;
   private final ObjectCreator objectCreator;
+  private final boolean compiledGetters;
+  /** Instance accessors are reused as their creation is costly. */
+  private final Map<Class<?>, ContainerInstanceAccessor> instanceAccessors =
+      new ConcurrentHashMap<>();
 
   public SimpleContainerAccessor(SSZSchemeBuilder sszSchemeBuilder,
       ObjectCreator objectCreator) {
+    this(sszSchemeBuilder, objectCreator, true);
+  }
+
+  /**
+   * @param sszSchemeBuilder scheme builder
+   * @param objectCreator object creator
+   * @param compiledGetters whether container fields are read by compiled getters or via
+   *     reflection, see {@link FieldGetters}
+   */
+  public SimpleContainerAccessor(SSZSchemeBuilder sszSchemeBuilder,
+      ObjectCreator objectCreator, boolean compiledGetters) {
     this.sszSchemeBuilder = sszSchemeBuilder;
     this.objectCreator = objectCreator;
+    this.compiledGetters = compiledGetters;
   }
 
   @Override
@@ -122,7 +142,12 @@ public class SimpleContainerAccessor implements SSZContainerAccessor {
 
   @Override
   public ContainerInstanceAccessor getInstanceAccessor(SSZField containerDescriptor) {
-    return new BasicInstanceAccessor(containerDescriptor);
+    ContainerInstanceAccessor accessor = instanceAccessors.get(containerDescriptor.getRawClass());
+    if (accessor == null) {
+      accessor = new BasicInstanceAccessor(containerDescriptor);
+      instanceAccessors.put(containerDescriptor.getRawClass(), accessor);
+    }
+    return accessor;
   }
 
   @Override
@@ -22,13 +22,11 @@ public class ConstructorExtraObjCreator implements ObjectCreator {
   public <C> C createInstanceWithConstructor(
       Class<? extends C> clazz, Class[] params, Object[] values) {
     // Find constructor for params
-    Constructor<? extends C> constructor;
-    try {
-      Class[] merged = new Class[params.length + 1];
-      System.arraycopy(params, 0, merged, 0, params.length);
-      merged[params.length] = extraType;
-      constructor = clazz.getConstructor(merged);
-    } catch (NoSuchMethodException e) {
+    Class[] mergedParams = new Class[params.length + 1];
+    System.arraycopy(params, 0, mergedParams, 0, params.length);
+    mergedParams[params.length] = extraType;
+    Constructor<? extends C> constructor = Constructors.find(clazz, mergedParams);
+    if (constructor == null) {
       return null;
     }
 
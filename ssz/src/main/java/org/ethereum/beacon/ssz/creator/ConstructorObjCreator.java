@@ -12,10 +12,8 @@ public class ConstructorObjCreator implements ObjectCreator {
   public static <C> C createInstanceWithConstructor(
       Class<? extends C> clazz, Class[] params, Object[] values) {
     // Find constructor for params
-    Constructor<? extends C> constructor;
-    try {
-      constructor = clazz.getConstructor(params);
-    } catch (NoSuchMethodException e) {
+    Constructor<? extends C> constructor = Constructors.find(clazz, params);
+    if (constructor == null) {
       return null;
     }
 
@@ -0,0 +1,43 @@
+package org.ethereum.beacon.ssz.creator;
+
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+import org.javatuples.Pair;
+
+/**
+ * Caches public constructor lookups. Missing constructors are cached as well, as object creators
+ * are probed one by one on each instance creation and a failed lookup costs an exception.
+ */
+final class Constructors {
+
+  private static final Map<Pair<Class<?>, List<Class>>, Optional<Constructor<?>>> cache =
+      new ConcurrentHashMap<>();
+
+  private Constructors() {}
+
+  /**
+   * @param clazz class to look constructor up in.
+   * @param params constructor parameter types.
+   * @return public constructor or <code>null</code> if there is no such constructor.
+   */
+  @Nullable
+  @SuppressWarnings("unchecked")
+  static <C> Constructor<? extends C> find(Class<? extends C> clazz, Class[] params) {
+    Optional<Constructor<?>> constructor =
+        cache.computeIfAbsent(
+            Pair.with(clazz, Arrays.asList(params.clone())),
+            key -> {
+              try {
+                return Optional.of(clazz.getConstructor(params));
+              } catch (NoSuchMethodException e) {
+                return Optional.empty();
+              }
+            });
+    return (Constructor<? extends C>) constructor.orElse(null);
+  }
+}
@@ -1,30 +1,55 @@
 package org.ethereum.beacon.ssz.visitor;
 
 import java.util.Arrays;
+import java.util.List;
 import tech.pegasys.artemis.ethereum.core.Hash32;
 import tech.pegasys.artemis.util.bytes.Bytes32;
 import tech.pegasys.artemis.util.bytes.BytesValue;
+import tech.pegasys.artemis.util.collections.PersistentList;
 
+/**
+ * Merkle trie nodes laid out as a binary heap, the root is at index {@code 1} and the root mixed
+ * in with the length, if any, is at index {@code 0}.
+ *
+ * <p>A trie which is just built keeps nodes in a plain array. A trie which is kept for further
+ * updates is turned into a {@link PersistentList} with {@link #toPersistent()}, thus, copies of the
+ * trie share nodes and an update of a copy costs a path copy rather than a copy of all the nodes.
+ */
 public class MerkleTrie {
-  final BytesValue[] nodes;
+  final List<BytesValue> nodes;
 
   public MerkleTrie(BytesValue[] nodes) {
+    this(Arrays.asList(nodes));
+  }
+
+  public MerkleTrie(List<BytesValue> nodes) {
     this.nodes = nodes;
   }
 
   public Hash32 getPureRoot() {
-    return Hash32.wrap(Bytes32.leftPad(nodes[1]));
+    return Hash32.wrap(Bytes32.leftPad(nodes.get(1)));
   }
 
   public Hash32 getFinalRoot() {
-    return Hash32.wrap(Bytes32.leftPad(nodes[0]));
+    return Hash32.wrap(Bytes32.leftPad(nodes.get(0)));
   }
 
   public void setFinalRoot(Hash32 mixedInLengthHash) {
-    nodes[0] = mixedInLengthHash;
+    nodes.set(0, mixedInLengthHash);
+  }
+
+  /** @return this trie if it's backed by a {@link PersistentList} already, otherwise, a new one. */
+  public MerkleTrie toPersistent() {
+    return nodes instanceof PersistentList ? this : new MerkleTrie(persistentNodes());
   }
 
   public MerkleTrie copy() {
-    return new MerkleTrie(Arrays.copyOf(nodes, nodes.length));
+    return new MerkleTrie(persistentNodes().copy());
+  }
+
+  PersistentList<BytesValue> persistentNodes() {
+    return nodes instanceof PersistentList
+        ? (PersistentList<BytesValue>) nodes
+        : new PersistentList<>(nodes);
   }
 }
@@ -7,14 +7,17 @@ import static org.ethereum.beacon.ssz.type.SSZType.Type.LIST;
 import static org.ethereum.beacon.ssz.type.SSZType.Type.VECTOR;
 import static tech.pegasys.artemis.util.bytes.BytesValue.concat;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.IntFunction;
+import javax.annotation.Nullable;
 import org.ethereum.beacon.ssz.incremental.ObservableComposite;
 import org.ethereum.beacon.ssz.incremental.UpdateListener;
 import org.ethereum.beacon.ssz.type.SSZCompositeType;
@@ -58,6 +61,15 @@ public class SSZIncrementalHasher extends SSZSimpleHasher {
     super(serializer, hashFunction, bytesPerChunk);
   }
 
+  public SSZIncrementalHasher(
+      SSZVisitorHandler<SerializerResult> serializer,
+      Function<BytesValue, Hash32> hashFunction,
+      int bytesPerChunk,
+      @Nullable ForkJoinPool parallelPool,
+      int parallelThreshold) {
+    super(serializer, hashFunction, bytesPerChunk, parallelPool, parallelThreshold);
+  }
+
   @Override
   public MerkleTrie visitComposite(SSZCompositeType type, Object rawValue,
       ChildVisitor<Object, MerkleTrie> childVisitor) {
@@ -65,23 +77,51 @@ public class SSZIncrementalHasher extends SSZSimpleHasher {
       SSZIncrementalTracker tracker = (SSZIncrementalTracker)
           ((ObservableComposite) rawValue).getUpdateListener(
               INCREMENTAL_HASHER_OBSERVER_ID, SSZIncrementalTracker::new);
-      if (tracker.merkleTree == null) {
-        tracker.merkleTree = super.visitComposite(type, rawValue, childVisitor);
-      } else if (!tracker.elementsUpdated.isEmpty()){
-        if ((type.getType() == LIST || type.getType() == VECTOR)
-            && ((SSZListType) type).getElementType().getType() == BASIC) {
-          tracker.merkleTree =
-              updatePackedTrie((SSZListType) type, rawValue, tracker.merkleTree, tracker.elementsUpdated);
-        } else {
-          tracker.merkleTree =
-              updateNonPackedTrie(type, rawValue, childVisitor, tracker.merkleTree, tracker.elementsUpdated);
-        }
+      return updateTracker(tracker, type, rawValue, childVisitor);
+    } else {
+      return super.visitComposite(type, rawValue, childVisitor);
+    }
+  }
+
+  /**
+   * The same instance could be reached from several parallel tasks. Each of them computes the trie
+   * out of its own snapshot of the tracker, the tracker is locked only to take the snapshot and to
+   * store the result, never while child tasks are running.
+   */
+  private MerkleTrie updateTracker(
+      SSZIncrementalTracker tracker,
+      SSZCompositeType type,
+      Object rawValue,
+      ChildVisitor<Object, MerkleTrie> childVisitor) {
+    MerkleTrie oldTrie;
+    TreeSet<Integer> elementsUpdated;
+    synchronized (tracker) {
+      oldTrie = tracker.merkleTree;
+      if (oldTrie != null && tracker.elementsUpdated.isEmpty()) {
+        return oldTrie;
       }
-      tracker.elementsUpdated.clear();
+      elementsUpdated = new TreeSet<>(tracker.elementsUpdated);
+    }
 
-      return tracker.merkleTree;
+    MerkleTrie newTrie;
+    if (oldTrie == null) {
+      newTrie = super.visitComposite(type, rawValue, childVisitor);
+    } else if ((type.getType() == LIST || type.getType() == VECTOR)
+        && ((SSZListType) type).getElementType().getType() == BASIC) {
+      newTrie = updatePackedTrie((SSZListType) type, rawValue, oldTrie, elementsUpdated);
     } else {
-      return super.visitComposite(type, rawValue, childVisitor);
+      newTrie = updateNonPackedTrie(type, rawValue, childVisitor, oldTrie, elementsUpdated);
+    }
+
+    // copies of a tracker share the trie
+    newTrie = newTrie.toPersistent();
+    synchronized (tracker) {
+      // another task could have stored the same trie already
+      if (tracker.merkleTree == oldTrie) {
+        tracker.merkleTree = newTrie;
+        tracker.elementsUpdated.clear();
+      }
+      return tracker.merkleTree;
     }
   }
 
@@ -128,36 +168,29 @@ public class SSZIncrementalHasher extends SSZSimpleHasher {
       Collection<Integer> chunksUpdated) {
 
     MerkleTrie newTrie = copyWithSize(oldTrie, newChunksCount);
-    int newTrieWidth = newTrie.nodes.length / 2;
-
-    int pos = newTrieWidth;
-
-    List<Integer> elementsToRecalc = new ArrayList<>();
-    for (int i: chunksUpdated) {
-      if (i < newTrieWidth) {
-        elementsToRecalc.add(i);
-        if (i < newChunksCount) {
-          newTrie.nodes[pos + i] = childChunkSupplier.apply(i);
-        } else {
-          newTrie.nodes[pos + i] = getZeroHash(0);
-        }
-      }
-    }
+    int newTrieWidth = newTrie.nodes.size() / 2;
 
-    int idxShift = 0;
-    while (pos > 1) {
-      pos /= 2;
-      idxShift++;
-      int lastIdx = Integer.MAX_VALUE;
-      for (int i: elementsToRecalc) {
-        int idx = pos + (i >> idxShift);
-        if (lastIdx != idx) {
-          newTrie.nodes[idx] = hashFunction.apply(
-              BytesValue.concat(newTrie.nodes[idx * 2], newTrie.nodes[idx * 2 + 1]));
-          lastIdx = idx;
-        }
+    int[] elementsToRecalc =
+        chunksUpdated.stream().mapToInt(Integer::intValue).filter(i -> i < newTrieWidth).toArray();
+    if (elementsToRecalc.length > 0) {
+      TrieUpdateTask update =
+          new TrieUpdateTask(
+              newTrie.nodes,
+              i -> i < newChunksCount ? childChunkSupplier.apply(i) : getZeroHash(0),
+              elementsToRecalc,
+              1,
+              newTrieWidth,
+              0,
+              elementsToRecalc.length);
+      if (isParallel(elementsToRecalc.length)) {
+        invokeParallel(update);
+      } else {
+        update.compute();
       }
+      // the list is not thread-safe, nodes computed by tasks are stored by the calling thread
+      update.store(newTrie.nodes);
     }
+
     if (type.getType() == LIST) {
       Hash32 pureRoot = newTrie.getPureRoot();
       long padFor = chunkCount(type);
@@ -178,16 +211,97 @@ public class SSZIncrementalHasher extends SSZSimpleHasher {
     return newTrie;
   }
 
+  /**
+   * Recomputes nodes of a subtree on the paths from updated leaves to its root. Subtrees are
+   * processed in parallel while they have enough updated leaves. Each task keeps the node it has
+   * computed along with its child tasks, nodes which are not updated are read from the trie.
+   */
+  private final class TrieUpdateTask extends RecursiveTask<BytesValue> {
+    private final List<BytesValue> nodes;
+    private final IntFunction<BytesValue> leafSupplier;
+    /** Sorted indices of updated leaves. */
+    private final int[] leaves;
+    private final int node;
+    private final int width;
+    private final int from;
+    private final int to;
+    private TrieUpdateTask left;
+    private TrieUpdateTask right;
+    private BytesValue value;
+
+    TrieUpdateTask(
+        List<BytesValue> nodes,
+        IntFunction<BytesValue> leafSupplier,
+        int[] leaves,
+        int node,
+        int width,
+        int from,
+        int to) {
+      this.nodes = nodes;
+      this.leafSupplier = leafSupplier;
+      this.leaves = leaves;
+      this.node = node;
+      this.width = width;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected BytesValue compute() {
+      if (width == 1) {
+        value = leafSupplier.apply(leaves[from]);
+        return value;
+      }
+
+      int half = width / 2;
+      int firstLeaf = node * width - nodes.size() / 2;
+      int mid = Arrays.binarySearch(leaves, from, to, firstLeaf + half);
+      mid = mid < 0 ? -mid - 1 : mid;
+      if (from < mid) {
+        left = new TrieUpdateTask(nodes, leafSupplier, leaves, node * 2, half, from, mid);
+      }
+      if (mid < to) {
+        right = new TrieUpdateTask(nodes, leafSupplier, leaves, node * 2 + 1, half, mid, to);
+      }
+
+      if (left != null && right != null && isParallel(to - from) && shouldSplit(to - from)) {
+        invokeAll(left, right);
+      } else {
+        if (left != null) {
+          left.compute();
+        }
+        if (right != null) {
+          right.compute();
+        }
+      }
+
+      BytesValue leftValue = left != null ? left.value : nodes.get(node * 2);
+      BytesValue rightValue = right != null ? right.value : nodes.get(node * 2 + 1);
+      value = hashFunction.apply(concat(leftValue, rightValue));
+      return value;
+    }
+
+    void store(List<BytesValue> nodes) {
+      nodes.set(node, value);
+      if (left != null) {
+        left.store(nodes);
+      }
+      if (right != null) {
+        right.store(nodes);
+      }
+    }
+  }
+
   private MerkleTrie copyWithSize(MerkleTrie trie, int newChunksCount) {
     int newSize = (int) nextPowerOf2(newChunksCount) * 2;
-    if (newSize == trie.nodes.length) {
-      return new MerkleTrie(Arrays.copyOf(trie.nodes, newSize));
+    if (newSize == trie.nodes.size()) {
+      return new MerkleTrie(trie.persistentNodes().copy());
     } else {
-      BytesValue[] oldNodes = trie.nodes;
+      BytesValue[] oldNodes = trie.nodes.toArray(new BytesValue[0]);
       BytesValue[] newNodes = new BytesValue[newSize];
       int oldPos = oldNodes.length / 2;
       int newPos = newNodes.length / 2;
-      int size = min(newChunksCount, trie.nodes.length / 2);
+      int size = min(newChunksCount, oldNodes.length / 2);
       int dist = 0;
       while (newPos > 0 ) {
         System.arraycopy(oldNodes, oldPos, newNodes, newPos, size);
@@ -20,8 +20,13 @@ import tech.pegasys.artemis.util.collections.Bitlist;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
 
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
@@ -36,13 +41,149 @@ public class SSZSimpleHasher implements SSZVisitor<MerkleTrie, Object> {
   final SSZVisitorHandler<SerializerResult> serializer;
   final Function<BytesValue, Hash32> hashFunction;
   final int bytesPerChunk;
+  @Nullable private final ForkJoinPool parallelPool;
+  private final int parallelThreshold;
 
   public SSZSimpleHasher(
       SSZVisitorHandler<SerializerResult> serializer,
       Function<BytesValue, Hash32> hashFunction, int bytesPerChunk) {
+    this(serializer, hashFunction, bytesPerChunk, null, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Creates a hasher which computes child roots and trie levels of large composites in parallel.
+   *
+   * @param parallelPool pool running parallel tasks, {@code null} turns parallel mode off.
+   * @param parallelThreshold minimal number of children or chunks which are processed in
+   *     parallel, smaller amounts are processed by the calling thread.
+   */
+  public SSZSimpleHasher(
+      SSZVisitorHandler<SerializerResult> serializer,
+      Function<BytesValue, Hash32> hashFunction,
+      int bytesPerChunk,
+      @Nullable ForkJoinPool parallelPool,
+      int parallelThreshold) {
     this.serializer = serializer;
     this.hashFunction = hashFunction;
     this.bytesPerChunk = bytesPerChunk;
+    this.parallelPool = parallelPool;
+    this.parallelThreshold = parallelThreshold;
+  }
+
+  boolean isParallel(int count) {
+    return parallelPool != null && count >= parallelThreshold;
+  }
+
+  /**
+   * Runs a task in the parallel pool. A task started from a worker of the pool is run by that
+   * worker, thus, nested composites don't block workers waiting for each other.
+   */
+  <T> T invokeParallel(ForkJoinTask<T> task) {
+    if (ForkJoinTask.getPool() == parallelPool) {
+      return task.invoke();
+    } else {
+      return parallelPool.invoke(task);
+    }
+  }
+
+  /** Whether a recursive task processing {@code count} items should be split further. */
+  boolean shouldSplit(int count) {
+    return count >= Math.max(2, parallelThreshold);
+  }
+
+  /**
+   * Runs a task for each index from {@code [0, count)}, in parallel if count reaches the threshold.
+   * Tasks must write to distinct locations.
+   */
+  void forEachIndex(int count, IntConsumer task) {
+    if (isParallel(count)) {
+      invokeParallel(new ForEachIndexTask(task, 0, count));
+    } else {
+      for (int i = 0; i < count; i++) {
+        task.accept(i);
+      }
+    }
+  }
+
+  /** Splits a range of indices in halves until they become smaller than the threshold. */
+  private final class ForEachIndexTask extends RecursiveAction {
+    private final IntConsumer task;
+    private final int from;
+    private final int to;
+
+    ForEachIndexTask(IntConsumer task, int from, int to) {
+      this.task = task;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (shouldSplit(to - from)) {
+        int mid = (from + to) >>> 1;
+        invokeAll(new ForEachIndexTask(task, from, mid), new ForEachIndexTask(task, mid, to));
+      } else {
+        for (int i = from; i < to; i++) {
+          task.accept(i);
+        }
+      }
+    }
+  }
+
+  /**
+   * Hashes a subtree of a trie laid out in an array, subtrees are hashed in parallel while they
+   * have enough chunks, there is no synchronization between trie levels.
+   */
+  private final class SubtreeTask extends RecursiveAction {
+    private final BytesValue[] nodes;
+    private final int node;
+    private final int width;
+    private final int chunksCount;
+
+    SubtreeTask(BytesValue[] nodes, int node, int width, int chunksCount) {
+      this.nodes = nodes;
+      this.node = node;
+      this.width = width;
+      this.chunksCount = chunksCount;
+    }
+
+    @Override
+    protected void compute() {
+      int firstChunk = node * width - nodes.length / 2;
+      if (width > 1 && shouldSplit(Math.min(width, chunksCount - firstChunk))) {
+        int half = width / 2;
+        invokeAll(
+            new SubtreeTask(nodes, node * 2, half, chunksCount),
+            new SubtreeTask(nodes, node * 2 + 1, half, chunksCount));
+        nodes[node] = hashFunction.apply(concat(nodes[node * 2], nodes[node * 2 + 1]));
+      } else {
+        hashSubtree(nodes, node, width, chunksCount);
+      }
+    }
+  }
+
+  private void hashSubtree(BytesValue[] nodes, int node, int width, int chunksCount) {
+    if (width == 1) {
+      return;
+    }
+    if (node * width - nodes.length / 2 >= chunksCount) {
+      fillZeroSubtree(nodes, node, width);
+      return;
+    }
+    hashSubtree(nodes, node * 2, width / 2, chunksCount);
+    hashSubtree(nodes, node * 2 + 1, width / 2, chunksCount);
+    nodes[node] = hashFunction.apply(concat(nodes[node * 2], nodes[node * 2 + 1]));
+  }
+
+  /** Fills inner nodes of a subtree which has no chunks with zero hashes. */
+  private void fillZeroSubtree(BytesValue[] nodes, int node, int width) {
+    int start = node;
+    int count = 1;
+    for (int w = width; w > 1; w /= 2) {
+      Arrays.fill(nodes, start, start + count, getZeroHash(nextBinaryLog(w)));
+      start *= 2;
+      count *= 2;
+    }
   }
 
   @Override
@@ -88,9 +229,11 @@ public class SSZSimpleHasher implements SSZVisitor<MerkleTrie, Object> {
       }
       chunks = pack(serialization);
     } else {
-      for (int i = 0; i < type.getChildrenCount(rawValue); i++) {
-        chunks.add(childVisitor.apply(i, type.getChild(rawValue, i)).getFinalRoot());
-      }
+      BytesValue[] roots = new BytesValue[type.getChildrenCount(rawValue)];
+      forEachIndex(
+          roots.length,
+          i -> roots[i] = childVisitor.apply(i, type.getChild(rawValue, i)).getFinalRoot());
+      chunks = Arrays.asList(roots);
     }
     Long padFor = null;
     if (type.getType() == LIST) {
@@ -179,19 +322,24 @@ public class SSZSimpleHasher implements SSZVisitor<MerkleTrie, Object> {
       nodes[i + chunksLeaves] = i < chunks.size() ? chunks.get(i) : Bytes32.ZERO;
     }
 
-    int len = (chunks.size() - 1) / 2 + 1;
-    int pos = chunksLeaves / 2;
-    int level = 1;
-    while (pos > 0) {
-      for (int i = 0; i < len; i++) {
-        nodes[pos + i] = hashFunction.apply(concat(nodes[(pos + i) * 2], nodes[(pos + i) * 2 + 1]));
-      }
-      for (int i = len; i < pos; i++) {
-        nodes[pos + i] = getZeroHash(level);
+    if (isParallel(chunks.size())) {
+      invokeParallel(new SubtreeTask(nodes, 1, chunksLeaves, chunks.size()));
+    } else {
+      int len = (chunks.size() - 1) / 2 + 1;
+      int pos = chunksLeaves / 2;
+      int level = 1;
+      while (pos > 0) {
+        for (int i = 0; i < len; i++) {
+          nodes[pos + i] =
+              hashFunction.apply(concat(nodes[(pos + i) * 2], nodes[(pos + i) * 2 + 1]));
+        }
+        for (int i = len; i < pos; i++) {
+          nodes[pos + i] = getZeroHash(level);
+        }
+        len = (len - 1) / 2 + 1;
+        pos /= 2;
+        level++;
       }
-      len = (len - 1) / 2 + 1;
-      pos /= 2;
-      level++;
     }
 
     nodes[0] = nodes[1];
@@ -14,6 +14,7 @@ package org.ethereum.beacon.ssz.visitor;
 
 import net.consensys.cava.bytes.Bytes;
 import net.consensys.cava.ssz.InvalidSSZTypeException;
+import tech.pegasys.artemis.util.bytes.BytesValue;
 
 import java.math.BigInteger;
 
@@ -139,6 +140,19 @@ public class SSZWriter {
     return Bytes.wrap(encodeULongToByteArray(value, bitLength));
   }
 
+  /**
+   * Same as {@link #encodeULong(long, int)} but returns {@link BytesValue} wrapping encoded bytes
+   * without copying them.
+   *
+   * @param value the long to encode
+   * @param bitLength the bit length of the integer value (must be a multiple of 8)
+   * @return the SSZ encoding in a {@link BytesValue} value
+   * @throws IllegalArgumentException if the value is too large for the specified {@code bitLength}
+   */
+  public static BytesValue encodeULongValue(long value, int bitLength) {
+    return BytesValue.wrap(encodeULongToByteArray(value, bitLength));
+  }
+
   private static byte[] encodeULongToByteArray(long value, int bitLength) {
     checkArgument(bitLength % 8 == 0, "bitLength must be a multiple of 8");
 
@@ -2,7 +2,6 @@ package org.ethereum.beacon.ssz.visitor;
 
 import static org.ethereum.beacon.ssz.visitor.SosDeserializer.BYTES_PER_LENGTH_OFFSET;
 
-import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
 import java.util.List;
 import org.ethereum.beacon.ssz.access.SSZUnionAccessor.UnionInstanceAccessor;
@@ -24,9 +23,8 @@ public class SosSerializer implements SSZVisitor<SosSerializer.SerializerResult,
 
   @Override
   public SerializerResult visitBasicValue(SSZBasicType type, Object value) {
-    ByteArrayOutputStream baos = new ByteArrayOutputStream();
-    type.getAccessor().encode(value, type.getTypeDescriptor(), baos);
-    return new SerializerResult(BytesValue.wrap(baos.toByteArray()), type.isFixedSize());
+    return new SerializerResult(
+        type.getAccessor().encode(value, type.getTypeDescriptor()), type.isFixedSize());
   }
 
   @Override
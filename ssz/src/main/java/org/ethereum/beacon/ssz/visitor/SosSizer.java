@@ -0,0 +1,97 @@
+package org.ethereum.beacon.ssz.visitor;
+
+import static org.ethereum.beacon.ssz.visitor.SosDeserializer.BYTES_PER_LENGTH_OFFSET;
+
+import org.ethereum.beacon.ssz.access.SSZUnionAccessor.UnionInstanceAccessor;
+import org.ethereum.beacon.ssz.annotation.SSZSerializable;
+import org.ethereum.beacon.ssz.type.SSZBasicType;
+import org.ethereum.beacon.ssz.type.SSZCompositeType;
+import org.ethereum.beacon.ssz.type.SSZContainerType;
+import org.ethereum.beacon.ssz.type.SSZType;
+import org.ethereum.beacon.ssz.type.SSZUnionType;
+import org.ethereum.beacon.ssz.type.list.SSZListType;
+
+/**
+ * Computes exact size of SSZ serialization of a value without serializing it.
+ *
+ * <p>Fixed size values are measured by their type, so only variable size parts of the value are
+ * traversed.
+ */
+public class SosSizer implements SSZVisitor<Long, Object> {
+
+  static SSZType getChildType(SSZCompositeType type, int idx) {
+    return type instanceof SSZListType
+        ? ((SSZListType) type).getElementType()
+        : ((SSZContainerType) type).getChildTypes().get(idx);
+  }
+
+  static boolean isSkipped(SSZContainerType type) {
+    SSZSerializable annotation =
+        type.getTypeDescriptor().getRawClass().getAnnotation(SSZSerializable.class);
+    if (annotation != null && annotation.skipContainer()) {
+      if (type.getChildTypes().size() != 1) {
+        throw new IllegalArgumentException(
+            "Only container with a single child can be skipped: " + type);
+      }
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public Long visitBasicValue(SSZBasicType type, Object value) {
+    if (type.isFixedSize()) {
+      return (long) type.getSize();
+    }
+    return (long) type.getAccessor().encode(value, type.getTypeDescriptor()).size();
+  }
+
+  @Override
+  public Long visitUnion(
+      SSZUnionType type, Object param, ChildVisitor<Object, Long> childVisitor) {
+    UnionInstanceAccessor unionInstanceAccessor =
+        type.getAccessor().getInstanceAccessor(type.getTypeDescriptor());
+    int typeIndex = unionInstanceAccessor.getTypeIndex(param);
+    long size = BYTES_PER_LENGTH_OFFSET;
+    if (typeIndex > 0 || !type.isNullable()) {
+      size += childVisitor.apply(typeIndex, unionInstanceAccessor.getChildValue(param, typeIndex));
+    }
+    return size;
+  }
+
+  @Override
+  public Long visitContainer(
+      SSZContainerType type, Object param, ChildVisitor<Object, Long> childVisitor) {
+    if (isSkipped(type)) {
+      return childVisitor.apply(0, type.getChild(param, 0));
+    } else {
+      return visitComposite(type, param, childVisitor);
+    }
+  }
+
+  @Override
+  public Long visitComposite(
+      SSZCompositeType type, Object rawValue, ChildVisitor<Object, Long> childVisitor) {
+    if (type.isFixedSize()) {
+      return (long) type.getSize();
+    }
+    int count = type.getChildrenCount(rawValue);
+    if (type instanceof SSZListType) {
+      SSZType elementType = ((SSZListType) type).getElementType();
+      if (elementType.isFixedSize()) {
+        return (long) count * elementType.getSize();
+      }
+    }
+
+    long size = 0;
+    for (int i = 0; i < count; i++) {
+      SSZType childType = getChildType(type, i);
+      if (childType.isFixedSize()) {
+        size += childType.getSize();
+      } else {
+        size += BYTES_PER_LENGTH_OFFSET + childVisitor.apply(i, type.getChild(rawValue, i));
+      }
+    }
+    return size;
+  }
+}
@@ -0,0 +1,107 @@
+package org.ethereum.beacon.ssz.visitor;
+
+import static org.ethereum.beacon.ssz.visitor.SosDeserializer.BYTES_PER_LENGTH_OFFSET;
+
+import java.nio.ByteBuffer;
+import org.ethereum.beacon.ssz.access.SSZUnionAccessor.UnionInstanceAccessor;
+import org.ethereum.beacon.ssz.type.SSZBasicType;
+import org.ethereum.beacon.ssz.type.SSZCompositeType;
+import org.ethereum.beacon.ssz.type.SSZContainerType;
+import org.ethereum.beacon.ssz.type.SSZType;
+import org.ethereum.beacon.ssz.type.SSZUnionType;
+
+/**
+ * SSZ serializer with offset-based encoding of variable sized elements writing straight into a
+ * buffer in a single traversal.
+ *
+ * <p>Offset of a variable size element is reserved while fixed part of its composite is written and
+ * is filled in right before the element itself is written. Thus the buffer should have enough space
+ * for the whole serialization, its size could be computed with {@link SosSizer}.
+ *
+ * <p>Each visit returns a number of bytes written.
+ */
+public class SosWriter implements SSZVisitor<Integer, Object> {
+
+  private final ByteBuffer buffer;
+
+  public SosWriter(ByteBuffer buffer) {
+    this.buffer = buffer;
+  }
+
+  private void putLength(int index, long len) {
+    for (int i = 0; i < BYTES_PER_LENGTH_OFFSET; i++) {
+      buffer.put(index + i, (byte) (len >>> (i * 8)));
+    }
+  }
+
+  @Override
+  public Integer visitBasicValue(SSZBasicType type, Object value) {
+    byte[] bytes = type.getAccessor().encode(value, type.getTypeDescriptor()).getArrayUnsafe();
+    buffer.put(bytes);
+    return bytes.length;
+  }
+
+  @Override
+  public Integer visitUnion(
+      SSZUnionType type, Object param, ChildVisitor<Object, Integer> childVisitor) {
+    UnionInstanceAccessor unionInstanceAccessor =
+        type.getAccessor().getInstanceAccessor(type.getTypeDescriptor());
+    int typeIndex = unionInstanceAccessor.getTypeIndex(param);
+    putLength(buffer.position(), typeIndex);
+    buffer.position(buffer.position() + BYTES_PER_LENGTH_OFFSET);
+    int size = BYTES_PER_LENGTH_OFFSET;
+    if (typeIndex > 0 || !type.isNullable()) {
+      size += childVisitor.apply(typeIndex, unionInstanceAccessor.getChildValue(param, typeIndex));
+    }
+    return size;
+  }
+
+  @Override
+  public Integer visitContainer(
+      SSZContainerType type, Object param, ChildVisitor<Object, Integer> childVisitor) {
+    if (SosSizer.isSkipped(type)) {
+      return childVisitor.apply(0, type.getChild(param, 0));
+    } else {
+      return visitComposite(type, param, childVisitor);
+    }
+  }
+
+  @Override
+  public Integer visitComposite(
+      SSZCompositeType type, Object rawValue, ChildVisitor<Object, Integer> childVisitor) {
+    int start = buffer.position();
+    int count = type.getChildrenCount(rawValue);
+
+    // Fixed part, offsets are reserved
+    int variableCount = 0;
+    int[] variableIndices = null;
+    int[] offsetPositions = null;
+    Object[] variableChildren = null;
+    for (int i = 0; i < count; i++) {
+      SSZType childType = SosSizer.getChildType(type, i);
+      Object child = type.getChild(rawValue, i);
+      if (childType.isFixedSize()) {
+        childVisitor.apply(i, child);
+      } else {
+        if (variableIndices == null) {
+          variableIndices = new int[count - i];
+          offsetPositions = new int[count - i];
+          variableChildren = new Object[count - i];
+        }
+        variableIndices[variableCount] = i;
+        offsetPositions[variableCount] = buffer.position();
+        variableChildren[variableCount] = child;
+        variableCount++;
+        buffer.position(buffer.position() + BYTES_PER_LENGTH_OFFSET);
+      }
+    }
+
+    // Variable part
+    for (int i = 0; i < variableCount; i++) {
+      putLength(offsetPositions[i], buffer.position() - start);
+      childVisitor.apply(variableIndices[i], variableChildren[i]);
+    }
+
+    return buffer.position() - start;
+  }
+}
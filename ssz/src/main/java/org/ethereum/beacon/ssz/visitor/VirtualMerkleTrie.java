@@ -1,14 +1,16 @@
 package org.ethereum.beacon.ssz.visitor;
 
+import java.util.List;
 import tech.pegasys.artemis.ethereum.core.Hash32;
 import tech.pegasys.artemis.util.bytes.Bytes32;
 import tech.pegasys.artemis.util.bytes.BytesValue;
+import tech.pegasys.artemis.util.collections.PersistentList;
 
 /** Replaces root of {@link MerkleTrie}, replicating interface */
 public class VirtualMerkleTrie extends MerkleTrie {
   private Hash32 root;
 
-  public VirtualMerkleTrie(BytesValue[] nodes, BytesValue root) {
+  public VirtualMerkleTrie(List<BytesValue> nodes, BytesValue root) {
     super(nodes);
     this.root = Hash32.wrap(Bytes32.leftPad(root));
   }
@@ -28,8 +30,13 @@ public class VirtualMerkleTrie extends MerkleTrie {
     this.root = finalRoot;
   }
 
+  @Override
+  public VirtualMerkleTrie toPersistent() {
+    return nodes instanceof PersistentList ? this : new VirtualMerkleTrie(persistentNodes(), root);
+  }
+
   @Override
   public VirtualMerkleTrie copy() {
-    return new VirtualMerkleTrie(super.nodes, root.copy());
+    return new VirtualMerkleTrie(persistentNodes().copy(), root.copy());
   }
 }
@@ -3,6 +3,7 @@ package org.ethereum.beacon.ssz;
 import java.util.Map;
 import java.util.Random;
 import java.util.function.Function;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Supplier;
 import org.ethereum.beacon.crypto.Hashes;
 import org.ethereum.beacon.ssz.access.SSZField;
@@ -814,4 +815,62 @@ public class SSZIncrementalTest {
       Assert.assertTrue(countingHashInc.counter * 10 < countingHashSimp.counter);
     }
   }
+
+  @Test
+  public void testParallelHashing() {
+    SSZBuilder sszBuilder = new SSZBuilder()
+        .addDefaultListAccessors()
+        .addListAccessors(new ReadListAccessor());
+    TypeResolver typeResolver = sszBuilder.getTypeResolver();
+
+    SSZVisitorHost visitorHost = new SSZVisitorHost();
+    SSZSerializer serializer = new SSZSerializer(visitorHost, typeResolver);
+    ForkJoinPool pool = new ForkJoinPool(4);
+    SSZSimpleHasher simpleHasher = new SSZSimpleHasher(serializer, Hashes::sha256, 32);
+    SSZSimpleHasher parallelHasher =
+        new SSZSimpleHasher(serializer, Hashes::sha256, 32, pool, 16);
+    SSZIncrementalHasher parallelIncrementalHasher =
+        new SSZIncrementalHasher(serializer, Hashes::sha256, 32, pool, 16);
+
+    WriteList<Integer, A1> list = new ObservableListImpl<>(WriteList.create(Integer::valueOf));
+    for (int i = 0; i < 1000; i++) {
+      list.add(new A1(i));
+    }
+    SSZType sszListType = typeResolver.resolveSSZType(SSZField.resolveFromValue(list));
+
+    Hash32 expected = visitorHost.handleAny(sszListType, list, simpleHasher).getFinalRoot();
+    Assert.assertEquals(
+        expected, visitorHost.handleAny(sszListType, list, parallelHasher).getFinalRoot());
+    Assert.assertEquals(
+        expected,
+        visitorHost.handleAny(sszListType, list, parallelIncrementalHasher).getFinalRoot());
+
+    for (int i = 0; i < 1000; i += 3) {
+      list.set(i, new A1(-i));
+    }
+    list.add(new A1(1000));
+
+    expected = visitorHost.handleAny(sszListType, list, simpleHasher).getFinalRoot();
+    Assert.assertEquals(
+        expected, visitorHost.handleAny(sszListType, list, parallelHasher).getFinalRoot());
+    Assert.assertEquals(
+        expected,
+        visitorHost.handleAny(sszListType, list, parallelIncrementalHasher).getFinalRoot());
+
+    // started by a worker of the pool
+    for (int i = 1; i < 1000; i += 5) {
+      list.set(i, new A1(-i));
+    }
+    expected = visitorHost.handleAny(sszListType, list, simpleHasher).getFinalRoot();
+    Assert.assertEquals(
+        expected,
+        pool.submit(
+                () ->
+                    visitorHost
+                        .handleAny(sszListType, list, parallelIncrementalHasher)
+                        .getFinalRoot())
+            .join());
+
+    pool.shutdown();
+  }
 }
@@ -4,6 +4,8 @@ import static org.junit.Assert.assertEquals;
 
 import com.google.common.base.Objects;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -98,6 +100,30 @@ public class SSZSerializerTest {
     assertEquals(expected, constructed);
   }
 
+  @Test
+  public void compiledAndReflectiveAccessorsTest() {
+    SSZSerializer reflective =
+        new SSZBuilder()
+            .withExplicitAnnotations(false)
+            .withCompiledAccessors(false)
+            .buildSerializer();
+
+    AttestationRecord record =
+        new AttestationRecord(
+            123,
+            Collections.singletonList(new byte[] {0x12, 0x34, 0x56}),
+            DEFAULT_HASH,
+            new Bitfield(BytesValue.fromHexString("abcdef45").getArrayUnsafe()),
+            DEFAULT_HASH,
+            12412L,
+            12400L,
+            DEFAULT_SIG);
+
+    // getters and public fields
+    Assert.assertArrayEquals(reflective.encode(record), sszSerializer.encode(record));
+    Assert.assertArrayEquals(reflective.encode(DEFAULT_SIG), sszSerializer.encode(DEFAULT_SIG));
+  }
+
   @Test
   public void explicitAnnotationsAndLoggerTest() {
     SSZBuilder builder = new SSZBuilder(); //
@@ -194,6 +220,118 @@ public class SSZSerializerTest {
     assertEquals(expected, actual);
   }
 
+  @Test
+  public void presizedSerializerTest() {
+    SSZSerializer concatenating =
+        new SSZBuilder()
+            .withExplicitAnnotations(false)
+            .withPresizedSerializer(false)
+            .buildSerializer();
+
+    List<List<String>> listOfLists = new ArrayList<>();
+    listOfLists.add(Arrays.asList("aa", "bb"));
+    listOfLists.add(new ArrayList<>());
+    listOfLists.add(Collections.singletonList("cc"));
+    ListListObject value = new ListListObject(listOfLists);
+
+    byte[] expected = concatenating.encode(value);
+    Assert.assertArrayEquals(expected, sszSerializer.encode(value));
+    assertEquals(expected.length, sszSerializer.getEncodedSize(value, ListListObject.class));
+
+    // writes from the current position of the buffer
+    ByteBuffer buffer = ByteBuffer.allocateDirect(expected.length + 3);
+    buffer.position(3);
+    int written = sszSerializer.encode(value, ListListObject.class, buffer);
+    assertEquals(expected.length, written);
+    assertEquals(expected.length + 3, buffer.position());
+    byte[] actual = new byte[expected.length];
+    buffer.position(3);
+    buffer.get(actual);
+    Assert.assertArrayEquals(expected, actual);
+
+    // size computed by the caller
+    ByteBuffer presized = ByteBuffer.allocate(expected.length);
+    sszSerializer.encode(value, ListListObject.class, presized, expected.length);
+    Assert.assertArrayEquals(expected, presized.array());
+  }
+
+  @Test(expected = SSZSerializeException.class)
+  public void presizedSerializerBufferOverflowTest() {
+    ListListObject value =
+        new ListListObject(Collections.singletonList(Collections.singletonList("aa")));
+    ByteBuffer buffer =
+        ByteBuffer.allocate(sszSerializer.getEncodedSize(value, ListListObject.class) - 1);
+    sszSerializer.encode(value, ListListObject.class, buffer);
+  }
+
+  @Test
+  public void containerViewTest() {
+    AttestationRecord record =
+        new AttestationRecord(
+            123,
+            Arrays.asList(DEFAULT_HASH, DEFAULT_HASH),
+            DEFAULT_HASH,
+            new Bitfield(BytesValue.fromHexString("abcdef45").getArrayUnsafe()),
+            DEFAULT_HASH,
+            12412L,
+            12400L,
+            DEFAULT_SIG);
+    BytesValue encoded = sszSerializer.encode2(record);
+
+    SSZContainerView view = sszSerializer.decodeView(encoded, AttestationRecord.class);
+    assertEquals(123, view.decodeField(view.getFieldIndex("shardId")));
+    assertEquals(12400L, view.decodeField(view.getFieldIndex("justifiedSlot")));
+    assertEquals(
+        record.getAttesterBitfield(), view.decodeField(view.getFieldIndex("attesterBitfield")));
+    assertEquals(DEFAULT_SIG, view.decodeField(view.getFieldIndex("aggregateSig")));
+    assertEquals(-1, view.getFieldIndex("unknown"));
+    assertEquals(encoded.slice(0, 3), view.getFieldData(view.getFieldIndex("shardId")));
+  }
+
+  @Test(expected = SSZSerializeException.class)
+  public void containerViewMalformedTest() {
+    AttestationRecord record =
+        new AttestationRecord(
+            123,
+            Collections.emptyList(),
+            DEFAULT_HASH,
+            new Bitfield(BytesValue.fromHexString("abcdef45").getArrayUnsafe()),
+            DEFAULT_HASH,
+            12412L,
+            12400L,
+            DEFAULT_SIG);
+    BytesValue encoded = sszSerializer.encode2(record);
+    sszSerializer.decodeView(encoded.slice(0, 8), AttestationRecord.class);
+  }
+
+  @Test(expected = SSZSerializeException.class)
+  public void containerViewGapBeforeFirstOffsetTest() {
+    AttestationRecord record =
+        new AttestationRecord(
+            123,
+            Arrays.asList(DEFAULT_HASH, DEFAULT_HASH),
+            DEFAULT_HASH,
+            new Bitfield(BytesValue.fromHexString("abcdef45").getArrayUnsafe()),
+            DEFAULT_HASH,
+            12412L,
+            12400L,
+            DEFAULT_SIG);
+    byte[] encoded = sszSerializer.encode2(record).getArrayUnsafe();
+    // offsets of obliqueParentHashes and attesterBitfield
+    int[] offsetPositions = {3, 3 + 4 + 32};
+    int fixedSize = ByteBuffer.wrap(encoded, 3, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
+
+    // a byte inserted between fixed and variable parts, offsets are shifted accordingly
+    byte[] gapped = new byte[encoded.length + 1];
+    System.arraycopy(encoded, 0, gapped, 0, fixedSize);
+    System.arraycopy(encoded, fixedSize, gapped, fixedSize + 1, encoded.length - fixedSize);
+    ByteBuffer buffer = ByteBuffer.wrap(gapped).order(ByteOrder.LITTLE_ENDIAN);
+    for (int position : offsetPositions) {
+      buffer.putInt(position, buffer.getInt(position) + 1);
+    }
+    sszSerializer.decodeView(BytesValue.wrap(gapped), AttestationRecord.class);
+  }
+
   @Test
   public void serializeAsTest1() {
     Wrapper w =
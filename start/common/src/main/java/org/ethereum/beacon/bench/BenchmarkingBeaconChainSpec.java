@@ -19,6 +19,7 @@ import org.ethereum.beacon.core.operations.attestation.AttestationData;
 import org.ethereum.beacon.core.operations.slashing.IndexedAttestation;
 import org.ethereum.beacon.core.spec.SpecConstants;
 import org.ethereum.beacon.core.state.PendingAttestation;
+import org.ethereum.beacon.core.state.ValidatorRecord;
 import org.ethereum.beacon.core.types.BLSPubkey;
 import org.ethereum.beacon.core.types.BLSSignature;
 import org.ethereum.beacon.core.types.CommitteeIndex;
@@ -32,6 +33,7 @@ import org.ethereum.beacon.util.stats.TimeCollector;
 import tech.pegasys.artemis.ethereum.core.Hash32;
 import tech.pegasys.artemis.util.bytes.BytesValue;
 import tech.pegasys.artemis.util.collections.Bitlist;
+import tech.pegasys.artemis.util.collections.ReadList;
 import tech.pegasys.artemis.util.uint.UInt64;
 
 public class BenchmarkingBeaconChainSpec extends CachingBeaconChainSpec {
@@ -101,12 +103,27 @@ public class BenchmarkingBeaconChainSpec extends CachingBeaconChainSpec {
         "bls_verify", () -> super.bls_verify(publicKey, message, signature, domain));
   }
 
+  @Override
+  public boolean bls_verify(
+      PublicKey publicKey, Hash32 message, BLSSignature signature, UInt64 domain) {
+    return callAndTrack(
+        "bls_verify", () -> super.bls_verify(publicKey, message, signature, domain));
+  }
+
   @Override
   public PublicKey bls_aggregate_pubkeys(List<BLSPubkey> publicKeysBytes) {
     return callAndTrack(
         "bls_aggregate_pubkeys", () -> super.bls_aggregate_pubkeys(publicKeysBytes));
   }
 
+  @Override
+  public PublicKey bls_aggregate_validator_pubkeys(
+      ReadList<ValidatorIndex, ValidatorRecord> validators, Iterable<ValidatorIndex> indices) {
+    return callAndTrack(
+        "bls_aggregate_pubkeys",
+        () -> super.bls_aggregate_validator_pubkeys(validators, indices));
+  }
+
   /** HELPERS */
   @Override
   public Hash32 hash_tree_root(Object object) {
@@ -3,20 +3,24 @@ package org.ethereum.beacon.node.metrics;
 import io.prometheus.client.Counter;
 import io.prometheus.client.Gauge;
 import io.prometheus.client.exporter.HTTPServer;
+import org.ethereum.beacon.chain.CheckpointStateCache;
+import org.ethereum.beacon.chain.observer.AttestationVerificationPipeline;
 import org.ethereum.beacon.chain.observer.ObservableBeaconState;
+import org.ethereum.beacon.chain.storage.impl.SnapshotBeaconTupleStorage;
 import org.ethereum.beacon.consensus.BeaconChainSpec;
 import org.ethereum.beacon.consensus.BeaconStateEx;
+import org.ethereum.beacon.consensus.transition.ParticipationCache;
+import org.ethereum.beacon.consensus.verifier.SignatureVerificationService;
 import org.ethereum.beacon.core.BeaconBlock;
 import org.ethereum.beacon.core.operations.Attestation;
 import org.ethereum.beacon.core.operations.attestation.AttestationData;
-import org.ethereum.beacon.core.state.PendingAttestation;
 import org.ethereum.beacon.core.types.SlotNumber;
+import org.ethereum.beacon.crypto.bls.milagro.CachingMessageMapper;
 import tech.pegasys.artemis.ethereum.core.Hash32;
 import tech.pegasys.artemis.util.collections.Bitlist;
 
 import java.io.IOException;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -129,6 +133,72 @@ public class Metrics {
           .name("beacon_propagated_attestations")
           .help("Number of distinct attestations to a slot received from the wire")
           .register();
+  static Gauge ATTESTATION_VERIFICATION_THROUGHPUT =
+      Gauge.build()
+          .name("beacon_attestation_verification_throughput")
+          .help("Average number of attestations verified per second")
+          .register();
+  static Gauge ATTESTATION_VERIFICATION_STAGE_LATENCY =
+      Gauge.build()
+          .name("beacon_attestation_verification_stage_latency_seconds")
+          .labelNames("stage")
+          .help("Time spent on the latest batch of attestations by verification stage")
+          .register();
+  static Counter CHECKPOINT_STATE_CACHE_HITS =
+      Counter.build()
+          .name("beacon_checkpoint_state_cache_hits_total")
+          .help("Number of checkpoint state cache hits")
+          .register();
+  static Counter CHECKPOINT_STATE_CACHE_MISSES =
+      Counter.build()
+          .name("beacon_checkpoint_state_cache_misses_total")
+          .help("Number of checkpoint state cache misses")
+          .register();
+  static Counter CHECKPOINT_STATE_CACHE_WAITS =
+      Counter.build()
+          .name("beacon_checkpoint_state_cache_waits_total")
+          .help("Number of requests waited for a checkpoint state computed by another thread")
+          .register();
+  static Gauge CHECKPOINT_STATE_COMPUTE_TIME =
+      Gauge.build()
+          .name("beacon_checkpoint_state_compute_seconds")
+          .help("Average time spent on checkpoint state computation")
+          .register();
+  static Gauge SIGNATURE_VERIFICATION_QUEUE_DEPTH =
+      Gauge.build()
+          .name("beacon_signature_verification_queue_depth")
+          .help("Number of signatures waiting for batch verification")
+          .register();
+  static Gauge SIGNATURE_VERIFICATION_BATCH_SIZE =
+      Gauge.build()
+          .name("beacon_signature_verification_batch_size")
+          .help("Number of signatures verified in the latest batch")
+          .register();
+  static Gauge SIGNATURE_VERIFICATION_LATENCY =
+      Gauge.build()
+          .name("beacon_signature_verification_latency_seconds")
+          .help("Time from signature submission to verification result in the latest batch")
+          .register();
+  static Counter BLS_MESSAGE_CACHE_HITS =
+      Counter.build()
+          .name("beacon_bls_message_cache_hits_total")
+          .help("Number of message points served from the cache")
+          .register();
+  static Counter BLS_MESSAGE_CACHE_MISSES =
+      Counter.build()
+          .name("beacon_bls_message_cache_misses_total")
+          .help("Number of messages mapped to the curve")
+          .register();
+  static Gauge STATE_STORAGE_SNAPSHOT_RATIO =
+      Gauge.build()
+          .name("beacon_state_storage_snapshot_ratio")
+          .help("Ratio of persisted states to stored blocks")
+          .register();
+  static Gauge STATE_RECONSTRUCTION_TIME =
+      Gauge.build()
+          .name("beacon_state_reconstruction_seconds")
+          .help("Average time spent on state reconstruction by block replay")
+          .register();
   private static HTTPServer metricsServer;
 
   private static final Object attestation_lock = new Object();
@@ -209,10 +279,11 @@ public class Metrics {
         state.getPreviousJustifiedCheckpoint().getEpoch().doubleValue());
     setRoot(CURRENT_PREV_JUSTIFIED_ROOT, state.getPreviousJustifiedCheckpoint().getRoot());
 
+    ParticipationCache participation = state.getParticipation();
     CURRENT_EPOCH_LIVE_VALIDATORS.set(
-        calculateEpochValidators(state.getCurrentEpochAttestations().listCopy()));
+        participation.get(spec, state, spec.get_current_epoch(state)).getAttesterCount());
     PREVIOUS_EPOCH_LIVE_VALIDATORS.set(
-        calculateEpochValidators(state.getPreviousEpochAttestations().listCopy()));
+        participation.get(spec, state, spec.get_previous_epoch(state)).getAttesterCount());
 
     TOTAL_DEPOSITS.set(state.getEth1Data().getDepositCount().doubleValue());
     PENDING_DEPOSITS.set(
@@ -246,10 +317,55 @@ public class Metrics {
         | ((long) a[24] & 0xff);
   }
 
-  private static int calculateEpochValidators(List<PendingAttestation> epochAttestations) {
-    return epochAttestations.stream()
-        .mapToInt(pa -> pa.getAggregationBits().getBits().size())
-        .sum();
+  public static void onAttestationsVerified(AttestationVerificationPipeline pipeline) {
+    ATTESTATION_VERIFICATION_THROUGHPUT.set(pipeline.getThroughput());
+    setStageLatency("state", pipeline.getLatestStateStageTime());
+    setStageLatency("index", pipeline.getLatestIndexStageTime());
+    setStageLatency("signature", pipeline.getLatestVerifyStageTime());
+  }
+
+  private static void setStageLatency(String stage, long nanos) {
+    ATTESTATION_VERIFICATION_STAGE_LATENCY.labels(stage).set(nanos / 1_000_000_000d);
+  }
+
+  public static void onCheckpointStateCache(CheckpointStateCache cache) {
+    // the cache keeps totals, counters are advanced up to them
+    incTo(CHECKPOINT_STATE_CACHE_HITS, cache.getHits());
+    incTo(CHECKPOINT_STATE_CACHE_MISSES, cache.getMisses());
+    incTo(CHECKPOINT_STATE_CACHE_WAITS, cache.getWaits());
+    if (cache.getComputeCount() > 0) {
+      CHECKPOINT_STATE_COMPUTE_TIME.set(
+          cache.getComputeTime() / (double) cache.getComputeCount() / 1_000_000_000d);
+    }
+  }
+
+  private static void incTo(Counter counter, long total) {
+    double delta = total - counter.get();
+    if (delta > 0) {
+      counter.inc(delta);
+    }
+  }
+
+  public static void onSignatureVerification(SignatureVerificationService service) {
+    SIGNATURE_VERIFICATION_QUEUE_DEPTH.set(service.getQueueDepth());
+    SIGNATURE_VERIFICATION_BATCH_SIZE.set(service.getLatestBatchSize());
+    SIGNATURE_VERIFICATION_LATENCY.set(service.getLatestLatency() / 1_000_000_000d);
+  }
+
+  public static void onBlsMessageCache(CachingMessageMapper cache) {
+    incTo(BLS_MESSAGE_CACHE_HITS, cache.getHits());
+    incTo(BLS_MESSAGE_CACHE_MISSES, cache.getMisses());
+  }
+
+  public static void onStateStorage(SnapshotBeaconTupleStorage storage) {
+    if (storage.getStoredBlocks() > 0) {
+      STATE_STORAGE_SNAPSHOT_RATIO.set(
+          storage.getStoredStates() / (double) storage.getStoredBlocks());
+    }
+    if (storage.getReplayCount() > 0) {
+      STATE_RECONSTRUCTION_TIME.set(
+          storage.getReplayTime() / (double) storage.getReplayCount() / 1_000_000_000d);
+    }
   }
 
   public static void attestationPropagated(Attestation attestation) {
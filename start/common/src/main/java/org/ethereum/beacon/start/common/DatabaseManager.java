@@ -7,6 +7,7 @@ import java.nio.file.Paths;
 import org.ethereum.beacon.core.types.Time;
 import org.ethereum.beacon.db.Database;
 import org.ethereum.beacon.db.InMemoryDatabase;
+import org.ethereum.beacon.db.rocksdb.RocksDbConfig;
 import tech.pegasys.artemis.ethereum.core.Hash32;
 
 /**
@@ -18,7 +19,13 @@ public interface DatabaseManager {
   /** Creates a DB for a given &lt;genesisTime, depositRoot&gt; pair. */
   Database getOrCreateDatabase(Time genesisTime, Hash32 depositRoot);
 
-  /** Removes/wipes a DB corresponding to a given &lt;genesisTime, depositRoot&gt; pair. */
+  /**
+   * Creates a DB for finalized part of the chain for a given &lt;genesisTime, depositRoot&gt;
+   * pair. Changes made to this DB are written on each commit.
+   */
+  Database getOrCreateColdDatabase(Time genesisTime, Hash32 depositRoot);
+
+  /** Removes/wipes DBs corresponding to a given &lt;genesisTime, depositRoot&gt; pair. */
   void removeDatabase(Time genesisTime, Hash32 depositRoot);
 
   static DatabaseManager createInMemoryDBFactory() {
@@ -28,22 +35,46 @@ public interface DatabaseManager {
         return new InMemoryDatabase();
       }
 
+      @Override
+      public Database getOrCreateColdDatabase(Time genesisTime, Hash32 depositRoot) {
+        return new InMemoryDatabase();
+      }
+
       @Override
       public void removeDatabase(Time genesisTime, Hash32 depositRoot) {}
     };
   }
 
   static DatabaseManager createRocksDBFactory(String dbPrefix, long bufferSize) {
+    return createRocksDBFactory(dbPrefix, bufferSize, new RocksDbConfig());
+  }
+
+  static DatabaseManager createRocksDBFactory(
+      String dbPrefix, long bufferSize, RocksDbConfig config) {
     return new DatabaseManager() {
       @Override
       public Database getOrCreateDatabase(Time genesisTime, Hash32 depositRoot) {
         return Database.rocksDB(
-            Paths.get(computeDbName(dbPrefix, genesisTime, depositRoot)).toString(), bufferSize);
+            Paths.get(computeDbName(dbPrefix, genesisTime, depositRoot)).toString(),
+            bufferSize,
+            config);
+      }
+
+      @Override
+      public Database getOrCreateColdDatabase(Time genesisTime, Hash32 depositRoot) {
+        return Database.rocksDB(
+            Paths.get(computeColdDbName(dbPrefix, genesisTime, depositRoot)).toString(),
+            0,
+            config);
       }
 
       @Override
       public void removeDatabase(Time genesisTime, Hash32 depositRoot) {
-        Path path = Paths.get(computeDbName(dbPrefix, genesisTime, depositRoot));
+        removeFiles(Paths.get(computeDbName(dbPrefix, genesisTime, depositRoot)));
+        removeFiles(Paths.get(computeColdDbName(dbPrefix, genesisTime, depositRoot)));
+      }
+
+      private void removeFiles(Path path) {
         try {
           if (Files.exists(path)) {
             Files.list(path)
@@ -68,4 +99,8 @@ public interface DatabaseManager {
         "%s_start_time_%d_dep_root_%s",
         dbPrefix, startTime.getValue(), depositRoot.toStringShort());
   }
+
+  static String computeColdDbName(String dbPrefix, Time startTime, Hash32 depositRoot) {
+    return computeDbName(dbPrefix, startTime, depositRoot) + "_cold";
+  }
 }
@@ -2,14 +2,18 @@ package org.ethereum.beacon.start.common;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.ethereum.beacon.chain.CheckpointStateCache;
 import org.ethereum.beacon.chain.DefaultBeaconChain;
 import org.ethereum.beacon.chain.MutableBeaconChain;
 import org.ethereum.beacon.chain.ProposedBlockProcessor;
 import org.ethereum.beacon.chain.ProposedBlockProcessorImpl;
+import org.ethereum.beacon.chain.ProtoArrayHeadFunction;
 import org.ethereum.beacon.chain.SlotTicker;
+import org.ethereum.beacon.chain.forkchoice.VoteTracker;
 import org.ethereum.beacon.chain.observer.ObservableStateProcessor;
 import org.ethereum.beacon.chain.observer.ObservableStateProcessorImpl;
 import org.ethereum.beacon.chain.storage.BeaconChainStorage;
+import org.ethereum.beacon.chain.storage.impl.SnapshotBeaconTupleStorage;
 import org.ethereum.beacon.consensus.BeaconChainSpec;
 import org.ethereum.beacon.consensus.ChainStart;
 import org.ethereum.beacon.consensus.transition.EmptySlotTransition;
@@ -19,10 +23,12 @@ import org.ethereum.beacon.consensus.transition.PerEpochTransition;
 import org.ethereum.beacon.consensus.transition.PerSlotTransition;
 import org.ethereum.beacon.consensus.verifier.BeaconBlockVerifier;
 import org.ethereum.beacon.consensus.verifier.BeaconStateVerifier;
+import org.ethereum.beacon.consensus.verifier.SignatureVerificationService;
 import org.ethereum.beacon.core.BeaconBlock;
 import org.ethereum.beacon.core.operations.Attestation;
 import org.ethereum.beacon.core.spec.SpecConstants;
 import org.ethereum.beacon.core.spec.SpecConstantsResolver;
+import org.ethereum.beacon.crypto.BLS381;
 import org.ethereum.beacon.db.Database;
 import org.ethereum.beacon.node.metrics.Metrics;
 import org.ethereum.beacon.pow.DepositContract;
@@ -55,6 +61,7 @@ import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static org.ethereum.beacon.chain.observer.ObservableStateProcessorImpl.DEFAULT_EMPTY_SLOT_TRANSITIONS_LIMIT;
+import static org.ethereum.beacon.chain.observer.ObservableStateProcessorImpl.DEFAULT_VERIFICATION_THREADS;
 
 public class NodeLauncher {
   private static final Logger logger = LogManager.getLogger(NodeLauncher.class);
@@ -77,6 +84,7 @@ public class NodeLauncher {
   private MutableBeaconChain beaconChain;
   private SlotTicker slotTicker;
   private ObservableStateProcessor observableStateProcessor;
+  private SignatureVerificationService signatureVerificationService;
   private BeaconChainProposer beaconChainProposer;
   private BeaconChainAttesterImpl beaconChainAttester;
   private MultiValidatorService beaconChainValidator;
@@ -85,6 +93,11 @@ public class NodeLauncher {
   private UInt64 chainId = UInt64.valueOf(1);
   private Bytes4 fork = Bytes4.ZERO;
   private boolean startSyncManager = false;
+  private int verificationThreads = DEFAULT_VERIFICATION_THREADS;
+  private int maxConcurrentBlockRequests = SyncManagerImpl.DEFAULT_MAX_CONCURRENT_BLOCK_REQUESTS;
+  private int syncRangeSize;
+  private int syncPreVerificationThreads = SyncManagerImpl.DEFAULT_PRE_VERIFICATION_THREADS;
+  private int syncImportBufferSize = SyncManagerImpl.DEFAULT_IMPORT_BUFFER_SIZE;
 
   private WireApiSub wireApiSub;
   private WireApiSync wireApiSyncRemote;
@@ -113,6 +126,7 @@ public class NodeLauncher {
     this.beaconChainStorage = beaconChainStorage;
     this.schedulers = schedulers;
     this.startSyncManager = startSyncManager;
+    this.syncRangeSize = spec.getConstants().getSlotsPerEpoch().intValue();
 
     createBeaconChainAndStuff();
   }
@@ -154,8 +168,11 @@ public class NodeLauncher {
 
     DirectProcessor<Attestation> allAttestations = DirectProcessor.create();
 
+    VoteTracker voteTracker = new VoteTracker();
+    CheckpointStateCache checkpointStateCache =
+        new CheckpointStateCache(spec, beaconChainStorage.getTupleStorage());
 
-    observableStateProcessor = new ObservableStateProcessorImpl(
+    ObservableStateProcessorImpl stateProcessor = new ObservableStateProcessorImpl(
         beaconChainStorage,
         slotTicker.getTickerStream(),
         allAttestations,
@@ -163,12 +180,38 @@ public class NodeLauncher {
         spec,
         emptySlotTransition,
         schedulers,
-        validatorCred != null ? Integer.MAX_VALUE : DEFAULT_EMPTY_SLOT_TRANSITIONS_LIMIT);
+        validatorCred != null ? Integer.MAX_VALUE : DEFAULT_EMPTY_SLOT_TRANSITIONS_LIMIT,
+        new ProtoArrayHeadFunction(beaconChainStorage, spec, checkpointStateCache),
+        voteTracker,
+        checkpointStateCache);
+    stateProcessor.setVerificationThreads(verificationThreads);
+    if (spec.isBlsVerify()) {
+      signatureVerificationService = new SignatureVerificationService(verificationThreads);
+      signatureVerificationService.start();
+      stateProcessor.setSignatureVerificationService(signatureVerificationService);
+    }
+    observableStateProcessor = stateProcessor;
 
     Flux.from(observableStateProcessor.getObservableStateStream())
         .subscribe(obs -> Metrics.onNewState(spec, obs));
     Flux.from(observableStateProcessor.getObservableStateStream())
         .subscribe(obs -> Metrics.onHeadChanged(spec, obs.getHead()));
+    Flux.from(observableStateProcessor.getObservableStateStream())
+        .subscribe(obs -> Metrics.onAttestationsVerified(stateProcessor.getVerificationPipeline()));
+    Flux.from(observableStateProcessor.getObservableStateStream())
+        .subscribe(obs -> Metrics.onCheckpointStateCache(checkpointStateCache));
+    Flux.from(observableStateProcessor.getObservableStateStream())
+        .subscribe(obs -> Metrics.onBlsMessageCache(BLS381.getMessageCache()));
+    if (beaconChainStorage.getTupleStorage() instanceof SnapshotBeaconTupleStorage) {
+      SnapshotBeaconTupleStorage tupleStorage =
+          (SnapshotBeaconTupleStorage) beaconChainStorage.getTupleStorage();
+      Flux.from(observableStateProcessor.getObservableStateStream())
+          .subscribe(obs -> Metrics.onStateStorage(tupleStorage));
+    }
+    if (signatureVerificationService != null) {
+      Flux.from(observableStateProcessor.getObservableStateStream())
+          .subscribe(obs -> Metrics.onSignatureVerification(signatureVerificationService));
+    }
     observableStateProcessor.start();
 
     SSZSerializer ssz = new SSZBuilder()
@@ -241,9 +284,11 @@ public class NodeLauncher {
         spec,
         wireApiSyncRemote,
         syncQueue,
-        1,
+        maxConcurrentBlockRequests,
         schedulers);
     syncManager.setRequestsDelay(Duration.ofSeconds(1), Duration.ofSeconds(5));
+    syncManager.setRangeSyncParameters(
+        syncRangeSize, syncPreVerificationThreads, syncImportBufferSize);
 
     if (startSyncManager) {
       syncManager.start();
@@ -257,9 +302,42 @@ public class NodeLauncher {
   }
 
   public void stop() {
+    if (syncManager != null && startSyncManager) {
+      syncManager.stop();
+    }
+    if (signatureVerificationService != null) {
+      signatureVerificationService.stop();
+    }
     db.close();
   }
 
+  /**
+   * Sets the number of threads verifying attestation signatures. Should be called before {@link
+   * #start()}.
+   */
+  public void setVerificationThreads(int verificationThreads) {
+    this.verificationThreads = verificationThreads;
+  }
+
+  /**
+   * Sets block sync parameters. Should be called before {@link #start()}.
+   *
+   * @param maxConcurrentBlockRequests number of slot ranges downloaded concurrently.
+   * @param rangeSize maximum number of slots requested from a single peer at once.
+   * @param preVerificationThreads number of threads pre-verifying downloaded blocks.
+   * @param importBufferSize number of downloaded slot ranges buffered ahead of the import.
+   */
+  public void setSyncParameters(
+      int maxConcurrentBlockRequests,
+      int rangeSize,
+      int preVerificationThreads,
+      int importBufferSize) {
+    this.maxConcurrentBlockRequests = maxConcurrentBlockRequests;
+    this.syncRangeSize = rangeSize;
+    this.syncPreVerificationThreads = preVerificationThreads;
+    this.syncImportBufferSize = importBufferSize;
+  }
+
   public BeaconChainSpec getSpec() {
     return spec;
   }
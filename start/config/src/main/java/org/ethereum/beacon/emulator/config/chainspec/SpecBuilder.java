@@ -1,6 +1,9 @@
 package org.ethereum.beacon.emulator.config.chainspec;
 
+import java.util.concurrent.ForkJoinPool;
 import org.ethereum.beacon.consensus.BeaconChainSpec;
+import org.ethereum.beacon.consensus.hasher.SSZObjectHasher;
+import org.ethereum.beacon.consensus.util.CachingBeaconChainSpec.CacheSizes;
 import org.ethereum.beacon.core.spec.SpecConstants;
 import org.ethereum.beacon.core.types.EpochNumber;
 import org.ethereum.beacon.core.types.Gwei;
@@ -8,6 +11,7 @@ import org.ethereum.beacon.core.types.ShardNumber;
 import org.ethereum.beacon.core.types.SlotNumber;
 import org.ethereum.beacon.core.types.Time;
 import org.ethereum.beacon.core.types.ValidatorIndex;
+import org.ethereum.beacon.crypto.Hashes;
 import tech.pegasys.artemis.ethereum.core.Address;
 import tech.pegasys.artemis.util.uint.UInt64;
 
@@ -34,11 +38,19 @@ public class SpecBuilder {
       SpecHelpersData specHelpersOptions, SpecConstants specConstants) {
     return new BeaconChainSpec.Builder()
         .withDefaultHashFunction()
-        .withDefaultHasher(specConstants)
+        .withHasher(
+            SSZObjectHasher.create(
+                specConstants, Hashes::sha256, true, ForkJoinPool.commonPool()))
         .withConstants(specConstants)
         .withBlsVerify(specHelpersOptions.isBlsVerify())
         .withBlsVerifyProofOfPossession(specHelpersOptions.isBlsVerifyProofOfPossession())
         .withCache(specHelpersOptions.isEnableCache())
+        .withCacheSizes(
+            new CacheSizes()
+                .withShufflings(specHelpersOptions.getShufflingCacheSize())
+                .withActiveValidators(specHelpersOptions.getActiveValidatorsCacheSize())
+                .withTotalActiveBalances(specHelpersOptions.getTotalActiveBalanceCacheSize())
+                .withHashTreeRoots(specHelpersOptions.getHashTreeRootCacheSize()))
         .withVerifyDepositProof(specHelpersOptions.isVerifyDepositProof())
         .withComputableGenesisTime(specHelpersOptions.isComputableGenesisTime())
         .build();
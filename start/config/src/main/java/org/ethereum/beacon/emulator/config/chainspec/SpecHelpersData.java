@@ -1,5 +1,7 @@
 package org.ethereum.beacon.emulator.config.chainspec;
 
+import org.ethereum.beacon.consensus.util.CachingBeaconChainSpec.CacheSizes;
+
 public class SpecHelpersData {
   public static final SpecHelpersData DEFAULT = new SpecHelpersData();
 
@@ -15,6 +17,14 @@ public class SpecHelpersData {
 
   private boolean enableCache = true;
 
+  private int shufflingCacheSize = CacheSizes.DEFAULT_SHUFFLINGS;
+
+  private int activeValidatorsCacheSize = CacheSizes.DEFAULT_ACTIVE_VALIDATORS;
+
+  private int totalActiveBalanceCacheSize = CacheSizes.DEFAULT_TOTAL_ACTIVE_BALANCES;
+
+  private int hashTreeRootCacheSize = CacheSizes.DEFAULT_HASH_TREE_ROOTS;
+
   public boolean isBlsVerify() {
     return blsVerify;
   }
@@ -47,6 +57,38 @@ public class SpecHelpersData {
     this.enableCache = enableCache;
   }
 
+  public int getShufflingCacheSize() {
+    return shufflingCacheSize;
+  }
+
+  public void setShufflingCacheSize(int shufflingCacheSize) {
+    this.shufflingCacheSize = shufflingCacheSize;
+  }
+
+  public int getActiveValidatorsCacheSize() {
+    return activeValidatorsCacheSize;
+  }
+
+  public void setActiveValidatorsCacheSize(int activeValidatorsCacheSize) {
+    this.activeValidatorsCacheSize = activeValidatorsCacheSize;
+  }
+
+  public int getTotalActiveBalanceCacheSize() {
+    return totalActiveBalanceCacheSize;
+  }
+
+  public void setTotalActiveBalanceCacheSize(int totalActiveBalanceCacheSize) {
+    this.totalActiveBalanceCacheSize = totalActiveBalanceCacheSize;
+  }
+
+  public int getHashTreeRootCacheSize() {
+    return hashTreeRootCacheSize;
+  }
+
+  public void setHashTreeRootCacheSize(int hashTreeRootCacheSize) {
+    this.hashTreeRootCacheSize = hashTreeRootCacheSize;
+  }
+
   public boolean isVerifyDepositProof() {
     return verifyDepositProof;
   }
@@ -8,9 +8,13 @@ import org.ethereum.beacon.emulator.config.main.network.Network;
 public class Configuration {
   private String name;
   private String db;
+  private DbOptions dbOptions;
   private List<Network> networks = new ArrayList<>();
   private Validator validator;
   private String metricsEndpoint;
+  /** Number of threads verifying attestation signatures, a half of CPUs if unset. */
+  private Integer verificationThreads;
+  private SyncOptions syncOptions;
   private Debug debug;
 
   public String getName() {
@@ -29,6 +33,14 @@ public class Configuration {
     this.db = db;
   }
 
+  public DbOptions getDbOptions() {
+    return dbOptions;
+  }
+
+  public void setDbOptions(DbOptions dbOptions) {
+    this.dbOptions = dbOptions;
+  }
+
   public List<Network> getNetworks() {
     return networks;
   }
@@ -53,6 +65,22 @@ public class Configuration {
     this.metricsEndpoint = metricsEndpoint;
   }
 
+  public Integer getVerificationThreads() {
+    return verificationThreads;
+  }
+
+  public void setVerificationThreads(Integer verificationThreads) {
+    this.verificationThreads = verificationThreads;
+  }
+
+  public SyncOptions getSyncOptions() {
+    return syncOptions;
+  }
+
+  public void setSyncOptions(SyncOptions syncOptions) {
+    this.syncOptions = syncOptions;
+  }
+
   public Debug getDebug() {
     return debug;
   }
@@ -0,0 +1,141 @@
+package org.ethereum.beacon.emulator.config.main;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/** Storage engine options, unset values are left at engine defaults. */
+public class DbOptions {
+  private Boolean columnFamilies;
+  private Long blockCacheSize;
+  private Integer maxOpenFiles;
+  private Integer parallelism;
+  private Boolean syncWrites;
+  /** Full states are persisted once per this number of epochs, every state if unset. */
+  private Integer stateSnapshotInterval;
+  /** Prunes forks upon finalization and moves finalized chain to a separate cold database. */
+  private Boolean pruneFinalized;
+  private Family defaultFamily;
+  /** Options of particular storages, keyed by storage name, e.g. {@code beacon-state}. */
+  private Map<String, Family> families = new HashMap<>();
+
+  public Boolean getColumnFamilies() {
+    return columnFamilies;
+  }
+
+  public void setColumnFamilies(Boolean columnFamilies) {
+    this.columnFamilies = columnFamilies;
+  }
+
+  public Long getBlockCacheSize() {
+    return blockCacheSize;
+  }
+
+  public void setBlockCacheSize(Long blockCacheSize) {
+    this.blockCacheSize = blockCacheSize;
+  }
+
+  public Integer getMaxOpenFiles() {
+    return maxOpenFiles;
+  }
+
+  public void setMaxOpenFiles(Integer maxOpenFiles) {
+    this.maxOpenFiles = maxOpenFiles;
+  }
+
+  public Integer getParallelism() {
+    return parallelism;
+  }
+
+  public void setParallelism(Integer parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  public Boolean getSyncWrites() {
+    return syncWrites;
+  }
+
+  public void setSyncWrites(Boolean syncWrites) {
+    this.syncWrites = syncWrites;
+  }
+
+  public Integer getStateSnapshotInterval() {
+    return stateSnapshotInterval;
+  }
+
+  public void setStateSnapshotInterval(Integer stateSnapshotInterval) {
+    this.stateSnapshotInterval = stateSnapshotInterval;
+  }
+
+  public Boolean getPruneFinalized() {
+    return pruneFinalized;
+  }
+
+  public void setPruneFinalized(Boolean pruneFinalized) {
+    this.pruneFinalized = pruneFinalized;
+  }
+
+  public Family getDefaultFamily() {
+    return defaultFamily;
+  }
+
+  public void setDefaultFamily(Family defaultFamily) {
+    this.defaultFamily = defaultFamily;
+  }
+
+  public Map<String, Family> getFamilies() {
+    return families;
+  }
+
+  public void setFamilies(Map<String, Family> families) {
+    this.families = families;
+  }
+
+  /** Options of a column family. */
+  public static class Family {
+    private Integer blockSize;
+    private Integer bloomFilterBitsPerKey;
+    private String compression;
+    private String bottommostCompression;
+    private Long writeBufferSize;
+
+    public Integer getBlockSize() {
+      return blockSize;
+    }
+
+    public void setBlockSize(Integer blockSize) {
+      this.blockSize = blockSize;
+    }
+
+    public Integer getBloomFilterBitsPerKey() {
+      return bloomFilterBitsPerKey;
+    }
+
+    public void setBloomFilterBitsPerKey(Integer bloomFilterBitsPerKey) {
+      this.bloomFilterBitsPerKey = bloomFilterBitsPerKey;
+    }
+
+    public String getCompression() {
+      return compression;
+    }
+
+    public void setCompression(String compression) {
+      this.compression = compression;
+    }
+
+    public String getBottommostCompression() {
+      return bottommostCompression;
+    }
+
+    public void setBottommostCompression(String bottommostCompression) {
+      this.bottommostCompression = bottommostCompression;
+    }
+
+    public Long getWriteBufferSize() {
+      return writeBufferSize;
+    }
+
+    public void setWriteBufferSize(Long writeBufferSize) {
+      this.writeBufferSize = writeBufferSize;
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package org.ethereum.beacon.emulator.config.main;
+
+/** Block sync options, unset values are left at defaults. */
+public class SyncOptions {
+  /** Number of slot ranges downloaded concurrently, the number of active peers if unset. */
+  private Integer maxConcurrentRequests;
+  /** Maximum number of slots requested from a single peer at once, an epoch if unset. */
+  private Integer rangeSize;
+  private Integer preVerificationThreads;
+  /** Number of downloaded slot ranges buffered ahead of the import. */
+  private Integer importBufferSize;
+
+  public Integer getMaxConcurrentRequests() {
+    return maxConcurrentRequests;
+  }
+
+  public void setMaxConcurrentRequests(Integer maxConcurrentRequests) {
+    this.maxConcurrentRequests = maxConcurrentRequests;
+  }
+
+  public Integer getRangeSize() {
+    return rangeSize;
+  }
+
+  public void setRangeSize(Integer rangeSize) {
+    this.rangeSize = rangeSize;
+  }
+
+  public Integer getPreVerificationThreads() {
+    return preVerificationThreads;
+  }
+
+  public void setPreVerificationThreads(Integer preVerificationThreads) {
+    this.preVerificationThreads = preVerificationThreads;
+  }
+
+  public Integer getImportBufferSize() {
+    return importBufferSize;
+  }
+
+  public void setImportBufferSize(Integer importBufferSize) {
+    this.importBufferSize = importBufferSize;
+  }
+}
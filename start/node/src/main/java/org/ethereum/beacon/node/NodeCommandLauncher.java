@@ -8,6 +8,7 @@ import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.LoggerConfig;
 import org.ethereum.beacon.chain.storage.BeaconChainStorage;
+import org.ethereum.beacon.chain.storage.impl.BeaconChainStorageImpl;
 import org.ethereum.beacon.chain.storage.impl.SSZBeaconChainStorageFactory;
 import org.ethereum.beacon.chain.storage.impl.SerializerFactory;
 import org.ethereum.beacon.chain.storage.util.StorageUtils;
@@ -20,18 +21,23 @@ import org.ethereum.beacon.consensus.transition.InitialStateTransition;
 import org.ethereum.beacon.core.spec.SpecConstants;
 import org.ethereum.beacon.core.state.BeaconStateImpl;
 import org.ethereum.beacon.core.state.Eth1Data;
+import org.ethereum.beacon.core.types.EpochNumber;
 import org.ethereum.beacon.core.types.Time;
 import org.ethereum.beacon.crypto.BLS381.KeyPair;
 import org.ethereum.beacon.db.Database;
+import org.ethereum.beacon.db.rocksdb.ColumnFamilyConfig;
+import org.ethereum.beacon.db.rocksdb.RocksDbConfig;
 import org.ethereum.beacon.emulator.config.ConfigBuilder;
 import org.ethereum.beacon.emulator.config.ConfigException;
 import org.ethereum.beacon.emulator.config.chainspec.SpecBuilder;
 import org.ethereum.beacon.emulator.config.chainspec.SpecConstantsData;
 import org.ethereum.beacon.emulator.config.chainspec.SpecConstantsDataMerged;
 import org.ethereum.beacon.emulator.config.chainspec.SpecData;
+import org.ethereum.beacon.emulator.config.main.DbOptions;
 import org.ethereum.beacon.emulator.config.main.Debug;
 import org.ethereum.beacon.emulator.config.main.MainConfig;
 import org.ethereum.beacon.emulator.config.main.Signer.Insecure;
+import org.ethereum.beacon.emulator.config.main.SyncOptions;
 import org.ethereum.beacon.emulator.config.main.ValidatorKeys;
 import org.ethereum.beacon.emulator.config.main.ValidatorKeys.Private;
 import org.ethereum.beacon.emulator.config.main.conract.EmulatorContract;
@@ -51,6 +57,7 @@ import org.ethereum.beacon.start.common.util.SimpleDepositContract;
 import org.ethereum.beacon.util.Objects;
 import org.ethereum.beacon.validator.crypto.BLS381Credentials;
 import org.ethereum.beacon.wire.impl.libp2p.Libp2pLauncher;
+import org.ethereum.beacon.wire.sync.SyncManagerImpl;
 import org.jetbrains.annotations.NotNull;
 import reactor.core.publisher.Flux;
 import tech.pegasys.artemis.ethereum.core.Hash32;
@@ -264,8 +271,16 @@ public class NodeCommandLauncher implements Runnable {
     }
     Metrics.startMetricsServer(metricsHost, metricsPort);
 
+    DbOptions dbOptions = config.getConfig().getDbOptions();
     SSZBeaconChainStorageFactory storageFactory =
-        new SSZBeaconChainStorageFactory(spec.getObjectHasher(), serializerFactory);
+        new SSZBeaconChainStorageFactory(
+            spec,
+            serializerFactory,
+            dbOptions != null && dbOptions.getStateSnapshotInterval() != null
+                ? EpochNumber.of(dbOptions.getStateSnapshotInterval())
+                : null);
+    boolean pruneFinalized =
+        dbOptions != null && Boolean.TRUE.equals(dbOptions.getPruneFinalized());
 
     String dbPrefix = config.getConfig().getDb();
     String startMode;
@@ -285,16 +300,17 @@ public class NodeCommandLauncher implements Runnable {
     if (dbPrefix == null) {
       dbFactory = DatabaseManager.createInMemoryDBFactory();
     } else {
-      dbFactory = DatabaseManager.createRocksDBFactory(dbPrefix, DB_BUFFER_SIZE);
+      dbFactory =
+          DatabaseManager.createRocksDBFactory(
+              dbPrefix, DB_BUFFER_SIZE, createRocksDbConfig(config.getConfig().getDbOptions()));
     }
 
     Time genesisTime = initialState.getGenesisTime();
     Hash32 depositRoot = initialState.getEth1Data().getDepositRoot();
 
     Database db = dbFactory.getOrCreateDatabase(genesisTime, depositRoot);
-    BeaconChainStorage beaconChainStorage = storageFactory.create(db);
-
-    boolean emptyStorage = beaconChainStorage.getTupleStorage().isEmpty();
+    // storage with pruning is created once the database is cleaned if requested
+    boolean emptyStorage = storageFactory.create(db).getTupleStorage().isEmpty();
     boolean doInitialize;
     switch (startMode) {
       case "storage":
@@ -327,9 +343,15 @@ public class NodeCommandLauncher implements Runnable {
         throw new IllegalStateException("Cannot clean DB, remove files manually", e);
       }
       db = dbFactory.getOrCreateDatabase(genesisTime, depositRoot);
-      beaconChainStorage = storageFactory.create(db);
     }
 
+    Database coldDb =
+        pruneFinalized ? dbFactory.getOrCreateColdDatabase(genesisTime, depositRoot) : null;
+    BeaconChainStorage beaconChainStorage =
+        pruneFinalized
+            ? storageFactory.create(db, coldDb, schedulers)
+            : storageFactory.create(db);
+
     if (doInitialize) {
       StorageUtils.initializeStorage(beaconChainStorage, spec, initialState);
     }
@@ -344,6 +366,31 @@ public class NodeCommandLauncher implements Runnable {
             beaconChainStorage,
             schedulers,
             true);
+    if (config.getConfig().getVerificationThreads() != null) {
+      node.setVerificationThreads(config.getConfig().getVerificationThreads());
+    }
+    SyncOptions syncOptions =
+        config.getConfig().getSyncOptions() != null
+            ? config.getConfig().getSyncOptions()
+            : new SyncOptions();
+    // a range is requested from a single peer, ranges are spread across active peers by default
+    int activePeerCount =
+        networkCfg instanceof Libp2pNetwork
+            ? ((Libp2pNetwork) networkCfg).getActivePeers().size()
+            : 0;
+    node.setSyncParameters(
+        syncOptions.getMaxConcurrentRequests() != null
+            ? syncOptions.getMaxConcurrentRequests()
+            : Math.max(SyncManagerImpl.DEFAULT_MAX_CONCURRENT_BLOCK_REQUESTS, activePeerCount),
+        syncOptions.getRangeSize() != null
+            ? syncOptions.getRangeSize()
+            : spec.getConstants().getSlotsPerEpoch().intValue(),
+        syncOptions.getPreVerificationThreads() != null
+            ? syncOptions.getPreVerificationThreads()
+            : SyncManagerImpl.DEFAULT_PRE_VERIFICATION_THREADS,
+        syncOptions.getImportBufferSize() != null
+            ? syncOptions.getImportBufferSize()
+            : SyncManagerImpl.DEFAULT_IMPORT_BUFFER_SIZE);
 
     if (cliOptions.isDumpTuples()) {
       BeaconTupleDetailsDumper dumper =
@@ -373,7 +420,20 @@ public class NodeCommandLauncher implements Runnable {
 
     node.start();
 
-    Runtime.getRuntime().addShutdownHook(new Thread(node::stop));
+    Database finalColdDb = coldDb;
+    BeaconChainStorage finalChainStorage = beaconChainStorage;
+    Runtime.getRuntime()
+        .addShutdownHook(
+            new Thread(
+                () -> {
+                  if (finalChainStorage instanceof BeaconChainStorageImpl) {
+                    ((BeaconChainStorageImpl) finalChainStorage).stopPruning();
+                  }
+                  node.stop();
+                  if (finalColdDb != null) {
+                    finalColdDb.close();
+                  }
+                }));
 
     while (true) {
       try {
@@ -384,6 +444,59 @@ public class NodeCommandLauncher implements Runnable {
     }
   }
 
+  private static RocksDbConfig createRocksDbConfig(DbOptions options) {
+    RocksDbConfig config = new RocksDbConfig();
+    if (options == null) {
+      return config;
+    }
+    if (options.getColumnFamilies() != null) {
+      config.withColumnFamilies(options.getColumnFamilies());
+    }
+    if (options.getBlockCacheSize() != null) {
+      config.withBlockCacheSize(options.getBlockCacheSize());
+    }
+    if (options.getMaxOpenFiles() != null) {
+      config.withMaxOpenFiles(options.getMaxOpenFiles());
+    }
+    if (options.getParallelism() != null) {
+      config.withParallelism(options.getParallelism());
+    }
+    if (options.getSyncWrites() != null) {
+      config.withSyncWrites(options.getSyncWrites());
+    }
+    if (options.getDefaultFamily() != null) {
+      config.withDefaultFamily(
+          applyFamilyOptions(config.getDefaultFamily(), options.getDefaultFamily()));
+    }
+    options
+        .getFamilies()
+        .forEach(
+            (name, family) ->
+                config.withFamily(
+                    name, applyFamilyOptions(config.getFamily(name).copy(), family)));
+    return config;
+  }
+
+  private static ColumnFamilyConfig applyFamilyOptions(
+      ColumnFamilyConfig config, DbOptions.Family options) {
+    if (options.getBlockSize() != null) {
+      config.withBlockSize(options.getBlockSize());
+    }
+    if (options.getBloomFilterBitsPerKey() != null) {
+      config.withBloomFilterBitsPerKey(options.getBloomFilterBitsPerKey());
+    }
+    if (options.getCompression() != null) {
+      config.withCompression(options.getCompression());
+    }
+    if (options.getBottommostCompression() != null) {
+      config.withBottommostCompression(options.getBottommostCompression());
+    }
+    if (options.getWriteBufferSize() != null) {
+      config.withWriteBufferSize(options.getWriteBufferSize());
+    }
+    return config;
+  }
+
   public static class Builder {
     private MainConfig config;
     private Level logLevel = Level.INFO;
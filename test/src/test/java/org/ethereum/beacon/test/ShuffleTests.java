@@ -1,6 +1,7 @@
 package org.ethereum.beacon.test;
 
 import org.ethereum.beacon.consensus.BeaconChainSpec;
+import org.ethereum.beacon.core.types.ValidatorIndex;
 import org.ethereum.beacon.test.runner.shuffle.ShuffleRunner;
 import org.ethereum.beacon.test.type.shuffle.ShuffleTestCase;
 import org.junit.Test;
@@ -9,7 +10,9 @@ import tech.pegasys.artemis.util.uint.UInt64;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /** Committee shuffle test */
 public class ShuffleTests extends TestUtils {
@@ -66,4 +69,32 @@ public class ShuffleTests extends TestUtils {
           return testRunner.run();
         });
   }
+
+  /**
+   * Runs tests on whole list shuffling of primitive arrays, {@link
+   * BeaconChainSpec#get_permuted_list(int[], Bytes32)}
+   */
+  @Test
+  public void testShufflingOfIntArray() {
+    runSpecTestsInResourceDirs(
+        MINIMAL_TESTS,
+        MAINNET_TESTS,
+        SUBDIR,
+        ShuffleTestCase.class,
+        input -> {
+          ShuffleRunner testRunner =
+              new ShuffleRunner(
+                  input.getValue0(),
+                  input.getValue1(),
+                  objects -> {
+                    int[] indices =
+                        objects.getValue0().stream().mapToInt(ValidatorIndex::intValue).toArray();
+                    return Arrays.stream(
+                            input.getValue1().get_permuted_list(indices, objects.getValue1()))
+                        .mapToObj(ValidatorIndex::of)
+                        .collect(Collectors.toList());
+                  });
+          return testRunner.run();
+        });
+  }
 }
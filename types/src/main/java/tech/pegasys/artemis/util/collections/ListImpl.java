@@ -13,7 +13,7 @@ import java.util.stream.Stream;
 
 class ListImpl<IndexType extends Number, ValueType> implements WriteList<IndexType, ValueType> {
 
-  private final List<ValueType> backedList;
+  private final PersistentList<ValueType> backedList;
   private final Function<Integer, IndexType> indexConverter;
   private final boolean vector;
   private final long maxSize;
@@ -24,14 +24,18 @@ class ListImpl<IndexType extends Number, ValueType> implements WriteList<IndexTy
       boolean vector,
       long maxSize) {
     checkCapacity(source.size(), maxSize);
-    this.backedList = new ArrayList<>(source);
+    // copies of a persistent list share its structure and are made in constant time
+    this.backedList =
+        source instanceof PersistentList
+            ? ((PersistentList<ValueType>) source).copy()
+            : new PersistentList<>(source);
     this.indexConverter = indexConverter;
     this.vector = vector;
     this.maxSize = maxSize;
   }
 
   ListImpl(Function<Integer, IndexType> indexConverter, boolean vector, long maxSize) {
-    this(new ArrayList<>(), indexConverter, vector, maxSize);
+    this(new PersistentList<>(), indexConverter, vector, maxSize);
   }
 
   static <IndexType extends Number, ValueType> WriteList<IndexType, ValueType> wrap(
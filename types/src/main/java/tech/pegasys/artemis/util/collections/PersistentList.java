@@ -0,0 +1,353 @@
+package tech.pegasys.artemis.util.collections;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A list backed by a persistent 32-ary trie which makes {@link #copy()} a constant time operation.
+ *
+ * <p>A copy shares trie nodes with its origin. Each node is tagged with an owner, the list that
+ * has created the node. A list modifies in place only the nodes it owns, other nodes are copied
+ * along the path from the root on the first write, hence, a write costs {@code O(log32(n))} and
+ * memory taken by several versions of the list is proportional to the differences between them.
+ *
+ * <p>Appending to and removing from the tail are cheap, insertions and removals in the middle of
+ * the list rebuild the trie. A list created from a collection is built level by level, without
+ * walking the trie per element. Consecutive writes to the same leaf skip the walk as well.
+ *
+ * <p>{@link #copy()} only marks the current owner as shared, this list takes a new owner on its
+ * next write. Hence, copies could be taken concurrently with each other and with reads, but not
+ * with modifications of this list.
+ *
+ * @param <E> element type.
+ */
+public final class PersistentList<E> extends AbstractList<E> implements RandomAccess {
+
+  private static final int BITS = 5;
+  private static final int WIDTH = 1 << BITS;
+  private static final int MASK = WIDTH - 1;
+
+  private static final class Owner {
+    /** Set once nodes of the owner become shared with a copy. */
+    volatile boolean shared;
+  }
+
+  private static final class Node {
+    final Owner owner;
+    final Object[] array;
+
+    Node(Owner owner, Object[] array) {
+      this.owner = owner;
+      this.array = array;
+    }
+
+    Node(Owner owner) {
+      this(owner, new Object[WIDTH]);
+    }
+  }
+
+  private Owner owner = new Owner();
+  private Node root;
+  /** Level of the root, nodes at level {@code 0} are leaves holding elements. */
+  private int shift;
+  private int size;
+  /** Incremented on every write, unlike {@link #modCount} which tracks structural changes only. */
+  private int version;
+  /** The leaf written last and its number, valid while the leaf is owned by this list. */
+  private Object[] writeLeaf;
+  private int writeLeafNumber = -1;
+
+  public PersistentList() {
+    this.root = new Node(owner);
+    this.shift = BITS;
+    this.size = 0;
+  }
+
+  public PersistentList(Collection<? extends E> source) {
+    this();
+    build(source.toArray());
+  }
+
+  private PersistentList(Node root, int shift, int size) {
+    this.root = root;
+    this.shift = shift;
+    this.size = size;
+  }
+
+  /**
+   * Creates a copy of the list in constant time.
+   *
+   * @return a copy sharing structure with this list.
+   */
+  public PersistentList<E> copy() {
+    // nodes become shared, this list must copy them on write as well as the new one
+    owner.shared = true;
+    return new PersistentList<>(root, shift, size);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public E get(int index) {
+    checkIndex(index);
+    return (E) leafFor(index)[index & MASK];
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public E set(int index, E element) {
+    checkIndex(index);
+    Owner currentOwner = editOwner();
+    int leafNumber = index >>> BITS;
+    if (leafNumber != writeLeafNumber) {
+      Node node = root = editable(root, currentOwner);
+      for (int level = shift; level > 0; level -= BITS) {
+        int idx = (index >>> level) & MASK;
+        Node child = editable((Node) node.array[idx], currentOwner);
+        node.array[idx] = child;
+        node = child;
+      }
+      writeLeaf = node.array;
+      writeLeafNumber = leafNumber;
+    }
+    E old = (E) writeLeaf[index & MASK];
+    writeLeaf[index & MASK] = element;
+    version++;
+    return old;
+  }
+
+  @Override
+  public boolean add(E element) {
+    append(element);
+    return true;
+  }
+
+  @Override
+  public void add(int index, E element) {
+    if (index == size) {
+      append(element);
+    } else {
+      checkIndex(index);
+      List<E> elements = new ArrayList<>(this);
+      elements.add(index, element);
+      rebuild(elements);
+    }
+  }
+
+  @Override
+  public boolean addAll(int index, Collection<? extends E> elements) {
+    if (index == size) {
+      return addAll(elements);
+    }
+    checkIndex(index);
+    List<E> newElements = new ArrayList<>(this);
+    newElements.addAll(index, elements);
+    rebuild(newElements);
+    return !elements.isEmpty();
+  }
+
+  @Override
+  public E remove(int index) {
+    checkIndex(index);
+    E old;
+    if (index == size - 1) {
+      old = set(index, null);
+      size--;
+      modCount++;
+    } else {
+      List<E> elements = new ArrayList<>(this);
+      old = elements.remove(index);
+      rebuild(elements);
+    }
+    return old;
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    int index = indexOf(o);
+    if (index < 0) {
+      return false;
+    }
+    remove(index);
+    return true;
+  }
+
+  @Override
+  public boolean removeIf(Predicate<? super E> filter) {
+    List<E> retained = new ArrayList<>(size);
+    for (E element : this) {
+      if (!filter.test(element)) {
+        retained.add(element);
+      }
+    }
+    if (retained.size() == size) {
+      return false;
+    }
+    rebuild(retained);
+    return true;
+  }
+
+  @Override
+  public boolean removeAll(Collection<?> c) {
+    Objects.requireNonNull(c);
+    return removeIf(c::contains);
+  }
+
+  @Override
+  public boolean retainAll(Collection<?> c) {
+    Objects.requireNonNull(c);
+    return removeIf(e -> !c.contains(e));
+  }
+
+  @Override
+  public void clear() {
+    root = new Node(editOwner());
+    resetWriteLeaf();
+    shift = BITS;
+    size = 0;
+    version++;
+    modCount++;
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return new Iterator<E>() {
+      private int cursor = 0;
+      private int expectedVersion = version;
+      private Object[] leaf;
+
+      @Override
+      public boolean hasNext() {
+        return cursor < size;
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public E next() {
+        if (cursor >= size) {
+          throw new NoSuchElementException();
+        }
+        if (leaf == null || (cursor & MASK) == 0 || expectedVersion != version) {
+          leaf = leafFor(cursor);
+          expectedVersion = version;
+        }
+        return (E) leaf[cursor++ & MASK];
+      }
+    };
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void forEach(Consumer<? super E> action) {
+    for (int i = 0; i < size; i += WIDTH) {
+      Object[] leaf = leafFor(i);
+      int leafSize = Math.min(WIDTH, size - i);
+      for (int j = 0; j < leafSize; j++) {
+        action.accept((E) leaf[j]);
+      }
+    }
+  }
+
+  private void append(E element) {
+    if (shift + BITS < Integer.SIZE - 1 && size == 1 << (shift + BITS)) {
+      Node newRoot = new Node(editOwner());
+      newRoot.array[0] = root;
+      root = newRoot;
+      shift += BITS;
+    }
+
+    Owner currentOwner = editOwner();
+    Node node = root = editable(root, currentOwner);
+    for (int level = shift; level > 0; level -= BITS) {
+      int idx = (size >>> level) & MASK;
+      Node child = (Node) node.array[idx];
+      child = child == null ? new Node(currentOwner) : editable(child, currentOwner);
+      node.array[idx] = child;
+      node = child;
+    }
+    node.array[size & MASK] = element;
+    size++;
+    version++;
+    modCount++;
+  }
+
+  private void rebuild(Collection<? extends E> elements) {
+    clear();
+    build(elements.toArray());
+  }
+
+  /** Builds the trie of an empty list bottom up, level by level. */
+  private void build(Object[] elements) {
+    if (elements.length == 0) {
+      return;
+    }
+    Owner currentOwner = editOwner();
+    Node[] level = new Node[(elements.length + MASK) >>> BITS];
+    for (int i = 0; i < level.length; i++) {
+      level[i] = new Node(currentOwner);
+      int count = Math.min(WIDTH, elements.length - (i << BITS));
+      System.arraycopy(elements, i << BITS, level[i].array, 0, count);
+    }
+    int levelShift = 0;
+    do {
+      Node[] parents = new Node[(level.length + MASK) >>> BITS];
+      for (int i = 0; i < parents.length; i++) {
+        parents[i] = new Node(currentOwner);
+        int count = Math.min(WIDTH, level.length - (i << BITS));
+        System.arraycopy(level, i << BITS, parents[i].array, 0, count);
+      }
+      level = parents;
+      levelShift += BITS;
+    } while (level.length > 1);
+
+    root = level[0];
+    shift = levelShift;
+    size = elements.length;
+    version++;
+    modCount++;
+  }
+
+  /** Returns the owner of new nodes, takes a new one if the current is shared with a copy. */
+  private Owner editOwner() {
+    if (owner.shared) {
+      owner = new Owner();
+      resetWriteLeaf();
+    }
+    return owner;
+  }
+
+  private void resetWriteLeaf() {
+    writeLeaf = null;
+    writeLeafNumber = -1;
+  }
+
+  private Object[] leafFor(int index) {
+    Node node = root;
+    for (int level = shift; level > 0; level -= BITS) {
+      node = (Node) node.array[(index >>> level) & MASK];
+    }
+    return node.array;
+  }
+
+  private static Node editable(Node node, Owner owner) {
+    return node.owner == owner ? node : new Node(owner, node.array.clone());
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+  }
+}
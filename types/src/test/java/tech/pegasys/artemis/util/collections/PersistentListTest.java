@@ -0,0 +1,118 @@
+package tech.pegasys.artemis.util.collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class PersistentListTest {
+
+  @Test
+  public void copiesAreIndependent() {
+    PersistentList<Integer> origin = new PersistentList<>();
+    List<Integer> expectedOrigin = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      origin.add(i);
+      expectedOrigin.add(i);
+    }
+
+    PersistentList<Integer> copy = origin.copy();
+    List<Integer> expectedCopy = new ArrayList<>(expectedOrigin);
+
+    Random random = new Random(1);
+    for (int i = 0; i < 2000; i++) {
+      int idx = random.nextInt(expectedOrigin.size());
+      origin.set(idx, -i);
+      expectedOrigin.set(idx, -i);
+
+      idx = random.nextInt(expectedCopy.size());
+      copy.set(idx, i * 10);
+      expectedCopy.set(idx, i * 10);
+    }
+    for (int i = 0; i < 1500; i++) {
+      copy.add(i);
+      expectedCopy.add(i);
+    }
+    origin.remove(origin.size() - 1);
+    expectedOrigin.remove(expectedOrigin.size() - 1);
+
+    assertThat(origin).containsExactlyElementsOf(expectedOrigin);
+    assertThat(copy).containsExactlyElementsOf(expectedCopy);
+  }
+
+  @Test
+  public void copyOfCopy() {
+    PersistentList<Integer> first = new PersistentList<>();
+    for (int i = 0; i < 100; i++) {
+      first.add(i);
+    }
+    PersistentList<Integer> second = first.copy();
+    second.set(50, -1);
+    PersistentList<Integer> third = second.copy();
+    third.set(50, -2);
+    second.set(51, -3);
+
+    assertThat(first.get(50)).isEqualTo(50);
+    assertThat(first.get(51)).isEqualTo(51);
+    assertThat(second.get(50)).isEqualTo(-1);
+    assertThat(second.get(51)).isEqualTo(-3);
+    assertThat(third.get(50)).isEqualTo(-2);
+    assertThat(third.get(51)).isEqualTo(51);
+  }
+
+  @Test
+  public void structuralModifications() {
+    PersistentList<Integer> list = new PersistentList<>();
+    List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      list.add(i);
+      expected.add(i);
+    }
+    PersistentList<Integer> copy = list.copy();
+
+    list.add(10, -1);
+    expected.add(10, -1);
+    list.remove(20);
+    expected.remove(20);
+    list.removeIf(i -> i % 3 == 0);
+    expected.removeIf(i -> i % 3 == 0);
+    list.sort(Integer::compare);
+    expected.sort(Integer::compare);
+    assertThat(list).containsExactlyElementsOf(expected);
+    assertThat(copy).hasSize(100);
+    assertThat(copy.get(99)).isEqualTo(99);
+
+    list.clear();
+    assertThat(list).isEmpty();
+    list.add(1);
+    assertThat(list).containsExactly(1);
+    assertThat(copy.get(0)).isEqualTo(0);
+  }
+
+  @Test
+  public void builtFromCollection() {
+    for (int size : new int[] {0, 1, 32, 33, 1024, 1025, 40000}) {
+      List<Integer> expected = new ArrayList<>();
+      for (int i = 0; i < size; i++) {
+        expected.add(i);
+      }
+      PersistentList<Integer> list = new PersistentList<>(expected);
+      assertThat(list).containsExactlyElementsOf(expected);
+
+      PersistentList<Integer> copy = list.copy();
+      for (int i = 0; i < 100; i++) {
+        list.add(size + i);
+        expected.add(size + i);
+      }
+      if (size > 0) {
+        list.set(size / 2, -1);
+        expected.set(size / 2, -1);
+      }
+      assertThat(list).containsExactlyElementsOf(expected);
+      assertThat(copy).hasSize(size);
+      assertThat(copy).allMatch(i -> i >= 0);
+    }
+  }
+}
@@ -56,6 +56,11 @@ public class ErrorHandlingScheduler implements Scheduler {
     return delegate.getCurrentTime();
   }
 
+  @Override
+  public void stop() {
+    delegate.stop();
+  }
+
   @Override
   public reactor.core.scheduler.Scheduler toReactor() {
     if (cachedReactor == null) {
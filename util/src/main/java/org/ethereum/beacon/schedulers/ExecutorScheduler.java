@@ -81,6 +81,11 @@ public class ExecutorScheduler implements Scheduler {
     return timeSupplier.get();
   }
 
+  @Override
+  public void stop() {
+    executorService.shutdownNow();
+  }
+
   public ScheduledExecutorService getExecutorService() {
     return executorService;
   }
@@ -18,6 +18,14 @@ public interface Scheduler {
 
   long getCurrentTime();
 
+  /**
+   * Stops the scheduler, tasks that are not started yet are dropped. Only schedulers created by the
+   * caller (e.g. with {@link Schedulers#newSingleThreadDaemon(String)} or {@link
+   * Schedulers#newParallelDaemon(String, int)}) are expected to be stopped, shared ones are owned
+   * by {@link Schedulers}.
+   */
+  default void stop() {}
+
   default reactor.core.scheduler.Scheduler toReactor() {
     return convertToReactor(this);
   }
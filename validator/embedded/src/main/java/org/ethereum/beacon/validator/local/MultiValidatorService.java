@@ -2,6 +2,7 @@ package org.ethereum.beacon.validator.local;
 
 import com.google.common.annotations.VisibleForTesting;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -120,14 +121,11 @@ public class MultiValidatorService implements ValidatorService {
   private void initFromLatestBeaconState(BeaconState state) {
     Map<ValidatorIndex, BLS381Credentials> intoCommittees = new HashMap<>();
 
-    for (ValidatorIndex i : state.getValidators().size()) {
-      BLS381Credentials credentials =
-          uninitialized.remove(state.getValidators().get(i).getPubKey());
-      if (credentials != null) {
-        intoCommittees.put(i, credentials);
-      }
-      if (uninitialized.isEmpty()) {
-        break;
+    // lookups are served by spec's pubkey index, no need to scan the whole registry
+    for (BLSPubkey pubkey : new ArrayList<>(uninitialized.keySet())) {
+      ValidatorIndex index = spec.get_validator_index_by_pubkey(state, pubkey);
+      if (!index.equals(ValidatorIndex.MAX)) {
+        intoCommittees.put(index, uninitialized.remove(pubkey));
       }
     }
 
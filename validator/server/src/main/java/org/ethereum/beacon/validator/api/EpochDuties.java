@@ -0,0 +1,185 @@
+package org.ethereum.beacon.validator.api;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.annotation.Nullable;
+import org.ethereum.beacon.consensus.BeaconChainSpec;
+import org.ethereum.beacon.core.BeaconState;
+import org.ethereum.beacon.core.spec.SignatureDomains;
+import org.ethereum.beacon.core.types.BLSPubkey;
+import org.ethereum.beacon.core.types.CommitteeIndex;
+import org.ethereum.beacon.core.types.EpochNumber;
+import org.ethereum.beacon.core.types.SlotNumber;
+import org.ethereum.beacon.core.types.ValidatorIndex;
+import tech.pegasys.artemis.ethereum.core.Hash32;
+import tech.pegasys.artemis.util.uint.UInt64;
+import tech.pegasys.artemis.util.uint.UInt64s;
+
+/**
+ * Attester and proposer duties of all validators in an epoch, indexed by validator index and by
+ * public key.
+ *
+ * <p>Duties are computed from a state and stay valid for other states on the same chain, they are
+ * outdated by a reorg that changes shuffling seeds of the epoch. Proposers of an upcoming epoch
+ * depend on effective balances which are updated on the epoch transition, hence, duties computed
+ * in advance are treated as valid until a state of the epoch itself is seen.
+ *
+ * <p>Seeds are not enough once the epoch has started: a reorg of the last blocks of the previous
+ * epoch could keep the randao mix but change effective balances. Duties computed in the epoch
+ * remember the block root of the last slot of the previous epoch, which the epoch transition was
+ * applied on top of, and are outdated when a state reports a different one.
+ */
+public class EpochDuties {
+
+  private final EpochNumber epoch;
+  private final Hash32 attesterSeed;
+  private final Hash32 proposerSeed;
+  private final boolean computedInEpoch;
+  private final Hash32 dependentRoot;
+
+  private final Map<ValidatorIndex, ValidatorDuty> byIndex;
+  private final Map<BLSPubkey, ValidatorDuty> byPubkey;
+
+  private EpochDuties(
+      EpochNumber epoch,
+      Hash32 attesterSeed,
+      Hash32 proposerSeed,
+      boolean computedInEpoch,
+      Hash32 dependentRoot,
+      Map<ValidatorIndex, ValidatorDuty> byIndex,
+      Map<BLSPubkey, ValidatorDuty> byPubkey) {
+    this.epoch = epoch;
+    this.attesterSeed = attesterSeed;
+    this.proposerSeed = proposerSeed;
+    this.computedInEpoch = computedInEpoch;
+    this.dependentRoot = dependentRoot;
+    this.byIndex = byIndex;
+    this.byPubkey = byPubkey;
+  }
+
+  /**
+   * Computes duties of the epoch.
+   *
+   * @param spec spec instance.
+   * @param state a state of either the epoch or of the previous epoch.
+   * @param epoch an epoch.
+   * @return duties.
+   */
+  public static EpochDuties compute(BeaconChainSpec spec, BeaconState state, EpochNumber epoch) {
+    SlotNumber startSlot = spec.compute_start_slot_at_epoch(epoch);
+    SlotNumber endSlot = startSlot.plus(spec.getConstants().getSlotsPerEpoch());
+    Hash32 proposerSeed = spec.get_seed(state, epoch, SignatureDomains.BEACON_PROPOSER);
+    List<ValidatorIndex> activeIndices = spec.get_active_validator_indices(state, epoch);
+
+    Map<ValidatorIndex, SlotNumber> proposalSlots = new HashMap<>();
+    Map<ValidatorIndex, ValidatorDuty> byIndex = new HashMap<>(activeIndices.size() * 2);
+    Map<BLSPubkey, ValidatorDuty> byPubkey = new HashMap<>(activeIndices.size() * 2);
+    for (SlotNumber slot : startSlot.iterateTo(endSlot)) {
+      // get_beacon_proposer_index as if it was called with a state of the slot
+      Hash32 seed = spec.hash(proposerSeed.concat(spec.int_to_bytes8(slot.getValue())));
+      proposalSlots.putIfAbsent(spec.compute_proposer_index(state, activeIndices, seed), slot);
+
+      for (UInt64 i : UInt64s.iterate(UInt64.ZERO, spec.get_committee_count_at_slot(state, slot))) {
+        CommitteeIndex committeeIndex = new CommitteeIndex(i);
+        for (ValidatorIndex index : spec.get_beacon_committee(state, slot, committeeIndex)) {
+          ValidatorDuty duty = new ValidatorDuty(index, slot, committeeIndex);
+          byIndex.put(index, duty);
+          byPubkey.put(state.getValidators().get(index).getPubKey(), duty);
+        }
+      }
+    }
+    proposalSlots.forEach(
+        (index, slot) -> {
+          ValidatorDuty duty = byIndex.get(index);
+          if (duty != null) {
+            duty.proposalSlot = slot;
+          }
+        });
+
+    boolean computedInEpoch = spec.get_current_epoch(state).equals(epoch);
+    return new EpochDuties(
+        epoch,
+        spec.get_seed(state, epoch, SignatureDomains.BEACON_ATTESTER),
+        proposerSeed,
+        computedInEpoch,
+        computedInEpoch ? getDependentRoot(spec, state, epoch) : Hash32.ZERO,
+        Collections.unmodifiableMap(byIndex),
+        Collections.unmodifiableMap(byPubkey));
+  }
+
+  /**
+   * Checks whether duties match the chain that given state belongs to.
+   *
+   * @param spec spec instance.
+   * @param state a state of either the epoch or of the previous epoch.
+   * @return {@code true} if duties are valid, {@code false} if they must be recomputed.
+   */
+  public boolean isValidFor(BeaconChainSpec spec, BeaconState state) {
+    if (spec.get_current_epoch(state).equals(epoch)
+        && (!computedInEpoch || !dependentRoot.equals(getDependentRoot(spec, state, epoch)))) {
+      return false;
+    }
+    return attesterSeed.equals(spec.get_seed(state, epoch, SignatureDomains.BEACON_ATTESTER))
+        && proposerSeed.equals(spec.get_seed(state, epoch, SignatureDomains.BEACON_PROPOSER));
+  }
+
+  /**
+   * Returns the root of the block at the last slot of the previous epoch, duties of the epoch
+   * depend on the chain up to this block.
+   */
+  private static Hash32 getDependentRoot(
+      BeaconChainSpec spec, BeaconState state, EpochNumber epoch) {
+    SlotNumber startSlot = spec.compute_start_slot_at_epoch(epoch);
+    if (startSlot.lessEqual(spec.getConstants().getGenesisSlot())) {
+      return Hash32.ZERO;
+    }
+    return spec.get_block_root_at_slot(state, startSlot.decrement());
+  }
+
+  public EpochNumber getEpoch() {
+    return epoch;
+  }
+
+  public Optional<ValidatorDuty> getDuty(ValidatorIndex index) {
+    return Optional.ofNullable(byIndex.get(index));
+  }
+
+  public Optional<ValidatorDuty> getDuty(BLSPubkey pubkey) {
+    return Optional.ofNullable(byPubkey.get(pubkey));
+  }
+
+  /** Duties of an active validator, every active validator attests once per epoch. */
+  public static class ValidatorDuty {
+    private final ValidatorIndex validatorIndex;
+    private final SlotNumber attestationSlot;
+    private final CommitteeIndex committeeIndex;
+    @Nullable private SlotNumber proposalSlot;
+
+    private ValidatorDuty(
+        ValidatorIndex validatorIndex, SlotNumber attestationSlot, CommitteeIndex committeeIndex) {
+      this.validatorIndex = validatorIndex;
+      this.attestationSlot = attestationSlot;
+      this.committeeIndex = committeeIndex;
+    }
+
+    public ValidatorIndex getValidatorIndex() {
+      return validatorIndex;
+    }
+
+    public SlotNumber getAttestationSlot() {
+      return attestationSlot;
+    }
+
+    public CommitteeIndex getCommitteeIndex() {
+      return committeeIndex;
+    }
+
+    /** @return the first slot of the epoch the validator proposes a block at if any. */
+    public Optional<SlotNumber> getProposalSlot() {
+      return Optional.ofNullable(proposalSlot);
+    }
+  }
+}
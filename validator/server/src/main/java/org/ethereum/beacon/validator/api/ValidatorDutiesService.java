@@ -7,7 +7,6 @@ import org.ethereum.beacon.consensus.BlockTransition;
 import org.ethereum.beacon.core.BeaconBlock;
 import org.ethereum.beacon.core.BeaconState;
 import org.ethereum.beacon.core.operations.Attestation;
-import org.ethereum.beacon.core.state.BeaconCommittee;
 import org.ethereum.beacon.core.types.BLSSignature;
 import org.ethereum.beacon.core.types.CommitteeIndex;
 import org.ethereum.beacon.core.types.EpochNumber;
@@ -18,32 +17,48 @@ import org.ethereum.beacon.validator.BeaconChainAttester;
 import org.ethereum.beacon.validator.BeaconChainProposer;
 import org.ethereum.beacon.validator.attester.BeaconChainAttesterImpl;
 import org.ethereum.beacon.validator.proposer.BeaconChainProposerImpl;
-import org.javatuples.Pair;
-import org.javatuples.Triplet;
-import tech.pegasys.artemis.util.uint.UInt64;
-import tech.pegasys.artemis.util.uint.UInt64s;
 
-import java.math.BigInteger;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /** Validator tasks service: searching for tasks, proposing and attesting */
 public class ValidatorDutiesService {
   private final BeaconChainSpec spec;
   private final BeaconChainAttester attester;
   private final BeaconChainProposer proposer;
+  private final SlotNumber nextEpochLookahead;
+  private final Map<EpochNumber, EpochDuties> epochDuties = new ConcurrentHashMap<>();
 
   public ValidatorDutiesService(
       BeaconChainSpec spec,
       BlockTransition<BeaconStateEx> perBlockTransition,
       DepositContract depositContract) {
+    this(spec, perBlockTransition, depositContract, spec.getConstants().getSlotsPerEpoch());
+  }
+
+  /**
+   * @param nextEpochLookahead number of slots before the epoch boundary that duties of the next
+   *     epoch are computed at, by default they are computed for the whole epoch in advance.
+   */
+  public ValidatorDutiesService(
+      BeaconChainSpec spec,
+      BlockTransition<BeaconStateEx> perBlockTransition,
+      DepositContract depositContract,
+      SlotNumber nextEpochLookahead) {
     this.spec = spec;
+    this.nextEpochLookahead = nextEpochLookahead;
     this.attester = new BeaconChainAttesterImpl(spec);
     this.proposer = new BeaconChainProposerImpl(spec, perBlockTransition, depositContract);
   }
 
+  /**
+   * @return number of slots before the epoch boundary that duties of the next epoch are computed
+   *     at.
+   */
+  public SlotNumber getNextEpochLookahead() {
+    return nextEpochLookahead;
+  }
+
   public BeaconBlock prepareBlock(
       SlotNumber slot, BLSSignature randaoReveal, ObservableBeaconState observableBeaconState) {
     return proposer.propose(observableBeaconState, randaoReveal);
@@ -62,76 +77,40 @@ public class ValidatorDutiesService {
   }
 
   /**
-   * Produces map of validator duties (attesting and proposing) for provided epoch with provided
-   * state
+   * Returns duties of the epoch. Duties are served from the cache when they match the chain of
+   * the state, otherwise, they are computed and cached.
    *
-   * @param epoch Epoch
-   * @param state Beacon state
-   * @return Map: Slot: Pair with [Proposer, Attesters]
+   * @param state a state of either the epoch or of the previous epoch.
+   * @param epoch an epoch.
+   * @return duties of all active validators.
    */
-  public Map<SlotNumber, Pair<ValidatorIndex, List<BeaconCommittee>>> getValidatorDuties(
-      BeaconState state, EpochNumber epoch) {
-    SlotNumber startSlot = spec.compute_start_slot_at_epoch(epoch);
-    Map<SlotNumber, Pair<ValidatorIndex, List<BeaconCommittee>>> epochCommitees = new HashMap<>();
-    for (SlotNumber slot = startSlot;
-        slot.less(startSlot.plus(spec.getConstants().getSlotsPerEpoch()));
-        slot = slot.increment()) {
-      List<BeaconCommittee> ret = new ArrayList<>();
-      ValidatorIndex proposerIndex = null;
-      for (UInt64 index :
-          UInt64s.iterate(
-              UInt64.ZERO,
-              spec.get_committee_count_at_slot(state, slot))) {
-        List<ValidatorIndex> committee = spec.get_beacon_committee(state, slot, new CommitteeIndex(index));
-        if (ret.isEmpty()) { // first committee
-          proposerIndex = spec.get_beacon_proposer_index(state);
-        }
-        ret.add(new BeaconCommittee(committee, new CommitteeIndex(index)));
-      }
-      epochCommitees.put(slot, Pair.with(proposerIndex, ret));
+  public EpochDuties getEpochDuties(BeaconState state, EpochNumber epoch) {
+    EpochDuties duties = epochDuties.get(epoch);
+    if (duties != null && duties.isValidFor(spec, state)) {
+      return duties;
     }
 
-    return epochCommitees;
+    duties = EpochDuties.compute(spec, state, epoch);
+    epochDuties.put(epoch, duties);
+    return duties;
   }
 
   /**
-   * Returns validator duties for provided validator
+   * Computes duties of the current epoch of the state and of the next one if the state is close
+   * enough to the epoch boundary. Duties of previous epochs are evicted.
+   *
+   * <p>Supposed to be called with each new state outside of request handling threads.
    *
-   * @param validatorIndex Validator index
-   * @param duties Epoch validator duties
-   * @return Block proposal slot, Attester committee index, Attester slot
+   * @param state the latest state.
    */
-  public Triplet<BigInteger, Integer, BigInteger> findDutyForValidator(
-      ValidatorIndex validatorIndex,
-      Map<SlotNumber, Pair<ValidatorIndex, List<BeaconCommittee>>> duties) {
-    BigInteger blockProposal = null;
-    Integer attesterCommitteeIndex = null;
-    BigInteger attesterSlot = null;
-    boolean attesterFound = false;
-    boolean proposerFound = false;
-    for (Map.Entry<SlotNumber, Pair<ValidatorIndex, List<BeaconCommittee>>> entry :
-        duties.entrySet()) {
-      if (!proposerFound && entry.getValue().getValue0().equals(validatorIndex)) {
-        blockProposal = entry.getKey().toBI();
-        proposerFound = true;
-      }
-
-      if (!attesterFound) {
-        for (BeaconCommittee beaconCommittee : entry.getValue().getValue1()) {
-          if (beaconCommittee.getCommittee().contains(validatorIndex)) {
-            attesterCommitteeIndex = beaconCommittee.getIndex().intValue();
-            attesterSlot = entry.getKey().toBI();
-            attesterFound = true;
-            break;
-          }
-        }
-      }
+  public void prepareEpochDuties(BeaconState state) {
+    EpochNumber currentEpoch = spec.get_current_epoch(state);
+    epochDuties.keySet().removeIf(epoch -> epoch.less(currentEpoch));
 
-      if (proposerFound && attesterFound) {
-        return Triplet.with(blockProposal, attesterCommitteeIndex, attesterSlot);
-      }
+    getEpochDuties(state, currentEpoch);
+    SlotNumber nextEpochStart = spec.compute_start_slot_at_epoch(currentEpoch.increment());
+    if (state.getSlot().plus(nextEpochLookahead).greaterEqual(nextEpochStart)) {
+      getEpochDuties(state, currentEpoch.increment());
     }
-
-    return Triplet.with(blockProposal, attesterCommitteeIndex, attesterSlot);
   }
 }
@@ -6,6 +6,8 @@ import org.apache.logging.log4j.Logger;
 import org.ethereum.beacon.chain.MutableBeaconChain;
 import org.ethereum.beacon.chain.observer.ObservableStateProcessor;
 import org.ethereum.beacon.consensus.BeaconChainSpec;
+import org.ethereum.beacon.schedulers.Scheduler;
+import org.ethereum.beacon.schedulers.Schedulers;
 import org.ethereum.beacon.validator.api.controller.AttestationController;
 import org.ethereum.beacon.validator.api.controller.BlockController;
 import org.ethereum.beacon.validator.api.controller.ControllerRoute;
@@ -28,18 +30,28 @@ import java.util.List;
 public class ValidatorRest implements ValidatorServer {
   private static final Logger logger = LogManager.getLogger(ValidatorRest.class);
   private final RestServerVerticle server;
+  private final Scheduler dutiesScheduler;
   private String id = null;
   private Vertx vertx = Vertx.vertx();
 
+  /**
+   * @param schedulers schedulers of the node, duties are computed on a thread created with them
+   *     which is stopped along with the server.
+   * @param validatorDutiesService duties service, see {@link
+   *     ValidatorDutiesService#getNextEpochLookahead()} for when duties of the next epoch are
+   *     computed.
+   */
   public ValidatorRest(
       Integer serverPort,
       BeaconChainSpec spec,
+      Schedulers schedulers,
       ObservableStateProcessor stateProcessor,
       PeerManager peerManager,
       SyncManager syncManager,
       UInt64 chainId,
       ValidatorDutiesService validatorDutiesService,
       MutableBeaconChain beaconChain) {
+    this.dutiesScheduler = schedulers.newSingleThreadDaemon("validator-duties");
     List<ControllerRoute> controllers = new ArrayList<>();
     controllers.add(ControllerRoute.of("/node/version", new VersionController()));
     controllers.add(ControllerRoute.of("/node/genesis_time", new TimeController(stateProcessor)));
@@ -48,7 +60,8 @@ public class ValidatorRest implements ValidatorServer {
     controllers.add(
         ControllerRoute.of(
             "/validator/duties",
-            new DutiesController(stateProcessor, validatorDutiesService, syncManager, spec)));
+            new DutiesController(
+                stateProcessor, validatorDutiesService, syncManager, spec, dutiesScheduler)));
     controllers.add(
         ControllerRoute.of(
             "/validator/block",
@@ -94,6 +107,7 @@ public class ValidatorRest implements ValidatorServer {
     try {
       server.stop();
       vertx.undeploy(id);
+      dutiesScheduler.stop();
       this.id = null;
     } catch (Exception e) {
       logger.error(String.format("Failed to stop Validator REST with id #%s", id), e);
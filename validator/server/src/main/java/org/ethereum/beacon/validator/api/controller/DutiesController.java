@@ -4,50 +4,68 @@ import io.vertx.core.Handler;
 import io.vertx.core.MultiMap;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.ext.web.RoutingContext;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.ethereum.beacon.chain.observer.ObservableBeaconState;
 import org.ethereum.beacon.chain.observer.ObservableStateProcessor;
 import org.ethereum.beacon.consensus.BeaconChainSpec;
 import org.ethereum.beacon.consensus.BeaconStateEx;
-import org.ethereum.beacon.core.state.BeaconCommittee;
 import org.ethereum.beacon.core.types.BLSPubkey;
 import org.ethereum.beacon.core.types.EpochNumber;
 import org.ethereum.beacon.core.types.SlotNumber;
-import org.ethereum.beacon.core.types.ValidatorIndex;
+import org.ethereum.beacon.schedulers.LatestExecutor;
+import org.ethereum.beacon.schedulers.Scheduler;
+import org.ethereum.beacon.validator.api.EpochDuties;
 import org.ethereum.beacon.validator.api.InvalidInputException;
 import org.ethereum.beacon.validator.api.NotAcceptableInputException;
 import org.ethereum.beacon.validator.api.ValidatorDutiesService;
 import org.ethereum.beacon.validator.api.model.ValidatorDutiesResponse;
 import org.ethereum.beacon.wire.sync.SyncManager;
-import org.javatuples.Pair;
-import org.javatuples.Triplet;
 import reactor.core.publisher.Flux;
 import tech.pegasys.artemis.util.bytes.Bytes48;
 import tech.pegasys.artemis.util.uint.UInt64;
 
-import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 public class DutiesController extends SyncRestController {
+  private static final Logger logger = LogManager.getLogger(DutiesController.class);
+
   private final BeaconChainSpec spec;
   private final ValidatorDutiesService service;
+  private final LatestExecutor<BeaconStateEx> dutiesExecutor;
   private ObservableBeaconState observableBeaconState = null;
 
+  /**
+   * @param dutiesScheduler scheduler that duties are computed on, keeps this work away from the
+   *     event loop serving requests.
+   */
   public DutiesController(
       ObservableStateProcessor stateProcessor,
       ValidatorDutiesService service,
       SyncManager syncManager,
-      BeaconChainSpec spec) {
+      BeaconChainSpec spec,
+      Scheduler dutiesScheduler) {
     super(syncManager);
-    Flux.from(stateProcessor.getObservableStateStream()).subscribe(this::updateState);
     this.spec = spec;
     this.service = service;
+    this.dutiesExecutor = new LatestExecutor<>(dutiesScheduler, this::prepareDuties);
+    Flux.from(stateProcessor.getObservableStateStream()).subscribe(this::updateState);
   }
 
   private void updateState(ObservableBeaconState observableBeaconState) {
     this.observableBeaconState = observableBeaconState;
+    dutiesExecutor.newEvent(observableBeaconState.getLatestSlotState());
+  }
+
+  private void prepareDuties(BeaconStateEx state) {
+    try {
+      service.prepareEpochDuties(state);
+    } catch (Exception e) {
+      logger.warn("Failed to compute validator duties", e);
+    }
   }
 
   @Override
@@ -76,21 +94,20 @@ public class DutiesController extends SyncRestController {
       if (!epoch.lessEqual(spec.get_current_epoch(stateEx).increment())) {
         throw new NotAcceptableInputException("Couldn't provide duties for requested epoch");
       }
-      Map<SlotNumber, Pair<ValidatorIndex, List<BeaconCommittee>>> validatorDuties =
-          service.getValidatorDuties(stateEx, epoch);
+      // normally precomputed, see ValidatorDutiesService#prepareEpochDuties
+      EpochDuties epochDuties = service.getEpochDuties(stateEx, epoch);
 
       List<ValidatorDutiesResponse.ValidatorDuty> responseList = new ArrayList<>();
       for (BLSPubkey pubkey : pubKeys) {
-        ValidatorIndex validatorIndex = spec.get_validator_index_by_pubkey(stateEx, pubkey);
-        Triplet<BigInteger, Integer, BigInteger> duty =
-            service.findDutyForValidator(validatorIndex, validatorDuties);
-        if (duty.getValue1() != null) {
+        Optional<EpochDuties.ValidatorDuty> duty = epochDuties.getDuty(pubkey);
+        if (duty.isPresent()) {
           ValidatorDutiesResponse.ValidatorDuty dutyResponse =
               new ValidatorDutiesResponse.ValidatorDuty();
           dutyResponse.setValidatorPubkey(pubkey.toHexString());
-          dutyResponse.setBlockProposalSlot(duty.getValue0());
-          dutyResponse.setAttestationSlot(duty.getValue2());
-          dutyResponse.setAttestationShard(duty.getValue1());
+          dutyResponse.setBlockProposalSlot(
+              duty.get().getProposalSlot().map(SlotNumber::toBI).orElse(null));
+          dutyResponse.setAttestationSlot(duty.get().getAttestationSlot().toBI());
+          dutyResponse.setAttestationShard(duty.get().getCommitteeIndex().intValue());
           responseList.add(dutyResponse);
         }
       }
@@ -0,0 +1,146 @@
+package org.ethereum.beacon.validator.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.ethereum.beacon.consensus.BeaconChainSpec;
+import org.ethereum.beacon.core.BeaconState;
+import org.ethereum.beacon.core.MutableBeaconState;
+import org.ethereum.beacon.core.spec.SpecConstants;
+import org.ethereum.beacon.core.state.ValidatorRecord;
+import org.ethereum.beacon.core.types.BLSPubkey;
+import org.ethereum.beacon.core.types.CommitteeIndex;
+import org.ethereum.beacon.core.types.EpochNumber;
+import org.ethereum.beacon.core.types.SlotNumber;
+import org.ethereum.beacon.core.types.ValidatorIndex;
+import org.junit.Test;
+import tech.pegasys.artemis.ethereum.core.Hash32;
+import tech.pegasys.artemis.util.bytes.Bytes48;
+import tech.pegasys.artemis.util.uint.UInt64;
+import tech.pegasys.artemis.util.uint.UInt64s;
+
+public class EpochDutiesTest {
+
+  private static final int VALIDATOR_COUNT = 64;
+
+  private final SpecConstants constants =
+      new SpecConstants() {
+        @Override
+        public SlotNumber.EpochLength getSlotsPerEpoch() {
+          return new SlotNumber.EpochLength(UInt64.valueOf(4));
+        }
+
+        @Override
+        public ValidatorIndex getTargetCommitteeSize() {
+          return ValidatorIndex.of(4);
+        }
+
+        @Override
+        public EpochNumber getEpochsPerHistoricalVector() {
+          return EpochNumber.of(16);
+        }
+      };
+
+  private final BeaconChainSpec spec =
+      new BeaconChainSpec.Builder()
+          .withConstants(constants)
+          .withDefaultHashFunction()
+          .withDefaultHasher()
+          .withBlsVerify(false)
+          .enableCache()
+          .build();
+
+  private MutableBeaconState createState(Random rnd) {
+    MutableBeaconState state = BeaconState.getEmpty(constants).createMutableCopy();
+    state.setSlot(SlotNumber.of(9));
+    for (EpochNumber epoch : EpochNumber.ZERO.iterateTo(constants.getEpochsPerHistoricalVector())) {
+      state.getRandaoMixes().set(epoch, Hash32.random(rnd));
+    }
+    for (int i = 0; i < VALIDATOR_COUNT; i++) {
+      state
+          .getValidators()
+          .add(
+              new ValidatorRecord(
+                  BLSPubkey.wrap(Bytes48.random(rnd)),
+                  Hash32.ZERO,
+                  constants.getMaxEffectiveBalance(),
+                  false,
+                  EpochNumber.ZERO,
+                  EpochNumber.ZERO,
+                  constants.getFarFutureEpoch(),
+                  constants.getFarFutureEpoch()));
+      state.getBalances().add(constants.getMaxEffectiveBalance());
+    }
+    return state;
+  }
+
+  @Test
+  public void matchesSpec() {
+    BeaconState state = createState(new Random(1)).createImmutable();
+    EpochNumber epoch = spec.get_current_epoch(state);
+    EpochDuties duties = EpochDuties.compute(spec, state, epoch);
+
+    int attesters = 0;
+    for (SlotNumber slot :
+        spec.compute_start_slot_at_epoch(epoch)
+            .iterateTo(spec.compute_start_slot_at_epoch(epoch.increment()))) {
+      MutableBeaconState slotState = state.createMutableCopy();
+      slotState.setSlot(slot);
+      ValidatorIndex proposer = spec.get_beacon_proposer_index(slotState);
+      SlotNumber proposalSlot = duties.getDuty(proposer).get().getProposalSlot().get();
+      assertTrue(proposalSlot.lessEqual(slot));
+
+      for (UInt64 i : UInt64s.iterate(UInt64.ZERO, spec.get_committee_count_at_slot(state, slot))) {
+        CommitteeIndex committeeIndex = new CommitteeIndex(i);
+        for (ValidatorIndex index : spec.get_beacon_committee(state, slot, committeeIndex)) {
+          BLSPubkey pubkey = state.getValidators().get(index).getPubKey();
+          EpochDuties.ValidatorDuty duty = duties.getDuty(pubkey).get();
+          assertEquals(index, duty.getValidatorIndex());
+          assertEquals(slot, duty.getAttestationSlot());
+          assertEquals(committeeIndex, duty.getCommitteeIndex());
+          attesters += 1;
+        }
+      }
+    }
+    assertEquals(VALIDATOR_COUNT, attesters);
+    assertFalse(duties.getDuty(BLSPubkey.wrap(Bytes48.random(new Random(2)))).isPresent());
+  }
+
+  @Test
+  public void invalidatedBySeedChange() {
+    MutableBeaconState state = createState(new Random(1));
+    EpochNumber current = spec.get_current_epoch(state);
+    EpochDuties currentDuties = EpochDuties.compute(spec, state, current);
+    EpochDuties nextDuties = EpochDuties.compute(spec, state, current.increment());
+    assertTrue(currentDuties.isValidFor(spec, state));
+    assertTrue(nextDuties.isValidFor(spec, state));
+
+    // next epoch duties are recomputed once its state is seen
+    MutableBeaconState nextEpochState = state.createMutableCopy();
+    nextEpochState.setSlot(spec.compute_start_slot_at_epoch(current.increment()));
+    assertFalse(nextDuties.isValidFor(spec, nextEpochState));
+
+    // reorg replaced randao mix which seeds are derived from
+    for (EpochNumber epoch : EpochNumber.ZERO.iterateTo(constants.getEpochsPerHistoricalVector())) {
+      state.getRandaoMixes().set(epoch, Hash32.random(new Random(3)));
+    }
+    assertFalse(currentDuties.isValidFor(spec, state));
+  }
+
+  @Test
+  public void invalidatedByReorgOfPreviousEpochEnd() {
+    MutableBeaconState state = createState(new Random(1));
+    EpochNumber current = spec.get_current_epoch(state);
+    EpochDuties duties = EpochDuties.compute(spec, state, current);
+    assertTrue(duties.isValidFor(spec, state));
+
+    // reorg keeps the randao mix but replaces the block the epoch transition was applied on
+    SlotNumber lastSlot = spec.compute_start_slot_at_epoch(current).decrement();
+    state
+        .getBlockRoots()
+        .set(lastSlot.modulo(constants.getSlotsPerHistoricalRoot()), Hash32.random(new Random(4)));
+    assertFalse(duties.isValidFor(spec, state));
+  }
+}
@@ -12,6 +12,7 @@ import org.ethereum.beacon.core.types.BLSSignature;
 import org.ethereum.beacon.core.types.CommitteeIndex;
 import org.ethereum.beacon.core.types.SlotNumber;
 import org.ethereum.beacon.core.types.ValidatorIndex;
+import org.ethereum.beacon.schedulers.Schedulers;
 import org.ethereum.beacon.validator.api.model.BlockData;
 import org.ethereum.beacon.validator.api.model.ForkResponse;
 import org.ethereum.beacon.validator.api.model.SyncingResponse;
@@ -52,6 +53,7 @@ public class ValidatorRestTest {
     return new ValidatorRest(
         SERVER_PORT,
         SPEC,
+        Schedulers.createDefault(),
         ServiceFactory.createObservableStateProcessor(CONSTANTS),
         ServiceFactory.createPeerManagerWithSubMirror(),
         ServiceFactory.createSyncManagerSyncNotStarted(),
@@ -64,6 +66,7 @@ public class ValidatorRestTest {
     return new ValidatorRest(
         SERVER_PORT,
         SPEC,
+        Schedulers.createDefault(),
         ServiceFactory.createObservableStateProcessor(CONSTANTS),
         ServiceFactory.createPeerManagerWithSubMirror(),
         ServiceFactory.createSyncManagerSyncStarted(),
@@ -76,6 +79,7 @@ public class ValidatorRestTest {
     return new ValidatorRest(
         SERVER_PORT,
         SPEC,
+        Schedulers.createDefault(),
         ServiceFactory.createObservableStateProcessor(CONSTANTS),
         ServiceFactory.createPeerManagerWithSubMirror(),
         ServiceFactory.createSyncManagerShortSync(),
@@ -104,6 +108,7 @@ public class ValidatorRestTest {
         new ValidatorRest(
             SERVER_PORT,
             SPEC,
+            Schedulers.createDefault(),
             ServiceFactory.createObservableStateProcessorGenesisTimeModifiedTo10(CONSTANTS),
             ServiceFactory.createPeerManagerWithSubMirror(),
             ServiceFactory.createSyncManagerSyncNotStarted(),
@@ -177,6 +182,7 @@ public class ValidatorRestTest {
         new ValidatorRest(
             SERVER_PORT,
             SPEC,
+            Schedulers.createDefault(),
             ServiceFactory.createObservableStateProcessorWithValidators(blsPubkey, CONSTANTS),
             ServiceFactory.createPeerManagerWithSubMirror(),
             ServiceFactory.createSyncManagerShortSync(),
@@ -213,6 +219,7 @@ public class ValidatorRestTest {
         new ValidatorRest(
             SERVER_PORT,
             SPEC,
+            Schedulers.createDefault(),
             ServiceFactory.createObservableStateProcessor(CONSTANTS),
             ServiceFactory.createPeerManagerWithSubMirror(),
             ServiceFactory.createSyncManagerShortSync(),
@@ -250,6 +257,7 @@ public class ValidatorRestTest {
         new ValidatorRest(
             SERVER_PORT,
             SPEC,
+            Schedulers.createDefault(),
             ServiceFactory.createObservableStateProcessor(CONSTANTS),
             peerManager,
             ServiceFactory.createSyncManagerShortSync(),
@@ -303,6 +311,7 @@ public class ValidatorRestTest {
         new ValidatorRest(
             SERVER_PORT,
             SPEC,
+            Schedulers.createDefault(),
             ServiceFactory.createObservableStateProcessor(CONSTANTS),
             ServiceFactory.createPeerManagerWithSubMirror(),
             ServiceFactory.createSyncManagerShortSync(),
@@ -343,6 +352,7 @@ public class ValidatorRestTest {
         new ValidatorRest(
             SERVER_PORT,
             SPEC,
+            Schedulers.createDefault(),
             ServiceFactory.createObservableStateProcessorWithValidators(
                 BLSPubkey.fromHexString(pubKey), CONSTANTS),
             peerManager,
@@ -1,6 +1,7 @@
 package org.ethereum.beacon.wire.impl.libp2p.encoding;
 
 import io.netty.buffer.ByteBuf;
+import java.nio.ByteBuffer;
 import org.ethereum.beacon.ssz.SSZSerializer;
 import org.ethereum.beacon.wire.exceptions.WireRpcMalformedException;
 import org.ethereum.beacon.wire.exceptions.WireRpcRemoteError;
@@ -43,9 +44,19 @@ public class SSZMessageCodec<TRequest, TResponse> implements RpcMessageCodec<TRe
   }
 
   private void serializeMsg(Object msg, ByteBuf buf) {
-    byte[] msgBytes = sszSerializer.encode(msg);
-    Util.writeRawVarint32(buf, msgBytes.length);
-    buf.writeBytes(msgBytes);
+    int msgSize = sszSerializer.getEncodedSize(msg, msg.getClass());
+    Util.writeRawVarint32(buf, msgSize);
+    buf.ensureWritable(msgSize);
+    if (buf.nioBufferCount() == 1) {
+      // serialize right into the buffer memory
+      int writerIndex = buf.writerIndex();
+      sszSerializer.encode(msg, msg.getClass(), buf.nioBuffer(writerIndex, msgSize), msgSize);
+      buf.writerIndex(writerIndex + msgSize);
+    } else {
+      byte[] bytes = new byte[msgSize];
+      sszSerializer.encode(msg, msg.getClass(), ByteBuffer.wrap(bytes), msgSize);
+      buf.writeBytes(bytes);
+    }
   }
 
   private <TMessage> TMessage deserializeMsg(ByteBuf buf, Class<TMessage> clazz) {
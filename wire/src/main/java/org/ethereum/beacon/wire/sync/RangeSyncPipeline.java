@@ -0,0 +1,277 @@
+package org.ethereum.beacon.wire.sync;
+
+import static org.ethereum.beacon.core.spec.SignatureDomains.BEACON_ATTESTER;
+import static org.ethereum.beacon.core.spec.SignatureDomains.BEACON_PROPOSER;
+import static org.ethereum.beacon.core.spec.SignatureDomains.RANDAO;
+import static org.ethereum.beacon.core.spec.SignatureDomains.VOLUNTARY_EXIT;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.ethereum.beacon.consensus.BeaconChainSpec;
+import org.ethereum.beacon.core.BeaconBlock;
+import org.ethereum.beacon.core.BeaconBlockBody;
+import org.ethereum.beacon.core.BeaconBlockHeader;
+import org.ethereum.beacon.core.BeaconState;
+import org.ethereum.beacon.core.operations.Attestation;
+import org.ethereum.beacon.core.operations.ProposerSlashing;
+import org.ethereum.beacon.core.operations.VoluntaryExit;
+import org.ethereum.beacon.core.operations.attestation.AttestationData;
+import org.ethereum.beacon.core.operations.slashing.AttesterSlashing;
+import org.ethereum.beacon.core.operations.slashing.IndexedAttestation;
+import org.ethereum.beacon.core.spec.SpecConstants;
+import org.ethereum.beacon.core.types.BLSSignature;
+import org.ethereum.beacon.core.types.EpochNumber;
+import org.ethereum.beacon.core.types.SlotNumber;
+import org.ethereum.beacon.crypto.BLS381;
+import org.ethereum.beacon.crypto.MessageParameters;
+import org.ethereum.beacon.crypto.bls.codec.Validator;
+import org.ethereum.beacon.schedulers.Scheduler;
+import org.ethereum.beacon.wire.Feedback;
+import org.ethereum.beacon.wire.WireApiSync;
+import org.ethereum.beacon.wire.exceptions.WireInvalidConsensusDataException;
+import org.ethereum.beacon.wire.message.payload.BlockHeadersRequestMessage;
+import org.ethereum.beacon.wire.message.payload.BlockRequestMessage;
+import org.ethereum.beacon.wire.sync.SyncQueue.BlockRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.pegasys.artemis.ethereum.core.Hash32;
+import tech.pegasys.artemis.util.uint.UInt64;
+
+/**
+ * Downloads blocks requested by {@link SyncQueue} and prepares them for import.
+ *
+ * <p>Blocks pass the following stages:
+ *
+ * <ol>
+ *   <li>slot range of each request is split into smaller ranges which are requested concurrently,
+ *       {@link WireApiSyncRouter} routes them to different peers;
+ *   <li>responses are reassembled in the order of slot ranges;
+ *   <li>responses are pre-verified in parallel on the worker scheduler: block roots are computed
+ *       and cached by blocks, signatures are checked to be well-formed G2 points and their
+ *       messages are mapped to G2 with {@link BLS381#getMessageCache()}, so, the import thread
+ *       finds them in the cache.
+ * </ol>
+ *
+ * Each stage is bounded by the number of ranges it could hold, hence, a slow consumer holds back
+ * downloading.
+ *
+ * <p>Pre-verification doesn't depend on the state a block is applied to. Signing domains are
+ * taken from a recent state, if a fork happens in between, mapped messages are just not used.
+ * Signature check itself requires public keys of the proposer and of the attesters which are known
+ * only when the pre-state is computed, thus, it's left to the state transition.
+ */
+public class RangeSyncPipeline {
+  private static final Logger logger = LogManager.getLogger(RangeSyncPipeline.class);
+
+  private final BeaconChainSpec spec;
+  private final WireApiSync syncApi;
+  private final Supplier<BeaconState> recentState;
+  private final Scheduler workers;
+  private final int maxConcurrentRequests;
+  private final int maxConcurrentPreVerifications;
+  private final int rangeSize;
+
+  /**
+   * @param spec spec instance.
+   * @param syncApi api to download blocks with.
+   * @param recentState supplies a recent state which signing domains are computed upon.
+   * @param workers scheduler which runs pre-verification.
+   * @param maxConcurrentRequests number of slot ranges downloaded concurrently.
+   * @param maxConcurrentPreVerifications number of slot ranges pre-verified concurrently.
+   * @param rangeSize maximum number of slots requested at once.
+   */
+  public RangeSyncPipeline(
+      BeaconChainSpec spec,
+      WireApiSync syncApi,
+      Supplier<BeaconState> recentState,
+      Scheduler workers,
+      int maxConcurrentRequests,
+      int maxConcurrentPreVerifications,
+      int rangeSize) {
+    this.spec = spec;
+    this.syncApi = syncApi;
+    this.recentState = recentState;
+    this.workers = workers;
+    this.maxConcurrentRequests = maxConcurrentRequests;
+    this.maxConcurrentPreVerifications = maxConcurrentPreVerifications;
+    this.rangeSize = rangeSize;
+  }
+
+  /**
+   * @param constants spec constants.
+   * @return maximum number of signed messages a block could have, each of them is mapped to
+   *     {@link BLS381#getMessageCache()} by pre-verification.
+   */
+  public static int getMaxMessagesPerBlock(SpecConstants constants) {
+    // block and randao reveal, two headers per proposer slashing, two attestations per
+    // attester slashing
+    return 2
+        + 2 * constants.getMaxProposerSlashings()
+        + 2 * constants.getMaxAttesterSlashings()
+        + constants.getMaxAttestations()
+        + constants.getMaxVoluntaryExits();
+  }
+
+  /**
+   * Builds the pipeline.
+   *
+   * @param requests requests of {@link SyncQueue}.
+   * @return downloaded and pre-verified blocks, in the order of requests.
+   */
+  public Flux<Feedback<List<BeaconBlock>>> process(Flux<BlockRequest> requests) {
+    return requests
+        .concatMapIterable(this::split)
+        .flatMapSequential(this::download, maxConcurrentRequests, 1)
+        .flatMapSequential(
+            blocks ->
+                Mono.fromCallable(() -> preVerify(blocks))
+                    .subscribeOn(workers.toReactor())
+                    .onErrorResume(
+                        t -> {
+                          // blocks are verified by the state transition anyway
+                          logger.warn("Failed to pre-verify blocks: " + t);
+                          logger.debug(t);
+                          return Mono.just(blocks);
+                        }),
+            maxConcurrentPreVerifications,
+            1);
+  }
+
+  /** Splits forward slot range requests into ranges of at most {@link #rangeSize} slots. */
+  List<BlockRequestMessage> split(BlockRequest request) {
+    long count = request.getMaxCount().getValue();
+    long step = Math.max(1, request.getStep().getValue());
+    if (request.isReverse()
+        || request.getStartRoot().isPresent()
+        || !request.getStartSlot().isPresent()
+        || count <= rangeSize) {
+      return Collections.singletonList(toMessage(request));
+    }
+
+    List<BlockRequestMessage> ranges = new ArrayList<>();
+    SlotNumber slot = request.getStartSlot().get();
+    for (long offset = 0; offset < count; offset += rangeSize) {
+      long rangeCount = Math.min(rangeSize, count - offset);
+      ranges.add(
+          new BlockRequestMessage(
+              BlockHeadersRequestMessage.NULL_START_ROOT,
+              slot,
+              UInt64.valueOf(rangeCount),
+              request.getStep()));
+      slot = slot.plus(rangeCount * step);
+    }
+    return ranges;
+  }
+
+  private BlockRequestMessage toMessage(BlockRequest request) {
+    return new BlockRequestMessage(
+        request.getStartRoot().orElse(BlockHeadersRequestMessage.NULL_START_ROOT),
+        request.getStartSlot().orElse(BlockHeadersRequestMessage.NULL_START_SLOT),
+        request.getMaxCount(),
+        request.getStep());
+  }
+
+  private Mono<Feedback<List<BeaconBlock>>> download(BlockRequestMessage request) {
+    return Mono.fromFuture(syncApi.requestBlocks(request, spec.getObjectHasher()))
+        .onErrorResume(
+            t -> {
+              logger.warn("SyncApi exception: " + t + ", " + request);
+              logger.debug(t);
+              return Mono.empty();
+            });
+  }
+
+  /**
+   * Pre-verifies blocks of a response, blocks starting from the first malformed one are dropped
+   * since their descendants can't be imported anyway.
+   */
+  Feedback<List<BeaconBlock>> preVerify(Feedback<List<BeaconBlock>> response) {
+    BeaconState state = recentState.get();
+    List<BeaconBlock> blocks = response.get();
+    for (int i = 0; i < blocks.size(); i++) {
+      if (!preVerify(blocks.get(i), state)) {
+        response.feedbackError(
+            new WireInvalidConsensusDataException("Malformed block: " + blocks.get(i)));
+        return response.delegate(new ArrayList<>(blocks.subList(0, i)));
+      }
+    }
+    return response;
+  }
+
+  private boolean preVerify(BeaconBlock block, BeaconState state) {
+    // block root is cached by the block instance
+    spec.hash_tree_root(block);
+    if (!spec.isBlsVerify()) {
+      return true;
+    }
+
+    EpochNumber epoch = spec.compute_epoch_at_slot(block.getSlot());
+    if (!prepare(
+            block.getSignature(),
+            spec.signing_root(block),
+            spec.get_domain(state, BEACON_PROPOSER, epoch))
+        || !prepare(
+            block.getBody().getRandaoReveal(),
+            spec.hash_tree_root(epoch),
+            spec.get_domain(state, RANDAO, epoch))) {
+      return false;
+    }
+
+    BeaconBlockBody body = block.getBody();
+    for (ProposerSlashing slashing : body.getProposerSlashings()) {
+      if (!prepare(slashing.getHeader1(), state) || !prepare(slashing.getHeader2(), state)) {
+        return false;
+      }
+    }
+    for (AttesterSlashing slashing : body.getAttesterSlashings()) {
+      if (!prepare(slashing.getAttestation1(), state)
+          || !prepare(slashing.getAttestation2(), state)) {
+        return false;
+      }
+    }
+    for (Attestation attestation : body.getAttestations()) {
+      if (!prepare(attestation.getSignature(), attestation.getData(), state)) {
+        return false;
+      }
+    }
+    for (VoluntaryExit exit : body.getVoluntaryExits()) {
+      if (!prepare(
+          exit.getSignature(),
+          spec.signing_root(exit),
+          spec.get_domain(state, VOLUNTARY_EXIT, exit.getEpoch()))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean prepare(BeaconBlockHeader header, BeaconState state) {
+    return prepare(
+        header.getSignature(),
+        spec.signing_root(header),
+        spec.get_domain(state, BEACON_PROPOSER, spec.compute_epoch_at_slot(header.getSlot())));
+  }
+
+  private boolean prepare(IndexedAttestation attestation, BeaconState state) {
+    return prepare(attestation.getSignature(), attestation.getData(), state);
+  }
+
+  private boolean prepare(BLSSignature signature, AttestationData data, BeaconState state) {
+    return prepare(
+        signature,
+        spec.hash_tree_root(data),
+        spec.get_domain(state, BEACON_ATTESTER, data.getTarget().getEpoch()));
+  }
+
+  private boolean prepare(BLSSignature signature, Hash32 message, UInt64 domain) {
+    if (!Validator.G2.validate(signature).isValid()) {
+      return false;
+    }
+    BLS381.getMessageCache().map(MessageParameters.create(message, domain));
+    return true;
+  }
+}
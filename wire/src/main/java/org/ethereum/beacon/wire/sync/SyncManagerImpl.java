@@ -1,6 +1,7 @@
 package org.ethereum.beacon.wire.sync;
 
 import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static org.ethereum.beacon.chain.MutableBeaconChain.ImportResult.ExistingBlock;
 import static org.ethereum.beacon.chain.MutableBeaconChain.ImportResult.ExpiredBlock;
 import static org.ethereum.beacon.chain.MutableBeaconChain.ImportResult.InvalidBlock;
@@ -26,20 +27,18 @@ import org.ethereum.beacon.consensus.BeaconChainSpec;
 import org.ethereum.beacon.core.BeaconBlock;
 import org.ethereum.beacon.core.BeaconState;
 import org.ethereum.beacon.core.types.SlotNumber;
+import org.ethereum.beacon.crypto.BLS381;
 import org.ethereum.beacon.schedulers.Scheduler;
 import org.ethereum.beacon.schedulers.Schedulers;
 import org.ethereum.beacon.stream.SimpleProcessor;
 import org.ethereum.beacon.wire.Feedback;
 import org.ethereum.beacon.wire.WireApiSync;
 import org.ethereum.beacon.wire.exceptions.WireInvalidConsensusDataException;
-import org.ethereum.beacon.wire.message.payload.BlockHeadersRequestMessage;
-import org.ethereum.beacon.wire.message.payload.BlockRequestMessage;
 import org.ethereum.beacon.wire.sync.SyncQueue.BlockRequest;
 import org.reactivestreams.Publisher;
 import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.FluxSink;
-import reactor.core.publisher.Mono;
 import tech.pegasys.artemis.ethereum.core.Hash32;
 import tech.pegasys.artemis.util.uint.UInt64s;
 
@@ -47,10 +46,19 @@ public class SyncManagerImpl implements SyncManager {
 
   private static final Logger logger = LogManager.getLogger(SyncManagerImpl.class);
 
+  public static final int DEFAULT_MAX_CONCURRENT_BLOCK_REQUESTS = 2;
+  public static final int DEFAULT_PRE_VERIFICATION_THREADS =
+      max(1, Runtime.getRuntime().availableProcessors() / 2);
+  public static final int DEFAULT_IMPORT_BUFFER_SIZE = 4;
+  /** Upper bound the BLS message cache is grown to during sync. */
+  static final int MAX_MESSAGE_CACHE_CAPACITY = 1 << 15;
+
+  private final MutableBeaconChain chain;
   private final Publisher<BeaconTupleDetails> blockStatesStream;
   private final BeaconChainSpec spec;
   private final WireApiSync syncApi;
   private final SyncQueue syncQueue;
+  private final Schedulers schedulers;
   private final ModeDetector modeDetector;
   private final Flux<SyncMode> syncModeFlux;
   private final SimpleProcessor<Boolean> isSyncingProcessor;
@@ -60,13 +68,18 @@ public class SyncManagerImpl implements SyncManager {
   Flux<BlockRequest> blockRequestFlux;
   Flux<BeaconBlock> finalizedBlockStream;
   // TODO: make this parameter dynamic depending on active peers number
-  int maxConcurrentBlockRequests = 2;
+  int maxConcurrentBlockRequests = DEFAULT_MAX_CONCURRENT_BLOCK_REQUESTS;
   private Publisher<Feedback<BeaconBlock>> newBlocks;
   private Disposable wireBlocksStreamSub;
   private Disposable finalizedBlockStreamSub;
   private Disposable readyBlocksStreamSub;
   private Duration requestsDelayLongMode = Duration.ZERO;
   private Duration requestsDelayShortMode = Duration.ofSeconds(1);
+  private int rangeSize;
+  private int preVerificationThreads = DEFAULT_PRE_VERIFICATION_THREADS;
+  private int importBufferSize = DEFAULT_IMPORT_BUFFER_SIZE;
+  private Scheduler preVerificationScheduler;
+  private Scheduler importScheduler;
 
   public SyncManagerImpl(
       MutableBeaconChain chain,
@@ -78,12 +91,15 @@ public class SyncManagerImpl implements SyncManager {
       int maxConcurrentBlockRequests,
       Schedulers schedulers) {
 
+    this.chain = chain;
     this.blockStatesStream = chain.getBlockStatesStream();
     this.newBlocks = newBlocks;
     this.spec = spec;
     this.syncApi = syncApi;
     this.syncQueue = syncQueue;
     this.maxConcurrentBlockRequests = maxConcurrentBlockRequests;
+    this.schedulers = schedulers;
+    this.rangeSize = spec.getConstants().getSlotsPerEpoch().intValue();
 
     modeDetector =
         new ModeDetector(
@@ -172,27 +188,55 @@ public class SyncManagerImpl implements SyncManager {
     this.requestsDelayShortMode = shortMode;
   }
 
+  /**
+   * Sets parameters of {@link RangeSyncPipeline}. Should be called before {@link #start()}. If BLS
+   * verification is enabled, pre-verification concurrency and import buffer could be reduced to
+   * let messages of the ranges fit {@link #MAX_MESSAGE_CACHE_CAPACITY}.
+   *
+   * @param rangeSize maximum number of slots requested from a single peer at once.
+   * @param preVerificationThreads number of threads pre-verifying downloaded blocks.
+   * @param importBufferSize number of downloaded slot ranges buffered ahead of the import.
+   */
+  public void setRangeSyncParameters(
+      int rangeSize, int preVerificationThreads, int importBufferSize) {
+    this.rangeSize = rangeSize;
+    this.preVerificationThreads = preVerificationThreads;
+    this.importBufferSize = importBufferSize;
+  }
+
   @Override
   public void start() {
 
     finalizedBlockStreamSub = syncQueue.subscribeToFinalBlocks(finalizedBlockStream);
 
+    // messages mapped by pre-verification are useful while they are in the cache, hence, ranges
+    // which are being pre-verified, buffered and imported are bounded by the cache capacity
+    int preVerifications = preVerificationThreads;
+    int bufferSize = importBufferSize;
+    if (spec.isBlsVerify()) {
+      int messagesPerRange =
+          rangeSize * RangeSyncPipeline.getMaxMessagesPerBlock(spec.getConstants());
+      int maxRanges = max(3, MAX_MESSAGE_CACHE_CAPACITY / messagesPerRange);
+      preVerifications = min(preVerifications, maxRanges - 2);
+      bufferSize = min(bufferSize, maxRanges - preVerifications - 1);
+      BLS381.getMessageCache()
+          .ensureCapacity((preVerifications + bufferSize + 1) * messagesPerRange);
+    }
+
+    preVerificationScheduler =
+        schedulers.newParallelDaemon("sync-pre-verifier-%d", preVerifications);
+    importScheduler = schedulers.newSingleThreadDaemon("sync-import");
+    RangeSyncPipeline rangeSyncPipeline =
+        new RangeSyncPipeline(
+            spec,
+            syncApi,
+            () -> chain.getRecentlyProcessed().getState(),
+            preVerificationScheduler,
+            maxConcurrentBlockRequests,
+            preVerifications,
+            rangeSize);
     Flux<Feedback<List<BeaconBlock>>> wireBlocksStream =
-        blockRequestFlux
-            .map(
-                req ->
-                    new BlockRequestMessage(
-                        req.getStartRoot().orElse(BlockHeadersRequestMessage.NULL_START_ROOT),
-                        req.getStartSlot().orElse(BlockHeadersRequestMessage.NULL_START_SLOT),
-                        req.getMaxCount(),
-                        req.getStep()))
-            .flatMap(
-                req -> Mono.fromFuture(syncApi.requestBlocks(req, spec.getObjectHasher())),
-                maxConcurrentBlockRequests)
-            .onErrorContinue((t, o) -> {
-              logger.warn("SyncApi exception: " + t + ", " + o);
-              logger.debug(t);
-            });
+        rangeSyncPipeline.process(blockRequestFlux);
 
     if (newBlocks != null) {
       wireBlocksStream =
@@ -200,16 +244,29 @@ public class SyncManagerImpl implements SyncManager {
               Flux.from(newBlocks).map(blockF -> blockF.map(Collections::singletonList)));
     }
 
-    wireBlocksStreamSub = syncQueue.subscribeToNewBlocks(wireBlocksStream);
+    // blocks are imported synchronously by the queue, the bounded buffer holds back the pipeline
+    wireBlocksStreamSub =
+        syncQueue.subscribeToNewBlocks(
+            wireBlocksStream.publishOn(importScheduler.toReactor(), bufferSize));
 
     isSyncingProcessor.onNext(true);
   }
 
   @Override
   public void stop() {
-    wireBlocksStreamSub.dispose();
-    finalizedBlockStreamSub.dispose();
+    if (wireBlocksStreamSub != null) {
+      wireBlocksStreamSub.dispose();
+    }
+    if (finalizedBlockStreamSub != null) {
+      finalizedBlockStreamSub.dispose();
+    }
     readyBlocksStreamSub.dispose();
+    if (preVerificationScheduler != null) {
+      preVerificationScheduler.stop();
+    }
+    if (importScheduler != null) {
+      importScheduler.stop();
+    }
     isSyncingProcessor.onNext(false);
   }
 
@@ -0,0 +1,184 @@
+package org.ethereum.beacon.wire.sync;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.ethereum.beacon.consensus.BeaconChainSpec;
+import org.ethereum.beacon.consensus.hasher.ObjectHasher;
+import org.ethereum.beacon.core.BeaconBlock;
+import org.ethereum.beacon.core.BeaconBlockBody;
+import org.ethereum.beacon.core.BeaconState;
+import org.ethereum.beacon.core.spec.SpecConstants;
+import org.ethereum.beacon.core.types.BLSSignature;
+import org.ethereum.beacon.core.types.SlotNumber;
+import org.ethereum.beacon.schedulers.Scheduler;
+import org.ethereum.beacon.schedulers.Schedulers;
+import org.ethereum.beacon.wire.Feedback;
+import org.ethereum.beacon.wire.WireApiSync;
+import org.ethereum.beacon.wire.message.payload.BlockRequestMessage;
+import org.ethereum.beacon.wire.sync.SyncQueue.BlockRequest;
+import org.junit.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import tech.pegasys.artemis.ethereum.core.Hash32;
+
+public class RangeSyncPipelineTest {
+
+  private final SpecConstants constants = BeaconChainSpec.DEFAULT_CONSTANTS;
+  private final Scheduler workers =
+      Schedulers.createDefault().newParallelDaemon("range-sync-test-%d", 2);
+
+  private BeaconChainSpec createSpec(boolean blsVerify) {
+    return new BeaconChainSpec.Builder()
+        .withConstants(constants)
+        .withDefaultHashFunction()
+        .withDefaultHasher()
+        .withBlsVerify(blsVerify)
+        .build();
+  }
+
+  private BeaconBlock createBlock(SlotNumber slot) {
+    return new BeaconBlock(
+        slot, Hash32.ZERO, Hash32.ZERO, BeaconBlockBody.getEmpty(constants), BLSSignature.ZERO);
+  }
+
+  static class PendingWireApiSync implements WireApiSync {
+    final List<BlockRequestMessage> requests = Collections.synchronizedList(new ArrayList<>());
+    final List<CompletableFuture<Feedback<List<BeaconBlock>>>> responses =
+        Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public CompletableFuture<Feedback<List<BeaconBlock>>> requestBlocks(
+        BlockRequestMessage requestMessage, ObjectHasher<Hash32> hasher) {
+      CompletableFuture<Feedback<List<BeaconBlock>>> response = new CompletableFuture<>();
+      requests.add(requestMessage);
+      responses.add(response);
+      return response;
+    }
+  }
+
+  @Test(timeout = 10000)
+  public void reassemblesRangesInOrder() throws Exception {
+    BeaconChainSpec spec = createSpec(false);
+    PendingWireApiSync syncApi = new PendingWireApiSync();
+    RangeSyncPipeline pipeline =
+        new RangeSyncPipeline(
+            spec, syncApi, () -> BeaconState.getEmpty(constants), workers, 4, 2, 4);
+
+    CompletableFuture<List<Feedback<List<BeaconBlock>>>> result =
+        pipeline
+            .process(Flux.just(new BlockRequest(SlotNumber.of(10), null, 16, false, 0)))
+            .collectList()
+            .toFuture();
+
+    assertEquals(4, syncApi.requests.size());
+    for (int i = 0; i < 4; i++) {
+      assertEquals(SlotNumber.of(10 + i * 4), syncApi.requests.get(i).getStartSlot());
+      assertEquals(4, syncApi.requests.get(i).getCount().intValue());
+    }
+
+    // the last range comes first
+    for (int i = 3; i >= 0; i--) {
+      SlotNumber start = syncApi.requests.get(i).getStartSlot();
+      syncApi
+          .responses
+          .get(i)
+          .complete(
+              Feedback.of(Arrays.asList(createBlock(start), createBlock(start.increment()))));
+    }
+
+    List<BeaconBlock> blocks =
+        result.get(5, TimeUnit.SECONDS).stream()
+            .flatMap(response -> response.get().stream())
+            .collect(Collectors.toList());
+    assertEquals(8, blocks.size());
+    for (int i = 1; i < blocks.size(); i++) {
+      assertTrue(blocks.get(i - 1).getSlot().less(blocks.get(i).getSlot()));
+    }
+    // block roots are computed ahead of the import
+    assertTrue(blocks.stream().allMatch(block -> block.getHash().isPresent()));
+  }
+
+  private void respondPending(PendingWireApiSync syncApi) throws InterruptedException {
+    List<CompletableFuture<Feedback<List<BeaconBlock>>>> responses;
+    synchronized (syncApi.responses) {
+      responses = new ArrayList<>(syncApi.responses);
+    }
+    responses.forEach(response -> response.complete(Feedback.of(Collections.emptyList())));
+    // let pre-verification workers pass responses further
+    Thread.sleep(10);
+  }
+
+  @Test(timeout = 10000)
+  public void slowConsumerHoldsBackDownloading() throws Exception {
+    BeaconChainSpec spec = createSpec(false);
+    PendingWireApiSync syncApi = new PendingWireApiSync();
+    RangeSyncPipeline pipeline =
+        new RangeSyncPipeline(
+            spec, syncApi, () -> BeaconState.getEmpty(constants), workers, 2, 1, 4);
+
+    List<Feedback<List<BeaconBlock>>> received = Collections.synchronizedList(new ArrayList<>());
+    BaseSubscriber<Feedback<List<BeaconBlock>>> consumer =
+        new BaseSubscriber<Feedback<List<BeaconBlock>>>() {
+          @Override
+          protected void hookOnSubscribe(Subscription subscription) {
+            request(1);
+          }
+
+          @Override
+          protected void hookOnNext(Feedback<List<BeaconBlock>> value) {
+            received.add(value);
+          }
+        };
+    // 100 ranges of 4 slots
+    pipeline
+        .process(Flux.just(new BlockRequest(SlotNumber.of(0), null, 400, false, 0)))
+        .subscribe(consumer);
+
+    // peers respond instantly, but the consumer takes a single range only
+    for (int i = 0; i < 20; i++) {
+      respondPending(syncApi);
+    }
+    assertEquals(1, received.size());
+    assertTrue(syncApi.requests.size() <= 8);
+
+    consumer.request(Long.MAX_VALUE);
+    while (received.size() < 100) {
+      respondPending(syncApi);
+    }
+    assertEquals(100, syncApi.requests.size());
+  }
+
+  @Test(timeout = 10000)
+  public void dropsMalformedBlocks() throws Exception {
+    BeaconChainSpec spec = createSpec(true);
+    PendingWireApiSync syncApi = new PendingWireApiSync();
+    RangeSyncPipeline pipeline =
+        new RangeSyncPipeline(
+            spec, syncApi, () -> BeaconState.getEmpty(constants), workers, 1, 1, 4);
+
+    CompletableFuture<List<Feedback<List<BeaconBlock>>>> result =
+        pipeline
+            .process(Flux.just(new BlockRequest(SlotNumber.of(1), null, 2, false, 0)))
+            .collectList()
+            .toFuture();
+
+    // zero bytes is not a valid encoding of a signature
+    Feedback<List<BeaconBlock>> response =
+        Feedback.of(Arrays.asList(createBlock(SlotNumber.of(1)), createBlock(SlotNumber.of(2))));
+    syncApi.responses.get(0).complete(response);
+
+    List<Feedback<List<BeaconBlock>>> responses = result.get(5, TimeUnit.SECONDS);
+    assertEquals(1, responses.size());
+    assertTrue(responses.get(0).get().isEmpty());
+    assertTrue(response.getFeedback().isCompletedExceptionally());
+  }
+}